@@ -0,0 +1,142 @@
+package com.paysafe.paylater.it.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.ConnectionType;
+import com.paysafe.paylater.model.OperationStatus;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Compares the throughput of {@link ConnectionType#BLOCKING} connections with a single connection pool and with a striped connection pool.
+ * <p>
+ * For each number of threads, all threads send requests to a local server using one shared communicator for a fixed amount of time,
+ * after a warm-up period. The maximum number of connections equals the number of threads, so threads only wait for the connection pool's lock,
+ * not for connections. The number of requests per second is printed to {@code System.out}.
+ * Note that the local server shares the CPUs with the client, so the absolute numbers are lower than against a remote server,
+ * and that lock contention, and therefore the effect of striping, increases with the number of available processors.
+ * <p>
+ * Run this benchmark using {@code mvn test -Dtest=ConnectionPoolBenchmark}.
+ */
+public class ConnectionPoolBenchmark {
+
+    private static final List<Integer> THREADS = Arrays.asList(8, 32, 128);
+    private static final int STRIPES = 8;
+    private static final long WARM_UP_MILLIS = 3000;
+    private static final long MEASURE_MILLIS = 5000;
+
+    private static final String PURCHASE_RESOURCE = "/com/paysafe/paylater/communication/standard/purchase.json";
+
+    @Test
+    public void testThroughput() throws Exception {
+        HttpServer server = startServer();
+        try {
+            URI apiEndpoint = URI.create("http://localhost:" + server.getAddress().getPort());
+
+            System.out.printf("%-8s %20s %20s%n", "threads", "1 stripe (req/s)", STRIPES + " stripes (req/s)");
+            for (int threads : THREADS) {
+                long unstriped = measure(apiEndpoint, threads, 1);
+                long striped = measure(apiEndpoint, threads, STRIPES);
+                System.out.printf("%-8d %20d %20d%n", threads, unstriped, striped);
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpServer startServer() throws IOException {
+        byte[] body = readResource(PURCHASE_RESOURCE);
+        // without TCP_NODELAY, each response is delayed by the client's delayed ACK, and latency instead of the connection pool is measured
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.createContext("/purchase/info/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    private static byte[] readResource(String resource) throws IOException {
+        try (InputStream inputStream = ConnectionPoolBenchmark.class.getResourceAsStream(resource)) {
+            byte[] buffer = new byte[8192];
+            int length = 0;
+            int read;
+            while ((read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    private static long measure(URI apiEndpoint, int threads, int stripes) throws Exception {
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration()
+                .withApiEndpoint(apiEndpoint)
+                .withMaxConnections(threads)
+                .withConnectionPoolStripes(stripes)
+                .withConnectionType(ConnectionType.BLOCKING);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(Factory.createCommunicator(configuration))) {
+            AtomicBoolean measuring = new AtomicBoolean();
+            AtomicBoolean stopped = new AtomicBoolean();
+            CountDownLatch started = new CountDownLatch(threads);
+
+            List<Future<Long>> results = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    started.countDown();
+                    long requests = 0;
+                    while (!stopped.get()) {
+                        OperationStatus status = api.getPurchase("1", "aSecretKey").getResult().getStatus();
+                        Assert.assertEquals(OperationStatus.OK, status);
+                        if (measuring.get()) {
+                            requests++;
+                        }
+                    }
+                    return requests;
+                }));
+            }
+            started.await();
+            Thread.sleep(WARM_UP_MILLIS);
+            measuring.set(true);
+            long startTime = System.nanoTime();
+            Thread.sleep(MEASURE_MILLIS);
+            stopped.set(true);
+            long duration = System.nanoTime() - startTime;
+
+            long requests = 0;
+            for (Future<Long> result : results) {
+                requests += result.get();
+            }
+            return requests * TimeUnit.SECONDS.toNanos(1) / duration;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.paysafe.paylater.it.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.ConnectionType;
+import com.paysafe.paylater.model.OperationStatus;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Compares the startup footprint of the {@link ConnectionType#BLOCKING} and {@link ConnectionType#JDK} connection types.
+ * <p>
+ * For each connection type, a number of new JVMs are started that each create a communicator using {@link Factory} and send a single request
+ * to a local server. Each JVM reports the time until the first response was received, both since the communicator was created and since the JVM
+ * was started, and the number of classes that were loaded to do so. The medians are printed to {@code System.out}.
+ * Note that the number of loaded classes includes JDK classes, which are often loaded from the class data sharing archive and are therefore
+ * cheaper to load than classes from the class path.
+ * <p>
+ * Run this benchmark with Java 11 or later using {@code mvn test -Dtest=StartupBenchmark}.
+ */
+public class StartupBenchmark {
+
+    private static final int RUNS = 5;
+    private static final List<ConnectionType> CONNECTION_TYPES = Arrays.asList(ConnectionType.BLOCKING, ConnectionType.JDK);
+
+    private static final String PURCHASE_RESOURCE = "/com/paysafe/paylater/communication/standard/purchase.json";
+
+    @Test
+    public void testStartup() throws Exception {
+        Class<?> httpClientClass;
+        try {
+            httpClientClass = Class.forName("java.net.http.HttpClient");
+        } catch (@SuppressWarnings("unused") ClassNotFoundException e) {
+            httpClientClass = null;
+        }
+        Assume.assumeNotNull(httpClientClass);
+
+        HttpServer server = startServer();
+        try {
+            URI apiEndpoint = URI.create("http://localhost:" + server.getAddress().getPort());
+
+            System.out.printf("%-10s %22s %22s %16s%n", "connection", "first request (ms)", "JVM uptime (ms)", "loaded classes");
+            for (ConnectionType connectionType : CONNECTION_TYPES) {
+                List<Long> firstRequestTimes = new ArrayList<>();
+                List<Long> uptimes = new ArrayList<>();
+                List<Long> loadedClasses = new ArrayList<>();
+                for (int i = 0; i < RUNS; i++) {
+                    long[] result = fork(connectionType, apiEndpoint);
+                    firstRequestTimes.add(result[0]);
+                    uptimes.add(result[1]);
+                    loadedClasses.add(result[2]);
+                }
+                System.out.printf("%-10s %22d %22d %16d%n", connectionType, median(firstRequestTimes), median(uptimes), median(loadedClasses));
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpServer startServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/purchase/info/", exchange -> {
+            byte[] body = readResource(PURCHASE_RESOURCE);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static byte[] readResource(String resource) throws IOException {
+        try (InputStream inputStream = StartupBenchmark.class.getResourceAsStream(resource)) {
+            byte[] buffer = new byte[8192];
+            int length = 0;
+            int read;
+            while ((read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    private static long[] fork(ConnectionType connectionType, URI apiEndpoint) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                StartupBenchmark.class.getName(), connectionType.name(), apiEndpoint.toString())
+                .redirectErrorStream(true)
+                .start();
+
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+            }
+        }
+        Assert.assertTrue("JVM did not exit", process.waitFor(1, TimeUnit.MINUTES));
+        Assert.assertEquals("JVM failed: " + output, 0, process.exitValue());
+
+        String[] result = output.get(output.size() - 1).split(" ");
+        return new long[] { Long.parseLong(result[0]), Long.parseLong(result[1]), Long.parseLong(result[2]) };
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    /**
+     * Sends a single request using the given connection type to the given API endpoint,
+     * and prints the time until the first response, the JVM uptime and the number of classes loaded to do so.
+     */
+    public static void main(String[] args) throws Exception {
+        ConnectionType connectionType = ConnectionType.valueOf(args[0]);
+        URI apiEndpoint = URI.create(args[1]);
+
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        long loadedClassesBefore = classLoading.getTotalLoadedClassCount();
+        long startTime = System.nanoTime();
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration()
+                .withApiEndpoint(apiEndpoint)
+                .withConnectTimeout(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT)
+                .withReadTimeout(CommunicatorConfiguration.DEFAULT_READ_TIMEOUT)
+                .withMaxConnections(CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS)
+                .withConnectionType(connectionType);
+
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(Factory.createCommunicator(configuration))) {
+            PurchaseOperationResponse purchase = api.getPurchase("1", "aSecretKey");
+
+            long firstRequestTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            long loadedClasses = classLoading.getTotalLoadedClassCount() - loadedClassesBefore;
+
+            if (purchase.getResult().getStatus() != OperationStatus.OK) {
+                throw new IllegalStateException("Unexpected response: " + purchase.getResult().getStatus());
+            }
+            System.out.println(firstRequestTime + " " + uptime + " " + loadedClasses);
+        }
+    }
+}
@@ -3,14 +3,32 @@ package com.paysafe.paylater;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
+import com.paysafe.paylater.communication.CircuitBreakerPolicy;
 import com.paysafe.paylater.communication.Communicator;
 import com.paysafe.paylater.communication.CommunicatorBuilder;
 import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.ConcurrencyLimitPolicy;
 import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.ConnectionType;
+import com.paysafe.paylater.communication.EndpointRoutingPolicy;
+import com.paysafe.paylater.communication.HedgingPolicy;
+import com.paysafe.paylater.communication.standard.CircuitBreaker;
+import com.paysafe.paylater.communication.standard.CircuitBreakerConnection;
+import com.paysafe.paylater.communication.standard.ConcurrencyLimitedConnection;
+import com.paysafe.paylater.communication.standard.ConcurrencyLimiter;
+import com.paysafe.paylater.communication.standard.EndpointRoutingConnection;
+import com.paysafe.paylater.communication.standard.HedgingConnection;
 import com.paysafe.paylater.communication.standard.JsonMarshaller;
+import com.paysafe.paylater.communication.standard.PaysafeAsyncConnection;
 import com.paysafe.paylater.communication.standard.PaysafeConnection;
+import com.paysafe.paylater.communication.standard.PaysafeHttp2Connection;
+import com.paysafe.paylater.communication.standard.PaysafeJdkConnection;
+import com.paysafe.paylater.communication.standard.PaysafeNettyConnection;
+import com.paysafe.paylater.communication.standard.PaysafeVirtualThreadConnection;
 
 /**
  * Paysafe Pay Later platform factory for several SDK components.
@@ -51,13 +69,71 @@ public final class Factory {
 
         return new CommunicatorBuilder()
                 .withAPIEndpoint(configuration.getApiEndpoint())
-                .withConnection(new PaysafeConnection(
-                        configuration.getConnectTimeout(),
-                        configuration.getReadTimeout(),
-                        configuration.getMaxConnections(),
-                        configuration.getHttpsProtocols()
-                ))
-                .withMarshaller(JsonMarshaller.INSTANCE);
+                .withConnection(createConnection(configuration))
+                .withMarshaller(JsonMarshaller.INSTANCE)
+                .withRetryPolicy(configuration.getRetryPolicy())
+                .withCallTimeout(configuration.getCallTimeout())
+                .withBulkheadPolicies(configuration.getBulkheadPolicies())
+                .withRateLimitPolicy(configuration.getRateLimitPolicy())
+                .withOperationRateLimitPolicies(configuration.getOperationRateLimitPolicies())
+                .withRequestCoalescing(configuration.isRequestCoalescing());
+    }
+
+    /**
+     * Creates a {@link Connection} of the configured {@link ConnectionType} based on the passed configuration.
+     * If additional API endpoints are configured, requests are spread over all endpoints by an {@link EndpointRoutingConnection}.
+     * If a circuit breaker policy is configured, the connection is guarded by a {@link CircuitBreaker}.
+     * If a concurrency limit policy is configured, the number of requests in flight is limited by a {@link ConcurrencyLimiter}.
+     * If a hedging policy is configured, GET requests are hedged by a {@link HedgingConnection}.
+     */
+    public static Connection createConnection(CommunicatorConfiguration configuration) {
+        Connection connection = createUnguardedConnection(configuration);
+
+        // the circuit breaker and concurrency limiter see the requests to all endpoints together
+        List<URI> additionalApiEndpoints = configuration.getAdditionalApiEndpoints();
+        if (!additionalApiEndpoints.isEmpty()) {
+            List<URI> endpoints = new ArrayList<>(additionalApiEndpoints.size() + 1);
+            endpoints.add(configuration.getApiEndpoint());
+            endpoints.addAll(additionalApiEndpoints);
+            EndpointRoutingPolicy endpointRoutingPolicy = configuration.getEndpointRoutingPolicy();
+            connection = EndpointRoutingConnection.create(connection, endpoints,
+                    endpointRoutingPolicy != null ? endpointRoutingPolicy : new EndpointRoutingPolicy());
+        }
+
+        CircuitBreakerPolicy circuitBreakerPolicy = configuration.getCircuitBreakerPolicy();
+        if (circuitBreakerPolicy != null) {
+            connection = CircuitBreakerConnection.create(connection, new CircuitBreaker(circuitBreakerPolicy));
+        }
+        // the concurrency limiter comes first, so requests rejected by the circuit breaker do not count as overload
+        ConcurrencyLimitPolicy concurrencyLimitPolicy = configuration.getConcurrencyLimitPolicy();
+        if (concurrencyLimitPolicy != null) {
+            connection = ConcurrencyLimitedConnection.create(connection, new ConcurrencyLimiter(concurrencyLimitPolicy));
+        }
+        // each copy of a hedged request passes the concurrency limiter and circuit breaker
+        HedgingPolicy hedgingPolicy = configuration.getHedgingPolicy();
+        if (hedgingPolicy != null) {
+            connection = HedgingConnection.create(connection, hedgingPolicy, configuration.getMaxConnections());
+        }
+        return connection;
+    }
+
+    private static Connection createUnguardedConnection(CommunicatorConfiguration configuration) {
+
+        switch (configuration.getConnectionType()) {
+            case ASYNC:
+                return new PaysafeAsyncConnection(configuration);
+            case HTTP2:
+                return new PaysafeHttp2Connection(configuration);
+            case VIRTUAL_THREAD:
+                return new PaysafeVirtualThreadConnection(configuration);
+            case JDK:
+                return new PaysafeJdkConnection(configuration);
+            case NETTY:
+                return new PaysafeNettyConnection(configuration);
+            case BLOCKING:
+            default:
+                return new PaysafeConnection(configuration);
+        }
     }
 
     /**
@@ -3,6 +3,8 @@ package com.paysafe.paylater.api;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import com.paysafe.paylater.communication.Communicator;
 import com.paysafe.paylater.communication.RequestHeader;
@@ -11,6 +13,7 @@ import com.paysafe.paylater.exception.AuthorizationException;
 import com.paysafe.paylater.exception.PaysafeException;
 import com.paysafe.paylater.exception.ReferenceException;
 import com.paysafe.paylater.exception.ResponseException;
+import com.paysafe.paylater.exception.TooManyRequestsException;
 import com.paysafe.paylater.exception.ValidationException;
 import com.paysafe.paylater.logging.CommunicatorLogger;
 import com.paysafe.paylater.model.OperationResult;
@@ -66,6 +69,8 @@ public abstract class BaseApi implements Closeable {
             case 409:
             case 410:
                 return new ReferenceException(e, result);
+            case 429:
+                return new TooManyRequestsException(e, result);
             case 500:
             case 502:
             case 503:
@@ -75,6 +80,32 @@ public abstract class BaseApi implements Closeable {
         }
     }
 
+    /**
+     * Returns a future that is completed with the result of the given future,
+     * with any {@link ResponseException} converted using {@link #createException(ResponseException)}.
+     */
+    protected <T> CompletableFuture<T> mapExceptions(CompletableFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((response, thrown) -> {
+            if (thrown == null) {
+                result.complete(response);
+                return;
+            }
+            Throwable cause = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown;
+            try {
+                result.completeExceptionally(cause instanceof ResponseException ? createException((ResponseException) cause) : cause);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
     @Override
     public void close() throws IOException {
         this.communicator.close();
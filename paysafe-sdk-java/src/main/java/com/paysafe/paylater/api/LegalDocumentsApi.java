@@ -7,18 +7,88 @@
  */
 package com.paysafe.paylater.api;
 
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.paysafe.paylater.communication.Communicator;
 import com.paysafe.paylater.communication.HttpMethod;
 import com.paysafe.paylater.communication.RequestHeader;
 import com.paysafe.paylater.exception.ResponseException;
+import com.paysafe.paylater.model.ConditionalResponse;
+import com.paysafe.paylater.model.DownloadResponse;
 
 public class LegalDocumentsApi extends BaseApi {
 
+    private final TermsAndConditionsCache termsAndConditionsCache;
+    private final TermsAndConditionsPrefetcher termsAndConditionsPrefetcher;
+
     public LegalDocumentsApi(Communicator communicator) {
+        this(communicator, null);
+    }
+
+    /**
+     * Creates a new API that reads terms-and-conditions documents through the given cache. The cache can be shared.
+     *
+     * @param termsAndConditionsCache The cache for {@link #getTermsAndConditions(String, String)} and
+     *            {@link #getTermsAndConditionsWithAuthorization(String, String)}, and their asynchronous variants. May be {@code null}.
+     */
+    public LegalDocumentsApi(Communicator communicator, TermsAndConditionsCache termsAndConditionsCache) {
+        this(communicator, termsAndConditionsCache, null);
+    }
+
+    /**
+     * Creates a new API that reads terms-and-conditions documents through the given cache, and that can prefetch documents with the
+     * given prefetcher. The cache and the prefetcher are not closed when this API is closed, so they can be shared.
+     *
+     * @param termsAndConditionsCache The cache for {@link #getTermsAndConditions(String, String)} and
+     *            {@link #getTermsAndConditionsWithAuthorization(String, String)}, and their asynchronous variants. May be {@code null}.
+     * @param termsAndConditionsPrefetcher The prefetcher for {@link #prefetchTermsAndConditionsWithAuthorization(String, String)}.
+     *            May be {@code null}.
+     */
+    public LegalDocumentsApi(Communicator communicator, TermsAndConditionsCache termsAndConditionsCache,
+            TermsAndConditionsPrefetcher termsAndConditionsPrefetcher) {
         super(communicator);
+        this.termsAndConditionsCache = termsAndConditionsCache;
+        this.termsAndConditionsPrefetcher = termsAndConditionsPrefetcher;
+    }
+
+    /**
+     * Returns the cache that terms-and-conditions documents are read through, or {@code null} if documents are not cached.
+     */
+    public TermsAndConditionsCache getTermsAndConditionsCache() {
+        return termsAndConditionsCache;
+    }
+
+    /**
+     * Returns the prefetcher that keeps prefetched terms-and-conditions documents, or {@code null} if documents are not prefetched.
+     */
+    public TermsAndConditionsPrefetcher getTermsAndConditionsPrefetcher() {
+        return termsAndConditionsPrefetcher;
+    }
+
+    /**
+     * Starts generating a terms-and-conditions document in the background, so a later call to
+     * {@link #getTermsAndConditionsWithAuthorization(String, String)} or its asynchronous variant with the same purchase and authorization
+     * does not have to wait for it. Does nothing if this API has no {@link TermsAndConditionsPrefetcher}.
+     *
+     * @param purchaseId The purchaseId received from the initialize request that started the verification process.
+     * @param authorization The access token received from the initialize request. Provide this for client-side requests in the Bearer format.
+     */
+    public void prefetchTermsAndConditionsWithAuthorization(String purchaseId, String authorization) {
+        if (termsAndConditionsPrefetcher == null) {
+            return;
+        }
+        String uri = populateUri("/purchase/legaldocuments/termsandconditions/{purchaseId}", "purchaseId", purchaseId);
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "Authorization", authorization);
+
+        termsAndConditionsPrefetcher.prefetch(purchaseId, authorization,
+                executor -> getTermsAndConditionsAsync(uri, headerParams, purchaseId, authorization, executor));
     }
 
     /**
@@ -29,19 +99,78 @@ public class LegalDocumentsApi extends BaseApi {
      * @return String - Terms and conditions in HTML format.
      */
     public String getTermsAndConditionsWithAuthorization(String purchaseId, String authorization) {
-        String uri = "/purchase/legaldocuments/termsandconditions/{purchaseId}";
-        uri = populateUri(uri, "purchaseId", purchaseId);
+        String uri = populateUri("/purchase/legaldocuments/termsandconditions/{purchaseId}", "purchaseId", purchaseId);
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "Authorization", authorization);
+
+        if (termsAndConditionsPrefetcher != null) {
+            return termsAndConditionsPrefetcher.get(purchaseId, authorization,
+                    () -> getTermsAndConditions(uri, headerParams, purchaseId, authorization));
+        }
+        return getTermsAndConditions(uri, headerParams, purchaseId, authorization);
+    }
+
+    /**
+     * Asynchronous variant of {@link #getTermsAndConditionsWithAuthorization(String, String)}.
+     *
+     * @param purchaseId The purchaseId received from the initialize request that started the verification process.
+     * @param authorization The access token received from the initialize request. Provide this for client-side requests in the Bearer format.
+     * @param executor The executor used to complete the returned future.
+     * @return CompletableFuture - Completed with the String, or exceptionally with the exceptions thrown by the synchronous variant.
+     */
+    public CompletableFuture<String> getTermsAndConditionsWithAuthorizationAsync(String purchaseId, String authorization, Executor executor) {
+        String uri = populateUri("/purchase/legaldocuments/termsandconditions/{purchaseId}", "purchaseId", purchaseId);
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "Authorization", authorization);
+
+        if (termsAndConditionsPrefetcher != null) {
+            return termsAndConditionsPrefetcher.getAsync(purchaseId, authorization, executor,
+                    () -> getTermsAndConditionsAsync(uri, headerParams, purchaseId, authorization, executor));
+        }
+        return getTermsAndConditionsAsync(uri, headerParams, purchaseId, authorization, executor);
+    }
+
+    /**
+     * Generates a terms-and-conditions document in html format, and writes it to the given output stream as it is received.
+     * The document is not cached, and the output stream is not closed.
+     *
+     * @param purchaseId The purchaseId received from the initialize request that started the verification process.
+     * @param authorization The access token received from the initialize request. Provide this for client-side requests in the Bearer format.
+     * @param outputStream The output stream to write the document to.
+     * @return DownloadResponse - The content type and length of the document.
+     */
+    public DownloadResponse getTermsAndConditionsWithAuthorization(String purchaseId, String authorization, OutputStream outputStream) {
+        String uri = populateUri("/purchase/legaldocuments/termsandconditions/{purchaseId}", "purchaseId", purchaseId);
 
         List<RequestHeader> headerParams = new ArrayList<>();
         addHeaderParam(headerParams, "Authorization", authorization);
 
         try {
-            return communicator.execute(
-                    HttpMethod.GET,
-                    uri,
-                    headerParams,
-                    null,
-                    String.class);
+            return communicator.download(uri, headerParams, outputStream);
+        } catch (ResponseException e) {
+            throw createException(e);
+        }
+    }
+
+    /**
+     * Generates a terms-and-conditions document in html format, and writes it to the given file as it is received.
+     * The document is not cached. The file is created or overwritten; if the download fails, it is deleted.
+     *
+     * @param purchaseId The purchaseId received from the initialize request that started the verification process.
+     * @param authorization The access token received from the initialize request. Provide this for client-side requests in the Bearer format.
+     * @param path The file to write the document to.
+     * @return DownloadResponse - The content type and length of the document.
+     */
+    public DownloadResponse getTermsAndConditionsWithAuthorization(String purchaseId, String authorization, Path path) {
+        String uri = populateUri("/purchase/legaldocuments/termsandconditions/{purchaseId}", "purchaseId", purchaseId);
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "Authorization", authorization);
+
+        try {
+            return communicator.download(uri, headerParams, path);
         } catch (ResponseException e) {
             throw createException(e);
         }
@@ -55,12 +184,85 @@ public class LegalDocumentsApi extends BaseApi {
      * @return String - Terms and conditions in HTML format.
      */
     public String getTermsAndConditions(String purchaseId, String paysafePlSecretKey) {
-        String uri = "/purchase/legaldocuments/termsandconditions/{purchaseId}";
-        uri = populateUri(uri, "purchaseId", purchaseId);
+        String uri = populateUri("/purchase/legaldocuments/termsandconditions/{purchaseId}", "purchaseId", purchaseId);
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
+
+        return getTermsAndConditions(uri, headerParams, purchaseId, paysafePlSecretKey);
+    }
+
+    /**
+     * Asynchronous variant of {@link #getTermsAndConditions(String, String)}.
+     *
+     * @param purchaseId The purchaseId received from the initialize request that started the verification process.
+     * @param paysafePlSecretKey Secret key which can be requested from your account manager. Provide this for server-to-server communication.
+     * @param executor The executor used to complete the returned future.
+     * @return CompletableFuture - Completed with the String, or exceptionally with the exceptions thrown by the synchronous variant.
+     */
+    public CompletableFuture<String> getTermsAndConditionsAsync(String purchaseId, String paysafePlSecretKey, Executor executor) {
+        String uri = populateUri("/purchase/legaldocuments/termsandconditions/{purchaseId}", "purchaseId", purchaseId);
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
+
+        return getTermsAndConditionsAsync(uri, headerParams, purchaseId, paysafePlSecretKey, executor);
+    }
+
+    /**
+     * Generates a terms-and-conditions document in html format, and writes it to the given output stream as it is received.
+     * The document is not cached, and the output stream is not closed.
+     *
+     * @param purchaseId The purchaseId received from the initialize request that started the verification process.
+     * @param paysafePlSecretKey Secret key which can be requested from your account manager. Provide this for server-to-server communication.
+     * @param outputStream The output stream to write the document to.
+     * @return DownloadResponse - The content type and length of the document.
+     */
+    public DownloadResponse getTermsAndConditions(String purchaseId, String paysafePlSecretKey, OutputStream outputStream) {
+        String uri = populateUri("/purchase/legaldocuments/termsandconditions/{purchaseId}", "purchaseId", purchaseId);
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
+
+        try {
+            return communicator.download(uri, headerParams, outputStream);
+        } catch (ResponseException e) {
+            throw createException(e);
+        }
+    }
+
+    /**
+     * Generates a terms-and-conditions document in html format, and writes it to the given file as it is received.
+     * The document is not cached. The file is created or overwritten; if the download fails, it is deleted.
+     *
+     * @param purchaseId The purchaseId received from the initialize request that started the verification process.
+     * @param paysafePlSecretKey Secret key which can be requested from your account manager. Provide this for server-to-server communication.
+     * @param path The file to write the document to.
+     * @return DownloadResponse - The content type and length of the document.
+     */
+    public DownloadResponse getTermsAndConditions(String purchaseId, String paysafePlSecretKey, Path path) {
+        String uri = populateUri("/purchase/legaldocuments/termsandconditions/{purchaseId}", "purchaseId", purchaseId);
 
         List<RequestHeader> headerParams = new ArrayList<>();
         addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
 
+        try {
+            return communicator.download(uri, headerParams, path);
+        } catch (ResponseException e) {
+            throw createException(e);
+        }
+    }
+
+    /**
+     * Returns the document for the given purchase, reading it through the cache if there is one.
+     *
+     * @param credential The secret key or authorization in the given headers.
+     */
+    private String getTermsAndConditions(String uri, List<RequestHeader> headerParams, String purchaseId, String credential) {
+        if (termsAndConditionsCache != null) {
+            return termsAndConditionsCache.get(purchaseId, credential,
+                    (eTag, lastModified) -> getTermsAndConditionsIfModified(uri, headerParams, eTag, lastModified));
+        }
         try {
             return communicator.execute(
                     HttpMethod.GET,
@@ -72,4 +274,27 @@ public class LegalDocumentsApi extends BaseApi {
             throw createException(e);
         }
     }
+
+    private CompletableFuture<String> getTermsAndConditionsAsync(String uri, List<RequestHeader> headerParams, String purchaseId, String credential,
+            Executor executor) {
+        if (termsAndConditionsCache != null) {
+            return termsAndConditionsCache.getAsync(purchaseId, credential,
+                    (eTag, lastModified) -> mapExceptions(communicator.getIfModifiedAsync(uri, headerParams, eTag, lastModified, String.class, executor)));
+        }
+        return mapExceptions(communicator.executeAsync(
+                HttpMethod.GET,
+                uri,
+                headerParams,
+                null,
+                String.class,
+                executor));
+    }
+
+    private ConditionalResponse<String> getTermsAndConditionsIfModified(String uri, List<RequestHeader> headerParams, String eTag, String lastModified) {
+        try {
+            return communicator.getIfModified(uri, headerParams, eTag, lastModified, String.class);
+        } catch (ResponseException e) {
+            throw createException(e);
+        }
+    }
 }
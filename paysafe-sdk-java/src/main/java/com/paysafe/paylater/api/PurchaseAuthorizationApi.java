@@ -9,6 +9,8 @@ package com.paysafe.paylater.api;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.paysafe.paylater.communication.Communicator;
 import com.paysafe.paylater.communication.HttpMethod;
@@ -48,6 +50,29 @@ public class PurchaseAuthorizationApi extends BaseApi {
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #authorizePayLaterWithAuthorization(AuthorizePurchaseRequest, String)}.
+     *
+     * @param authorizePurchaseRequest Contains everything needed to start the Authorization Process.
+     * @param authorization The access token received from the initialize request. Provide this for client-side requests in the Bearer format.
+     * @param executor The executor used to complete the returned future.
+     * @return CompletableFuture - Completed with the PurchaseOperationResponse, or exceptionally with the exceptions thrown by the synchronous variant.
+     */
+    public CompletableFuture<PurchaseOperationResponse> authorizePayLaterWithAuthorizationAsync(AuthorizePurchaseRequest authorizePurchaseRequest, String authorization, Executor executor) {
+        String uri = "/purchase/authorize/paylater";
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "Authorization", authorization);
+
+        return mapExceptions(communicator.executeAsync(
+                HttpMethod.POST,
+                uri,
+                headerParams,
+                authorizePurchaseRequest,
+                PurchaseOperationResponse.class,
+                executor));
+    }
+
     /**
      * Authorize a consumer to complete a transaction with our hosted solution. Can be started via SMS or URL. 
      *
@@ -72,4 +97,27 @@ public class PurchaseAuthorizationApi extends BaseApi {
             throw createException(e);
         }
     }
+
+    /**
+     * Asynchronous variant of {@link #authorizePayLater(AuthorizePurchaseRequest, String)}.
+     *
+     * @param authorizePurchaseRequest Contains everything needed to start the Authorization Process.
+     * @param paysafePlSecretKey Secret key which can be requested from your account manager. Provide this for server-to-server communication.
+     * @param executor The executor used to complete the returned future.
+     * @return CompletableFuture - Completed with the PurchaseOperationResponse, or exceptionally with the exceptions thrown by the synchronous variant.
+     */
+    public CompletableFuture<PurchaseOperationResponse> authorizePayLaterAsync(AuthorizePurchaseRequest authorizePurchaseRequest, String paysafePlSecretKey, Executor executor) {
+        String uri = "/purchase/authorize/paylater";
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
+
+        return mapExceptions(communicator.executeAsync(
+                HttpMethod.POST,
+                uri,
+                headerParams,
+                authorizePurchaseRequest,
+                PurchaseOperationResponse.class,
+                executor));
+    }
 }
@@ -0,0 +1,396 @@
+package com.paysafe.paylater.api;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.communication.Marshaller;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.PaysafeException;
+import com.paysafe.paylater.exception.TooManyRequestsException;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * A cache of purchase information by purchase id, according to a {@link PurchaseInfoCachePolicy}. Pass it to
+ * {@link PurchaseLifecycleApi#PurchaseLifecycleApi(com.paysafe.paylater.communication.Communicator, PurchaseInfoCache)} to let
+ * {@link PurchaseLifecycleApi#getPurchase(String, String) getPurchase} and
+ * {@link PurchaseLifecycleApi#getPurchaseWithAuthorization(String, String) getPurchaseWithAuthorization} read through it.
+ * A purchase is removed when it is captured or refunded through the same API.
+ * <p>
+ * A cached purchase is only returned for the secret key or authorization that it was obtained with. Each lookup returns a new copy,
+ * so callers can modify the returned response.
+ * <p>
+ * Thread-safe.
+ */
+public class PurchaseInfoCache implements Closeable {
+
+    private static final int REFRESH_THREADS = 2;
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final long staleWhileRevalidate;
+    private final long staleIfError;
+
+    // access ordered, so the eldest entry is the least recently used one; guarded by this
+    private final Map<String, Entry> entries;
+    // the loads in progress by purchase id; loads that started before an invalidation of their purchase do not store their result,
+    // because it may precede the capture or refund that caused the invalidation; guarded by this
+    private final Map<String, Loads> loads = new HashMap<>();
+    // incremented by each invalidation of all purchases; guarded by this
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private final ExecutorService refresher;
+
+    public PurchaseInfoCache(PurchaseInfoCachePolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is required");
+        }
+        maxSize = policy.getMaxSize();
+        timeToLive = TimeUnit.MILLISECONDS.toNanos(policy.getTimeToLive());
+        staleWhileRevalidate = TimeUnit.MILLISECONDS.toNanos(policy.getStaleWhileRevalidate());
+        staleIfError = TimeUnit.MILLISECONDS.toNanos(policy.getStaleIfError());
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        AtomicInteger threadCount = new AtomicInteger();
+        refresher = Executors.newFixedThreadPool(REFRESH_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "paysafe-purchase-cache-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the cached purchase with the given id, or obtains it using the given loader.
+     *
+     * @param credential The secret key or authorization used by the loader.
+     */
+    PurchaseOperationResponse get(String purchaseId, String credential, Marshaller marshaller, Supplier<PurchaseOperationResponse> loader) {
+        long now = System.nanoTime();
+        Entry entry = lookup(purchaseId, credential, now);
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age < timeToLive) {
+                hits.increment();
+                return entry.getResponse(marshaller);
+            }
+            if (age < timeToLive + staleWhileRevalidate) {
+                staleHits.increment();
+                refreshInBackground(purchaseId, credential, marshaller, entry, now, loader);
+                return entry.getResponse(marshaller);
+            }
+        }
+        misses.increment();
+        Load load = startLoad(purchaseId);
+        PurchaseOperationResponse response;
+        try {
+            response = loader.get();
+        } catch (RuntimeException e) {
+            endLoad(load);
+            PurchaseOperationResponse staleResponse = getStaleIfError(purchaseId, entry, e, marshaller);
+            if (staleResponse != null) {
+                return staleResponse;
+            }
+            throw e;
+        }
+        put(purchaseId, credential, marshaller, response, load, now);
+        return response;
+    }
+
+    /**
+     * Asynchronous variant of {@link #get(String, String, Marshaller, Supplier)}. A cached purchase is returned in an already
+     * completed future.
+     */
+    CompletableFuture<PurchaseOperationResponse> getAsync(String purchaseId, String credential, Marshaller marshaller,
+            Supplier<CompletableFuture<PurchaseOperationResponse>> loader) {
+
+        long now = System.nanoTime();
+        Entry entry = lookup(purchaseId, credential, now);
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age < timeToLive) {
+                hits.increment();
+                return CompletableFuture.completedFuture(entry.getResponse(marshaller));
+            }
+            if (age < timeToLive + staleWhileRevalidate) {
+                staleHits.increment();
+                if (entry.refreshing.compareAndSet(false, true)) {
+                    Load load = startLoad(purchaseId);
+                    CompletableFuture<PurchaseOperationResponse> refresh;
+                    try {
+                        refresh = loader.get();
+                    } catch (RuntimeException e) {
+                        refresh = new CompletableFuture<>();
+                        refresh.completeExceptionally(e);
+                    }
+                    refresh.whenComplete((response, thrown) -> onRefreshed(purchaseId, credential, marshaller, entry, load, now, response, thrown));
+                }
+                return CompletableFuture.completedFuture(entry.getResponse(marshaller));
+            }
+        }
+        misses.increment();
+        Load load = startLoad(purchaseId);
+        CompletableFuture<PurchaseOperationResponse> future;
+        try {
+            future = loader.get();
+        } catch (RuntimeException e) {
+            endLoad(load);
+            throw e;
+        }
+        CompletableFuture<PurchaseOperationResponse> result = new CompletableFuture<>();
+        future.whenComplete((response, thrown) -> {
+            if (thrown == null) {
+                put(purchaseId, credential, marshaller, response, load, now);
+                result.complete(response);
+                return;
+            }
+            endLoad(load);
+            Throwable cause = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown;
+            PurchaseOperationResponse staleResponse = getStaleIfError(purchaseId, entry, cause, marshaller);
+            if (staleResponse != null) {
+                result.complete(staleResponse);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private synchronized Entry lookup(String purchaseId, String credential, long now) {
+        Entry entry = entries.get(purchaseId);
+        if (entry != null && now - entry.loadedAt >= timeToLive + Math.max(staleWhileRevalidate, staleIfError)) {
+            entries.remove(purchaseId);
+            entry = null;
+        }
+        // a purchase obtained with another secret key or authorization is not returned, but replaced once the call completes
+        if (entry != null && !Objects.equals(credential, entry.credential)) {
+            entry = null;
+        }
+        return entry;
+    }
+
+    private void refreshInBackground(String purchaseId, String credential, Marshaller marshaller, Entry entry, long startedAt,
+            Supplier<PurchaseOperationResponse> loader) {
+
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Load load = startLoad(purchaseId);
+        try {
+            refresher.execute(() -> {
+                try {
+                    onRefreshed(purchaseId, credential, marshaller, entry, load, startedAt, loader.get(), null);
+                } catch (RuntimeException e) {
+                    onRefreshed(purchaseId, credential, marshaller, entry, load, startedAt, null, e);
+                }
+            });
+        } catch (@SuppressWarnings("unused") RejectedExecutionException e) {
+            // closed; the purchase is obtained synchronously once it is no longer fresh enough
+            endLoad(load);
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void onRefreshed(String purchaseId, String credential, Marshaller marshaller, Entry entry, Load load, long startedAt,
+            PurchaseOperationResponse response, Throwable thrown) {
+
+        if (thrown == null) {
+            put(purchaseId, credential, marshaller, response, load, startedAt);
+            return;
+        }
+        endLoad(load);
+        Throwable cause = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown;
+        if (!isUnavailable(cause)) {
+            // the purchase or the credential is no longer valid
+            remove(purchaseId, entry);
+        }
+        // otherwise keep returning the expired purchase; a later lookup tries again
+        entry.refreshing.set(false);
+    }
+
+    private PurchaseOperationResponse getStaleIfError(String purchaseId, Entry entry, Throwable thrown, Marshaller marshaller) {
+        if (entry == null) {
+            return null;
+        }
+        if (!isUnavailable(thrown)) {
+            remove(purchaseId, entry);
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt >= timeToLive + staleIfError) {
+            return null;
+        }
+        // the lookup was counted as a miss when the call was made
+        misses.decrement();
+        staleHits.increment();
+        return entry.getResponse(marshaller);
+    }
+
+    /**
+     * Returns whether the given exception indicates that the API is unavailable, as opposed to a problem with the request.
+     */
+    private static boolean isUnavailable(Throwable thrown) {
+        return thrown instanceof CommunicationException
+                || thrown instanceof PaysafeException
+                || thrown instanceof TooManyRequestsException;
+    }
+
+    /**
+     * Stores the given purchase, which was obtained by the given load, unless the purchase was invalidated since the load started.
+     */
+    private void put(String purchaseId, String credential, Marshaller marshaller, PurchaseOperationResponse response, Load load,
+            long loadedAt) {
+
+        Entry entry = response != null && response.getPurchase() != null ? new Entry(credential, marshaller.marshal(response), loadedAt) : null;
+        synchronized (this) {
+            if (endLoad(load) && entry != null) {
+                entries.put(purchaseId, entry);
+            }
+        }
+    }
+
+    private synchronized Load startLoad(String purchaseId) {
+        Loads purchaseLoads = loads.computeIfAbsent(purchaseId, key -> new Loads());
+        purchaseLoads.count++;
+        return new Load(purchaseId, purchaseLoads, generation);
+    }
+
+    /**
+     * Ends the given load, and returns whether the purchase was not invalidated since the load started.
+     */
+    private synchronized boolean endLoad(Load load) {
+        if (--load.loads.count == 0) {
+            loads.remove(load.purchaseId);
+        }
+        return load.generation == generation && load.invalidations == load.loads.invalidations;
+    }
+
+    private synchronized void remove(String purchaseId, Entry entry) {
+        entries.remove(purchaseId, entry);
+    }
+
+    /**
+     * Removes the purchase with the given id. Lookups of that purchase that are in progress do not store the purchase they obtain.
+     */
+    public void invalidate(String purchaseId) {
+        if (purchaseId == null) {
+            throw new IllegalArgumentException("purchaseId is required");
+        }
+        synchronized (this) {
+            Loads purchaseLoads = loads.get(purchaseId);
+            if (purchaseLoads != null) {
+                purchaseLoads.invalidations++;
+            }
+            if (entries.remove(purchaseId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes all purchases. Lookups that are in progress do not store the purchase they obtain.
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            generation++;
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of cached purchases, including expired ones that were not yet removed.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public PurchaseInfoCacheStatistics getStatistics() {
+        return new PurchaseInfoCacheStatistics(hits.sum(), staleHits.sum(), misses.sum(), evictions.sum(), invalidations.sum());
+    }
+
+    /**
+     * Stops refreshing purchases in the background.
+     */
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * The loads in progress of a purchase, and the number of times it was invalidated while they were in progress; guarded by the cache.
+     */
+    private static final class Loads {
+
+        private int count;
+        private long invalidations;
+    }
+
+    /**
+     * A call that obtains a purchase to store.
+     */
+    private static final class Load {
+
+        private final String purchaseId;
+        private final Loads loads;
+        private final long invalidations;
+        private final long generation;
+
+        private Load(String purchaseId, Loads loads, long generation) {
+            this.purchaseId = purchaseId;
+            this.loads = loads;
+            this.invalidations = loads.invalidations;
+            this.generation = generation;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String credential;
+        // the marshalled response, so each lookup can return a new copy
+        private final String json;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(String credential, String json, long loadedAt) {
+            this.credential = credential;
+            this.json = json;
+            this.loadedAt = loadedAt;
+        }
+
+        private PurchaseOperationResponse getResponse(Marshaller marshaller) {
+            return marshaller.unmarshal(json, PurchaseOperationResponse.class);
+        }
+    }
+}
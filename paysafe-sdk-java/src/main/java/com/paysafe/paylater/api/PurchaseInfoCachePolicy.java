@@ -0,0 +1,101 @@
+package com.paysafe.paylater.api;
+
+/**
+ * Determines how a {@link PurchaseInfoCache} caches purchase information.
+ * <p>
+ * A cached purchase is returned without a call for the {@link #getTimeToLive() time to live}. After that, it is still returned for the
+ * {@link #getStaleWhileRevalidate() stale-while-revalidate} time while it is refreshed in the background. If a call for an expired
+ * purchase fails because the API is unavailable, the expired purchase is returned instead for at most the
+ * {@link #getStaleIfError() stale-if-error} time after it expired. Once the cache holds the {@link #getMaxSize() maximum number} of
+ * purchases, the least recently used purchase is evicted.
+ */
+public class PurchaseInfoCachePolicy {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    public static final int DEFAULT_TIME_TO_LIVE = 5000;
+    public static final int DEFAULT_STALE_WHILE_REVALIDATE = 30000;
+    public static final int DEFAULT_STALE_IF_ERROR = 300000;
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private int timeToLive = DEFAULT_TIME_TO_LIVE;
+    private int staleWhileRevalidate = DEFAULT_STALE_WHILE_REVALIDATE;
+    private int staleIfError = DEFAULT_STALE_IF_ERROR;
+
+    /**
+     * Returns the maximum number of cached purchases.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public PurchaseInfoCachePolicy withMaxSize(int maxSize) {
+        setMaxSize(maxSize);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds that a cached purchase is returned without a call.
+     */
+    public int getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(int timeToLive) {
+        if (timeToLive < 1) {
+            throw new IllegalArgumentException("timeToLive must be at least 1");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    public PurchaseInfoCachePolicy withTimeToLive(int timeToLive) {
+        setTimeToLive(timeToLive);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after the time to live that an expired purchase is returned while it is refreshed in the
+     * background. A value of 0 means an expired purchase is always refreshed before it is returned.
+     */
+    public int getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(int staleWhileRevalidate) {
+        if (staleWhileRevalidate < 0) {
+            throw new IllegalArgumentException("staleWhileRevalidate should not be negative");
+        }
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public PurchaseInfoCachePolicy withStaleWhileRevalidate(int staleWhileRevalidate) {
+        setStaleWhileRevalidate(staleWhileRevalidate);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after the time to live that an expired purchase is returned if it cannot be refreshed because
+     * the API is unavailable. A value of 0 means errors are never hidden.
+     */
+    public int getStaleIfError() {
+        return staleIfError;
+    }
+
+    public void setStaleIfError(int staleIfError) {
+        if (staleIfError < 0) {
+            throw new IllegalArgumentException("staleIfError should not be negative");
+        }
+        this.staleIfError = staleIfError;
+    }
+
+    public PurchaseInfoCachePolicy withStaleIfError(int staleIfError) {
+        setStaleIfError(staleIfError);
+        return this;
+    }
+}
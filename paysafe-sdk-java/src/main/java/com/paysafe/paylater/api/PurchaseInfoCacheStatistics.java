@@ -0,0 +1,75 @@
+package com.paysafe.paylater.api;
+
+/**
+ * The counters of a {@link PurchaseInfoCache}.
+ */
+public class PurchaseInfoCacheStatistics {
+
+    private final long hits;
+    private final long staleHits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+
+    public PurchaseInfoCacheStatistics(long hits, long staleHits, long misses, long evictions, long invalidations) {
+        this.hits = hits;
+        this.staleHits = staleHits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * Returns the total number of lookups that returned a cached purchase that had not expired.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the total number of lookups that returned an expired purchase, while it was refreshed in the background or because
+     * it could not be refreshed.
+     */
+    public long getStaleHits() {
+        return staleHits;
+    }
+
+    /**
+     * Returns the total number of lookups that had to wait for a call.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the total number of purchases that were evicted because the cache was full.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the total number of purchases that were removed because they were captured or refunded, or invalidated explicitly.
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Returns the fraction of lookups that returned a cached purchase, expired or not, between 0 and 1.
+     */
+    public double getHitRatio() {
+        long lookups = hits + staleHits + misses;
+        return lookups > 0 ? (double) (hits + staleHits) / lookups : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "PurchaseInfoCacheStatistics[hits=" + hits
+                + ", staleHits=" + staleHits
+                + ", misses=" + misses
+                + ", evictions=" + evictions
+                + ", invalidations=" + invalidations
+                + "]";
+    }
+}
@@ -9,6 +9,9 @@ package com.paysafe.paylater.api;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import com.paysafe.paylater.communication.Communicator;
 import com.paysafe.paylater.communication.HttpMethod;
@@ -22,8 +25,48 @@ import com.paysafe.paylater.model.ResponseWithAuthorization;
 
 public class PurchaseLifecycleApi extends BaseApi {
 
+    private final PurchaseInfoCache purchaseInfoCache;
+    // null if nothing is prefetched after a purchase is initialized
+    private final LegalDocumentsApi legalDocumentsApi;
+
     public PurchaseLifecycleApi(Communicator communicator) {
+        this(communicator, null);
+    }
+
+    /**
+     * Creates a new API that reads purchases through the given cache. Purchases that are captured or refunded through this API are
+     * removed from the cache. The cache is not closed when this API is closed, so it can be shared.
+     *
+     * @param purchaseInfoCache The cache for {@link #getPurchase(String, String)} and {@link #getPurchaseWithAuthorization(String, String)},
+     *            and their asynchronous variants. May be {@code null}.
+     */
+    public PurchaseLifecycleApi(Communicator communicator, PurchaseInfoCache purchaseInfoCache) {
+        this(communicator, purchaseInfoCache, null);
+    }
+
+    /**
+     * Creates a new API that reads purchases through the given cache, and that prefetches the terms-and-conditions document once a
+     * purchase is initialized, through the given API if it has a {@link TermsAndConditionsPrefetcher}. The document is obtained with
+     * the authorization that the initialize request returned. A prefetch that cannot be started never fails the initialize call; it is
+     * counted as a failure in the {@link TermsAndConditionsPrefetchStatistics statistics} of the prefetcher.
+     * <p>
+     * The initialize response is not stored in the cache, as it is not guaranteed to contain the same information as a purchase lookup.
+     *
+     * @param purchaseInfoCache The cache for {@link #getPurchase(String, String)} and {@link #getPurchaseWithAuthorization(String, String)},
+     *            and their asynchronous variants. May be {@code null}.
+     * @param legalDocumentsApi The API to prefetch terms-and-conditions documents through. May be {@code null} to not prefetch anything.
+     */
+    public PurchaseLifecycleApi(Communicator communicator, PurchaseInfoCache purchaseInfoCache, LegalDocumentsApi legalDocumentsApi) {
         super(communicator);
+        this.purchaseInfoCache = purchaseInfoCache;
+        this.legalDocumentsApi = legalDocumentsApi;
+    }
+
+    /**
+     * Returns the cache that purchases are read through, or {@code null} if purchases are not cached.
+     */
+    public PurchaseInfoCache getPurchaseInfoCache() {
+        return purchaseInfoCache;
     }
 
     /**
@@ -48,9 +91,34 @@ public class PurchaseLifecycleApi extends BaseApi {
                     PurchaseOperationResponse.class);
         } catch (ResponseException e) {
             throw createException(e);
+        } finally {
+            invalidatePurchase(capturePurchaseRequest != null ? capturePurchaseRequest.getPurchaseId() : null);
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #capturePurchase(CapturePurchaseRequest, String)}.
+     *
+     * @param capturePurchaseRequest Contains all data needed to process a capture(=shipping) of purchased goods.
+     * @param paysafePlSecretKey Secret key which can be requested from your account manager. Only use this for server-to-server communication.
+     * @param executor The executor used to complete the returned future.
+     * @return CompletableFuture - Completed with the PurchaseOperationResponse, or exceptionally with the exceptions thrown by the synchronous variant.
+     */
+    public CompletableFuture<PurchaseOperationResponse> capturePurchaseAsync(CapturePurchaseRequest capturePurchaseRequest, String paysafePlSecretKey, Executor executor) {
+        String uri = "/purchase/capture";
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
+
+        return mapExceptions(invalidatePurchaseOnCompletion(communicator.executeAsync(
+                HttpMethod.POST,
+                uri,
+                headerParams,
+                capturePurchaseRequest,
+                PurchaseOperationResponse.class,
+                executor), capturePurchaseRequest != null ? capturePurchaseRequest.getPurchaseId() : null));
+    }
+
     /**
      * Query for a purchase for a given purchaseId.
      *
@@ -59,22 +127,35 @@ public class PurchaseLifecycleApi extends BaseApi {
      * @return PurchaseOperationResponse - PurchaseLifecycle endpoints always return the same object with the latest state of the purchase and different fields populated.PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. 
      */
     public PurchaseOperationResponse getPurchaseWithAuthorization(String purchaseId, String authorization) {
-        String uri = "/purchase/info/{purchaseId}";
-        uri = populateUri(uri, "purchaseId", purchaseId);
+        String uri = populateUri("/purchase/info/{purchaseId}", "purchaseId", purchaseId);
 
         List<RequestHeader> headerParams = new ArrayList<>();
         addHeaderParam(headerParams, "Authorization", authorization);
 
-        try {
-            return communicator.execute(
-                    HttpMethod.GET,
-                    uri,
-                    headerParams,
-                    null,
-                    PurchaseOperationResponse.class);
-        } catch (ResponseException e) {
-            throw createException(e);
+        if (purchaseInfoCache != null) {
+            return purchaseInfoCache.get(purchaseId, authorization, communicator.getMarshaller(), () -> getPurchaseInfo(uri, headerParams));
+        }
+        return getPurchaseInfo(uri, headerParams);
+    }
+
+    /**
+     * Asynchronous variant of {@link #getPurchaseWithAuthorization(String, String)}.
+     *
+     * @param purchaseId PurchaseId received from initializePurchase or authorizePurchase response.
+     * @param authorization The access token received from the initialize request. Provide this for client-side requests in the Bearer format.
+     * @param executor The executor used to complete the returned future.
+     * @return CompletableFuture - Completed with the PurchaseOperationResponse, or exceptionally with the exceptions thrown by the synchronous variant.
+     */
+    public CompletableFuture<PurchaseOperationResponse> getPurchaseWithAuthorizationAsync(String purchaseId, String authorization, Executor executor) {
+        String uri = populateUri("/purchase/info/{purchaseId}", "purchaseId", purchaseId);
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "Authorization", authorization);
+
+        if (purchaseInfoCache != null) {
+            return purchaseInfoCache.getAsync(purchaseId, authorization, communicator.getMarshaller(), () -> getPurchaseInfoAsync(uri, headerParams, executor));
         }
+        return getPurchaseInfoAsync(uri, headerParams, executor);
     }
 
     /**
@@ -85,22 +166,35 @@ public class PurchaseLifecycleApi extends BaseApi {
      * @return PurchaseOperationResponse - PurchaseLifecycle endpoints always return the same object with the latest state of the purchase and different fields populated.PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. PurchaseLifecycle endpoints also return the same object when an error occurs. The purchase object however will be null. 
      */
     public PurchaseOperationResponse getPurchase(String purchaseId, String paysafePlSecretKey) {
-        String uri = "/purchase/info/{purchaseId}";
-        uri = populateUri(uri, "purchaseId", purchaseId);
+        String uri = populateUri("/purchase/info/{purchaseId}", "purchaseId", purchaseId);
 
         List<RequestHeader> headerParams = new ArrayList<>();
         addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
 
-        try {
-            return communicator.execute(
-                    HttpMethod.GET,
-                    uri,
-                    headerParams,
-                    null,
-                    PurchaseOperationResponse.class);
-        } catch (ResponseException e) {
-            throw createException(e);
+        if (purchaseInfoCache != null) {
+            return purchaseInfoCache.get(purchaseId, paysafePlSecretKey, communicator.getMarshaller(), () -> getPurchaseInfo(uri, headerParams));
         }
+        return getPurchaseInfo(uri, headerParams);
+    }
+
+    /**
+     * Asynchronous variant of {@link #getPurchase(String, String)}.
+     *
+     * @param purchaseId PurchaseId received from initializePurchase or authorizePurchase response.
+     * @param paysafePlSecretKey Secret key which can be requested from your account manager. Only use this for server-to-server communication.
+     * @param executor The executor used to complete the returned future.
+     * @return CompletableFuture - Completed with the PurchaseOperationResponse, or exceptionally with the exceptions thrown by the synchronous variant.
+     */
+    public CompletableFuture<PurchaseOperationResponse> getPurchaseAsync(String purchaseId, String paysafePlSecretKey, Executor executor) {
+        String uri = populateUri("/purchase/info/{purchaseId}", "purchaseId", purchaseId);
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
+
+        if (purchaseInfoCache != null) {
+            return purchaseInfoCache.getAsync(purchaseId, paysafePlSecretKey, communicator.getMarshaller(), () -> getPurchaseInfoAsync(uri, headerParams, executor));
+        }
+        return getPurchaseInfoAsync(uri, headerParams, executor);
     }
 
     /**
@@ -116,8 +210,9 @@ public class PurchaseLifecycleApi extends BaseApi {
         List<RequestHeader> headerParams = new ArrayList<>();
         addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
 
+        ResponseWithAuthorization<PurchaseOperationResponse> response;
         try {
-            return communicator.executeWithAuthorizationHeader(
+            response = communicator.executeWithAuthorizationHeader(
                     HttpMethod.POST,
                     uri,
                     headerParams,
@@ -126,6 +221,31 @@ public class PurchaseLifecycleApi extends BaseApi {
         } catch (ResponseException e) {
             throw createException(e);
         }
+        prefetch(response);
+        return response;
+    }
+
+    /**
+     * Asynchronous variant of {@link #initializePurchase(InitializePurchaseRequest, String)}.
+     *
+     * @param initializePurchaseRequest Contains the data needed to initialize a purchase.
+     * @param paysafePlSecretKey Secret key which can be requested from your account manager. Only use this for server-to-server communication.
+     * @param executor The executor used to complete the returned future.
+     * @return CompletableFuture - Completed with the PurchaseOperationResponse, or exceptionally with the exceptions thrown by the synchronous variant.
+     */
+    public CompletableFuture<ResponseWithAuthorization<PurchaseOperationResponse>> initializePurchaseAsync(InitializePurchaseRequest initializePurchaseRequest, String paysafePlSecretKey, Executor executor) {
+        String uri = "/purchase/initialize";
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
+
+        return prefetchOnCompletion(mapExceptions(communicator.executeWithAuthorizationHeaderAsync(
+                HttpMethod.POST,
+                uri,
+                headerParams,
+                initializePurchaseRequest,
+                PurchaseOperationResponse.class,
+                executor)));
     }
 
     /**
@@ -150,6 +270,123 @@ public class PurchaseLifecycleApi extends BaseApi {
                     PurchaseOperationResponse.class);
         } catch (ResponseException e) {
             throw createException(e);
+        } finally {
+            invalidatePurchase(refundPurchaseRequest != null ? refundPurchaseRequest.getPurchaseId() : null);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #refundPurchase(RefundPurchaseRequest, String)}.
+     *
+     * @param refundPurchaseRequest All data needed to process a refund of a purchase.
+     * @param paysafePlSecretKey Secret key which can be requested from your account manager. Only use this for server-to-server communication.
+     * @param executor The executor used to complete the returned future.
+     * @return CompletableFuture - Completed with the PurchaseOperationResponse, or exceptionally with the exceptions thrown by the synchronous variant.
+     */
+    public CompletableFuture<PurchaseOperationResponse> refundPurchaseAsync(RefundPurchaseRequest refundPurchaseRequest, String paysafePlSecretKey, Executor executor) {
+        String uri = "/purchase/refund";
+
+        List<RequestHeader> headerParams = new ArrayList<>();
+        addHeaderParam(headerParams, "paysafe-pl-secret-key", paysafePlSecretKey);
+
+        return mapExceptions(invalidatePurchaseOnCompletion(communicator.executeAsync(
+                HttpMethod.POST,
+                uri,
+                headerParams,
+                refundPurchaseRequest,
+                PurchaseOperationResponse.class,
+                executor), refundPurchaseRequest != null ? refundPurchaseRequest.getPurchaseId() : null));
+    }
+
+    private PurchaseOperationResponse getPurchaseInfo(String uri, List<RequestHeader> headerParams) {
+        try {
+            return communicator.execute(
+                    HttpMethod.GET,
+                    uri,
+                    headerParams,
+                    null,
+                    PurchaseOperationResponse.class);
+        } catch (ResponseException e) {
+            throw createException(e);
+        }
+    }
+
+    private CompletableFuture<PurchaseOperationResponse> getPurchaseInfoAsync(String uri, List<RequestHeader> headerParams, Executor executor) {
+        return mapExceptions(communicator.executeAsync(
+                HttpMethod.GET,
+                uri,
+                headerParams,
+                null,
+                PurchaseOperationResponse.class,
+                executor));
+    }
+
+    /**
+     * Prefetches the terms-and-conditions document of the given initialize response, if this API prefetches it.
+     * Never throws, as the initialize call has already succeeded.
+     */
+    private void prefetch(ResponseWithAuthorization<PurchaseOperationResponse> response) {
+        if (legalDocumentsApi == null || response == null || response.getAuthorization() == null || response.getResponse() == null
+                || response.getResponse().getPurchase() == null || response.getResponse().getPurchase().getPurchaseId() == null) {
+            return;
+        }
+        String purchaseId = response.getResponse().getPurchase().getPurchaseId();
+        try {
+            legalDocumentsApi.prefetchTermsAndConditionsWithAuthorization(purchaseId, response.getAuthorization());
+        } catch (@SuppressWarnings("unused") RuntimeException e) {
+            TermsAndConditionsPrefetcher prefetcher = legalDocumentsApi.getTermsAndConditionsPrefetcher();
+            if (prefetcher != null) {
+                prefetcher.prefetchFailed();
+            }
+        }
+    }
+
+    /**
+     * Returns a future that is completed with the result of the given future after the prefetches for the initialized purchase have
+     * been started, so callers that request the terms-and-conditions document once the future completes get the prefetched document.
+     */
+    private CompletableFuture<ResponseWithAuthorization<PurchaseOperationResponse>> prefetchOnCompletion(
+            CompletableFuture<ResponseWithAuthorization<PurchaseOperationResponse>> future) {
+        if (legalDocumentsApi == null) {
+            return future;
+        }
+        CompletableFuture<ResponseWithAuthorization<PurchaseOperationResponse>> result = new CompletableFuture<>();
+        future.whenComplete((response, thrown) -> {
+            if (thrown != null) {
+                result.completeExceptionally(thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown);
+                return;
+            }
+            prefetch(response);
+            result.complete(response);
+        });
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private void invalidatePurchase(String purchaseId) {
+        if (purchaseInfoCache != null && purchaseId != null) {
+            purchaseInfoCache.invalidate(purchaseId);
+        }
+    }
+
+    /**
+     * Returns a future that is completed with the result of the given future after the purchase with the given id has been removed
+     * from the cache, so callers that look up the purchase once the future completes do not get the cached purchase.
+     */
+    private <T> CompletableFuture<T> invalidatePurchaseOnCompletion(CompletableFuture<T> future, String purchaseId) {
+        if (purchaseInfoCache == null || purchaseId == null) {
+            return future;
         }
+        CompletableFuture<T> result = future.whenComplete((response, thrown) -> purchaseInfoCache.invalidate(purchaseId));
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
     }
 }
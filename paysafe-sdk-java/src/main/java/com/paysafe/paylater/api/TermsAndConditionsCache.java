@@ -0,0 +1,415 @@
+package com.paysafe.paylater.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.paysafe.paylater.model.ConditionalResponse;
+
+/**
+ * A cache of terms-and-conditions documents by purchase id, according to a {@link TermsAndConditionsCachePolicy}. Pass it to
+ * {@link LegalDocumentsApi#LegalDocumentsApi(com.paysafe.paylater.communication.Communicator, TermsAndConditionsCache)} to let
+ * {@link LegalDocumentsApi#getTermsAndConditions(String, String) getTermsAndConditions} and
+ * {@link LegalDocumentsApi#getTermsAndConditionsWithAuthorization(String, String) getTermsAndConditionsWithAuthorization} read through
+ * it.
+ * <p>
+ * Documents are revalidated using the {@code ETag} and {@code Last-Modified} headers of the response they were obtained with. They are
+ * stored gzip compressed and by their SHA-256 hash, so the documents of many purchases that are identical take the memory and disk space
+ * of one document. A cached document is only returned for the secret key or authorization that it was obtained with.
+ * <p>
+ * Thread-safe.
+ */
+public class TermsAndConditionsCache {
+
+    private static final String FILE_SUFFIX = ".html.gz";
+
+    private final long timeToLive;
+    private final long maxMemorySize;
+    private final Path diskDirectory;
+    private final long maxDiskSize;
+
+    // the following fields are guarded by this; the maps are access ordered, so the eldest entry is the least recently used one
+    // by purchase id
+    private final Map<String, Entry> entries;
+    // the compressed documents by hash
+    private final Map<String, byte[]> documents = new LinkedHashMap<>(16, 0.75f, true);
+    private long memorySize;
+    // the sizes of the compressed documents in the disk directory by hash
+    private final Map<String, Long> diskDocuments = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder downloads = new LongAdder();
+    private final LongAdder duplicateDownloads = new LongAdder();
+    private final LongAdder memoryEvictions = new LongAdder();
+    private final LongAdder diskReads = new LongAdder();
+
+    /**
+     * Creates a new cache. If the policy has a disk directory, it is created if needed, and the documents already in it are used.
+     *
+     * @throws UncheckedIOException if the disk directory cannot be created or read
+     */
+    public TermsAndConditionsCache(TermsAndConditionsCachePolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is required");
+        }
+        int maxEntries = policy.getMaxEntries();
+        timeToLive = TimeUnit.MILLISECONDS.toNanos(policy.getTimeToLive());
+        maxMemorySize = policy.getMaxMemorySize();
+        diskDirectory = policy.getDiskDirectory();
+        maxDiskSize = policy.getMaxDiskSize();
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        if (diskDirectory != null) {
+            try {
+                loadDiskDocuments();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to use disk directory " + diskDirectory, e);
+            }
+        }
+    }
+
+    private void loadDiskDocuments() throws IOException {
+        Files.createDirectories(diskDirectory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(diskDirectory, "*" + FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        // the least recently written documents are evicted first
+        files.sort((file1, file2) -> Long.compare(file1.toFile().lastModified(), file2.toFile().lastModified()));
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            long size = Files.size(file);
+            diskDocuments.put(fileName.substring(0, fileName.length() - FILE_SUFFIX.length()), size);
+            diskSize += size;
+        }
+    }
+
+    /**
+     * Returns the cached document for the given purchase, or obtains it using the given loader.
+     *
+     * @param credential The secret key or authorization used by the loader.
+     * @param loader Sends a request that is conditional on the given {@code ETag} and {@code Last-Modified} values.
+     */
+    String get(String purchaseId, String credential, BiFunction<String, String, ConditionalResponse<String>> loader) {
+        long now = System.nanoTime();
+        Entry entry = getEntry(purchaseId, credential);
+        String document = entry != null ? getDocument(entry.hash) : null;
+        if (document != null && now - entry.validatedAt < timeToLive) {
+            hits.increment();
+            return document;
+        }
+        ConditionalResponse<String> response = document != null ? loader.apply(entry.eTag, entry.lastModified) : loader.apply(null, null);
+        return onResponse(purchaseId, credential, entry, document, response, now);
+    }
+
+    /**
+     * Asynchronous variant of {@link #get(String, String, BiFunction)}. A document that is returned without a call is returned in an
+     * already completed future.
+     */
+    CompletableFuture<String> getAsync(String purchaseId, String credential,
+            BiFunction<String, String, CompletableFuture<ConditionalResponse<String>>> loader) {
+
+        long now = System.nanoTime();
+        Entry entry = getEntry(purchaseId, credential);
+        String document = entry != null ? getDocument(entry.hash) : null;
+        if (document != null && now - entry.validatedAt < timeToLive) {
+            hits.increment();
+            return CompletableFuture.completedFuture(document);
+        }
+        CompletableFuture<ConditionalResponse<String>> future = document != null
+                ? loader.apply(entry.eTag, entry.lastModified)
+                : loader.apply(null, null);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        future.whenComplete((response, thrown) -> {
+            if (thrown != null) {
+                result.completeExceptionally(thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown);
+                return;
+            }
+            try {
+                result.complete(onResponse(purchaseId, credential, entry, document, response, now));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private String onResponse(String purchaseId, String credential, Entry entry, String document, ConditionalResponse<String> response,
+            long requestedAt) {
+
+        if (response.isNotModified()) {
+            if (document == null) {
+                throw new IllegalStateException("Received a not modified response to a request that was not conditional");
+            }
+            notModified.increment();
+            String eTag = response.getETag() != null ? response.getETag() : entry.eTag;
+            String lastModified = response.getLastModified() != null ? response.getLastModified() : entry.lastModified;
+            putEntry(purchaseId, new Entry(credential, entry.hash, eTag, lastModified, requestedAt));
+            return document;
+        }
+        downloads.increment();
+        String newDocument = response.getResponse();
+        if (newDocument != null) {
+            String hash = store(newDocument);
+            putEntry(purchaseId, new Entry(credential, hash, response.getETag(), response.getLastModified(), requestedAt));
+        }
+        return newDocument;
+    }
+
+    private synchronized Entry getEntry(String purchaseId, String credential) {
+        Entry entry = entries.get(purchaseId);
+        // a document obtained with another secret key or authorization is not returned, but replaced once the call completes
+        return entry != null && Objects.equals(credential, entry.credential) ? entry : null;
+    }
+
+    private synchronized void putEntry(String purchaseId, Entry entry) {
+        entries.put(purchaseId, entry);
+    }
+
+    /**
+     * Returns the document with the given hash from memory or from the disk directory, or {@code null} if it is not stored.
+     */
+    private String getDocument(String hash) {
+        byte[] compressed;
+        synchronized (this) {
+            compressed = documents.get(hash);
+        }
+        if (compressed == null) {
+            compressed = readFromDisk(hash);
+            if (compressed == null) {
+                return null;
+            }
+            diskReads.increment();
+            putInMemory(hash, compressed);
+        }
+        try {
+            return new String(decompress(compressed), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // only possible for a damaged file in the disk directory
+            removeDocument(hash);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the given document unless an identical one is stored already, and returns its hash.
+     */
+    private String store(String document) {
+        byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+        String hash = hash(bytes);
+        synchronized (this) {
+            if (documents.containsKey(hash) || diskDocuments.containsKey(hash)) {
+                duplicateDownloads.increment();
+                return hash;
+            }
+        }
+        byte[] compressed = compress(bytes);
+        putInMemory(hash, compressed);
+        writeToDisk(hash, compressed);
+        return hash;
+    }
+
+    private void putInMemory(String hash, byte[] compressed) {
+        synchronized (this) {
+            if (documents.put(hash, compressed) == null) {
+                memorySize += compressed.length;
+            }
+            Iterator<byte[]> iterator = documents.values().iterator();
+            while (memorySize > maxMemorySize && iterator.hasNext()) {
+                memorySize -= iterator.next().length;
+                iterator.remove();
+                memoryEvictions.increment();
+            }
+        }
+    }
+
+    private byte[] readFromDisk(String hash) {
+        if (diskDirectory == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (diskDocuments.get(hash) == null) {
+                return null;
+            }
+        }
+        try {
+            return Files.readAllBytes(getFile(hash));
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // removed or not readable; the document is downloaded again
+            removeDocument(hash);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String hash, byte[] compressed) {
+        if (diskDirectory == null || compressed.length > maxDiskSize) {
+            return;
+        }
+        Path file = getFile(hash);
+        try {
+            Path tempFile = Files.createTempFile(diskDirectory, hash, ".tmp");
+            try {
+                Files.write(tempFile, compressed);
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // the disk directory is best effort; the document is still kept in memory
+            return;
+        }
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (diskDocuments.put(hash, (long) compressed.length) == null) {
+                diskSize += compressed.length;
+            }
+            Iterator<Map.Entry<String, Long>> iterator = diskDocuments.entrySet().iterator();
+            while (diskSize > maxDiskSize && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                diskSize -= eldest.getValue();
+                iterator.remove();
+                evicted.add(eldest.getKey());
+            }
+        }
+        for (String evictedHash : evicted) {
+            deleteFile(evictedHash);
+        }
+    }
+
+    private void removeDocument(String hash) {
+        synchronized (this) {
+            byte[] compressed = documents.remove(hash);
+            if (compressed != null) {
+                memorySize -= compressed.length;
+            }
+            Long size = diskDocuments.remove(hash);
+            if (size == null) {
+                return;
+            }
+            diskSize -= size;
+        }
+        deleteFile(hash);
+    }
+
+    private void deleteFile(String hash) {
+        try {
+            Files.deleteIfExists(getFile(hash));
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // no longer counted towards the maximum disk size; nothing else can be done
+        }
+    }
+
+    private Path getFile(String hash) {
+        return diskDirectory.resolve(hash + FILE_SUFFIX);
+    }
+
+    /**
+     * Removes the documents of all purchases. Documents that are stored in memory or in the disk directory are kept, so they are not
+     * downloaded again, but they are revalidated before they are returned.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public TermsAndConditionsCacheStatistics getStatistics() {
+        long currentMemorySize;
+        long currentDiskSize;
+        synchronized (this) {
+            currentMemorySize = memorySize;
+            currentDiskSize = diskSize;
+        }
+        return new TermsAndConditionsCacheStatistics(hits.sum(), notModified.sum(), downloads.sum(), duplicateDownloads.sum(),
+                memoryEvictions.sum(), diskReads.sum(), currentMemorySize, currentDiskSize);
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (OutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(bytes);
+        } catch (IOException e) {
+            // not possible for a ByteArrayOutputStream
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] compressed) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(compressed.length * 4);
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[4096];
+            int len;
+            while ((len = input.read(buffer)) != -1) {
+                bytes.write(buffer, 0, len);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class Entry {
+
+        private final String credential;
+        private final String hash;
+        private final String eTag;
+        private final String lastModified;
+        // the System.nanoTime() of the request that obtained or revalidated the document
+        private final long validatedAt;
+
+        private Entry(String credential, String hash, String eTag, String lastModified, long validatedAt) {
+            this.credential = credential;
+            this.hash = hash;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.validatedAt = validatedAt;
+        }
+    }
+}
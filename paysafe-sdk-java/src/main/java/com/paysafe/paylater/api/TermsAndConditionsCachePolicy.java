@@ -0,0 +1,119 @@
+package com.paysafe.paylater.api;
+
+import java.nio.file.Path;
+
+/**
+ * Determines how a {@link TermsAndConditionsCache} caches terms-and-conditions documents.
+ * <p>
+ * A cached document is returned without a call for the {@link #getTimeToLive() time to live}. After that, it is revalidated with a
+ * conditional request, and only downloaded again if it was modified. Documents are stored compressed and by content, so identical
+ * documents for different purchases are stored once. At most the {@link #getMaxMemorySize() maximum memory size} of compressed
+ * documents is kept in memory; if a {@link #getDiskDirectory() disk directory} is set, documents are also written to that directory,
+ * up to the {@link #getMaxDiskSize() maximum disk size}, and read from it once they have been evicted from memory.
+ */
+public class TermsAndConditionsCachePolicy {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    public static final long DEFAULT_MAX_MEMORY_SIZE = 16L * 1024 * 1024;
+    public static final long DEFAULT_MAX_DISK_SIZE = 256L * 1024 * 1024;
+    public static final int DEFAULT_TIME_TO_LIVE = 60000;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long maxMemorySize = DEFAULT_MAX_MEMORY_SIZE;
+    private Path diskDirectory;
+    private long maxDiskSize = DEFAULT_MAX_DISK_SIZE;
+    private int timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * Returns the maximum number of purchases for which the document is cached.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    public TermsAndConditionsCachePolicy withMaxEntries(int maxEntries) {
+        setMaxEntries(maxEntries);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of bytes of compressed documents kept in memory.
+     */
+    public long getMaxMemorySize() {
+        return maxMemorySize;
+    }
+
+    public void setMaxMemorySize(long maxMemorySize) {
+        if (maxMemorySize < 0) {
+            throw new IllegalArgumentException("maxMemorySize should not be negative");
+        }
+        this.maxMemorySize = maxMemorySize;
+    }
+
+    public TermsAndConditionsCachePolicy withMaxMemorySize(long maxMemorySize) {
+        setMaxMemorySize(maxMemorySize);
+        return this;
+    }
+
+    /**
+     * Returns the directory that documents are written to, or {@code null} if documents are only kept in memory.
+     */
+    public Path getDiskDirectory() {
+        return diskDirectory;
+    }
+
+    public void setDiskDirectory(Path diskDirectory) {
+        this.diskDirectory = diskDirectory;
+    }
+
+    public TermsAndConditionsCachePolicy withDiskDirectory(Path diskDirectory) {
+        setDiskDirectory(diskDirectory);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of bytes of compressed documents kept in the disk directory.
+     */
+    public long getMaxDiskSize() {
+        return maxDiskSize;
+    }
+
+    public void setMaxDiskSize(long maxDiskSize) {
+        if (maxDiskSize < 0) {
+            throw new IllegalArgumentException("maxDiskSize should not be negative");
+        }
+        this.maxDiskSize = maxDiskSize;
+    }
+
+    public TermsAndConditionsCachePolicy withMaxDiskSize(long maxDiskSize) {
+        setMaxDiskSize(maxDiskSize);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds that a cached document is returned without a call. A value of 0 means a cached document is
+     * revalidated before each time it is returned.
+     */
+    public int getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(int timeToLive) {
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("timeToLive should not be negative");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    public TermsAndConditionsCachePolicy withTimeToLive(int timeToLive) {
+        setTimeToLive(timeToLive);
+        return this;
+    }
+}
@@ -0,0 +1,97 @@
+package com.paysafe.paylater.api;
+
+/**
+ * The counters of a {@link TermsAndConditionsCache}.
+ */
+public class TermsAndConditionsCacheStatistics {
+
+    private final long hits;
+    private final long notModified;
+    private final long downloads;
+    private final long duplicateDownloads;
+    private final long memoryEvictions;
+    private final long diskReads;
+    private final long memorySize;
+    private final long diskSize;
+
+    public TermsAndConditionsCacheStatistics(long hits, long notModified, long downloads, long duplicateDownloads, long memoryEvictions,
+            long diskReads, long memorySize, long diskSize) {
+        this.hits = hits;
+        this.notModified = notModified;
+        this.downloads = downloads;
+        this.duplicateDownloads = duplicateDownloads;
+        this.memoryEvictions = memoryEvictions;
+        this.diskReads = diskReads;
+        this.memorySize = memorySize;
+        this.diskSize = diskSize;
+    }
+
+    /**
+     * Returns the total number of lookups that returned a cached document without a call.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the total number of lookups that returned a cached document after a conditional request found it was not modified.
+     */
+    public long getNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Returns the total number of lookups that downloaded the document.
+     */
+    public long getDownloads() {
+        return downloads;
+    }
+
+    /**
+     * Returns the total number of downloaded documents that were identical to a cached document, and therefore not stored again.
+     */
+    public long getDuplicateDownloads() {
+        return duplicateDownloads;
+    }
+
+    /**
+     * Returns the total number of documents that were evicted from memory because the maximum memory size was reached.
+     */
+    public long getMemoryEvictions() {
+        return memoryEvictions;
+    }
+
+    /**
+     * Returns the total number of documents that were read from the disk directory.
+     */
+    public long getDiskReads() {
+        return diskReads;
+    }
+
+    /**
+     * Returns the current number of bytes of compressed documents in memory.
+     */
+    public long getMemorySize() {
+        return memorySize;
+    }
+
+    /**
+     * Returns the current number of bytes of compressed documents in the disk directory.
+     */
+    public long getDiskSize() {
+        return diskSize;
+    }
+
+    @Override
+    public String toString() {
+        return "TermsAndConditionsCacheStatistics[hits=" + hits
+                + ", notModified=" + notModified
+                + ", downloads=" + downloads
+                + ", duplicateDownloads=" + duplicateDownloads
+                + ", memoryEvictions=" + memoryEvictions
+                + ", diskReads=" + diskReads
+                + ", memorySize=" + memorySize
+                + ", diskSize=" + diskSize
+                + "]";
+    }
+}
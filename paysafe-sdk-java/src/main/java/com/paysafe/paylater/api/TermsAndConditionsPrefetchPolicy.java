@@ -0,0 +1,55 @@
+package com.paysafe.paylater.api;
+
+/**
+ * Determines how a {@link TermsAndConditionsPrefetcher} keeps prefetched terms-and-conditions documents.
+ * <p>
+ * A prefetched document is returned once, to the first request for it with the same authorization, if that request is made within
+ * the {@link #getTimeToLive() time to live}. Once the prefetcher holds the {@link #getMaxSize() maximum number} of documents, the
+ * oldest one is discarded.
+ */
+public class TermsAndConditionsPrefetchPolicy {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    public static final int DEFAULT_TIME_TO_LIVE = 30000;
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private int timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * Returns the maximum number of prefetched documents that are kept.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public TermsAndConditionsPrefetchPolicy withMaxSize(int maxSize) {
+        setMaxSize(maxSize);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after the prefetch started that a prefetched document is kept.
+     */
+    public int getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(int timeToLive) {
+        if (timeToLive < 1) {
+            throw new IllegalArgumentException("timeToLive must be at least 1");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    public TermsAndConditionsPrefetchPolicy withTimeToLive(int timeToLive) {
+        setTimeToLive(timeToLive);
+        return this;
+    }
+}
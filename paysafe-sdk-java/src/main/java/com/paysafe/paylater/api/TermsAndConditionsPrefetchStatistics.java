@@ -0,0 +1,66 @@
+package com.paysafe.paylater.api;
+
+/**
+ * The counters of a {@link TermsAndConditionsPrefetcher}.
+ */
+public class TermsAndConditionsPrefetchStatistics {
+
+    private final long prefetches;
+    private final long hits;
+    private final long failures;
+    private final long discarded;
+
+    public TermsAndConditionsPrefetchStatistics(long prefetches, long hits, long failures, long discarded) {
+        this.prefetches = prefetches;
+        this.hits = hits;
+        this.failures = failures;
+        this.discarded = discarded;
+    }
+
+    /**
+     * Returns the total number of documents that were prefetched.
+     */
+    public long getPrefetches() {
+        return prefetches;
+    }
+
+    /**
+     * Returns the total number of requests that were served by a prefetched document, including prefetches that were still in progress.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the total number of prefetches that failed, including ones that could not be started. The document is then obtained by
+     * the request for it as usual.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the total number of prefetched documents that were discarded without serving a request, because they expired, the maximum
+     * size was reached, they were requested with another authorization, their prefetch had not started when they were requested or did
+     * not complete within the time to live, or too many other prefetches were waiting to start.
+     */
+    public long getDiscarded() {
+        return discarded;
+    }
+
+    /**
+     * Returns the fraction of prefetches that served a request, between 0 and 1.
+     */
+    public double getHitRatio() {
+        return prefetches > 0 ? (double) hits / prefetches : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TermsAndConditionsPrefetchStatistics[prefetches=" + prefetches
+                + ", hits=" + hits
+                + ", failures=" + failures
+                + ", discarded=" + discarded
+                + "]";
+    }
+}
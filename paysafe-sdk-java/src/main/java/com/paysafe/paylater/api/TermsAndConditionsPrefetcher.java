@@ -0,0 +1,357 @@
+package com.paysafe.paylater.api;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+
+/**
+ * Keeps terms-and-conditions documents that were obtained before they were requested, according to a
+ * {@link TermsAndConditionsPrefetchPolicy}. Pass it to
+ * {@link LegalDocumentsApi#LegalDocumentsApi(com.paysafe.paylater.communication.Communicator, TermsAndConditionsCache, TermsAndConditionsPrefetcher)}
+ * and pass that API to
+ * {@link PurchaseLifecycleApi#PurchaseLifecycleApi(com.paysafe.paylater.communication.Communicator, PurchaseInfoCache, LegalDocumentsApi)}
+ * to prefetch the document of each purchase that is initialized, with the authorization that the initialize request returned.
+ * The next {@link LegalDocumentsApi#getTermsAndConditionsWithAuthorization(String, String) getTermsAndConditionsWithAuthorization}
+ * call for that purchase and authorization then returns the prefetched document, or waits for the prefetch if it is still in progress.
+ * It waits at most until the {@link Deadline} of the calling thread expires, and no longer than the time to live of the prefetched
+ * document; the prefetch itself is limited by the call timeout of the communicator, like any call.
+ * <p>
+ * A prefetched document is returned only once. If the prefetch failed, or has not started yet because all prefetch threads are busy,
+ * the document is obtained as usual. Prefetches that are discarded before they complete are cancelled, and prefetches that would have
+ * to wait behind too many others for a prefetch thread are not started at all.
+ * <p>
+ * Thread-safe.
+ */
+public class TermsAndConditionsPrefetcher implements Closeable {
+
+    private static final int PREFETCH_THREADS = 2;
+    // prefetches queued behind this many others would hardly ever complete before they are requested
+    static final int MAX_QUEUED_PREFETCHES = 100;
+
+    private final int maxSize;
+    private final long timeToLive;
+
+    // insertion ordered, so the eldest entry is the oldest prefetch; guarded by this
+    private final Map<String, Entry> entries;
+
+    private final LongAdder prefetches = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    // sends the prefetches of communicators with a synchronous connection
+    private final ThreadPoolExecutor prefetcher;
+
+    public TermsAndConditionsPrefetcher(TermsAndConditionsPrefetchPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is required");
+        }
+        maxSize = policy.getMaxSize();
+        timeToLive = TimeUnit.MILLISECONDS.toNanos(policy.getTimeToLive());
+        entries = new LinkedHashMap<>();
+        AtomicInteger threadCount = new AtomicInteger();
+        prefetcher = new ThreadPoolExecutor(PREFETCH_THREADS, PREFETCH_THREADS, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED_PREFETCHES), runnable -> {
+                    Thread thread = new Thread(runnable, "paysafe-terms-prefetch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Starts obtaining the document for the given purchase using the given loader, unless it is already being prefetched with the
+     * given authorization.
+     *
+     * @param loader Obtains the document asynchronously using the given executor.
+     */
+    void prefetch(String purchaseId, String authorization, Function<Executor, CompletableFuture<String>> loader) {
+        if (prefetcher.isShutdown()) {
+            return;
+        }
+        long now = System.nanoTime();
+        Entry entry = new Entry(authorization, now);
+        List<Entry> removed = new ArrayList<>();
+        boolean alreadyPrefetched;
+        synchronized (this) {
+            removeExpired(now, removed);
+            Entry existing = entries.get(purchaseId);
+            alreadyPrefetched = existing != null && Objects.equals(authorization, existing.authorization);
+            if (!alreadyPrefetched) {
+                if (existing != null) {
+                    removed.add(existing);
+                }
+                entries.put(purchaseId, entry);
+                removeEldest(removed);
+            }
+        }
+        discard(removed);
+        if (alreadyPrefetched) {
+            return;
+        }
+        prefetches.increment();
+
+        // remembers the tasks of the prefetch, so a request can tell whether it has started
+        Executor executor = task -> {
+            entry.tasks.add(task);
+            try {
+                prefetcher.execute(task);
+            } catch (RejectedExecutionException e) {
+                // too many prefetches are waiting for a thread, or the prefetcher was closed
+                if (remove(purchaseId, entry)) {
+                    discarded.increment();
+                }
+                entry.document.cancel(false);
+                throw e;
+            }
+        };
+        CompletableFuture<String> future;
+        try {
+            future = loader.apply(executor);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        final CompletableFuture<String> request = future;
+        entry.document.whenComplete((document, thrown) -> {
+            if (entry.document.isCancelled()) {
+                // the prefetch was discarded, a request no longer waited for it, or the prefetcher was closed
+                request.cancel(true);
+            }
+        });
+        request.whenComplete((document, thrown) -> {
+            if (thrown == null) {
+                entry.document.complete(document);
+                return;
+            }
+            if (entry.document.isCancelled()) {
+                return;
+            }
+            failures.increment();
+            remove(purchaseId, entry);
+            entry.document.completeExceptionally(thrown);
+        });
+    }
+
+    /**
+     * Counts a prefetch that failed before it could be started.
+     */
+    void prefetchFailed() {
+        failures.increment();
+    }
+
+    /**
+     * Returns the prefetched document for the given purchase and authorization, or obtains it using the given loader.
+     * This waits for a prefetch in progress at most until the {@link Deadline} of the calling thread expires, and at most until the
+     * time to live of the prefetched document has passed; in the latter case, the prefetch is cancelled and the document is obtained
+     * as usual.
+     *
+     * @throws DeadlineExceededException if the {@link Deadline} of the calling thread expired while waiting for the prefetch
+     */
+    String get(String purchaseId, String authorization, Supplier<String> loader) {
+        long now = System.nanoTime();
+        Entry entry = take(purchaseId, authorization, now);
+        if (entry == null) {
+            return loader.get();
+        }
+        Deadline deadline = Deadline.current();
+        long timeToLiveRemaining = entry.startedAt + timeToLive - now;
+        long deadlineRemaining = deadline != null ? deadline.remaining(TimeUnit.NANOSECONDS) : Long.MAX_VALUE;
+        try {
+            String document = entry.document.get(Math.min(timeToLiveRemaining, deadlineRemaining), TimeUnit.NANOSECONDS);
+            hits.increment();
+            return document;
+        } catch (@SuppressWarnings("unused") ExecutionException | CancellationException e) {
+            // the prefetch failed, has not started or the prefetcher was closed; obtain the document as usual
+            return loader.get();
+        } catch (TimeoutException e) {
+            // this also cancels the prefetch request
+            entry.document.cancel(false);
+            if (deadlineRemaining <= timeToLiveRemaining) {
+                throw new DeadlineExceededException("The deadline of the call expired while waiting for the prefetched document", e);
+            }
+            discarded.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            entry.document.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new CommunicationException(e);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #get(String, String, Supplier)}.
+     *
+     * @param executor The executor used to complete the returned future with a prefetched document.
+     */
+    CompletableFuture<String> getAsync(String purchaseId, String authorization, Executor executor, Supplier<CompletableFuture<String>> loader) {
+        Entry entry = take(purchaseId, authorization, System.nanoTime());
+        if (entry == null) {
+            return loader.get();
+        }
+        CompletableFuture<String> result = new CompletableFuture<>();
+        entry.document.whenCompleteAsync((document, thrown) -> {
+            if (thrown == null) {
+                hits.increment();
+                result.complete(document);
+                return;
+            }
+            if (result.isDone()) {
+                return;
+            }
+            // the prefetch failed or the prefetcher was closed; obtain the document as usual
+            CompletableFuture<String> future = loader.get();
+            future.whenComplete((loaded, loadThrown) -> {
+                if (loadThrown == null) {
+                    result.complete(loaded);
+                } else {
+                    result.completeExceptionally(loadThrown instanceof CompletionException && loadThrown.getCause() != null
+                            ? loadThrown.getCause()
+                            : loadThrown);
+                }
+            });
+            result.whenComplete((loaded, loadThrown) -> {
+                if (result.isCancelled()) {
+                    future.cancel(true);
+                }
+            });
+        }, executor);
+        return result;
+    }
+
+    /**
+     * Removes the entry for the given purchase and authorization. If its prefetch has not started yet, it is not sent at all, and the
+     * returned entry is cancelled.
+     */
+    private Entry take(String purchaseId, String authorization, long now) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(purchaseId);
+            // a document prefetched with another authorization is kept for the request with that authorization
+            if (entry == null || !Objects.equals(authorization, entry.authorization)) {
+                return null;
+            }
+            entries.remove(purchaseId);
+        }
+        if (isExpired(entry, now)) {
+            discard(Collections.singletonList(entry));
+            return null;
+        }
+        boolean removed = false;
+        for (Runnable task : entry.tasks) {
+            removed |= prefetcher.remove(task);
+        }
+        if (removed) {
+            // the request would otherwise wait for the prefetches before it as well
+            discarded.increment();
+            entry.document.cancel(false);
+        }
+        return entry;
+    }
+
+    private synchronized boolean remove(String purchaseId, Entry entry) {
+        return entries.remove(purchaseId, entry);
+    }
+
+    // entries are ordered by the time the prefetch started, so only the eldest entries can be expired
+    private void removeExpired(long now, List<Entry> removed) {
+        for (Iterator<Entry> i = entries.values().iterator(); i.hasNext(); ) {
+            Entry entry = i.next();
+            if (!isExpired(entry, now)) {
+                break;
+            }
+            i.remove();
+            removed.add(entry);
+        }
+    }
+
+    private void removeEldest(List<Entry> removed) {
+        for (Iterator<Entry> i = entries.values().iterator(); entries.size() > maxSize; ) {
+            removed.add(i.next());
+            i.remove();
+        }
+    }
+
+    /**
+     * Stops the prefetches of the given entries, which have been removed. Prefetches that have not started are not sent at all.
+     * Not called while holding the lock, as cancelling a prefetch may complete other futures.
+     */
+    private void discard(List<Entry> removed) {
+        for (Entry entry : removed) {
+            discarded.increment();
+            for (Runnable task : entry.tasks) {
+                prefetcher.remove(task);
+            }
+            // this also cancels the prefetch request
+            entry.document.cancel(false);
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.startedAt >= timeToLive;
+    }
+
+    /**
+     * Returns the number of prefetched documents that are kept, including ones that are still being prefetched or that expired
+     * but were not yet removed.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public TermsAndConditionsPrefetchStatistics getStatistics() {
+        return new TermsAndConditionsPrefetchStatistics(prefetches.sum(), hits.sum(), failures.sum(), discarded.sum());
+    }
+
+    /**
+     * Stops prefetching, and discards all prefetched documents.
+     */
+    @Override
+    public void close() {
+        prefetcher.shutdownNow();
+        synchronized (this) {
+            // prefetches that were waiting for a thread will not complete
+            for (Entry entry : entries.values()) {
+                entry.document.cancel(false);
+            }
+            entries.clear();
+        }
+    }
+
+    private static final class Entry {
+
+        private final String authorization;
+        private final long startedAt;
+        private final CompletableFuture<String> document = new CompletableFuture<>();
+        // the tasks that were submitted to the prefetch threads
+        private final List<Runnable> tasks = new CopyOnWriteArrayList<>();
+
+        private Entry(String authorization, long startedAt) {
+            this.authorization = authorization;
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * The families of operations of the Paysafe Pay Later API. Each family can be isolated in a bulkhead of its own.
+ *
+ * @see BulkheadPolicy
+ */
+public enum ApiFamily {
+
+    /**
+     * Authorizing pay later purchases.
+     */
+    AUTHORIZATION,
+
+    /**
+     * Operations that change purchases: initializing, capturing and refunding them.
+     */
+    LIFECYCLE_WRITES,
+
+    /**
+     * Retrieving purchases.
+     */
+    READS,
+
+    /**
+     * Retrieving legal documents, like the terms and conditions.
+     */
+    LEGAL_DOCUMENTS,
+}
@@ -0,0 +1,55 @@
+package com.paysafe.paylater.communication;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.paysafe.paylater.exception.CommunicationException;
+
+/**
+ * Represents a connection to the Paysafe Pay Later platform server that can send requests without blocking the calling thread.
+ * Thread-safe.
+ * <p>
+ * The returned futures are completed with the result of the response handler, or exceptionally with a {@link CommunicationException}
+ * or any exception thrown by the response handler. Cancelling a returned future aborts the request.
+ */
+public interface AsyncConnection extends Connection {
+
+    /**
+     * Send a POST request to the Paysafe Pay Later platform without waiting for the response.
+     *
+     * @param uri The URI to call, including any necessary query parameters.
+     * @param requestHeaders An optional list of request headers.
+     * @param body The optional body to send.
+     * @param responseHandler A handler for the response.
+     */
+    <R> CompletableFuture<R> postAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler);
+
+    /**
+     * Send a GET request to the Paysafe Pay Later platform without waiting for the response.
+     *
+     * @param uri The URI to call, including any necessary query parameters.
+     * @param requestHeaders An optional list of request headers.
+     * @param responseHandler A handler for the response.
+     */
+    <R> CompletableFuture<R> getAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler);
+
+    /**
+     * Send a PUT request to the Paysafe Pay Later platform without waiting for the response.
+     *
+     * @param uri The URI to call, including any necessary query parameters.
+     * @param requestHeaders An optional list of request headers.
+     * @param body The optional body to send.
+     * @param responseHandler A handler for the response.
+     */
+    <R> CompletableFuture<R> putAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler);
+
+    /**
+     * Send a DELETE request to the Paysafe Pay Later platform without waiting for the response.
+     *
+     * @param uri The URI to call, including any necessary query parameters.
+     * @param requestHeaders An optional list of request headers.
+     * @param responseHandler A handler for the response.
+     */
+    <R> CompletableFuture<R> deleteAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler);
+}
@@ -0,0 +1,100 @@
+package com.paysafe.paylater.communication;
+
+import com.paysafe.paylater.communication.ConcurrencyLimitPolicy.OverflowPolicy;
+
+/**
+ * Determines how many calls of an {@link ApiFamily} can be in progress at the same time. Calls of different API families
+ * do not share these slots, so a surge of calls of one family cannot use up the slots of another.
+ * <p>
+ * A slot is held for the entire call, including any retries. Calls that find all slots in use are handled according to
+ * the {@link #getOverflowPolicy() overflow policy}; calls that cannot get a slot fail with a
+ * {@link com.paysafe.paylater.exception.BulkheadFullException}.
+ */
+public class BulkheadPolicy {
+
+    public static final int DEFAULT_MAX_CONCURRENT_CALLS = 10;
+    public static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.REJECT;
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 100;
+    public static final int DEFAULT_MAX_QUEUE_WAIT = 1000;
+
+    private int maxConcurrentCalls = DEFAULT_MAX_CONCURRENT_CALLS;
+    private OverflowPolicy overflowPolicy = DEFAULT_OVERFLOW_POLICY;
+    private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+    private int maxQueueWait = DEFAULT_MAX_QUEUE_WAIT;
+
+    /**
+     * Returns the maximum number of calls that can be in progress at the same time.
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be at least 1");
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public BulkheadPolicy withMaxConcurrentCalls(int maxConcurrentCalls) {
+        setMaxConcurrentCalls(maxConcurrentCalls);
+        return this;
+    }
+
+    /**
+     * Returns how calls that find all slots in use are handled.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy is required");
+        }
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public BulkheadPolicy withOverflowPolicy(OverflowPolicy overflowPolicy) {
+        setOverflowPolicy(overflowPolicy);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of calls that can wait for a slot. This is only used for {@link OverflowPolicy#QUEUE}.
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public void setMaxQueueSize(int maxQueueSize) {
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("maxQueueSize should not be negative");
+        }
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    public BulkheadPolicy withMaxQueueSize(int maxQueueSize) {
+        setMaxQueueSize(maxQueueSize);
+        return this;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds that a call can wait for a slot. This is only used for {@link OverflowPolicy#QUEUE}.
+     */
+    public int getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    public void setMaxQueueWait(int maxQueueWait) {
+        if (maxQueueWait < 0) {
+            throw new IllegalArgumentException("maxQueueWait should not be negative");
+        }
+        this.maxQueueWait = maxQueueWait;
+    }
+
+    public BulkheadPolicy withMaxQueueWait(int maxQueueWait) {
+        setMaxQueueWait(maxQueueWait);
+        return this;
+    }
+}
@@ -0,0 +1,68 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * The occupancy and rejection counter of the bulkhead of a single {@link ApiFamily}.
+ *
+ * @see BulkheadPolicy
+ */
+public class BulkheadStatistics {
+
+    private final ApiFamily apiFamily;
+    private final int maxConcurrentCalls;
+    private final int activeCalls;
+    private final int queuedCalls;
+    private final long rejectedCalls;
+
+    public BulkheadStatistics(ApiFamily apiFamily, int maxConcurrentCalls, int activeCalls, int queuedCalls, long rejectedCalls) {
+        if (apiFamily == null) {
+            throw new IllegalArgumentException("apiFamily is required");
+        }
+        this.apiFamily = apiFamily;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.activeCalls = activeCalls;
+        this.queuedCalls = queuedCalls;
+        this.rejectedCalls = rejectedCalls;
+    }
+
+    public ApiFamily getApiFamily() {
+        return apiFamily;
+    }
+
+    /**
+     * Returns the maximum number of calls that can be in progress at the same time.
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Returns the number of calls that were in progress.
+     */
+    public int getActiveCalls() {
+        return activeCalls;
+    }
+
+    /**
+     * Returns the number of calls that were waiting for a slot.
+     */
+    public int getQueuedCalls() {
+        return queuedCalls;
+    }
+
+    /**
+     * Returns the total number of calls that failed because they could not get a slot.
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadStatistics[apiFamily=" + apiFamily
+                + ", maxConcurrentCalls=" + maxConcurrentCalls
+                + ", activeCalls=" + activeCalls
+                + ", queuedCalls=" + queuedCalls
+                + ", rejectedCalls=" + rejectedCalls
+                + "]";
+    }
+}
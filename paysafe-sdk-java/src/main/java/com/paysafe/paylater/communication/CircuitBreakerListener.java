@@ -0,0 +1,16 @@
+package com.paysafe.paylater.communication;
+
+import com.paysafe.paylater.communication.standard.CircuitBreaker;
+
+/**
+ * A listener for state changes of a {@link CircuitBreaker}, for instance to raise alerts. Register it with the circuit breaker itself,
+ * or with the {@link CircuitBreakerPolicy} that the circuit breaker is created with.
+ * Listeners are called synchronously by the thread that caused the state change, so they should return quickly.
+ */
+public interface CircuitBreakerListener {
+
+    /**
+     * Called when the given circuit breaker changed from one state to another.
+     */
+    void onStateChange(CircuitBreaker circuitBreaker, CircuitBreaker.State fromState, CircuitBreaker.State toState);
+}
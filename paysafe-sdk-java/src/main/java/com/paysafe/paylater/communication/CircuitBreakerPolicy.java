@@ -0,0 +1,198 @@
+package com.paysafe.paylater.communication;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Determines when a circuit breaker opens, and how it recovers.
+ * <p>
+ * The outcome of the most recent requests is kept in a sliding window of {@link #getSlidingWindowSize() a fixed number of requests}.
+ * Once it contains at least {@link #getMinimumNumberOfCalls() a minimum number of requests}, the circuit breaker opens if
+ * the percentage of failed requests reaches the {@link #getFailureRateThreshold() failure rate threshold}, or if the percentage of requests
+ * that took at least the {@link #getSlowCallDuration() slow call duration} reaches the {@link #getSlowCallRateThreshold() slow call rate threshold}.
+ * Failed requests are requests that failed with a communication error or a 5xx status code; other error responses mean the server is healthy.
+ * <p>
+ * While open, requests fail immediately. After the {@link #getOpenDuration() open duration}, the circuit breaker becomes half-open and allows
+ * a {@link #getHalfOpenProbes() limited number of probe requests}. If all of them succeed, the circuit breaker closes;
+ * if any of them fails or is slow, it opens again.
+ * <p>
+ * {@link #addListener(CircuitBreakerListener) Listeners} are registered with each circuit breaker that is created with this policy,
+ * including the one that {@link com.paysafe.paylater.Factory} creates for a communicator.
+ */
+public class CircuitBreakerPolicy {
+
+    public static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    public static final int DEFAULT_SLOW_CALL_RATE_THRESHOLD = 100;
+    public static final int DEFAULT_SLOW_CALL_DURATION = 5000;
+    public static final int DEFAULT_SLIDING_WINDOW_SIZE = 100;
+    public static final int DEFAULT_MINIMUM_NUMBER_OF_CALLS = 20;
+    public static final int DEFAULT_OPEN_DURATION = 30000;
+    public static final int DEFAULT_HALF_OPEN_PROBES = 5;
+
+    private int failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+    private int slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+    private int slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+    private int slidingWindowSize = DEFAULT_SLIDING_WINDOW_SIZE;
+    private int minimumNumberOfCalls = DEFAULT_MINIMUM_NUMBER_OF_CALLS;
+    private int openDuration = DEFAULT_OPEN_DURATION;
+    private int halfOpenProbes = DEFAULT_HALF_OPEN_PROBES;
+    private final List<CircuitBreakerListener> listeners = new ArrayList<>();
+
+    /**
+     * Returns the percentage of failed requests at which the circuit breaker opens.
+     */
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("failureRateThreshold must be between 1 and 100");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public CircuitBreakerPolicy withFailureRateThreshold(int failureRateThreshold) {
+        setFailureRateThreshold(failureRateThreshold);
+        return this;
+    }
+
+    /**
+     * Returns the percentage of slow requests at which the circuit breaker opens.
+     */
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+        if (slowCallRateThreshold < 1 || slowCallRateThreshold > 100) {
+            throw new IllegalArgumentException("slowCallRateThreshold must be between 1 and 100");
+        }
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public CircuitBreakerPolicy withSlowCallRateThreshold(int slowCallRateThreshold) {
+        setSlowCallRateThreshold(slowCallRateThreshold);
+        return this;
+    }
+
+    /**
+     * Returns the duration in milliseconds after which a request is considered slow, regardless of its outcome.
+     */
+    public int getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(int slowCallDuration) {
+        if (slowCallDuration < 1) {
+            throw new IllegalArgumentException("slowCallDuration must be at least 1");
+        }
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    public CircuitBreakerPolicy withSlowCallDuration(int slowCallDuration) {
+        setSlowCallDuration(slowCallDuration);
+        return this;
+    }
+
+    /**
+     * Returns the number of most recent requests of which the outcome is used to determine the failure and slow call rates.
+     */
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+        if (slidingWindowSize < 1) {
+            throw new IllegalArgumentException("slidingWindowSize must be at least 1");
+        }
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public CircuitBreakerPolicy withSlidingWindowSize(int slidingWindowSize) {
+        setSlidingWindowSize(slidingWindowSize);
+        return this;
+    }
+
+    /**
+     * Returns the minimum number of requests in the sliding window before the circuit breaker can open.
+     * If this is larger than the sliding window size, the sliding window size is used instead.
+     */
+    public int getMinimumNumberOfCalls() {
+        return minimumNumberOfCalls;
+    }
+
+    public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+        if (minimumNumberOfCalls < 1) {
+            throw new IllegalArgumentException("minimumNumberOfCalls must be at least 1");
+        }
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+    }
+
+    public CircuitBreakerPolicy withMinimumNumberOfCalls(int minimumNumberOfCalls) {
+        setMinimumNumberOfCalls(minimumNumberOfCalls);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds that the circuit breaker stays open before it allows probe requests.
+     */
+    public int getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(int openDuration) {
+        if (openDuration < 0) {
+            throw new IllegalArgumentException("openDuration should not be negative");
+        }
+        this.openDuration = openDuration;
+    }
+
+    public CircuitBreakerPolicy withOpenDuration(int openDuration) {
+        setOpenDuration(openDuration);
+        return this;
+    }
+
+    /**
+     * Returns the number of probe requests that are allowed while the circuit breaker is half-open.
+     */
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    public void setHalfOpenProbes(int halfOpenProbes) {
+        if (halfOpenProbes < 1) {
+            throw new IllegalArgumentException("halfOpenProbes must be at least 1");
+        }
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    public CircuitBreakerPolicy withHalfOpenProbes(int halfOpenProbes) {
+        setHalfOpenProbes(halfOpenProbes);
+        return this;
+    }
+
+    /**
+     * Returns the listeners that are registered with each circuit breaker that is created with this policy.
+     */
+    public List<CircuitBreakerListener> getListeners() {
+        return Collections.unmodifiableList(new ArrayList<>(listeners));
+    }
+
+    public void addListener(CircuitBreakerListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is required");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(CircuitBreakerListener listener) {
+        listeners.remove(listener);
+    }
+
+    public CircuitBreakerPolicy withListener(CircuitBreakerListener listener) {
+        addListener(listener);
+        return this;
+    }
+}
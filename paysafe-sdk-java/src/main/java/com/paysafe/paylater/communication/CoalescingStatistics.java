@@ -0,0 +1,52 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * The counters of request coalescing: how many GET requests were made, and how many of them shared the call of an identical request
+ * that was already in flight.
+ */
+public class CoalescingStatistics {
+
+    private final long requests;
+    private final long calls;
+
+    public CoalescingStatistics(long requests, long calls) {
+        this.requests = requests;
+        this.calls = calls;
+    }
+
+    /**
+     * Returns the total number of GET requests.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the total number of calls that were made for the GET requests.
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Returns the total number of GET requests that shared the call of an identical request instead of making a call of their own.
+     */
+    public long getCoalescedRequests() {
+        return requests - calls;
+    }
+
+    /**
+     * Returns the fraction of GET requests that shared the call of an identical request, between 0 and 1.
+     */
+    public double getCoalescingRatio() {
+        return requests > 0 ? (double) getCoalescedRequests() / requests : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingStatistics[requests=" + requests
+                + ", calls=" + calls
+                + ", coalescingRatio=" + getCoalescingRatio()
+                + "]";
+    }
+}
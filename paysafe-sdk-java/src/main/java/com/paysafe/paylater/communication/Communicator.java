@@ -1,14 +1,28 @@
 package com.paysafe.paylater.communication;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import com.paysafe.paylater.exception.ApiException;
 import com.paysafe.paylater.exception.CommunicationException;
 import com.paysafe.paylater.exception.MarshallerSyntaxException;
+import com.paysafe.paylater.exception.NotFoundException;
+import com.paysafe.paylater.exception.ResponseBodyWriteException;
 import com.paysafe.paylater.exception.ResponseException;
 import com.paysafe.paylater.logging.LoggingCapable;
+import com.paysafe.paylater.model.ConditionalResponse;
+import com.paysafe.paylater.model.DownloadResponse;
 import com.paysafe.paylater.model.ResponseWithAuthorization;
 
 /**
@@ -35,6 +49,37 @@ public interface Communicator extends Closeable, LoggingCapable {
 
     <O> ResponseWithAuthorization<O> executeWithAuthorizationHeader(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Object requestBody, Class<O> responseType);
 
+    /**
+     * Asynchronous variant of {@link #execute(HttpMethod, String, List, Object, Class)}.
+     * <p>
+     * If the connection is an {@link AsyncConnection} the request is sent without blocking a thread, otherwise it is sent using the given executor.
+     * Either way, the returned future is completed using the given executor.
+     * It is completed exceptionally with the same exceptions that the synchronous variant throws.
+     * <p>
+     * The default implementation calls the synchronous variant using the given executor.
+     *
+     * @param httpMethod The type of Http Method to execute.
+     * @param relativePath The path to call, relative to the base URI.
+     * @param requestHeaders An optional set of request headers.
+     * @param requestBody The optional request body to send.
+     * @param responseType The type of response to return.
+     * @param executor The executor used to complete the returned future.
+     */
+    default <O> CompletableFuture<O> executeAsync(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Object requestBody,
+            Class<O> responseType, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> execute(httpMethod, relativePath, requestHeaders, requestBody, responseType), executor);
+    }
+
+    /**
+     * Asynchronous variant of {@link #executeWithAuthorizationHeader(HttpMethod, String, List, Object, Class)}.
+     *
+     * @see #executeAsync(HttpMethod, String, List, Object, Class, Executor)
+     */
+    default <O> CompletableFuture<ResponseWithAuthorization<O>> executeWithAuthorizationHeaderAsync(HttpMethod httpMethod, String relativePath,
+            List<RequestHeader> requestHeaders, Object requestBody, Class<O> responseType, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> executeWithAuthorizationHeader(httpMethod, relativePath, requestHeaders, requestBody, responseType), executor);
+    }
+
     /**
      * @param relativePath The path to call, relative to the base URI.
      * @param requestHeaders An set of request headers.
@@ -61,6 +106,119 @@ public interface Communicator extends Closeable, LoggingCapable {
 
     <O> ResponseWithAuthorization<O> getWithAuthorization(String relativePath, List<RequestHeader> requestHeaders, Class<O> responseType);
 
+    /**
+     * Sends a conditional GET request: if the response has not been modified since it was returned with the given {@code ETag} or
+     * {@code Last-Modified} header value, the returned response {@link ConditionalResponse#isNotModified() is not modified} and has
+     * no body. If both values are {@code null}, the request is not conditional.
+     * <p>
+     * The default implementation sends the given values as {@code If-None-Match} and {@code If-Modified-Since} headers using
+     * {@link #get(String, List, Class)}, and treats a {@link ResponseException} with status code 304 as not modified. Its responses
+     * only have an {@code ETag} or {@code Last-Modified} header value if they are not modified.
+     *
+     * @param relativePath The path to call, relative to the base URI.
+     * @param requestHeaders An set of request headers.
+     * @param eTag The {@code ETag} header value of the response that the request is conditional on. May be {@code null}.
+     * @param lastModified The {@code Last-Modified} header value of the response that the request is conditional on. May be {@code null}.
+     * @param responseType The type of response to return.
+     * @throws CommunicationException when an exception occurred communicating with the Paysafe Pay Later platform
+     * @throws ResponseException when an error response was received from the Paysafe Pay Later platform
+     * @throws ApiException when an error response was received from the Paysafe Pay Later platform which contained a list of errors
+     */
+    default <O> ConditionalResponse<O> getIfModified(String relativePath, List<RequestHeader> requestHeaders, String eTag, String lastModified,
+            Class<O> responseType) {
+        List<RequestHeader> conditionalHeaders = requestHeaders != null ? new ArrayList<>(requestHeaders) : new ArrayList<>();
+        if (eTag != null) {
+            conditionalHeaders.add(new RequestHeader("If-None-Match", eTag));
+        }
+        if (lastModified != null) {
+            conditionalHeaders.add(new RequestHeader("If-Modified-Since", lastModified));
+        }
+        try {
+            return new ConditionalResponse<>(false, get(relativePath, conditionalHeaders, responseType), null, null);
+        } catch (ResponseException e) {
+            if (e.getResponseStatusCode() != 304) {
+                throw e;
+            }
+            String newETag = ResponseHeader.getHeaderValue(e.getHeaders(), "ETag");
+            String newLastModified = ResponseHeader.getHeaderValue(e.getHeaders(), "Last-Modified");
+            return new ConditionalResponse<>(true, null, newETag != null ? newETag : eTag, newLastModified != null ? newLastModified : lastModified);
+        }
+    }
+
+    /**
+     * Sends a GET request and writes the response body to the given output stream as it is received, instead of returning it.
+     * The output stream is not closed.
+     * <p>
+     * The request is retried according to the retry policy only until part of the response body has been written. Identical
+     * requests do not share a call.
+     * <p>
+     * The default implementation does not stream the response body: it gets the body as a {@code String} using
+     * {@link #get(String, List, Class)}, and writes it to the output stream encoded as UTF-8. The returned response has no content type,
+     * {@code ETag} or {@code Last-Modified} header value.
+     *
+     * @param relativePath The path to call, relative to the base URI.
+     * @param requestHeaders An set of request headers.
+     * @param outputStream The output stream to write the response body to.
+     * @throws CommunicationException when an exception occurred communicating with the Paysafe Pay Later platform
+     * @throws ResponseBodyWriteException when the response body could not be written to the output stream
+     * @throws ResponseException when an error response was received from the Paysafe Pay Later platform
+     */
+    default DownloadResponse download(String relativePath, List<RequestHeader> requestHeaders, OutputStream outputStream) {
+        if (outputStream == null) {
+            throw new IllegalArgumentException("outputStream is required");
+        }
+        String responseBody = get(relativePath, requestHeaders, String.class);
+        byte[] body = responseBody != null ? responseBody.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        try {
+            outputStream.write(body);
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new ResponseBodyWriteException(e);
+        }
+        return new DownloadResponse(null, body.length, null, null);
+    }
+
+    /**
+     * Sends a GET request and writes the response body to the given file as it is received, like
+     * {@link #download(String, List, OutputStream)}. The body is written to a temporary file in the same directory, which replaces
+     * the given file only once the download succeeded; if the download fails, an existing file is left unchanged.
+     * <p>
+     * The default implementation gets the response body like {@link #download(String, List, OutputStream)}, and only writes the file
+     * once the complete body has been received.
+     *
+     * @param relativePath The path to call, relative to the base URI.
+     * @param requestHeaders An set of request headers.
+     * @param path The file to write the response body to.
+     * @throws CommunicationException when an exception occurred communicating with the Paysafe Pay Later platform
+     * @throws ResponseBodyWriteException when the response body could not be written to the file
+     * @throws ResponseException when an error response was received from the Paysafe Pay Later platform
+     */
+    default DownloadResponse download(String relativePath, List<RequestHeader> requestHeaders, Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException("path is required");
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DownloadResponse response = download(relativePath, requestHeaders, body);
+        try {
+            Files.write(path, body.toByteArray());
+        } catch (IOException e) {
+            throw new ResponseBodyWriteException(e);
+        }
+        return response;
+    }
+
+    /**
+     * Asynchronous variant of {@link #getIfModified(String, List, String, String, Class)}.
+     * <p>
+     * The default implementation calls the synchronous variant using the given executor.
+     *
+     * @see #executeAsync(HttpMethod, String, List, Object, Class, Executor)
+     */
+    default <O> CompletableFuture<ConditionalResponse<O>> getIfModifiedAsync(String relativePath, List<RequestHeader> requestHeaders, String eTag,
+            String lastModified, Class<O> responseType, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> getIfModified(relativePath, requestHeaders, eTag, lastModified, responseType), executor);
+    }
+
     /**
      * @param relativePath The path to call, relative to the base URI.
      * @param requestHeaders An set of request headers.
@@ -98,6 +256,42 @@ public interface Communicator extends Closeable, LoggingCapable {
      */
     <T> T unmarshal(String responseJson, Class<T> type);
 
+    /**
+     * Warms up this communicator, so the first requests are not slowed down by opening connections or initializing the marshaller.
+     * <p>
+     * This opens the requested number of connections to the API endpoint, by concurrently sending a GET request to the
+     * {@link WarmUpOptions#getPath() warm-up path}. These requests are not hedged.
+     * Any response, regardless of its status code, means the connection has been opened (including the TLS handshake for HTTPS)
+     * and is kept in the connection's pool. Afterwards, each model type is marshalled and unmarshalled.
+     * <p>
+     * This method blocks until the warm-up is finished. It does not throw exceptions for connections that could not be opened;
+     * these are reported in the result instead, for instance for a readiness check.
+     * <p>
+     * The default implementation sends the GET requests one after another using {@link #get(String, List, Class)}, so they may share
+     * a connection, and stops sending them once the timeout has passed. It does not warm up the marshaller.
+     */
+    default WarmUpResult warmUp(WarmUpOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(options.getTimeout());
+        int connectionsOpened = 0;
+        for (int i = 0; i < options.getConnections() && System.nanoTime() - deadline < 0; i++) {
+            try {
+                get(options.getPath(), new ArrayList<>(), String.class);
+                connectionsOpened++;
+            } catch (@SuppressWarnings("unused") ResponseException | ApiException | NotFoundException | MarshallerSyntaxException e) {
+                // any response means the connection has been opened
+                connectionsOpened++;
+            } catch (@SuppressWarnings("unused") CommunicationException e) {
+                // reported as a failed connection
+            }
+        }
+        Duration connectionsDuration = Duration.ofNanos(System.nanoTime() - startTime);
+        return new WarmUpResult(connectionsOpened, options.getConnections() - connectionsOpened, connectionsDuration, 0, Duration.ZERO);
+    }
+
     /**
      * Utility method that delegates the call to this communicator's session's connection if that's an instance of
      * {@link PooledConnection}. If not this method does nothing.
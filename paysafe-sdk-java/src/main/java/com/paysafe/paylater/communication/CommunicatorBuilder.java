@@ -1,6 +1,9 @@
 package com.paysafe.paylater.communication;
 
 import java.net.URI;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.paysafe.paylater.communication.standard.PaysafeCommunicator;
 
@@ -12,6 +15,12 @@ public class CommunicatorBuilder {
     private URI apiEndpoint;
     private Connection connection;
     private Marshaller marshaller;
+    private RetryPolicy retryPolicy;
+    private int callTimeout;
+    private Map<ApiFamily, BulkheadPolicy> bulkheadPolicies = new EnumMap<>(ApiFamily.class);
+    private RateLimitPolicy rateLimitPolicy;
+    private Map<String, RateLimitPolicy> operationRateLimitPolicies = new LinkedHashMap<>();
+    private boolean requestCoalescing;
 
     /**
      * Sets the Paysafe Pay Later platform API endpoint URI to use.
@@ -37,6 +46,56 @@ public class CommunicatorBuilder {
         return this;
     }
 
+    /**
+     * Sets the {@link RetryPolicy} to use. If not set, requests are not retried.
+     */
+    public CommunicatorBuilder withRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Sets the time in milliseconds that each call may take in total, including any retries. If not set, or set to 0,
+     * calls are only limited by a {@link Deadline} that is active on the calling thread.
+     */
+    public CommunicatorBuilder withCallTimeout(int callTimeout) {
+        this.callTimeout = callTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the bulkhead policies of the API families that are isolated from each other. If not set, calls are not limited per API family.
+     */
+    public CommunicatorBuilder withBulkheadPolicies(Map<ApiFamily, BulkheadPolicy> bulkheadPolicies) {
+        this.bulkheadPolicies = bulkheadPolicies;
+        return this;
+    }
+
+    /**
+     * Sets the {@link RateLimitPolicy} of all operations without a policy of their own. If not set, only operations with a policy
+     * of their own are rate limited.
+     */
+    public CommunicatorBuilder withRateLimitPolicy(RateLimitPolicy rateLimitPolicy) {
+        this.rateLimitPolicy = rateLimitPolicy;
+        return this;
+    }
+
+    /**
+     * Sets the rate limit policies of operations that have a rate limit of their own, keyed by path template.
+     */
+    public CommunicatorBuilder withOperationRateLimitPolicies(Map<String, RateLimitPolicy> operationRateLimitPolicies) {
+        this.operationRateLimitPolicies = operationRateLimitPolicies;
+        return this;
+    }
+
+    /**
+     * Sets whether or not concurrent identical GET requests share a single call. If not set, each request makes its own call.
+     */
+    public CommunicatorBuilder withRequestCoalescing(boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+        return this;
+    }
+
     /**
      * Creates a fully initialized {@link Communicator} object.
      *
@@ -46,7 +105,13 @@ public class CommunicatorBuilder {
         return new PaysafeCommunicator(
                 apiEndpoint,
                 connection,
-                marshaller
+                marshaller,
+                retryPolicy,
+                callTimeout,
+                bulkheadPolicies,
+                rateLimitPolicy,
+                operationRateLimitPolicies,
+                requestCoalescing
         );
     }
 }
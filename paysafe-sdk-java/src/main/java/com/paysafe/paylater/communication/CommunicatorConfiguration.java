@@ -2,16 +2,21 @@ package com.paysafe.paylater.communication;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Pattern;
 
-import org.apache.http.util.Asserts;
-
 /**
  * Configuration for the communicator.
  */
@@ -19,17 +24,53 @@ public class CommunicatorConfiguration {
 
     public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
     public static final int DEFAULT_READ_TIMEOUT = 10000;
+    public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT = 10000;
+    public static final int DEFAULT_CALL_TIMEOUT = 0;
     public static final int DEFAULT_MAX_CONNECTIONS = 10;
-    public static final Set<String> DEFAULT_HTTPS_PROTOCOLS = Collections.unmodifiableSet(new LinkedHashSet<>(Collections.singletonList("TLSv1.2")));
+    public static final Set<String> DEFAULT_HTTPS_PROTOCOLS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList("TLSv1.3", "TLSv1.2")));
+    public static final int DEFAULT_HTTPS_SESSION_CACHE_SIZE = 100;
+    public static final int DEFAULT_HTTPS_SESSION_TIMEOUT = 3600000;
+    public static final ConnectionType DEFAULT_CONNECTION_TYPE = ConnectionType.BLOCKING;
+    public static final int DEFAULT_MAX_CONCURRENT_STREAMS = 100;
+    public static final int DEFAULT_CONNECTION_POOL_STRIPES = 1;
+    public static final int DEFAULT_CONNECTION_EVICTION_INTERVAL = 0;
+    public static final int DEFAULT_MAX_IDLE_TIME = 0;
+    public static final int DEFAULT_CONNECTION_TIME_TO_LIVE = 0;
 
     private static final String PAYSAFE_PAYLATER_API_ENDPOINT_HOST = "paysafe.paylater.api.endpoint.host";
     private static final Pattern COMMA_SEPARATOR_PATTERN = Pattern.compile("\\s*,\\s*");
+    private static final String OPERATION_PROPERTY_PREFIX = "paysafe.paylater.api.operation.";
+    private static final String OPERATION_RATE_LIMIT_PROPERTY_PREFIX = "paysafe.paylater.api.rateLimit.operation.";
+    // the path templates of the API methods, so operation profiles can be configured by either
+    private static final Map<String, String> OPERATION_PATH_TEMPLATES = createOperationPathTemplates();
 
     private URI apiEndpoint;
+    private List<URI> additionalApiEndpoints = new ArrayList<>();
+    private EndpointRoutingPolicy endpointRoutingPolicy;
     private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
     private int readTimeout = DEFAULT_READ_TIMEOUT;
+    private int connectionRequestTimeout = DEFAULT_CONNECTION_REQUEST_TIMEOUT;
+    private int callTimeout = DEFAULT_CALL_TIMEOUT;
     private int maxConnections = DEFAULT_MAX_CONNECTIONS;
     private Set<String> httpsProtocols = new LinkedHashSet<>(DEFAULT_HTTPS_PROTOCOLS);
+    private int httpsSessionCacheSize = DEFAULT_HTTPS_SESSION_CACHE_SIZE;
+    private int httpsSessionTimeout = DEFAULT_HTTPS_SESSION_TIMEOUT;
+    private RetryPolicy retryPolicy;
+    private CircuitBreakerPolicy circuitBreakerPolicy;
+    private ConcurrencyLimitPolicy concurrencyLimitPolicy;
+    private HedgingPolicy hedgingPolicy;
+    private DnsCachePolicy dnsCachePolicy;
+    private Map<String, OperationProfile> operationProfiles = new LinkedHashMap<>();
+    private Map<ApiFamily, BulkheadPolicy> bulkheadPolicies = new EnumMap<>(ApiFamily.class);
+    private RateLimitPolicy rateLimitPolicy;
+    private Map<String, RateLimitPolicy> operationRateLimitPolicies = new LinkedHashMap<>();
+    private boolean requestCoalescing;
+    private ConnectionType connectionType = DEFAULT_CONNECTION_TYPE;
+    private int maxConcurrentStreams = DEFAULT_MAX_CONCURRENT_STREAMS;
+    private int connectionPoolStripes = DEFAULT_CONNECTION_POOL_STRIPES;
+    private int connectionEvictionInterval = DEFAULT_CONNECTION_EVICTION_INTERVAL;
+    private int maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+    private int connectionTimeToLive = DEFAULT_CONNECTION_TIME_TO_LIVE;
 
     public CommunicatorConfiguration() {}
 
@@ -37,28 +78,144 @@ public class CommunicatorConfiguration {
      *
      * @param properties a {@link Properties} object containing the following properties (optional unless specified otherwise):<br/>
      * <strong>- paysafe.paylater.api.endpoint.host - required</strong><br/>
+     * - paysafe.paylater.api.callTimeout<br/>
      * - paysafe.paylater.api.connectTimeout<br/>
+     * - paysafe.paylater.api.connectionEvictionInterval<br/>
+     * - paysafe.paylater.api.connectionPoolStripes<br/>
+     * - paysafe.paylater.api.connectionRequestTimeout<br/>
+     * - paysafe.paylater.api.connectionTimeToLive<br/>
+     * - paysafe.paylater.api.connectionType<br/>
      * - paysafe.paylater.api.endpoint.scheme<br/>
      * - paysafe.paylater.api.endpoint.port<br/>
+     * - paysafe.paylater.api.additionalEndpoints<br/>
      * - paysafe.paylater.api.https.protocols<br/>
+     * - paysafe.paylater.api.https.sessionCacheSize<br/>
+     * - paysafe.paylater.api.https.sessionTimeout<br/>
+     * - paysafe.paylater.api.maxConcurrentStreams<br/>
      * - paysafe.paylater.api.maxConnections<br/>
+     * - paysafe.paylater.api.maxIdleTime<br/>
      * - paysafe.paylater.api.readTimeout<br/>
+     * - paysafe.paylater.api.retry.maxAttempts<br/>
+     * - paysafe.paylater.api.retry.baseDelay<br/>
+     * - paysafe.paylater.api.retry.maxDelay<br/>
+     * - paysafe.paylater.api.retry.idempotencyKeyHeader<br/>
+     * - paysafe.paylater.api.retry.budgetPercent<br/>
+     * - paysafe.paylater.api.retry.budgetCapacity<br/>
+     * - paysafe.paylater.api.circuitBreaker.enabled<br/>
+     * - paysafe.paylater.api.circuitBreaker.failureRateThreshold<br/>
+     * - paysafe.paylater.api.circuitBreaker.slowCallRateThreshold<br/>
+     * - paysafe.paylater.api.circuitBreaker.slowCallDuration<br/>
+     * - paysafe.paylater.api.circuitBreaker.slidingWindowSize<br/>
+     * - paysafe.paylater.api.circuitBreaker.minimumNumberOfCalls<br/>
+     * - paysafe.paylater.api.circuitBreaker.openDuration<br/>
+     * - paysafe.paylater.api.circuitBreaker.halfOpenProbes<br/>
+     * - paysafe.paylater.api.concurrencyLimit.enabled<br/>
+     * - paysafe.paylater.api.concurrencyLimit.initialLimit<br/>
+     * - paysafe.paylater.api.concurrencyLimit.minLimit<br/>
+     * - paysafe.paylater.api.concurrencyLimit.maxLimit<br/>
+     * - paysafe.paylater.api.concurrencyLimit.backoffRatio<br/>
+     * - paysafe.paylater.api.concurrencyLimit.latencyTolerance<br/>
+     * - paysafe.paylater.api.concurrencyLimit.overflowPolicy<br/>
+     * - paysafe.paylater.api.concurrencyLimit.maxQueueSize<br/>
+     * - paysafe.paylater.api.concurrencyLimit.maxQueueWait<br/>
+     * - paysafe.paylater.api.hedging.enabled<br/>
+     * - paysafe.paylater.api.hedging.delay<br/>
+     * - paysafe.paylater.api.hedging.minDelay<br/>
+     * - paysafe.paylater.api.hedging.delayPercentile<br/>
+     * - paysafe.paylater.api.hedging.budgetPercent<br/>
+     * - paysafe.paylater.api.hedging.budgetCapacity<br/>
+     * - paysafe.paylater.api.operation.<i>operation</i>.connectTimeout<br/>
+     * - paysafe.paylater.api.operation.<i>operation</i>.readTimeout<br/>
+     * - paysafe.paylater.api.operation.<i>operation</i>.maxConnections<br/>
+     * - paysafe.paylater.api.bulkhead.<i>apiFamily</i>.maxConcurrentCalls<br/>
+     * - paysafe.paylater.api.bulkhead.<i>apiFamily</i>.overflowPolicy<br/>
+     * - paysafe.paylater.api.bulkhead.<i>apiFamily</i>.maxQueueSize<br/>
+     * - paysafe.paylater.api.bulkhead.<i>apiFamily</i>.maxQueueWait<br/>
+     * - paysafe.paylater.api.rateLimit.requestsPerSecond<br/>
+     * - paysafe.paylater.api.rateLimit.burstSize<br/>
+     * - paysafe.paylater.api.rateLimit.maxWait<br/>
+     * - paysafe.paylater.api.rateLimit.operation.<i>operation</i>.requestsPerSecond<br/>
+     * - paysafe.paylater.api.rateLimit.operation.<i>operation</i>.burstSize<br/>
+     * - paysafe.paylater.api.rateLimit.operation.<i>operation</i>.maxWait<br/>
+     * - paysafe.paylater.api.coalescing.enabled<br/>
+     * - paysafe.paylater.api.routing.healthCheckInterval<br/>
+     * - paysafe.paylater.api.routing.healthCheckTimeout<br/>
+     * - paysafe.paylater.api.routing.healthCheckPath<br/>
+     * - paysafe.paylater.api.routing.failureThreshold<br/>
+     * - paysafe.paylater.api.routing.ejectionDuration<br/>
+     * - paysafe.paylater.api.routing.latencyHalfLife<br/>
+     * - paysafe.paylater.api.dns.enabled<br/>
+     * - paysafe.paylater.api.dns.timeToLive<br/>
+     * - paysafe.paylater.api.dns.maxStaleTime<br/>
+     * - paysafe.paylater.api.dns.failoverConnectTimeout<br/>
+     * A retry policy is only created if {@code paysafe.paylater.api.retry.maxAttempts} is set.
+     * A circuit breaker policy is only created if {@code paysafe.paylater.api.circuitBreaker.enabled} is {@code true}.
+     * A concurrency limit policy is only created if {@code paysafe.paylater.api.concurrencyLimit.enabled} is {@code true}.
+     * A hedging policy is only created if {@code paysafe.paylater.api.hedging.enabled} is {@code true}.
+     * The <i>operation</i> of an operation profile is either an API method name like {@code authorizePayLater},
+     * or a path template like {@code /purchase/info/{purchaseId}}.
+     * A bulkhead policy is only created for an <i>apiFamily</i> if its {@code maxConcurrentCalls} is set. The <i>apiFamily</i> is the
+     * lower case name of an {@link ApiFamily}, for instance {@code lifecycle_writes}.
+     * A rate limit policy is only created if {@code paysafe.paylater.api.rateLimit.requestsPerSecond} is set. Rate limit policies of
+     * operations take the same kind of <i>operation</i> as operation profiles.
+     * {@code paysafe.paylater.api.additionalEndpoints} is a comma separated list of endpoint URIs, for instance of other regions,
+     * that requests are spread over together with the endpoint. An endpoint routing policy is only created if it is set.
+     * A DNS cache policy is only created if {@code paysafe.paylater.api.dns.enabled} is {@code true}.
+     * Identical GET requests are only coalesced if {@code paysafe.paylater.api.coalescing.enabled} is {@code true}.
      */
     public CommunicatorConfiguration(Properties properties) {
         if (properties != null) {
             apiEndpoint = getApiEndpoint(properties);
+            additionalApiEndpoints = getAdditionalApiEndpoints(properties);
+            endpointRoutingPolicy = additionalApiEndpoints.isEmpty() ? null : getEndpointRoutingPolicy(properties);
             connectTimeout = getProperty(properties, "paysafe.paylater.api.connectTimeout", DEFAULT_CONNECT_TIMEOUT);
             readTimeout = getProperty(properties, "paysafe.paylater.api.readTimeout", DEFAULT_READ_TIMEOUT);
+            connectionRequestTimeout = getProperty(properties, "paysafe.paylater.api.connectionRequestTimeout", DEFAULT_CONNECTION_REQUEST_TIMEOUT);
+            callTimeout = getProperty(properties, "paysafe.paylater.api.callTimeout", DEFAULT_CALL_TIMEOUT);
             maxConnections = getProperty(properties, "paysafe.paylater.api.maxConnections", DEFAULT_MAX_CONNECTIONS);
+            maxConcurrentStreams = getProperty(properties, "paysafe.paylater.api.maxConcurrentStreams", DEFAULT_MAX_CONCURRENT_STREAMS);
+            connectionPoolStripes = getProperty(properties, "paysafe.paylater.api.connectionPoolStripes", DEFAULT_CONNECTION_POOL_STRIPES);
+            connectionEvictionInterval = getProperty(properties, "paysafe.paylater.api.connectionEvictionInterval", DEFAULT_CONNECTION_EVICTION_INTERVAL);
+            maxIdleTime = getProperty(properties, "paysafe.paylater.api.maxIdleTime", DEFAULT_MAX_IDLE_TIME);
+            connectionTimeToLive = getProperty(properties, "paysafe.paylater.api.connectionTimeToLive", DEFAULT_CONNECTION_TIME_TO_LIVE);
+            httpsSessionCacheSize = getProperty(properties, "paysafe.paylater.api.https.sessionCacheSize", DEFAULT_HTTPS_SESSION_CACHE_SIZE);
+            httpsSessionTimeout = getProperty(properties, "paysafe.paylater.api.https.sessionTimeout", DEFAULT_HTTPS_SESSION_TIMEOUT);
 
             String httpsProtocolString = properties.getProperty("paysafe.paylater.api.https.protocols");
             if (httpsProtocolString != null) {
                 httpsProtocols.clear();
                 httpsProtocols.addAll(Arrays.asList(COMMA_SEPARATOR_PATTERN.split(httpsProtocolString.trim())));
             }
+
+            retryPolicy = getRetryPolicy(properties);
+            circuitBreakerPolicy = getCircuitBreakerPolicy(properties);
+            concurrencyLimitPolicy = getConcurrencyLimitPolicy(properties);
+            hedgingPolicy = getHedgingPolicy(properties);
+            dnsCachePolicy = getDnsCachePolicy(properties);
+            requestCoalescing = Boolean.parseBoolean(properties.getProperty("paysafe.paylater.api.coalescing.enabled", "false").trim());
+            operationProfiles = getOperationProfiles(properties);
+            bulkheadPolicies = getBulkheadPolicies(properties);
+            rateLimitPolicy = getRateLimitPolicy(properties);
+            operationRateLimitPolicies = getOperationRateLimitPolicies(properties);
+
+            String connectionTypeString = properties.getProperty("paysafe.paylater.api.connectionType");
+            if (connectionTypeString != null && !connectionTypeString.trim().isEmpty()) {
+                connectionType = ConnectionType.valueOf(connectionTypeString.trim().toUpperCase());
+            }
         }
     }
 
+    private static Map<String, String> createOperationPathTemplates() {
+        Map<String, String> pathTemplates = new HashMap<>();
+        pathTemplates.put("authorizePayLater", "/purchase/authorize/paylater");
+        pathTemplates.put("capturePurchase", "/purchase/capture");
+        pathTemplates.put("getPurchase", "/purchase/info/{purchaseId}");
+        pathTemplates.put("initializePurchase", "/purchase/initialize");
+        pathTemplates.put("refundPurchase", "/purchase/refund");
+        pathTemplates.put("getTermsAndConditions", "/purchase/legaldocuments/termsandconditions/{purchaseId}");
+        return Collections.unmodifiableMap(pathTemplates);
+    }
+
     private int getProperty(Properties properties, String key, int defaultValue) {
         String propertyValue = properties.getProperty(key);
         return propertyValue != null && !propertyValue.trim().isEmpty()
@@ -66,6 +223,212 @@ public class CommunicatorConfiguration {
                 : defaultValue;
     }
 
+    private RetryPolicy getRetryPolicy(Properties properties) {
+        String maxAttemptsString = properties.getProperty("paysafe.paylater.api.retry.maxAttempts");
+        if (maxAttemptsString == null || maxAttemptsString.trim().isEmpty()) {
+            return null;
+        }
+        RetryPolicy policy = new RetryPolicy()
+                .withMaxAttempts(Integer.parseInt(maxAttemptsString.trim()))
+                .withBaseDelay(getProperty(properties, "paysafe.paylater.api.retry.baseDelay", RetryPolicy.DEFAULT_BASE_DELAY))
+                .withMaxDelay(getProperty(properties, "paysafe.paylater.api.retry.maxDelay", RetryPolicy.DEFAULT_MAX_DELAY))
+                .withRetryBudgetPercent(getProperty(properties, "paysafe.paylater.api.retry.budgetPercent", RetryPolicy.DEFAULT_RETRY_BUDGET_PERCENT))
+                .withRetryBudgetCapacity(getProperty(properties, "paysafe.paylater.api.retry.budgetCapacity", RetryPolicy.DEFAULT_RETRY_BUDGET_CAPACITY));
+
+        String idempotencyKeyHeader = properties.getProperty("paysafe.paylater.api.retry.idempotencyKeyHeader");
+        if (idempotencyKeyHeader != null) {
+            policy.setIdempotencyKeyHeader(idempotencyKeyHeader.trim().isEmpty() ? null : idempotencyKeyHeader.trim());
+        }
+        return policy;
+    }
+
+    private CircuitBreakerPolicy getCircuitBreakerPolicy(Properties properties) {
+        String enabledString = properties.getProperty("paysafe.paylater.api.circuitBreaker.enabled");
+        if (enabledString == null || !Boolean.parseBoolean(enabledString.trim())) {
+            return null;
+        }
+        return new CircuitBreakerPolicy()
+                .withFailureRateThreshold(getProperty(properties, "paysafe.paylater.api.circuitBreaker.failureRateThreshold",
+                        CircuitBreakerPolicy.DEFAULT_FAILURE_RATE_THRESHOLD))
+                .withSlowCallRateThreshold(getProperty(properties, "paysafe.paylater.api.circuitBreaker.slowCallRateThreshold",
+                        CircuitBreakerPolicy.DEFAULT_SLOW_CALL_RATE_THRESHOLD))
+                .withSlowCallDuration(getProperty(properties, "paysafe.paylater.api.circuitBreaker.slowCallDuration",
+                        CircuitBreakerPolicy.DEFAULT_SLOW_CALL_DURATION))
+                .withSlidingWindowSize(getProperty(properties, "paysafe.paylater.api.circuitBreaker.slidingWindowSize",
+                        CircuitBreakerPolicy.DEFAULT_SLIDING_WINDOW_SIZE))
+                .withMinimumNumberOfCalls(getProperty(properties, "paysafe.paylater.api.circuitBreaker.minimumNumberOfCalls",
+                        CircuitBreakerPolicy.DEFAULT_MINIMUM_NUMBER_OF_CALLS))
+                .withOpenDuration(getProperty(properties, "paysafe.paylater.api.circuitBreaker.openDuration",
+                        CircuitBreakerPolicy.DEFAULT_OPEN_DURATION))
+                .withHalfOpenProbes(getProperty(properties, "paysafe.paylater.api.circuitBreaker.halfOpenProbes",
+                        CircuitBreakerPolicy.DEFAULT_HALF_OPEN_PROBES));
+    }
+
+    private ConcurrencyLimitPolicy getConcurrencyLimitPolicy(Properties properties) {
+        String enabledString = properties.getProperty("paysafe.paylater.api.concurrencyLimit.enabled");
+        if (enabledString == null || !Boolean.parseBoolean(enabledString.trim())) {
+            return null;
+        }
+        ConcurrencyLimitPolicy policy = new ConcurrencyLimitPolicy()
+                .withInitialLimit(getProperty(properties, "paysafe.paylater.api.concurrencyLimit.initialLimit",
+                        ConcurrencyLimitPolicy.DEFAULT_INITIAL_LIMIT))
+                .withMinLimit(getProperty(properties, "paysafe.paylater.api.concurrencyLimit.minLimit",
+                        ConcurrencyLimitPolicy.DEFAULT_MIN_LIMIT))
+                .withMaxLimit(getProperty(properties, "paysafe.paylater.api.concurrencyLimit.maxLimit",
+                        ConcurrencyLimitPolicy.DEFAULT_MAX_LIMIT))
+                .withBackoffRatio(getProperty(properties, "paysafe.paylater.api.concurrencyLimit.backoffRatio",
+                        ConcurrencyLimitPolicy.DEFAULT_BACKOFF_RATIO))
+                .withLatencyTolerance(getProperty(properties, "paysafe.paylater.api.concurrencyLimit.latencyTolerance",
+                        ConcurrencyLimitPolicy.DEFAULT_LATENCY_TOLERANCE))
+                .withMaxQueueSize(getProperty(properties, "paysafe.paylater.api.concurrencyLimit.maxQueueSize",
+                        ConcurrencyLimitPolicy.DEFAULT_MAX_QUEUE_SIZE))
+                .withMaxQueueWait(getProperty(properties, "paysafe.paylater.api.concurrencyLimit.maxQueueWait",
+                        ConcurrencyLimitPolicy.DEFAULT_MAX_QUEUE_WAIT));
+
+        String overflowPolicyString = properties.getProperty("paysafe.paylater.api.concurrencyLimit.overflowPolicy");
+        if (overflowPolicyString != null && !overflowPolicyString.trim().isEmpty()) {
+            policy.setOverflowPolicy(ConcurrencyLimitPolicy.OverflowPolicy.valueOf(overflowPolicyString.trim().toUpperCase()));
+        }
+        return policy;
+    }
+
+    private Map<String, OperationProfile> getOperationProfiles(Properties properties) {
+        Map<String, OperationProfile> profiles = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if (!key.startsWith(OPERATION_PROPERTY_PREFIX)) {
+                continue;
+            }
+            int settingIndex = key.lastIndexOf('.');
+            if (settingIndex <= OPERATION_PROPERTY_PREFIX.length()) {
+                throw new IllegalArgumentException("Missing operation in property '" + key + "'");
+            }
+            String operation = key.substring(OPERATION_PROPERTY_PREFIX.length(), settingIndex);
+            OperationProfile profile = profiles.computeIfAbsent(toPathTemplate(operation), pathTemplate -> new OperationProfile());
+            String setting = key.substring(settingIndex + 1);
+            switch (setting) {
+                case "connectTimeout":
+                    profile.setConnectTimeout(getProperty(properties, key, OperationProfile.DEFAULT_TIMEOUT));
+                    break;
+                case "readTimeout":
+                    profile.setReadTimeout(getProperty(properties, key, OperationProfile.DEFAULT_TIMEOUT));
+                    break;
+                case "maxConnections":
+                    profile.setMaxConnections(getProperty(properties, key, OperationProfile.DEFAULT_MAX_CONNECTIONS));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation profile setting in property '" + key + "'");
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Returns the path template of the given operation, which is either an API method name or a path template.
+     */
+    private static String toPathTemplate(String operation) {
+        if (operation == null || operation.trim().isEmpty()) {
+            throw new IllegalArgumentException("operation is required");
+        }
+        String trimmedOperation = operation.trim();
+        if (trimmedOperation.startsWith("/")) {
+            return trimmedOperation;
+        }
+        String pathTemplate = OPERATION_PATH_TEMPLATES.get(trimmedOperation);
+        if (pathTemplate == null) {
+            throw new IllegalArgumentException("Unknown operation: " + operation + "; expected one of " + new TreeSet<>(OPERATION_PATH_TEMPLATES.keySet())
+                    + " or a path template");
+        }
+        return pathTemplate;
+    }
+
+    private Map<ApiFamily, BulkheadPolicy> getBulkheadPolicies(Properties properties) {
+        Map<ApiFamily, BulkheadPolicy> policies = new EnumMap<>(ApiFamily.class);
+        for (ApiFamily apiFamily : ApiFamily.values()) {
+            String prefix = "paysafe.paylater.api.bulkhead." + apiFamily.name().toLowerCase() + ".";
+            String maxConcurrentCallsString = properties.getProperty(prefix + "maxConcurrentCalls");
+            if (maxConcurrentCallsString == null || maxConcurrentCallsString.trim().isEmpty()) {
+                continue;
+            }
+            BulkheadPolicy policy = new BulkheadPolicy()
+                    .withMaxConcurrentCalls(Integer.parseInt(maxConcurrentCallsString.trim()))
+                    .withMaxQueueSize(getProperty(properties, prefix + "maxQueueSize", BulkheadPolicy.DEFAULT_MAX_QUEUE_SIZE))
+                    .withMaxQueueWait(getProperty(properties, prefix + "maxQueueWait", BulkheadPolicy.DEFAULT_MAX_QUEUE_WAIT));
+
+            String overflowPolicyString = properties.getProperty(prefix + "overflowPolicy");
+            if (overflowPolicyString != null && !overflowPolicyString.trim().isEmpty()) {
+                policy.setOverflowPolicy(ConcurrencyLimitPolicy.OverflowPolicy.valueOf(overflowPolicyString.trim().toUpperCase()));
+            }
+            policies.put(apiFamily, policy);
+        }
+        return policies;
+    }
+
+    private RateLimitPolicy getRateLimitPolicy(Properties properties) {
+        String requestsPerSecondString = properties.getProperty("paysafe.paylater.api.rateLimit.requestsPerSecond");
+        if (requestsPerSecondString == null || requestsPerSecondString.trim().isEmpty()) {
+            return null;
+        }
+        return new RateLimitPolicy()
+                .withRequestsPerSecond(Integer.parseInt(requestsPerSecondString.trim()))
+                .withBurstSize(getProperty(properties, "paysafe.paylater.api.rateLimit.burstSize", RateLimitPolicy.DEFAULT_BURST_SIZE))
+                .withMaxWait(getProperty(properties, "paysafe.paylater.api.rateLimit.maxWait", RateLimitPolicy.DEFAULT_MAX_WAIT));
+    }
+
+    private Map<String, RateLimitPolicy> getOperationRateLimitPolicies(Properties properties) {
+        Map<String, RateLimitPolicy> policies = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if (!key.startsWith(OPERATION_RATE_LIMIT_PROPERTY_PREFIX)) {
+                continue;
+            }
+            int settingIndex = key.lastIndexOf('.');
+            if (settingIndex <= OPERATION_RATE_LIMIT_PROPERTY_PREFIX.length()) {
+                throw new IllegalArgumentException("Missing operation in property '" + key + "'");
+            }
+            String operation = key.substring(OPERATION_RATE_LIMIT_PROPERTY_PREFIX.length(), settingIndex);
+            RateLimitPolicy policy = policies.computeIfAbsent(toPathTemplate(operation), pathTemplate -> new RateLimitPolicy());
+            String setting = key.substring(settingIndex + 1);
+            switch (setting) {
+                case "requestsPerSecond":
+                    policy.setRequestsPerSecond(getProperty(properties, key, RateLimitPolicy.DEFAULT_REQUESTS_PER_SECOND));
+                    break;
+                case "burstSize":
+                    policy.setBurstSize(getProperty(properties, key, RateLimitPolicy.DEFAULT_BURST_SIZE));
+                    break;
+                case "maxWait":
+                    policy.setMaxWait(getProperty(properties, key, RateLimitPolicy.DEFAULT_MAX_WAIT));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown rate limit setting in property '" + key + "'");
+            }
+        }
+        return policies;
+    }
+
+    private HedgingPolicy getHedgingPolicy(Properties properties) {
+        String enabledString = properties.getProperty("paysafe.paylater.api.hedging.enabled");
+        if (enabledString == null || !Boolean.parseBoolean(enabledString.trim())) {
+            return null;
+        }
+        return new HedgingPolicy()
+                .withDelay(getProperty(properties, "paysafe.paylater.api.hedging.delay", HedgingPolicy.DEFAULT_DELAY))
+                .withMinDelay(getProperty(properties, "paysafe.paylater.api.hedging.minDelay", HedgingPolicy.DEFAULT_MIN_DELAY))
+                .withDelayPercentile(getProperty(properties, "paysafe.paylater.api.hedging.delayPercentile", HedgingPolicy.DEFAULT_DELAY_PERCENTILE))
+                .withBudgetPercent(getProperty(properties, "paysafe.paylater.api.hedging.budgetPercent", HedgingPolicy.DEFAULT_BUDGET_PERCENT))
+                .withBudgetCapacity(getProperty(properties, "paysafe.paylater.api.hedging.budgetCapacity", HedgingPolicy.DEFAULT_BUDGET_CAPACITY));
+    }
+
+    private DnsCachePolicy getDnsCachePolicy(Properties properties) {
+        String enabledString = properties.getProperty("paysafe.paylater.api.dns.enabled");
+        if (enabledString == null || !Boolean.parseBoolean(enabledString.trim())) {
+            return null;
+        }
+        return new DnsCachePolicy()
+                .withTimeToLive(getProperty(properties, "paysafe.paylater.api.dns.timeToLive", DnsCachePolicy.DEFAULT_TIME_TO_LIVE))
+                .withMaxStaleTime(getProperty(properties, "paysafe.paylater.api.dns.maxStaleTime", DnsCachePolicy.DEFAULT_MAX_STALE_TIME))
+                .withFailoverConnectTimeout(getProperty(properties, "paysafe.paylater.api.dns.failoverConnectTimeout",
+                        DnsCachePolicy.DEFAULT_FAILOVER_CONNECT_TIMEOUT));
+    }
+
     private URI getApiEndpoint(Properties properties) {
         String scheme = properties.getProperty("paysafe.paylater.api.endpoint.scheme", "https");
         String host = properties.getProperty(PAYSAFE_PAYLATER_API_ENDPOINT_HOST);
@@ -81,6 +444,54 @@ public class CommunicatorConfiguration {
         }
     }
 
+    private List<URI> getAdditionalApiEndpoints(Properties properties) {
+        List<URI> endpoints = new ArrayList<>();
+        String endpointsString = properties.getProperty("paysafe.paylater.api.additionalEndpoints");
+        if (endpointsString != null && !endpointsString.trim().isEmpty()) {
+            for (String endpoint : COMMA_SEPARATOR_PATTERN.split(endpointsString.trim())) {
+                endpoints.add(validateApiEndpoint(URI.create(endpoint), "additionalEndpoint"));
+            }
+        }
+        return endpoints;
+    }
+
+    private EndpointRoutingPolicy getEndpointRoutingPolicy(Properties properties) {
+        EndpointRoutingPolicy policy = new EndpointRoutingPolicy()
+                .withHealthCheckInterval(getProperty(properties, "paysafe.paylater.api.routing.healthCheckInterval",
+                        EndpointRoutingPolicy.DEFAULT_HEALTH_CHECK_INTERVAL))
+                .withHealthCheckTimeout(getProperty(properties, "paysafe.paylater.api.routing.healthCheckTimeout",
+                        EndpointRoutingPolicy.DEFAULT_HEALTH_CHECK_TIMEOUT))
+                .withFailureThreshold(getProperty(properties, "paysafe.paylater.api.routing.failureThreshold",
+                        EndpointRoutingPolicy.DEFAULT_FAILURE_THRESHOLD))
+                .withEjectionDuration(getProperty(properties, "paysafe.paylater.api.routing.ejectionDuration",
+                        EndpointRoutingPolicy.DEFAULT_EJECTION_DURATION))
+                .withLatencyHalfLife(getProperty(properties, "paysafe.paylater.api.routing.latencyHalfLife",
+                        EndpointRoutingPolicy.DEFAULT_LATENCY_HALF_LIFE));
+
+        String healthCheckPath = properties.getProperty("paysafe.paylater.api.routing.healthCheckPath");
+        if (healthCheckPath != null && !healthCheckPath.trim().isEmpty()) {
+            policy.setHealthCheckPath(healthCheckPath.trim());
+        }
+        return policy;
+    }
+
+    // behaves like Apache HttpCore's Asserts.notNull, which is not used so this class does not load Apache classes
+    private static void requireNotNull(Object value, String name) {
+        if (value == null) {
+            throw new IllegalStateException(name + " is null");
+        }
+    }
+
+    private static URI validateApiEndpoint(URI apiEndpoint, String name) {
+        if (apiEndpoint.getPath() != null && !apiEndpoint.getPath().isEmpty()) {
+            throw new IllegalArgumentException(name + " should not contain a path");
+        }
+        if (apiEndpoint.getUserInfo() != null || apiEndpoint.getQuery() != null || apiEndpoint.getFragment() != null) {
+            throw new IllegalArgumentException(name + " should not contain user info, query or fragment");
+        }
+        return apiEndpoint;
+    }
+
     /**
      * Returns the Paysafe Pay Later platform API endpoint URI.
      */
@@ -90,12 +501,7 @@ public class CommunicatorConfiguration {
 
     public void setApiEndpoint(URI apiEndpoint) {
         if (apiEndpoint != null) {
-            if (apiEndpoint.getPath() != null && !apiEndpoint.getPath().isEmpty()) {
-                throw new IllegalArgumentException("apiEndpoint should not contain a path");
-            }
-            if (apiEndpoint.getUserInfo() != null || apiEndpoint.getQuery() != null || apiEndpoint.getFragment() != null) {
-                throw new IllegalArgumentException("apiEndpoint should not contain user info, query or fragment");
-            }
+            validateApiEndpoint(apiEndpoint, "apiEndpoint");
         }
         this.apiEndpoint = apiEndpoint;
     }
@@ -105,6 +511,49 @@ public class CommunicatorConfiguration {
         return this;
     }
 
+    /**
+     * Returns the API endpoint URIs that requests are spread over together with the {@link #getApiEndpoint() API endpoint},
+     * for instance the endpoints of other regions.
+     *
+     * @see #getEndpointRoutingPolicy()
+     */
+    public List<URI> getAdditionalApiEndpoints() {
+        if (additionalApiEndpoints == null) {
+            additionalApiEndpoints = new ArrayList<>();
+        }
+        return additionalApiEndpoints;
+    }
+
+    public void setAdditionalApiEndpoints(List<URI> additionalApiEndpoints) {
+        requireNotNull(additionalApiEndpoints, "additionalApiEndpoints");
+        this.additionalApiEndpoints = additionalApiEndpoints;
+    }
+
+    public CommunicatorConfiguration withAdditionalApiEndpoint(URI additionalApiEndpoint) {
+        if (additionalApiEndpoint == null) {
+            throw new IllegalArgumentException("additionalApiEndpoint is required");
+        }
+        getAdditionalApiEndpoints().add(validateApiEndpoint(additionalApiEndpoint, "additionalApiEndpoint"));
+        return this;
+    }
+
+    /**
+     * Returns how requests are spread over the API endpoints if there are {@link #getAdditionalApiEndpoints() additional endpoints}.
+     * If {@code null}, a policy with default settings is used.
+     */
+    public EndpointRoutingPolicy getEndpointRoutingPolicy() {
+        return endpointRoutingPolicy;
+    }
+
+    public void setEndpointRoutingPolicy(EndpointRoutingPolicy endpointRoutingPolicy) {
+        this.endpointRoutingPolicy = endpointRoutingPolicy;
+    }
+
+    public CommunicatorConfiguration withEndpointRoutingPolicy(EndpointRoutingPolicy endpointRoutingPolicy) {
+        this.endpointRoutingPolicy = endpointRoutingPolicy;
+        return this;
+    }
+
     public int getConnectTimeout() {
         return connectTimeout;
     }
@@ -131,6 +580,41 @@ public class CommunicatorConfiguration {
         return this;
     }
 
+    /**
+     * Returns the time in milliseconds to wait for a connection from the connection pool.
+     * This is only used for {@link ConnectionType#BLOCKING}, {@link ConnectionType#VIRTUAL_THREAD}, {@link ConnectionType#NETTY} and
+     * {@link ConnectionType#JDK} connections.
+     */
+    public int getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public CommunicatorConfiguration withConnectionRequestTimeout(int connectionRequestTimeout) {
+        setConnectionRequestTimeout(connectionRequestTimeout);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds that each call may take in total, including waiting for a connection, connecting,
+     * reading the response and any retries. A value of 0 means calls are only limited by a {@link Deadline} that is active on the calling thread.
+     */
+    public int getCallTimeout() {
+        return callTimeout;
+    }
+
+    public void setCallTimeout(int callTimeout) {
+        this.callTimeout = callTimeout;
+    }
+
+    public CommunicatorConfiguration withCallTimeout(int callTimeout) {
+        setCallTimeout(callTimeout);
+        return this;
+    }
+
     public int getMaxConnections() {
         return maxConnections;
     }
@@ -152,7 +636,7 @@ public class CommunicatorConfiguration {
     }
 
     public void setHttpsProtocols(Set<String> httpsProtocols) {
-        Asserts.notNull(httpsProtocols, "httpsProtocols");
+        requireNotNull(httpsProtocols, "httpsProtocols");
         this.httpsProtocols = httpsProtocols;
     }
 
@@ -165,4 +649,349 @@ public class CommunicatorConfiguration {
     public CommunicatorConfiguration withHttpsProtocols(String... httpsProtocols) {
         return withHttpsProtocols(Arrays.asList(httpsProtocols));
     }
+
+    /**
+     * Returns the maximum number of TLS sessions that are cached for resumption. Resuming a session when opening a new connection
+     * avoids a full handshake. A value of 0 means the number of cached sessions is not limited.
+     * This is only used for {@link ConnectionType#BLOCKING} and {@link ConnectionType#VIRTUAL_THREAD} connections, and changing it is not
+     * supported for {@link ConnectionType#JDK} connections.
+     */
+    public int getHttpsSessionCacheSize() {
+        return httpsSessionCacheSize;
+    }
+
+    public void setHttpsSessionCacheSize(int httpsSessionCacheSize) {
+        this.httpsSessionCacheSize = httpsSessionCacheSize;
+    }
+
+    public CommunicatorConfiguration withHttpsSessionCacheSize(int httpsSessionCacheSize) {
+        setHttpsSessionCacheSize(httpsSessionCacheSize);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after which cached TLS sessions can no longer be resumed. This is rounded up to whole seconds.
+     * A value of 0 means cached sessions do not time out, although servers may still refuse to resume them.
+     * This is only used for {@link ConnectionType#BLOCKING} and {@link ConnectionType#VIRTUAL_THREAD} connections, and changing it is not
+     * supported for {@link ConnectionType#JDK} connections.
+     */
+    public int getHttpsSessionTimeout() {
+        return httpsSessionTimeout;
+    }
+
+    public void setHttpsSessionTimeout(int httpsSessionTimeout) {
+        this.httpsSessionTimeout = httpsSessionTimeout;
+    }
+
+    public CommunicatorConfiguration withHttpsSessionTimeout(int httpsSessionTimeout) {
+        setHttpsSessionTimeout(httpsSessionTimeout);
+        return this;
+    }
+
+    public ConnectionType getConnectionType() {
+        return connectionType;
+    }
+
+    public void setConnectionType(ConnectionType connectionType) {
+        requireNotNull(connectionType, "connectionType");
+        this.connectionType = connectionType;
+    }
+
+    public CommunicatorConfiguration withConnectionType(ConnectionType connectionType) {
+        setConnectionType(connectionType);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of concurrent requests that are multiplexed over HTTP/2 connections.
+     * This is only used for {@link ConnectionType#HTTP2} connections.
+     */
+    public int getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    public CommunicatorConfiguration withMaxConcurrentStreams(int maxConcurrentStreams) {
+        setMaxConcurrentStreams(maxConcurrentStreams);
+        return this;
+    }
+
+    /**
+     * Returns the number of stripes the connection pool is divided into. Each stripe has its own pool and lock,
+     * and the maximum number of connections is divided over the stripes. A value of 1 means the connection pool is not striped.
+     * There are never more stripes than the maximum number of connections.
+     * Striping reduces lock contention when many threads share one connection; the number of available processors is a good starting point.
+     * This is only used for {@link ConnectionType#BLOCKING} connections, and is not supported for {@link ConnectionType#VIRTUAL_THREAD} and
+     * {@link ConnectionType#JDK} connections.
+     */
+    public int getConnectionPoolStripes() {
+        return connectionPoolStripes;
+    }
+
+    public void setConnectionPoolStripes(int connectionPoolStripes) {
+        this.connectionPoolStripes = connectionPoolStripes;
+    }
+
+    public CommunicatorConfiguration withConnectionPoolStripes(int connectionPoolStripes) {
+        setConnectionPoolStripes(connectionPoolStripes);
+        return this;
+    }
+
+    /**
+     * Returns the interval in milliseconds at which idle and expired connections are closed in the background.
+     * A value of 0 means connections are not closed in the background; {@link Communicator#closeIdleConnections(long, java.util.concurrent.TimeUnit)}
+     * and {@link Communicator#closeExpiredConnections()} can then be called instead.
+     * This is not supported for {@link ConnectionType#JDK} connections, which close idle connections themselves.
+     */
+    public int getConnectionEvictionInterval() {
+        return connectionEvictionInterval;
+    }
+
+    public void setConnectionEvictionInterval(int connectionEvictionInterval) {
+        this.connectionEvictionInterval = connectionEvictionInterval;
+    }
+
+    public CommunicatorConfiguration withConnectionEvictionInterval(int connectionEvictionInterval) {
+        setConnectionEvictionInterval(connectionEvictionInterval);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after which unused connections are closed in the background.
+     * A value of 0 means only expired connections are closed in the background.
+     * This is only used if the {@link #getConnectionEvictionInterval() connection eviction interval} is positive.
+     */
+    public int getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(int maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public CommunicatorConfiguration withMaxIdleTime(int maxIdleTime) {
+        setMaxIdleTime(maxIdleTime);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after which connections expire, measured from when they were opened.
+     * Expired connections are not reused, and are closed by {@link Communicator#closeExpiredConnections()} or in the background.
+     * A value of 0 means connections only expire when the server's keep-alive timeout has passed.
+     * This is not supported for {@link ConnectionType#JDK} connections.
+     */
+    public int getConnectionTimeToLive() {
+        return connectionTimeToLive;
+    }
+
+    public void setConnectionTimeToLive(int connectionTimeToLive) {
+        this.connectionTimeToLive = connectionTimeToLive;
+    }
+
+    public CommunicatorConfiguration withConnectionTimeToLive(int connectionTimeToLive) {
+        setConnectionTimeToLive(connectionTimeToLive);
+        return this;
+    }
+
+    /**
+     * Returns the policy that determines how failed requests are retried. A value of {@code null} means requests are not retried.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public CommunicatorConfiguration withRetryPolicy(RetryPolicy retryPolicy) {
+        setRetryPolicy(retryPolicy);
+        return this;
+    }
+
+    /**
+     * Returns the policy of the circuit breaker that guards the connection. A value of {@code null} means no circuit breaker is used.
+     */
+    public CircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return circuitBreakerPolicy;
+    }
+
+    public void setCircuitBreakerPolicy(CircuitBreakerPolicy circuitBreakerPolicy) {
+        this.circuitBreakerPolicy = circuitBreakerPolicy;
+    }
+
+    public CommunicatorConfiguration withCircuitBreakerPolicy(CircuitBreakerPolicy circuitBreakerPolicy) {
+        setCircuitBreakerPolicy(circuitBreakerPolicy);
+        return this;
+    }
+
+    /**
+     * Returns the policy of the concurrency limiter that limits the number of requests in flight.
+     * A value of {@code null} means the number of requests in flight is only limited by the connection itself.
+     */
+    public ConcurrencyLimitPolicy getConcurrencyLimitPolicy() {
+        return concurrencyLimitPolicy;
+    }
+
+    public void setConcurrencyLimitPolicy(ConcurrencyLimitPolicy concurrencyLimitPolicy) {
+        this.concurrencyLimitPolicy = concurrencyLimitPolicy;
+    }
+
+    public CommunicatorConfiguration withConcurrencyLimitPolicy(ConcurrencyLimitPolicy concurrencyLimitPolicy) {
+        setConcurrencyLimitPolicy(concurrencyLimitPolicy);
+        return this;
+    }
+
+    /**
+     * Returns the policy that determines when GET requests are hedged. A value of {@code null} means requests are not hedged.
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    public CommunicatorConfiguration withHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        setHedgingPolicy(hedgingPolicy);
+        return this;
+    }
+
+    /**
+     * Returns the policy that determines how resolved host names are cached, and how connections fail over between the resolved addresses.
+     * A value of {@code null} means host names are resolved by the JVM each time a connection is opened. Only the blocking and virtual thread
+     * connection types support this policy; it is rejected for {@link ConnectionType#JDK} connections.
+     */
+    public DnsCachePolicy getDnsCachePolicy() {
+        return dnsCachePolicy;
+    }
+
+    public void setDnsCachePolicy(DnsCachePolicy dnsCachePolicy) {
+        this.dnsCachePolicy = dnsCachePolicy;
+    }
+
+    public CommunicatorConfiguration withDnsCachePolicy(DnsCachePolicy dnsCachePolicy) {
+        setDnsCachePolicy(dnsCachePolicy);
+        return this;
+    }
+
+    /**
+     * Returns the operation profiles, keyed by the path template of the operation, for instance {@code /purchase/info/{purchaseId}}.
+     * Operations without a profile use the timeouts and the connection pool of this configuration.
+     * This is only used for {@link ConnectionType#BLOCKING} and {@link ConnectionType#VIRTUAL_THREAD} connections, and is not supported for
+     * {@link ConnectionType#JDK} connections.
+     */
+    public Map<String, OperationProfile> getOperationProfiles() {
+        if (operationProfiles == null) {
+            operationProfiles = new LinkedHashMap<>();
+        }
+        return operationProfiles;
+    }
+
+    public void setOperationProfiles(Map<String, OperationProfile> operationProfiles) {
+        requireNotNull(operationProfiles, "operationProfiles");
+        this.operationProfiles = operationProfiles;
+    }
+
+    /**
+     * Sets the profile of the given operation, which is either an API method name like {@code authorizePayLater},
+     * or a path template like {@code /purchase/info/{purchaseId}}.
+     */
+    public CommunicatorConfiguration withOperationProfile(String operation, OperationProfile operationProfile) {
+        if (operationProfile == null) {
+            throw new IllegalArgumentException("operationProfile is required");
+        }
+        getOperationProfiles().put(toPathTemplate(operation), operationProfile);
+        return this;
+    }
+
+    /**
+     * Returns the bulkhead policies of the API families that are isolated from each other. API families without a policy are not limited.
+     */
+    public Map<ApiFamily, BulkheadPolicy> getBulkheadPolicies() {
+        if (bulkheadPolicies == null) {
+            bulkheadPolicies = new EnumMap<>(ApiFamily.class);
+        }
+        return bulkheadPolicies;
+    }
+
+    public void setBulkheadPolicies(Map<ApiFamily, BulkheadPolicy> bulkheadPolicies) {
+        requireNotNull(bulkheadPolicies, "bulkheadPolicies");
+        this.bulkheadPolicies = bulkheadPolicies;
+    }
+
+    public CommunicatorConfiguration withBulkheadPolicy(ApiFamily apiFamily, BulkheadPolicy bulkheadPolicy) {
+        if (apiFamily == null) {
+            throw new IllegalArgumentException("apiFamily is required");
+        }
+        if (bulkheadPolicy == null) {
+            throw new IllegalArgumentException("bulkheadPolicy is required");
+        }
+        getBulkheadPolicies().put(apiFamily, bulkheadPolicy);
+        return this;
+    }
+
+    /**
+     * Returns the rate limit policy of all operations without a policy of their own, or {@code null} if they are not rate limited.
+     */
+    public RateLimitPolicy getRateLimitPolicy() {
+        return rateLimitPolicy;
+    }
+
+    public void setRateLimitPolicy(RateLimitPolicy rateLimitPolicy) {
+        this.rateLimitPolicy = rateLimitPolicy;
+    }
+
+    public CommunicatorConfiguration withRateLimitPolicy(RateLimitPolicy rateLimitPolicy) {
+        this.rateLimitPolicy = rateLimitPolicy;
+        return this;
+    }
+
+    /**
+     * Returns the rate limit policies of operations that have a rate limit of their own, keyed by path template.
+     */
+    public Map<String, RateLimitPolicy> getOperationRateLimitPolicies() {
+        if (operationRateLimitPolicies == null) {
+            operationRateLimitPolicies = new LinkedHashMap<>();
+        }
+        return operationRateLimitPolicies;
+    }
+
+    public void setOperationRateLimitPolicies(Map<String, RateLimitPolicy> operationRateLimitPolicies) {
+        requireNotNull(operationRateLimitPolicies, "operationRateLimitPolicies");
+        this.operationRateLimitPolicies = operationRateLimitPolicies;
+    }
+
+    /**
+     * Sets the rate limit policy of the given operation, which is either an API method name like {@code authorizePayLater},
+     * or a path template like {@code /purchase/info/{purchaseId}}.
+     */
+    public CommunicatorConfiguration withOperationRateLimitPolicy(String operation, RateLimitPolicy rateLimitPolicy) {
+        if (rateLimitPolicy == null) {
+            throw new IllegalArgumentException("rateLimitPolicy is required");
+        }
+        getOperationRateLimitPolicies().put(toPathTemplate(operation), rateLimitPolicy);
+        return this;
+    }
+
+    /**
+     * Returns whether or not concurrent identical GET requests share a single call. Requests are identical if they are for the same path
+     * and have the same headers, including the secret key or access token.
+     */
+    public boolean isRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    public void setRequestCoalescing(boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+    }
+
+    public CommunicatorConfiguration withRequestCoalescing(boolean requestCoalescing) {
+        setRequestCoalescing(requestCoalescing);
+        return this;
+    }
 }
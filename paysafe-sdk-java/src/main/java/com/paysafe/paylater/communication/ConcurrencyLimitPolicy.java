@@ -0,0 +1,195 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * Determines how a concurrency limiter adapts the number of requests that can be in flight at the same time.
+ * <p>
+ * The limit is adjusted using additive increase, multiplicative decrease (AIMD). Each request that completes within
+ * the {@link #getLatencyTolerance() latency tolerance} of the lowest observed round-trip time of its operation, while the limit is in use,
+ * increases the limit by about one per limit's worth of requests. A request that fails with a communication error or a 5xx status code,
+ * or that is slower than the latency tolerance allows, multiplies the limit by the {@link #getBackoffRatio() backoff ratio}.
+ * The limit always stays between the {@link #getMinLimit() minimum} and {@link #getMaxLimit() maximum limit}.
+ * <p>
+ * Requests that exceed the limit are handled according to the {@link #getOverflowPolicy() overflow policy}.
+ */
+public class ConcurrencyLimitPolicy {
+
+    /**
+     * The ways to handle requests that exceed the concurrency limit.
+     */
+    public enum OverflowPolicy {
+        /** Requests that exceed the limit fail immediately. */
+        REJECT,
+        /** Requests that exceed the limit wait in a bounded queue for a limited time, and fail if they cannot be sent in time. */
+        QUEUE,
+    }
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    public static final int DEFAULT_BACKOFF_RATIO = 90;
+    public static final int DEFAULT_LATENCY_TOLERANCE = 200;
+    public static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.REJECT;
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 100;
+    public static final int DEFAULT_MAX_QUEUE_WAIT = 1000;
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private int backoffRatio = DEFAULT_BACKOFF_RATIO;
+    private int latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+    private OverflowPolicy overflowPolicy = DEFAULT_OVERFLOW_POLICY;
+    private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+    private int maxQueueWait = DEFAULT_MAX_QUEUE_WAIT;
+
+    /**
+     * Returns the limit that is used before any requests have completed.
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        if (initialLimit < 1) {
+            throw new IllegalArgumentException("initialLimit must be at least 1");
+        }
+        this.initialLimit = initialLimit;
+    }
+
+    public ConcurrencyLimitPolicy withInitialLimit(int initialLimit) {
+        setInitialLimit(initialLimit);
+        return this;
+    }
+
+    /**
+     * Returns the lowest value the limit can be decreased to.
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("minLimit must be at least 1");
+        }
+        this.minLimit = minLimit;
+    }
+
+    public ConcurrencyLimitPolicy withMinLimit(int minLimit) {
+        setMinLimit(minLimit);
+        return this;
+    }
+
+    /**
+     * Returns the highest value the limit can be increased to.
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("maxLimit must be at least 1");
+        }
+        this.maxLimit = maxLimit;
+    }
+
+    public ConcurrencyLimitPolicy withMaxLimit(int maxLimit) {
+        setMaxLimit(maxLimit);
+        return this;
+    }
+
+    /**
+     * Returns the percentage of the limit that remains after a failed or slow request.
+     */
+    public int getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(int backoffRatio) {
+        if (backoffRatio < 1 || backoffRatio > 99) {
+            throw new IllegalArgumentException("backoffRatio must be between 1 and 99");
+        }
+        this.backoffRatio = backoffRatio;
+    }
+
+    public ConcurrencyLimitPolicy withBackoffRatio(int backoffRatio) {
+        setBackoffRatio(backoffRatio);
+        return this;
+    }
+
+    /**
+     * Returns the percentage of the lowest observed round-trip time above which a request is considered a sign of overload.
+     */
+    public int getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    public void setLatencyTolerance(int latencyTolerance) {
+        if (latencyTolerance < 100) {
+            throw new IllegalArgumentException("latencyTolerance must be at least 100");
+        }
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    public ConcurrencyLimitPolicy withLatencyTolerance(int latencyTolerance) {
+        setLatencyTolerance(latencyTolerance);
+        return this;
+    }
+
+    /**
+     * Returns how requests that exceed the limit are handled.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy is required");
+        }
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public ConcurrencyLimitPolicy withOverflowPolicy(OverflowPolicy overflowPolicy) {
+        setOverflowPolicy(overflowPolicy);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of requests that can wait for the limit. This is only used for {@link OverflowPolicy#QUEUE}.
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public void setMaxQueueSize(int maxQueueSize) {
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("maxQueueSize should not be negative");
+        }
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    public ConcurrencyLimitPolicy withMaxQueueSize(int maxQueueSize) {
+        setMaxQueueSize(maxQueueSize);
+        return this;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds that a request can wait for the limit. This is only used for {@link OverflowPolicy#QUEUE}.
+     */
+    public int getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    public void setMaxQueueWait(int maxQueueWait) {
+        if (maxQueueWait < 0) {
+            throw new IllegalArgumentException("maxQueueWait should not be negative");
+        }
+        this.maxQueueWait = maxQueueWait;
+    }
+
+    public ConcurrencyLimitPolicy withMaxQueueWait(int maxQueueWait) {
+        setMaxQueueWait(maxQueueWait);
+        return this;
+    }
+}
@@ -0,0 +1,58 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * The types of {@link Connection} that can be configured using a {@link CommunicatorConfiguration}.
+ */
+public enum ConnectionType {
+
+    /**
+     * A connection that blocks the calling thread for the duration of each request.
+     *
+     * @see com.paysafe.paylater.communication.standard.PaysafeConnection
+     */
+    BLOCKING,
+
+    /**
+     * A connection that uses a non-blocking I/O reactor and supports asynchronous requests.
+     * This connection type requires {@code org.apache.httpcomponents:httpasyncclient} on the class path.
+     *
+     * @see com.paysafe.paylater.communication.standard.PaysafeAsyncConnection
+     */
+    ASYNC,
+
+    /**
+     * A connection that multiplexes requests over HTTP/2 connections, falling back to HTTP/1.1 if the server does not support HTTP/2.
+     * This connection type requires {@code org.apache.httpcomponents.client5:httpclient5} on the class path.
+     *
+     * @see com.paysafe.paylater.communication.standard.PaysafeHttp2Connection
+     */
+    HTTP2,
+
+    /**
+     * A connection that blocks the calling thread for the duration of each request, without pinning the carrier threads of virtual threads.
+     * This connection type supports the same settings as {@link #BLOCKING}, except the connection pool stripes; changing those is rejected.
+     *
+     * @see com.paysafe.paylater.communication.standard.PaysafeVirtualThreadConnection
+     * @see VirtualThreads
+     */
+    VIRTUAL_THREAD,
+
+    /**
+     * A connection that uses the HTTP client that is built into Java 11 and later, instead of Apache HttpClient.
+     * This connection type has a smaller startup footprint, but requires Java 11 or later. It does not support the connection pool
+     * stripes, the TLS session cache, connection eviction, the connection time to live, the DNS cache policy, or operation profiles;
+     * changing any of these settings is rejected.
+     *
+     * @see com.paysafe.paylater.communication.standard.PaysafeJdkConnection
+     */
+    JDK,
+
+    /**
+     * A connection based on Netty, that uses native epoll on Linux if available and keeps request and response bodies in pooled direct buffers.
+     * This connection type requires {@code io.netty:netty-codec-http} on the class path,
+     * and {@code io.netty:netty-transport-native-epoll} to use native epoll.
+     *
+     * @see com.paysafe.paylater.communication.standard.PaysafeNettyConnection
+     */
+    NETTY
+}
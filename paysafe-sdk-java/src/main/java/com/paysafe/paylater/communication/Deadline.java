@@ -0,0 +1,133 @@
+package com.paysafe.paylater.communication;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.exception.DeadlineExceededException;
+
+/**
+ * A point in time by which a call to the Paysafe Pay Later platform must have completed.
+ * <p>
+ * A deadline applies to all calls that are made while it is {@link #activate() active} on the calling thread, for instance:
+ * <pre>{@code
+ * try (Deadline.Scope scope = Deadline.after(3, TimeUnit.SECONDS).activate()) {
+ *     purchaseLifecycleApi.capturePurchase(request, secretKey);
+ * }
+ * }</pre>
+ * The deadline covers the entire call, including waiting for a pooled connection, connecting, reading the response and any retries.
+ * Each of these only gets the time that remains. If the deadline passes, the call is abandoned with a {@link DeadlineExceededException}.
+ * <p>
+ * Immutable and thread-safe.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Returns a deadline that expires after the given duration from now.
+     */
+    public static Deadline after(long duration, TimeUnit timeUnit) {
+        if (timeUnit == null) {
+            throw new IllegalArgumentException("timeUnit is required");
+        }
+        return new Deadline(System.nanoTime() + timeUnit.toNanos(duration));
+    }
+
+    /**
+     * Returns a deadline that expires after the given duration from now.
+     */
+    public static Deadline after(Duration duration) {
+        if (duration == null) {
+            throw new IllegalArgumentException("duration is required");
+        }
+        return after(duration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the deadline that is active on the calling thread, or {@code null} if there is none.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the earliest of the given deadlines, either of which may be {@code null}.
+     */
+    public static Deadline earliest(Deadline deadline1, Deadline deadline2) {
+        if (deadline1 == null) {
+            return deadline2;
+        }
+        if (deadline2 == null) {
+            return deadline1;
+        }
+        return deadline1.deadlineNanos - deadline2.deadlineNanos <= 0 ? deadline1 : deadline2;
+    }
+
+    /**
+     * Returns the time that remains until this deadline, or 0 if it has expired.
+     */
+    public long remaining(TimeUnit timeUnit) {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        return remainingNanos > 0 ? timeUnit.convert(remainingNanos, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Throws a {@link DeadlineExceededException} if this deadline has expired.
+     */
+    public void throwIfExpired() {
+        if (isExpired()) {
+            throw new DeadlineExceededException("The deadline of the call expired before the request was sent");
+        }
+    }
+
+    /**
+     * Makes this deadline active on the calling thread until the returned scope is closed.
+     * If an earlier deadline is already active, that one stays in effect.
+     */
+    public Scope activate() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(earliest(previous, this));
+        return new Scope(previous);
+    }
+
+    /**
+     * Calls the given action while this deadline is {@link #activate() active}.
+     */
+    public <T> T call(Supplier<T> action) {
+        try (Scope scope = activate()) {
+            return action.get();
+        }
+    }
+
+    /**
+     * The activation of a deadline. Closing it restores the deadline that was active before.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * Determines how host names are resolved when opening connections.
+ * <p>
+ * Resolved addresses are cached for the {@link #getTimeToLive() time to live}. An expired entry is refreshed in the background,
+ * while connections keep using the expired addresses; if resolving fails, they are used for at most the
+ * {@link #getMaxStaleTime() maximum stale time} after they expired. Only when there are no usable cached addresses does opening a
+ * connection wait for the host name to be resolved.
+ * <p>
+ * Connections are spread over all resolved addresses. If connecting to an address fails, the next address is tried, and the failed
+ * address is tried last by later connections until its time to live has passed. While other addresses remain, each connect attempt
+ * takes at most the {@link #getFailoverConnectTimeout() failover connect timeout}, so an unreachable address does not cost the full
+ * connect timeout.
+ */
+public class DnsCachePolicy {
+
+    public static final int DEFAULT_TIME_TO_LIVE = 60000;
+    public static final int DEFAULT_MAX_STALE_TIME = 300000;
+    public static final int DEFAULT_FAILOVER_CONNECT_TIMEOUT = 1000;
+
+    private int timeToLive = DEFAULT_TIME_TO_LIVE;
+    private int maxStaleTime = DEFAULT_MAX_STALE_TIME;
+    private int failoverConnectTimeout = DEFAULT_FAILOVER_CONNECT_TIMEOUT;
+
+    /**
+     * Returns the time in milliseconds that resolved addresses are cached before they are refreshed.
+     */
+    public int getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(int timeToLive) {
+        if (timeToLive < 1) {
+            throw new IllegalArgumentException("timeToLive must be at least 1");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    public DnsCachePolicy withTimeToLive(int timeToLive) {
+        setTimeToLive(timeToLive);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds that expired addresses are still used if they cannot be refreshed.
+     * A value of 0 means expired addresses are only used while they are being refreshed.
+     */
+    public int getMaxStaleTime() {
+        return maxStaleTime;
+    }
+
+    public void setMaxStaleTime(int maxStaleTime) {
+        if (maxStaleTime < 0) {
+            throw new IllegalArgumentException("maxStaleTime should not be negative");
+        }
+        this.maxStaleTime = maxStaleTime;
+    }
+
+    public DnsCachePolicy withMaxStaleTime(int maxStaleTime) {
+        setMaxStaleTime(maxStaleTime);
+        return this;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds of a connect attempt to an address while other addresses remain to be tried.
+     * The connect attempt to the last address uses the connect timeout. A value of 0 means every attempt uses the connect timeout.
+     */
+    public int getFailoverConnectTimeout() {
+        return failoverConnectTimeout;
+    }
+
+    public void setFailoverConnectTimeout(int failoverConnectTimeout) {
+        if (failoverConnectTimeout < 0) {
+            throw new IllegalArgumentException("failoverConnectTimeout should not be negative");
+        }
+        this.failoverConnectTimeout = failoverConnectTimeout;
+    }
+
+    public DnsCachePolicy withFailoverConnectTimeout(int failoverConnectTimeout) {
+        setFailoverConnectTimeout(failoverConnectTimeout);
+        return this;
+    }
+}
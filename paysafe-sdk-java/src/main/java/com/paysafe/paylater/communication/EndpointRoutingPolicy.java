@@ -0,0 +1,148 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * Determines how requests are spread over several API endpoints, for instance the endpoints of different regions.
+ * <p>
+ * Each request goes to the better of two randomly chosen healthy endpoints, where an endpoint is better if it has a lower
+ * exponentially weighted moving average latency, weighted by the number of requests it has in flight. This prefers nearby and fast
+ * endpoints without sending all traffic to a single one. The average latency of an endpoint decays over time with the
+ * {@link #getLatencyHalfLife() latency half-life}, so an endpoint that was slow and no longer receives requests is tried again.
+ * <p>
+ * An endpoint is ejected after {@link #getFailureThreshold() failureThreshold} consecutive failures, or when a health check fails.
+ * Failures are communication errors and responses with a 5xx status code. An ejected endpoint is re-admitted once it has been ejected
+ * for at least the {@link #getEjectionDuration() ejection duration} and its next health check succeeds. Without health checks, it is
+ * re-admitted on probation after the ejection duration: a single failure ejects it again. If all endpoints are ejected, requests are
+ * spread over all of them.
+ */
+public class EndpointRoutingPolicy {
+
+    public static final int DEFAULT_HEALTH_CHECK_INTERVAL = 5000;
+    public static final int DEFAULT_HEALTH_CHECK_TIMEOUT = 1000;
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    public static final int DEFAULT_EJECTION_DURATION = 30000;
+    public static final int DEFAULT_LATENCY_HALF_LIFE = 10000;
+
+    private int healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
+    private int healthCheckTimeout = DEFAULT_HEALTH_CHECK_TIMEOUT;
+    private String healthCheckPath;
+    private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private int ejectionDuration = DEFAULT_EJECTION_DURATION;
+    private int latencyHalfLife = DEFAULT_LATENCY_HALF_LIFE;
+
+    /**
+     * Returns the time in milliseconds between health checks of each endpoint. A value of 0 disables health checks.
+     */
+    public int getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(int healthCheckInterval) {
+        if (healthCheckInterval < 0) {
+            throw new IllegalArgumentException("healthCheckInterval should not be negative");
+        }
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public EndpointRoutingPolicy withHealthCheckInterval(int healthCheckInterval) {
+        setHealthCheckInterval(healthCheckInterval);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after which a health check fails if it did not get a response.
+     */
+    public int getHealthCheckTimeout() {
+        return healthCheckTimeout;
+    }
+
+    public void setHealthCheckTimeout(int healthCheckTimeout) {
+        if (healthCheckTimeout < 1) {
+            throw new IllegalArgumentException("healthCheckTimeout must be at least 1");
+        }
+        this.healthCheckTimeout = healthCheckTimeout;
+    }
+
+    public EndpointRoutingPolicy withHealthCheckTimeout(int healthCheckTimeout) {
+        setHealthCheckTimeout(healthCheckTimeout);
+        return this;
+    }
+
+    /**
+     * Returns the path that health checks send a GET request to, for instance {@code /health}. A health check succeeds if the
+     * response does not have a 5xx status code. If {@code null}, health checks only open a TCP connection to the endpoint.
+     */
+    public String getHealthCheckPath() {
+        return healthCheckPath;
+    }
+
+    public void setHealthCheckPath(String healthCheckPath) {
+        if (healthCheckPath != null && !healthCheckPath.startsWith("/")) {
+            throw new IllegalArgumentException("healthCheckPath should start with /");
+        }
+        this.healthCheckPath = healthCheckPath;
+    }
+
+    public EndpointRoutingPolicy withHealthCheckPath(String healthCheckPath) {
+        setHealthCheckPath(healthCheckPath);
+        return this;
+    }
+
+    /**
+     * Returns the number of consecutive failed requests after which an endpoint is ejected.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+    }
+
+    public EndpointRoutingPolicy withFailureThreshold(int failureThreshold) {
+        setFailureThreshold(failureThreshold);
+        return this;
+    }
+
+    /**
+     * Returns the minimum time in milliseconds that an ejected endpoint does not receive requests.
+     */
+    public int getEjectionDuration() {
+        return ejectionDuration;
+    }
+
+    public void setEjectionDuration(int ejectionDuration) {
+        if (ejectionDuration < 0) {
+            throw new IllegalArgumentException("ejectionDuration should not be negative");
+        }
+        this.ejectionDuration = ejectionDuration;
+    }
+
+    public EndpointRoutingPolicy withEjectionDuration(int ejectionDuration) {
+        setEjectionDuration(ejectionDuration);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after which the average latency of an endpoint is halved if no new latency is recorded.
+     * A value of 0 disables this decay, so an endpoint that was slow only receives requests again once the other endpoints are
+     * busier or slower.
+     */
+    public int getLatencyHalfLife() {
+        return latencyHalfLife;
+    }
+
+    public void setLatencyHalfLife(int latencyHalfLife) {
+        if (latencyHalfLife < 0) {
+            throw new IllegalArgumentException("latencyHalfLife should not be negative");
+        }
+        this.latencyHalfLife = latencyHalfLife;
+    }
+
+    public EndpointRoutingPolicy withLatencyHalfLife(int latencyHalfLife) {
+        setLatencyHalfLife(latencyHalfLife);
+        return this;
+    }
+}
@@ -0,0 +1,93 @@
+package com.paysafe.paylater.communication;
+
+import java.net.URI;
+
+/**
+ * The state and counters of a single API endpoint that requests are routed to.
+ *
+ * @see EndpointRoutingPolicy
+ */
+public class EndpointStatistics {
+
+    private final URI endpoint;
+    private final boolean healthy;
+    private final long averageLatency;
+    private final int inFlight;
+    private final long requests;
+    private final long failures;
+    private final long ejections;
+
+    public EndpointStatistics(URI endpoint, boolean healthy, long averageLatency, int inFlight, long requests, long failures, long ejections) {
+        if (endpoint == null) {
+            throw new IllegalArgumentException("endpoint is required");
+        }
+        this.endpoint = endpoint;
+        this.healthy = healthy;
+        this.averageLatency = averageLatency;
+        this.inFlight = inFlight;
+        this.requests = requests;
+        this.failures = failures;
+        this.ejections = ejections;
+    }
+
+    /**
+     * Returns the endpoint.
+     */
+    public URI getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Returns whether or not the endpoint currently receives requests.
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Returns the exponentially weighted moving average latency of the endpoint in microseconds, or 0 if no request has completed yet.
+     */
+    public long getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     * Returns the number of requests that are in flight to the endpoint.
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the number of requests that were sent to the endpoint.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of requests to the endpoint that failed with a communication error or a 5xx status code.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the number of times the endpoint was ejected.
+     */
+    public long getEjections() {
+        return ejections;
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointStatistics[endpoint=" + endpoint
+                + ", healthy=" + healthy
+                + ", averageLatency=" + averageLatency
+                + ", inFlight=" + inFlight
+                + ", requests=" + requests
+                + ", failures=" + failures
+                + ", ejections=" + ejections
+                + "]";
+    }
+}
@@ -0,0 +1,123 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * Determines when GET requests are hedged: if a GET request has not completed within the hedging delay,
+ * a second copy is sent, and the first response is used.
+ * <p>
+ * The hedging delay is the {@link #getDelayPercentile() configured percentile} of the recent round-trip times of the same operation,
+ * but not less than the {@link #getMinDelay() minimum delay}. Until enough requests have completed, the {@link #getDelay() fixed delay} is used.
+ * <p>
+ * The number of hedged requests is limited by a budget: each GET request adds {@link #getBudgetPercent() a percentage} of a token to a bucket
+ * that holds {@link #getBudgetCapacity() a maximum number of tokens}, and each hedged request takes a whole token.
+ * This limits the extra traffic to roughly the budget percentage.
+ */
+public class HedgingPolicy {
+
+    public static final int DEFAULT_DELAY = 100;
+    public static final int DEFAULT_MIN_DELAY = 10;
+    public static final int DEFAULT_DELAY_PERCENTILE = 95;
+    public static final int DEFAULT_BUDGET_PERCENT = 5;
+    public static final int DEFAULT_BUDGET_CAPACITY = 10;
+
+    private int delay = DEFAULT_DELAY;
+    private int minDelay = DEFAULT_MIN_DELAY;
+    private int delayPercentile = DEFAULT_DELAY_PERCENTILE;
+    private int budgetPercent = DEFAULT_BUDGET_PERCENT;
+    private int budgetCapacity = DEFAULT_BUDGET_CAPACITY;
+
+    /**
+     * Returns the hedging delay in milliseconds that is used until enough round-trip times have been observed,
+     * or always if the delay percentile is 0.
+     */
+    public int getDelay() {
+        return delay;
+    }
+
+    public void setDelay(int delay) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("delay should not be negative");
+        }
+        this.delay = delay;
+    }
+
+    public HedgingPolicy withDelay(int delay) {
+        setDelay(delay);
+        return this;
+    }
+
+    /**
+     * Returns the minimum hedging delay in milliseconds when the delay is based on observed round-trip times.
+     */
+    public int getMinDelay() {
+        return minDelay;
+    }
+
+    public void setMinDelay(int minDelay) {
+        if (minDelay < 0) {
+            throw new IllegalArgumentException("minDelay should not be negative");
+        }
+        this.minDelay = minDelay;
+    }
+
+    public HedgingPolicy withMinDelay(int minDelay) {
+        setMinDelay(minDelay);
+        return this;
+    }
+
+    /**
+     * Returns the percentile of the recent round-trip times that is used as hedging delay. A value of 0 means the fixed delay is always used.
+     */
+    public int getDelayPercentile() {
+        return delayPercentile;
+    }
+
+    public void setDelayPercentile(int delayPercentile) {
+        if (delayPercentile < 0 || delayPercentile > 100) {
+            throw new IllegalArgumentException("delayPercentile must be between 0 and 100");
+        }
+        this.delayPercentile = delayPercentile;
+    }
+
+    public HedgingPolicy withDelayPercentile(int delayPercentile) {
+        setDelayPercentile(delayPercentile);
+        return this;
+    }
+
+    /**
+     * Returns the percentage of a token that each GET request adds to the hedging budget.
+     */
+    public int getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    public void setBudgetPercent(int budgetPercent) {
+        if (budgetPercent < 0) {
+            throw new IllegalArgumentException("budgetPercent should not be negative");
+        }
+        this.budgetPercent = budgetPercent;
+    }
+
+    public HedgingPolicy withBudgetPercent(int budgetPercent) {
+        setBudgetPercent(budgetPercent);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of tokens in the hedging budget. The budget starts full.
+     */
+    public int getBudgetCapacity() {
+        return budgetCapacity;
+    }
+
+    public void setBudgetCapacity(int budgetCapacity) {
+        if (budgetCapacity < 0) {
+            throw new IllegalArgumentException("budgetCapacity should not be negative");
+        }
+        this.budgetCapacity = budgetCapacity;
+    }
+
+    public HedgingPolicy withBudgetCapacity(int budgetCapacity) {
+        setBudgetCapacity(budgetCapacity);
+        return this;
+    }
+}
@@ -0,0 +1,84 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * Settings for the requests of a single operation of the Paysafe Pay Later API, for instance {@code /purchase/authorize/paylater}.
+ * These override the timeouts of the {@link CommunicatorConfiguration} for that operation, and can give the operation a connection pool
+ * of its own, so slow operations cannot use up the connections that fast operations need.
+ * <p>
+ * Operation profiles are only supported by {@link ConnectionType#BLOCKING} connections.
+ *
+ * @see CommunicatorConfiguration#getOperationProfiles()
+ */
+public class OperationProfile {
+
+    /**
+     * The value for timeouts that are taken from the {@link CommunicatorConfiguration}.
+     */
+    public static final int DEFAULT_TIMEOUT = -1;
+    /**
+     * The value for the maximum number of connections if the operation uses the shared connection pool.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 0;
+
+    private int connectTimeout = DEFAULT_TIMEOUT;
+    private int readTimeout = DEFAULT_TIMEOUT;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+    /**
+     * Returns the connect timeout in milliseconds, or {@link #DEFAULT_TIMEOUT} to use the connect timeout of the configuration.
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        if (connectTimeout < DEFAULT_TIMEOUT) {
+            throw new IllegalArgumentException("connectTimeout should not be less than " + DEFAULT_TIMEOUT);
+        }
+        this.connectTimeout = connectTimeout;
+    }
+
+    public OperationProfile withConnectTimeout(int connectTimeout) {
+        setConnectTimeout(connectTimeout);
+        return this;
+    }
+
+    /**
+     * Returns the read timeout in milliseconds, or {@link #DEFAULT_TIMEOUT} to use the read timeout of the configuration.
+     */
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(int readTimeout) {
+        if (readTimeout < DEFAULT_TIMEOUT) {
+            throw new IllegalArgumentException("readTimeout should not be less than " + DEFAULT_TIMEOUT);
+        }
+        this.readTimeout = readTimeout;
+    }
+
+    public OperationProfile withReadTimeout(int readTimeout) {
+        setReadTimeout(readTimeout);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of connections of the connection pool of the operation.
+     * A value of 0 means the operation uses the shared connection pool.
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        if (maxConnections < 0) {
+            throw new IllegalArgumentException("maxConnections should not be negative");
+        }
+        this.maxConnections = maxConnections;
+    }
+
+    public OperationProfile withMaxConnections(int maxConnections) {
+        setMaxConnections(maxConnections);
+        return this;
+    }
+}
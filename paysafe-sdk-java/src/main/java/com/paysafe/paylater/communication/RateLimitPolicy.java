@@ -0,0 +1,82 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * Determines how many requests per second can be sent to the Paysafe Pay Later platform with the same secret key.
+ * Each secret key has its own token bucket, which allows short bursts of up to {@link #getBurstSize() burstSize} requests.
+ * Requests beyond that are delayed until a token is available, so bursts are spread out instead of failing at the Paysafe Pay Later platform.
+ * <p>
+ * If the Paysafe Pay Later platform responds with a {@code Retry-After} header, requests with the same secret key are paused until then.
+ * Requests that would have to wait longer than {@link #getMaxWait() maxWait} fail with a
+ * {@link com.paysafe.paylater.exception.RateLimitExceededException}; requests that would have to wait beyond their {@link Deadline}
+ * fail with a {@link com.paysafe.paylater.exception.DeadlineExceededException}.
+ *
+ * @see CommunicatorConfiguration#getRateLimitPolicy()
+ * @see CommunicatorConfiguration#getOperationRateLimitPolicies()
+ */
+public class RateLimitPolicy {
+
+    public static final int DEFAULT_REQUESTS_PER_SECOND = 10;
+    public static final int DEFAULT_BURST_SIZE = 10;
+    public static final int DEFAULT_MAX_WAIT = 1000;
+
+    private int requestsPerSecond = DEFAULT_REQUESTS_PER_SECOND;
+    private int burstSize = DEFAULT_BURST_SIZE;
+    private int maxWait = DEFAULT_MAX_WAIT;
+
+    /**
+     * Returns the sustained number of requests per second.
+     */
+    public int getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(int requestsPerSecond) {
+        if (requestsPerSecond < 1) {
+            throw new IllegalArgumentException("requestsPerSecond must be at least 1");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public RateLimitPolicy withRequestsPerSecond(int requestsPerSecond) {
+        setRequestsPerSecond(requestsPerSecond);
+        return this;
+    }
+
+    /**
+     * Returns the number of requests that can be sent at once, without waiting.
+     */
+    public int getBurstSize() {
+        return burstSize;
+    }
+
+    public void setBurstSize(int burstSize) {
+        if (burstSize < 1) {
+            throw new IllegalArgumentException("burstSize must be at least 1");
+        }
+        this.burstSize = burstSize;
+    }
+
+    public RateLimitPolicy withBurstSize(int burstSize) {
+        setBurstSize(burstSize);
+        return this;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds that a request can wait before it is sent.
+     */
+    public int getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(int maxWait) {
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("maxWait should not be negative");
+        }
+        this.maxWait = maxWait;
+    }
+
+    public RateLimitPolicy withMaxWait(int maxWait) {
+        setMaxWait(maxWait);
+        return this;
+    }
+}
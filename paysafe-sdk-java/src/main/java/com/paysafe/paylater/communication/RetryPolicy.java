@@ -0,0 +1,180 @@
+package com.paysafe.paylater.communication;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Determines how failed requests are retried.
+ * <p>
+ * Requests are only retried if that is safe: {@code GET}, {@code PUT} and {@code DELETE} requests are idempotent and are retried for
+ * communication errors and for responses with a {@link #getRetryableStatusCodes() retryable status code}. {@code POST} requests,
+ * like capturing or refunding a purchase, are only retried if the connection could not be opened, which means the request was never sent,
+ * or if the request contains an {@link #getIdempotencyKeyHeader() idempotency key}.
+ * <p>
+ * Between attempts, a delay with decorrelated jitter is used: each delay is a random value between the
+ * {@link #getBaseDelay() base delay} and three times the previous delay, capped at the {@link #getMaxDelay() maximum delay}.
+ * If an error response has a {@code Retry-After} header, the delay is at least that long; if that exceeds the maximum delay,
+ * the request is not retried.
+ * <p>
+ * To prevent retries from multiplying the load on the API when it is already failing, retries are limited by a retry budget:
+ * each request adds {@link #getRetryBudgetPercent() a percentage} of a token to a bucket of at most {@link #getRetryBudgetCapacity() capacity} tokens,
+ * and each retry takes one token. A retry without an available token is not performed.
+ */
+public class RetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final int DEFAULT_BASE_DELAY = 100;
+    public static final int DEFAULT_MAX_DELAY = 2000;
+    public static final Set<Integer> DEFAULT_RETRYABLE_STATUS_CODES = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(500, 502, 503, 504)));
+    public static final String DEFAULT_IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final int DEFAULT_RETRY_BUDGET_PERCENT = 10;
+    public static final int DEFAULT_RETRY_BUDGET_CAPACITY = 10;
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private int baseDelay = DEFAULT_BASE_DELAY;
+    private int maxDelay = DEFAULT_MAX_DELAY;
+    private Set<Integer> retryableStatusCodes = new LinkedHashSet<>(DEFAULT_RETRYABLE_STATUS_CODES);
+    private String idempotencyKeyHeader = DEFAULT_IDEMPOTENCY_KEY_HEADER;
+    private int retryBudgetPercent = DEFAULT_RETRY_BUDGET_PERCENT;
+    private int retryBudgetCapacity = DEFAULT_RETRY_BUDGET_CAPACITY;
+
+    /**
+     * Returns the maximum number of attempts per request, including the first one. A value of 1 means requests are not retried.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        setMaxAttempts(maxAttempts);
+        return this;
+    }
+
+    /**
+     * Returns the minimum delay in milliseconds between attempts.
+     */
+    public int getBaseDelay() {
+        return baseDelay;
+    }
+
+    public void setBaseDelay(int baseDelay) {
+        if (baseDelay < 0) {
+            throw new IllegalArgumentException("baseDelay should not be negative");
+        }
+        this.baseDelay = baseDelay;
+    }
+
+    public RetryPolicy withBaseDelay(int baseDelay) {
+        setBaseDelay(baseDelay);
+        return this;
+    }
+
+    /**
+     * Returns the maximum delay in milliseconds between attempts.
+     */
+    public int getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(int maxDelay) {
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("maxDelay should not be negative");
+        }
+        this.maxDelay = maxDelay;
+    }
+
+    public RetryPolicy withMaxDelay(int maxDelay) {
+        setMaxDelay(maxDelay);
+        return this;
+    }
+
+    /**
+     * Returns the HTTP status codes of responses that are retried, if the request can be retried safely.
+     */
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    public void setRetryableStatusCodes(Set<Integer> retryableStatusCodes) {
+        if (retryableStatusCodes == null) {
+            throw new IllegalArgumentException("retryableStatusCodes is required");
+        }
+        this.retryableStatusCodes = retryableStatusCodes;
+    }
+
+    public RetryPolicy withRetryableStatusCodes(Collection<Integer> retryableStatusCodes) {
+        setRetryableStatusCodes(new LinkedHashSet<>(retryableStatusCodes));
+        return this;
+    }
+
+    public RetryPolicy withRetryableStatusCodes(Integer... retryableStatusCodes) {
+        return withRetryableStatusCodes(Arrays.asList(retryableStatusCodes));
+    }
+
+    /**
+     * Returns the name of the request header that contains an idempotency key. {@code POST} requests with this header are retried
+     * the same way as idempotent requests. A {@code null} value means {@code POST} requests are only retried if the connection could not be opened.
+     */
+    public String getIdempotencyKeyHeader() {
+        return idempotencyKeyHeader;
+    }
+
+    public void setIdempotencyKeyHeader(String idempotencyKeyHeader) {
+        this.idempotencyKeyHeader = idempotencyKeyHeader;
+    }
+
+    public RetryPolicy withIdempotencyKeyHeader(String idempotencyKeyHeader) {
+        setIdempotencyKeyHeader(idempotencyKeyHeader);
+        return this;
+    }
+
+    /**
+     * Returns the percentage of a retry token that each request adds to the retry budget.
+     * In the long run, this is the maximum percentage of requests that is retried.
+     */
+    public int getRetryBudgetPercent() {
+        return retryBudgetPercent;
+    }
+
+    public void setRetryBudgetPercent(int retryBudgetPercent) {
+        if (retryBudgetPercent < 0) {
+            throw new IllegalArgumentException("retryBudgetPercent should not be negative");
+        }
+        this.retryBudgetPercent = retryBudgetPercent;
+    }
+
+    public RetryPolicy withRetryBudgetPercent(int retryBudgetPercent) {
+        setRetryBudgetPercent(retryBudgetPercent);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of retry tokens in the retry budget. This is the number of retries that can be performed in a burst.
+     * The retry budget starts full.
+     */
+    public int getRetryBudgetCapacity() {
+        return retryBudgetCapacity;
+    }
+
+    public void setRetryBudgetCapacity(int retryBudgetCapacity) {
+        if (retryBudgetCapacity < 0) {
+            throw new IllegalArgumentException("retryBudgetCapacity should not be negative");
+        }
+        this.retryBudgetCapacity = retryBudgetCapacity;
+    }
+
+    public RetryPolicy withRetryBudgetCapacity(int retryBudgetCapacity) {
+        setRetryBudgetCapacity(retryBudgetCapacity);
+        return this;
+    }
+}
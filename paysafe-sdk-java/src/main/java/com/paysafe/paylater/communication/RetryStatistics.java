@@ -0,0 +1,72 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * Retry counters for a single operation, identified by its HTTP method and path template, for instance
+ * {@code GET /purchase/info/{purchaseId}}.
+ *
+ * @see RetryPolicy
+ */
+public class RetryStatistics {
+
+    private final String operation;
+    private final long requests;
+    private final long retries;
+    private final long retriesDeniedByBudget;
+    private final long retriesExhausted;
+
+    public RetryStatistics(String operation, long requests, long retries, long retriesDeniedByBudget, long retriesExhausted) {
+        if (operation == null) {
+            throw new IllegalArgumentException("operation is required");
+        }
+        this.operation = operation;
+        this.requests = requests;
+        this.retries = retries;
+        this.retriesDeniedByBudget = retriesDeniedByBudget;
+        this.retriesExhausted = retriesExhausted;
+    }
+
+    /**
+     * Returns the HTTP method and path template of the operation.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the number of requests, not including retries.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of retries that were performed.
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * Returns the number of retries that were not performed because the retry budget was exhausted.
+     */
+    public long getRetriesDeniedByBudget() {
+        return retriesDeniedByBudget;
+    }
+
+    /**
+     * Returns the number of requests that still failed with a retryable error after the maximum number of attempts.
+     */
+    public long getRetriesExhausted() {
+        return retriesExhausted;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryStatistics[operation=" + operation
+                + ", requests=" + requests
+                + ", retries=" + retries
+                + ", retriesDeniedByBudget=" + retriesDeniedByBudget
+                + ", retriesExhausted=" + retriesExhausted
+                + "]";
+    }
+}
@@ -0,0 +1,32 @@
+package com.paysafe.paylater.communication;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Support for calling the Paysafe Pay Later platform from virtual threads.
+ * <p>
+ * Virtual threads require Java 21 or later. This class is part of a multi-release jar; when running on an earlier Java version,
+ * {@link #isSupported()} returns {@code false} and {@link #newExecutor()} throws an {@link UnsupportedOperationException}.
+ * Blocking calls made from virtual threads should use a {@link ConnectionType#VIRTUAL_THREAD} connection.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * Returns whether or not virtual threads are supported by the current Java version.
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Returns a new executor that runs each task in a new virtual thread.
+     * This executor can be passed to the asynchronous API methods.
+     *
+     * @throws UnsupportedOperationException If virtual threads are not supported by the current Java version.
+     */
+    public static ExecutorService newExecutor() {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+}
@@ -0,0 +1,91 @@
+package com.paysafe.paylater.communication;
+
+/**
+ * Options for {@link Communicator#warmUp(WarmUpOptions)}.
+ */
+public class WarmUpOptions {
+
+    public static final int DEFAULT_CONNECTIONS = 1;
+    public static final int DEFAULT_TIMEOUT = 10000;
+    public static final String DEFAULT_PATH = "/";
+
+    private int connections = DEFAULT_CONNECTIONS;
+    private String path = DEFAULT_PATH;
+    private boolean warmUpMarshaller = true;
+    private int timeout = DEFAULT_TIMEOUT;
+
+    /**
+     * Returns the number of connections to open to the API endpoint. These are opened concurrently, and kept in the connection's pool,
+     * so this should not exceed the connection's maximum number of connections. A value of 0 means no connections are opened.
+     */
+    public int getConnections() {
+        return connections;
+    }
+
+    public void setConnections(int connections) {
+        if (connections < 0) {
+            throw new IllegalArgumentException("connections should not be negative");
+        }
+        this.connections = connections;
+    }
+
+    public WarmUpOptions withConnections(int connections) {
+        setConnections(connections);
+        return this;
+    }
+
+    /**
+     * Returns the path, relative to the API endpoint, of the GET requests that open the connections.
+     * A cheap path such as a health check is preferred; the status code of the responses does not matter.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        if (path == null) {
+            throw new IllegalArgumentException("path is required");
+        }
+        this.path = path;
+    }
+
+    public WarmUpOptions withPath(String path) {
+        setPath(path);
+        return this;
+    }
+
+    /**
+     * Returns whether or not to marshal and unmarshal each model type.
+     */
+    public boolean isWarmUpMarshaller() {
+        return warmUpMarshaller;
+    }
+
+    public void setWarmUpMarshaller(boolean warmUpMarshaller) {
+        this.warmUpMarshaller = warmUpMarshaller;
+    }
+
+    public WarmUpOptions withWarmUpMarshaller(boolean warmUpMarshaller) {
+        setWarmUpMarshaller(warmUpMarshaller);
+        return this;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds to wait for the connections to be opened.
+     */
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(int timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout should not be negative");
+        }
+        this.timeout = timeout;
+    }
+
+    public WarmUpOptions withTimeout(int timeout) {
+        setTimeout(timeout);
+        return this;
+    }
+}
@@ -0,0 +1,81 @@
+package com.paysafe.paylater.communication;
+
+import java.time.Duration;
+
+/**
+ * The result of {@link Communicator#warmUp(WarmUpOptions)}.
+ */
+public class WarmUpResult {
+
+    private final int connectionsOpened;
+    private final int connectionsFailed;
+    private final Duration connectionsDuration;
+    private final int modelTypes;
+    private final Duration marshallerDuration;
+
+    public WarmUpResult(int connectionsOpened, int connectionsFailed, Duration connectionsDuration, int modelTypes, Duration marshallerDuration) {
+        if (connectionsDuration == null) {
+            throw new IllegalArgumentException("connectionsDuration is required");
+        }
+        if (marshallerDuration == null) {
+            throw new IllegalArgumentException("marshallerDuration is required");
+        }
+        this.connectionsOpened = connectionsOpened;
+        this.connectionsFailed = connectionsFailed;
+        this.connectionsDuration = connectionsDuration;
+        this.modelTypes = modelTypes;
+        this.marshallerDuration = marshallerDuration;
+    }
+
+    /**
+     * Returns the number of connections that received a response, regardless of its status code.
+     */
+    public int getConnectionsOpened() {
+        return connectionsOpened;
+    }
+
+    /**
+     * Returns the number of connections that could not be opened, or that did not receive a response in time.
+     */
+    public int getConnectionsFailed() {
+        return connectionsFailed;
+    }
+
+    /**
+     * Returns how long it took to open the connections.
+     */
+    public Duration getConnectionsDuration() {
+        return connectionsDuration;
+    }
+
+    /**
+     * Returns the number of model types that were marshalled and unmarshalled.
+     */
+    public int getModelTypes() {
+        return modelTypes;
+    }
+
+    /**
+     * Returns how long it took to marshal and unmarshal the model types.
+     */
+    public Duration getMarshallerDuration() {
+        return marshallerDuration;
+    }
+
+    /**
+     * Returns whether or not all connections were opened.
+     */
+    public boolean isSuccessful() {
+        return connectionsFailed == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpResult[connectionsOpened=" + connectionsOpened
+                + ", connectionsFailed=" + connectionsFailed
+                + ", connectionsDuration=" + connectionsDuration
+                + ", modelTypes=" + modelTypes
+                + ", marshallerDuration=" + marshallerDuration
+                + "]";
+    }
+}
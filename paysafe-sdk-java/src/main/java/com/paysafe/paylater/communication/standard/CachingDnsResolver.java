@@ -0,0 +1,192 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+
+import com.paysafe.paylater.communication.DnsCachePolicy;
+
+/**
+ * A {@link DnsResolver} that caches resolved addresses according to a {@link DnsCachePolicy}, and refreshes them in the background.
+ * Each call returns all addresses of a host, starting at the next address in turn, with addresses that recently failed to connect last.
+ * <p>
+ * Thread-safe.
+ */
+public class CachingDnsResolver implements DnsResolver, Closeable {
+
+    private final DnsResolver delegate;
+    private final long timeToLive;
+    private final long maxStaleTime;
+    private final int failoverConnectTimeout;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // the System.nanoTime() until which addresses are tried last, because connecting to them failed
+    private final Map<InetAddress, Long> failedAddresses = new ConcurrentHashMap<>();
+    private final ExecutorService refresher;
+
+    /**
+     * Creates a new resolver that resolves host names using the system's resolver.
+     */
+    public CachingDnsResolver(DnsCachePolicy policy) {
+        this(SystemDefaultDnsResolver.INSTANCE, policy);
+    }
+
+    /**
+     * Creates a new resolver that resolves host names using the given resolver.
+     */
+    public CachingDnsResolver(DnsResolver delegate, DnsCachePolicy policy) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate is required");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is required");
+        }
+        this.delegate = delegate;
+        timeToLive = TimeUnit.MILLISECONDS.toNanos(policy.getTimeToLive());
+        maxStaleTime = TimeUnit.MILLISECONDS.toNanos(policy.getMaxStaleTime());
+        failoverConnectTimeout = policy.getFailoverConnectTimeout();
+        refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "paysafe-dns-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        long now = System.nanoTime();
+        Entry entry = entries.get(host);
+        if (entry == null || now - entry.resolvedAt > timeToLive + maxStaleTime) {
+            entry = resolveNow(host, now);
+        } else if (now - entry.resolvedAt > timeToLive) {
+            refreshInBackground(host, entry);
+        }
+        return entry.nextAddresses(now);
+    }
+
+    private Entry resolveNow(String host, long now) throws UnknownHostException {
+        InetAddress[] addresses = delegate.resolve(host);
+        if (addresses == null || addresses.length == 0) {
+            throw new UnknownHostException(host);
+        }
+        Entry entry = new Entry(addresses, now);
+        entries.put(host, entry);
+        return entry;
+    }
+
+    private void refreshInBackground(String host, Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    resolveNow(host, System.nanoTime());
+                } catch (@SuppressWarnings("unused") UnknownHostException | RuntimeException e) {
+                    // keep using the expired addresses until the maximum stale time has passed; a later call tries again
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (@SuppressWarnings("unused") RejectedExecutionException e) {
+            // closed; the addresses are resolved synchronously once the maximum stale time has passed
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Records that connecting to the given address failed, so it is tried last until its time to live has passed.
+     */
+    void onConnectFailure(InetAddress address) {
+        failedAddresses.put(address, System.nanoTime() + timeToLive);
+    }
+
+    /**
+     * Records that connecting to the given address succeeded.
+     */
+    void onConnectSuccess(InetAddress address) {
+        if (!failedAddresses.isEmpty()) {
+            failedAddresses.remove(address);
+        }
+    }
+
+    /**
+     * Returns the maximum time in milliseconds of a connect attempt to an address while other addresses remain to be tried,
+     * or 0 if every attempt uses the connect timeout.
+     */
+    int getFailoverConnectTimeout() {
+        return failoverConnectTimeout;
+    }
+
+    /**
+     * Stops refreshing addresses in the background.
+     */
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private boolean hasFailed(InetAddress address, long now) {
+        Long failedUntil = failedAddresses.get(address);
+        if (failedUntil == null) {
+            return false;
+        }
+        if (now - failedUntil >= 0) {
+            failedAddresses.remove(address, failedUntil);
+            return false;
+        }
+        return true;
+    }
+
+    private final class Entry {
+
+        private final InetAddress[] addresses;
+        private final long resolvedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final AtomicInteger nextIndex = new AtomicInteger();
+
+        private Entry(InetAddress[] addresses, long resolvedAt) {
+            this.addresses = addresses.clone();
+            this.resolvedAt = resolvedAt;
+        }
+
+        /**
+         * Returns all addresses, starting at the next address in turn, with the addresses that recently failed last.
+         */
+        private InetAddress[] nextAddresses(long now) {
+            int length = addresses.length;
+            if (length == 1) {
+                return addresses.clone();
+            }
+            int start = Math.floorMod(nextIndex.getAndIncrement(), length);
+            InetAddress[] result = new InetAddress[length];
+            int first = 0;
+            int last = length;
+            for (int i = 0; i < length; i++) {
+                InetAddress address = addresses[(start + i) % length];
+                if (hasFailed(address, now)) {
+                    result[--last] = address;
+                } else {
+                    result[first++] = address;
+                }
+            }
+            // the failed addresses were added from the back; restore their order
+            for (int i = last, j = length - 1; i < j; i++, j--) {
+                InetAddress address = result[i];
+                result[i] = result[j];
+                result[j] = address;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.paysafe.paylater.communication.CircuitBreakerListener;
+import com.paysafe.paylater.communication.CircuitBreakerPolicy;
+import com.paysafe.paylater.exception.CircuitBreakerOpenException;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ResponseException;
+
+/**
+ * A circuit breaker that stops sending requests to the Paysafe Pay Later platform while it is failing or slow.
+ * See {@link CircuitBreakerPolicy} for when the circuit breaker opens and closes.
+ * <p>
+ * Thread-safe.
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        /** Requests are sent, and their outcome is recorded. */
+        CLOSED,
+        /** Requests fail immediately with a {@link CircuitBreakerOpenException}. */
+        OPEN,
+        /** A limited number of probe requests are sent to determine whether or not the circuit breaker can close again. */
+        HALF_OPEN,
+    }
+
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumNumberOfCalls;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    // the following fields are guarded by this
+
+    private final SlidingWindow slidingWindow;
+    private State state = State.CLOSED;
+    // incremented on each state change, so results of requests permitted in an earlier state are ignored
+    private long generation;
+    private long openedAt;
+    private int probesPermitted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(CircuitBreakerPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is required");
+        }
+        // copy the settings, so later changes to the policy have no effect
+        failureRateThreshold = policy.getFailureRateThreshold();
+        slowCallRateThreshold = policy.getSlowCallRateThreshold();
+        slowCallNanos = TimeUnit.MILLISECONDS.toNanos(policy.getSlowCallDuration());
+        minimumNumberOfCalls = Math.min(policy.getMinimumNumberOfCalls(), policy.getSlidingWindowSize());
+        openNanos = TimeUnit.MILLISECONDS.toNanos(policy.getOpenDuration());
+        halfOpenProbes = policy.getHalfOpenProbes();
+        slidingWindow = new SlidingWindow(policy.getSlidingWindowSize());
+        listeners.addAll(policy.getListeners());
+    }
+
+    /**
+     * Returns the current state. An open circuit breaker only becomes half-open when a request is attempted after the open duration.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns the percentage of failed requests in the sliding window, or -1 if it contains fewer requests than the minimum.
+     */
+    public synchronized float getFailureRate() {
+        return slidingWindow.count >= minimumNumberOfCalls ? slidingWindow.failures * 100f / slidingWindow.count : -1;
+    }
+
+    /**
+     * Returns the percentage of slow requests in the sliding window, or -1 if it contains fewer requests than the minimum.
+     */
+    public synchronized float getSlowCallRate() {
+        return slidingWindow.count >= minimumNumberOfCalls ? slidingWindow.slowCalls * 100f / slidingWindow.count : -1;
+    }
+
+    /**
+     * Returns the total number of requests that were rejected because this circuit breaker was open or half-open.
+     */
+    public long getRejectedCallCount() {
+        return rejectedCalls.sum();
+    }
+
+    public void addListener(CircuitBreakerListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is required");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(CircuitBreakerListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Acquires permission to send a request. The returned value must be passed to {@link #onResult(long, long, Throwable)} or
+     * {@link #onCancelled(long)} when the request finishes.
+     *
+     * @throws CircuitBreakerOpenException if no request can be sent
+     */
+    long acquirePermission() {
+        State fromState = null;
+        long permission;
+        synchronized (this) {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                fromState = transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.OPEN || state == State.HALF_OPEN && probesPermitted >= halfOpenProbes) {
+                rejectedCalls.increment();
+                throw new CircuitBreakerOpenException("The circuit breaker is " + (state == State.OPEN ? "open" : "half-open") + "; the request was not sent");
+            }
+            if (state == State.HALF_OPEN) {
+                probesPermitted++;
+            }
+            permission = generation;
+        }
+        if (fromState != null) {
+            notifyListeners(fromState, State.HALF_OPEN);
+        }
+        return permission;
+    }
+
+    /**
+     * Records the outcome of a request.
+     *
+     * @param permission The value returned by {@link #acquirePermission()}.
+     * @param durationNanos How long the request took, in nanoseconds.
+     * @param failure The exception the request failed with, or {@code null} if it succeeded.
+     */
+    void onResult(long permission, long durationNanos, Throwable failure) {
+        boolean failed = isFailure(failure);
+        boolean slow = durationNanos >= slowCallNanos;
+
+        State fromState = null;
+        State toState;
+        synchronized (this) {
+            if (permission != generation) {
+                return;
+            }
+            if (state == State.CLOSED) {
+                slidingWindow.record(failed, slow);
+                if (slidingWindow.count >= minimumNumberOfCalls
+                        && (slidingWindow.failures * 100L >= (long) failureRateThreshold * slidingWindow.count
+                                || slidingWindow.slowCalls * 100L >= (long) slowCallRateThreshold * slidingWindow.count)) {
+                    fromState = transitionTo(State.OPEN);
+                }
+            } else if (state == State.HALF_OPEN) {
+                if (failed || slow) {
+                    fromState = transitionTo(State.OPEN);
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    fromState = transitionTo(State.CLOSED);
+                }
+            }
+            toState = state;
+        }
+        if (fromState != null) {
+            notifyListeners(fromState, toState);
+        }
+    }
+
+    /**
+     * Records that a request was cancelled before its outcome was known. This frees up its probe if this circuit breaker is half-open.
+     */
+    synchronized void onCancelled(long permission) {
+        if (permission == generation && state == State.HALF_OPEN) {
+            probesPermitted--;
+        }
+    }
+
+    // must be called while holding the lock
+    private State transitionTo(State newState) {
+        State oldState = state;
+        state = newState;
+        generation++;
+        switch (newState) {
+            case OPEN:
+                openedAt = System.nanoTime();
+                break;
+            case HALF_OPEN:
+                probesPermitted = 0;
+                probesSucceeded = 0;
+                break;
+            case CLOSED:
+                slidingWindow.reset();
+                break;
+        }
+        return oldState;
+    }
+
+    private void notifyListeners(State fromState, State toState) {
+        for (CircuitBreakerListener listener : listeners) {
+            try {
+                listener.onStateChange(this, fromState, toState);
+            } catch (@SuppressWarnings("unused") RuntimeException e) {
+                // a failing listener should not affect the request or other listeners
+            }
+        }
+    }
+
+    /**
+     * Returns whether or not the given exception indicates that the Paysafe Pay Later platform is unhealthy:
+     * communication errors and responses with a 5xx status code. Other error responses are valid responses of a healthy server.
+     */
+    static boolean isFailure(Throwable failure) {
+        if (failure == null) {
+            return false;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof ResponseException) {
+                return ((ResponseException) cause).getResponseStatusCode() >= 500;
+            }
+        }
+        return failure instanceof CommunicationException;
+    }
+
+    /**
+     * A ring buffer with the outcome of the most recent requests.
+     */
+    private static final class SlidingWindow {
+
+        private final boolean[] failed;
+        private final boolean[] slow;
+        private int next;
+        private int count;
+        private int failures;
+        private int slowCalls;
+
+        private SlidingWindow(int size) {
+            failed = new boolean[size];
+            slow = new boolean[size];
+        }
+
+        private void record(boolean isFailure, boolean isSlow) {
+            if (count == failed.length) {
+                // remove the oldest outcome, which is about to be overwritten
+                failures -= failed[next] ? 1 : 0;
+                slowCalls -= slow[next] ? 1 : 0;
+            } else {
+                count++;
+            }
+            failed[next] = isFailure;
+            slow[next] = isSlow;
+            failures += isFailure ? 1 : 0;
+            slowCalls += isSlow ? 1 : 0;
+            next = (next + 1) % failed.length;
+        }
+
+        private void reset() {
+            next = 0;
+            count = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
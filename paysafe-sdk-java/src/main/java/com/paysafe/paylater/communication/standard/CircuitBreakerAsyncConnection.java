@@ -0,0 +1,87 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+
+/**
+ * An {@link AsyncConnection} that sends requests through another asynchronous connection, guarded by a {@link CircuitBreaker}.
+ * While the circuit breaker is open, the returned futures are completed exceptionally with a
+ * {@link com.paysafe.paylater.exception.CircuitBreakerOpenException}. Cancelled requests are not recorded as failures.
+ */
+class CircuitBreakerAsyncConnection extends CircuitBreakerConnection implements AsyncConnection {
+
+    private final AsyncConnection asyncConnection;
+
+    CircuitBreakerAsyncConnection(AsyncConnection connection, CircuitBreaker circuitBreaker) {
+        super(connection, circuitBreaker);
+        this.asyncConnection = connection;
+    }
+
+    @Override
+    public <R> CompletableFuture<R> postAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeAsync(() -> asyncConnection.postAsync(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> getAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeAsync(() -> asyncConnection.getAsync(uri, requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> putAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeAsync(() -> asyncConnection.putAsync(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeAsync(() -> asyncConnection.deleteAsync(uri, requestHeaders, responseHandler));
+    }
+
+    private <R> CompletableFuture<R> executeAsync(Supplier<CompletableFuture<R>> request) {
+        long permission;
+        try {
+            permission = circuitBreaker.acquirePermission();
+        } catch (RuntimeException e) {
+            CompletableFuture<R> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+        long startTime = System.nanoTime();
+        CompletableFuture<R> future;
+        try {
+            future = request.get();
+        } catch (RuntimeException e) {
+            circuitBreaker.onResult(permission, System.nanoTime() - startTime, e);
+            throw e;
+        }
+        // record the outcome before completing the returned future, so callers observe the updated state
+        CompletableFuture<R> result = new CompletableFuture<>();
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        future.whenComplete((response, thrown) -> {
+            Throwable cause = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown;
+            if (cause instanceof CancellationException) {
+                circuitBreaker.onCancelled(permission);
+            } else {
+                circuitBreaker.onResult(permission, System.nanoTime() - startTime, cause);
+            }
+            if (cause == null) {
+                result.complete(response);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+}
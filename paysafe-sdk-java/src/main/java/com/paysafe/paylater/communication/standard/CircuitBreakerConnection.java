@@ -0,0 +1,117 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+
+/**
+ * A connection that sends requests through another connection, guarded by a {@link CircuitBreaker}.
+ * While the circuit breaker is open, requests fail immediately with a {@link com.paysafe.paylater.exception.CircuitBreakerOpenException}.
+ * <p>
+ * Use {@link #create(Connection, CircuitBreaker)} to create instances; it returns an {@link AsyncConnection} if the wrapped connection is one.
+ */
+public class CircuitBreakerConnection implements PooledConnection {
+
+    final Connection connection;
+    final CircuitBreaker circuitBreaker;
+
+    CircuitBreakerConnection(Connection connection, CircuitBreaker circuitBreaker) {
+        if (connection == null) {
+            throw new IllegalArgumentException("connection is required");
+        }
+        if (circuitBreaker == null) {
+            throw new IllegalArgumentException("circuitBreaker is required");
+        }
+        this.connection = connection;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Creates a connection that guards the given connection with the given circuit breaker.
+     * If the given connection is an {@link AsyncConnection}, so is the returned connection.
+     */
+    public static CircuitBreakerConnection create(Connection connection, CircuitBreaker circuitBreaker) {
+        return connection instanceof AsyncConnection
+                ? new CircuitBreakerAsyncConnection((AsyncConnection) connection, circuitBreaker)
+                : new CircuitBreakerConnection(connection, circuitBreaker);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public <R> R post(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return execute(() -> connection.post(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return execute(() -> connection.get(uri, requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> R put(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return execute(() -> connection.put(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return execute(() -> connection.delete(uri, requestHeaders, responseHandler));
+    }
+
+    private <R> R execute(Supplier<R> request) {
+        long permission = circuitBreaker.acquirePermission();
+        long startTime = System.nanoTime();
+        try {
+            R result = request.get();
+            circuitBreaker.onResult(permission, ResponseTimer.responseTime(startTime) - startTime, null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            circuitBreaker.onResult(permission, ResponseTimer.responseTime(startTime) - startTime, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        if (connection instanceof PooledConnection) {
+            ((PooledConnection) connection).closeIdleConnections(idleTime, timeUnit);
+        }
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        if (connection instanceof PooledConnection) {
+            ((PooledConnection) connection).closeExpiredConnections();
+        }
+    }
+
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        connection.enableLogging(communicatorLogger);
+    }
+
+    @Override
+    public void disableLogging() {
+        connection.disableLogging();
+    }
+
+    @Override
+    public void close() throws IOException {
+        connection.close();
+    }
+}
@@ -0,0 +1,118 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+
+/**
+ * An {@link AsyncConnection} that sends requests through another asynchronous connection,
+ * limiting the number of requests in flight with a {@link ConcurrencyLimiter}.
+ * Queued requests do not block the calling thread; they are sent by the thread that completes an earlier request.
+ */
+class ConcurrencyLimitedAsyncConnection extends ConcurrencyLimitedConnection implements AsyncConnection {
+
+    private final AsyncConnection asyncConnection;
+
+    ConcurrencyLimitedAsyncConnection(AsyncConnection connection, ConcurrencyLimiter concurrencyLimiter) {
+        super(connection, concurrencyLimiter);
+        this.asyncConnection = connection;
+    }
+
+    @Override
+    public <R> CompletableFuture<R> postAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeAsync(uri, () -> asyncConnection.postAsync(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> getAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeAsync(uri, () -> asyncConnection.getAsync(uri, requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> putAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeAsync(uri, () -> asyncConnection.putAsync(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeAsync(uri, () -> asyncConnection.deleteAsync(uri, requestHeaders, responseHandler));
+    }
+
+    private <R> CompletableFuture<R> executeAsync(URI uri, Supplier<CompletableFuture<R>> request) {
+        // queued requests may be sent by another thread
+        Deadline deadline = Deadline.current();
+        CompletableFuture<R> result = new CompletableFuture<>();
+        CompletableFuture<ConcurrencyLimiter.Permit> permitFuture = concurrencyLimiter.acquireAsync(PathTemplates.toTemplate(uri.getPath()));
+        AtomicReference<CompletableFuture<R>> sent = new AtomicReference<>();
+        result.whenComplete((response, thrown) -> {
+            if (!result.isCancelled()) {
+                return;
+            }
+            CompletableFuture<R> future = sent.get();
+            if (future != null) {
+                future.cancel(true);
+            } else if (concurrencyLimiter.removeWaiter(permitFuture)) {
+                permitFuture.cancel(true);
+            }
+        });
+        permitFuture.whenComplete((permit, thrown) -> {
+            if (thrown != null) {
+                result.completeExceptionally(thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown);
+                return;
+            }
+            if (result.isDone()) {
+                // cancelled while waiting for the permit
+                concurrencyLimiter.onCancelled(permit);
+                return;
+            }
+            send(request, deadline, permit, result, sent);
+        });
+        return result;
+    }
+
+    private <R> void send(Supplier<CompletableFuture<R>> request, Deadline deadline, ConcurrencyLimiter.Permit permit, CompletableFuture<R> result,
+            AtomicReference<CompletableFuture<R>> sent) {
+
+        if (deadline != null && deadline.isExpired()) {
+            // the request will not be sent, so it says nothing about the round-trip time
+            concurrencyLimiter.onCancelled(permit);
+            result.completeExceptionally(new DeadlineExceededException("The deadline of the call expired while waiting for the concurrency limit"));
+            return;
+        }
+        CompletableFuture<R> future;
+        try {
+            future = deadline != null ? deadline.call(request) : request.get();
+        } catch (RuntimeException e) {
+            concurrencyLimiter.onResult(permit, e);
+            result.completeExceptionally(e);
+            return;
+        }
+        sent.set(future);
+        if (result.isCancelled()) {
+            future.cancel(true);
+        }
+        future.whenComplete((response, thrown) -> {
+            Throwable cause = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown;
+            if (cause instanceof CancellationException) {
+                concurrencyLimiter.onCancelled(permit);
+            } else {
+                concurrencyLimiter.onResult(permit, cause);
+            }
+            if (cause == null) {
+                result.complete(response);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+
+/**
+ * A connection that sends requests through another connection, limiting the number of requests in flight with a {@link ConcurrencyLimiter}.
+ * Requests that exceed the limit fail with a {@link com.paysafe.paylater.exception.ConcurrencyLimitExceededException},
+ * either immediately or after waiting in a queue.
+ * <p>
+ * Use {@link #create(Connection, ConcurrencyLimiter)} to create instances; it returns an {@link AsyncConnection} if the wrapped connection is one.
+ */
+public class ConcurrencyLimitedConnection implements PooledConnection {
+
+    final Connection connection;
+    final ConcurrencyLimiter concurrencyLimiter;
+
+    ConcurrencyLimitedConnection(Connection connection, ConcurrencyLimiter concurrencyLimiter) {
+        if (connection == null) {
+            throw new IllegalArgumentException("connection is required");
+        }
+        if (concurrencyLimiter == null) {
+            throw new IllegalArgumentException("concurrencyLimiter is required");
+        }
+        this.connection = connection;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Creates a connection that limits the requests sent through the given connection with the given concurrency limiter.
+     * If the given connection is an {@link AsyncConnection}, so is the returned connection.
+     */
+    public static ConcurrencyLimitedConnection create(Connection connection, ConcurrencyLimiter concurrencyLimiter) {
+        return connection instanceof AsyncConnection
+                ? new ConcurrencyLimitedAsyncConnection((AsyncConnection) connection, concurrencyLimiter)
+                : new ConcurrencyLimitedConnection(connection, concurrencyLimiter);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    @Override
+    public <R> R post(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return execute(uri, () -> connection.post(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return execute(uri, () -> connection.get(uri, requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> R put(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return execute(uri, () -> connection.put(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return execute(uri, () -> connection.delete(uri, requestHeaders, responseHandler));
+    }
+
+    private <R> R execute(URI uri, Supplier<R> request) {
+        ConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire(PathTemplates.toTemplate(uri.getPath()));
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            // the request will not be sent, so it says nothing about the round-trip time
+            concurrencyLimiter.onCancelled(permit);
+            deadline.throwIfExpired();
+        }
+        try {
+            R result = request.get();
+            concurrencyLimiter.onResult(permit, null, ResponseTimer.responseTime(permit.startTime));
+            return result;
+        } catch (RuntimeException | Error e) {
+            concurrencyLimiter.onResult(permit, e, ResponseTimer.responseTime(permit.startTime));
+            throw e;
+        }
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        if (connection instanceof PooledConnection) {
+            ((PooledConnection) connection).closeIdleConnections(idleTime, timeUnit);
+        }
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        if (connection instanceof PooledConnection) {
+            ((PooledConnection) connection).closeExpiredConnections();
+        }
+    }
+
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        connection.enableLogging(communicatorLogger);
+    }
+
+    @Override
+    public void disableLogging() {
+        connection.disableLogging();
+    }
+
+    @Override
+    public void close() throws IOException {
+        concurrencyLimiter.close();
+        connection.close();
+    }
+}
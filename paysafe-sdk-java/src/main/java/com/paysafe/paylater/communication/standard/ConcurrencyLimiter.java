@@ -0,0 +1,396 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.paysafe.paylater.communication.ConcurrencyLimitPolicy;
+import com.paysafe.paylater.communication.ConcurrencyLimitPolicy.OverflowPolicy;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.exception.CircuitBreakerOpenException;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ConcurrencyLimitExceededException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+
+/**
+ * Limits the number of requests that are in flight at the same time, adapting the limit to the observed round-trip times and errors.
+ * See {@link ConcurrencyLimitPolicy} for how the limit is adjusted.
+ * <p>
+ * The lowest observed round-trip time is kept per operation, because operations like fetching a terms-and-conditions document are
+ * normally much slower than others, and mixed traffic would otherwise look like an overload. It slowly follows the round-trip times of
+ * later requests, so a lasting change in the latency of the Paysafe Pay Later platform is eventually accepted as the new normal.
+ * <p>
+ * Thread-safe.
+ */
+public class ConcurrencyLimiter {
+
+    // the share of the difference with a later round-trip time that is added to the lowest observed round-trip time
+    private static final int BASELINE_DRIFT_DIVISOR = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int backoffRatio;
+    private final int latencyTolerance;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxQueueSize;
+    private final long maxQueueWait;
+
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    // the following fields are guarded by this
+
+    private double limit;
+    private int inFlight;
+    // the lowest observed round-trip time per operation
+    private final Map<String, Long> baselineRtts = new HashMap<>();
+    private long lastDecrease;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    // expires queued asynchronous requests; created when first needed
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+
+    public ConcurrencyLimiter(ConcurrencyLimitPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is required");
+        }
+        // copy the settings, so later changes to the policy have no effect
+        minLimit = policy.getMinLimit();
+        maxLimit = Math.max(policy.getMaxLimit(), policy.getMinLimit());
+        backoffRatio = policy.getBackoffRatio();
+        latencyTolerance = policy.getLatencyTolerance();
+        overflowPolicy = policy.getOverflowPolicy();
+        maxQueueSize = policy.getMaxQueueSize();
+        maxQueueWait = policy.getMaxQueueWait();
+        limit = Math.min(maxLimit, Math.max(minLimit, policy.getInitialLimit()));
+        lastDecrease = System.nanoTime();
+    }
+
+    /**
+     * Returns the current number of requests that can be in flight at the same time.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of requests that are currently in flight.
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the number of requests that are currently waiting for the limit.
+     */
+    public synchronized int getQueueLength() {
+        return waiters.size();
+    }
+
+    /**
+     * Returns the lowest observed round-trip time of all operations in milliseconds, or -1 if no requests have completed yet.
+     */
+    public synchronized long getBaselineRtt() {
+        return baselineRtts.values().stream()
+                .mapToLong(TimeUnit.NANOSECONDS::toMillis)
+                .min()
+                .orElse(-1);
+    }
+
+    /**
+     * Returns the lowest observed round-trip time of the given operation in milliseconds, or -1 if no requests for it have completed yet.
+     *
+     * @param operation The path template of the operation, for instance {@code /purchase/info/{purchaseId}}.
+     */
+    public synchronized long getBaselineRtt(String operation) {
+        Long baselineRtt = baselineRtts.get(operation);
+        return baselineRtt == null ? -1 : TimeUnit.NANOSECONDS.toMillis(baselineRtt);
+    }
+
+    /**
+     * Returns the total number of requests that were rejected because the limit was exceeded.
+     */
+    public long getRejectedCount() {
+        return rejectedRequests.sum();
+    }
+
+    /**
+     * Acquires permission to send a request, waiting for it if the overflow policy allows it.
+     * If a {@link Deadline} is active, the request does not wait beyond it.
+     * The returned permit must be passed to {@link #onResult(Permit, Throwable)} or {@link #onCancelled(Permit)} when the request finishes.
+     *
+     * @throws ConcurrencyLimitExceededException if the request cannot be sent within the limit
+     * @throws DeadlineExceededException if the deadline expires while waiting
+     */
+    Permit acquire() {
+        return acquire("");
+    }
+
+    /**
+     * Acquires permission to send a request for the given operation, like {@link #acquire()}. The round-trip time of the request is
+     * only compared with that of earlier requests for the same operation.
+     *
+     * @param operation The path template of the operation, for instance {@code /purchase/info/{purchaseId}}.
+     */
+    Permit acquire(String operation) {
+        Waiter waiter;
+        synchronized (this) {
+            Permit permit = tryAcquire(operation);
+            if (permit != null) {
+                return permit;
+            }
+            waiter = enqueue(operation);
+        }
+        Deadline deadline = Deadline.current();
+        long remaining = deadline != null ? deadline.remaining(TimeUnit.MILLISECONDS) : Long.MAX_VALUE;
+        try {
+            return waiter.get(Math.min(maxQueueWait, remaining), TimeUnit.MILLISECONDS);
+        } catch (@SuppressWarnings("unused") TimeoutException e) {
+            if (removeWaiter(waiter)) {
+                if (remaining < maxQueueWait) {
+                    throw new DeadlineExceededException("The deadline of the call expired while waiting for the concurrency limit");
+                }
+                throw reject();
+            }
+            // the permit was granted in the meantime
+            return waiter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!removeWaiter(waiter)) {
+                onCancelled(waiter.join());
+            }
+            throw new CommunicationException(e);
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #acquire()}. The returned future is completed exceptionally with a
+     * {@link ConcurrencyLimitExceededException} if the request cannot be sent within the limit.
+     */
+    CompletableFuture<Permit> acquireAsync() {
+        return acquireAsync("");
+    }
+
+    /**
+     * Asynchronous variant of {@link #acquire(String)}.
+     */
+    CompletableFuture<Permit> acquireAsync(String operation) {
+        Waiter waiter;
+        synchronized (this) {
+            Permit permit = tryAcquire(operation);
+            if (permit != null) {
+                return CompletableFuture.completedFuture(permit);
+            }
+            try {
+                waiter = enqueue(operation);
+            } catch (ConcurrencyLimitExceededException e) {
+                CompletableFuture<Permit> result = new CompletableFuture<>();
+                result.completeExceptionally(e);
+                return result;
+            }
+        }
+        try {
+            getScheduler().schedule(() -> {
+                if (removeWaiter(waiter)) {
+                    waiter.completeExceptionally(reject());
+                }
+            }, maxQueueWait, TimeUnit.MILLISECONDS);
+        } catch (@SuppressWarnings("unused") RejectedExecutionException e) {
+            // this limiter has been closed
+            if (removeWaiter(waiter)) {
+                waiter.completeExceptionally(reject());
+            }
+        }
+        return waiter;
+    }
+
+    /**
+     * Withdraws a request that is waiting for the limit.
+     *
+     * @return {@code true} if the request was still waiting, or {@code false} if it was already granted a permit
+     */
+    synchronized boolean removeWaiter(CompletableFuture<Permit> waiter) {
+        return waiters.remove(waiter);
+    }
+
+    // must be called while holding the lock
+    private Permit tryAcquire(String operation) {
+        if (waiters.isEmpty() && inFlight < getLimit()) {
+            inFlight++;
+            return new Permit(operation);
+        }
+        return null;
+    }
+
+    // must be called while holding the lock
+    private Waiter enqueue(String operation) {
+        if (closed || overflowPolicy == OverflowPolicy.REJECT || waiters.size() >= maxQueueSize || maxQueueWait == 0) {
+            throw reject();
+        }
+        Waiter waiter = new Waiter(operation);
+        waiters.addLast(waiter);
+        return waiter;
+    }
+
+    private ConcurrencyLimitExceededException reject() {
+        rejectedRequests.increment();
+        return new ConcurrencyLimitExceededException("The concurrency limit is exceeded; the request was not sent");
+    }
+
+    /**
+     * Records the outcome of a request, and releases its permit.
+     *
+     * @param failure The exception the request failed with, or {@code null} if it succeeded.
+     */
+    void onResult(Permit permit, Throwable failure) {
+        long now = System.nanoTime();
+        onResult(permit, failure, now - permit.startTime, now);
+    }
+
+    /**
+     * Records the outcome of a request whose response was received at the given time, and releases its permit.
+     */
+    void onResult(Permit permit, Throwable failure, long responseTime) {
+        onResult(permit, failure, responseTime - permit.startTime, System.nanoTime());
+    }
+
+    // package-private, so tests can simulate round-trip times
+    void onResult(Permit permit, Throwable failure, long rtt, long now) {
+        List<Waiter> granted;
+        synchronized (this) {
+            int inFlightBeforeRelease = inFlight--;
+            // requests that were rejected before they were sent say nothing about the round-trip time
+            if (!(failure instanceof CircuitBreakerOpenException || failure instanceof ConcurrencyLimitExceededException)) {
+                updateLimit(permit, rtt, CircuitBreaker.isFailure(failure), inFlightBeforeRelease, now);
+            }
+            granted = grantWaiters();
+        }
+        complete(granted);
+    }
+
+    /**
+     * Releases the permit of a request that was cancelled before its outcome was known.
+     */
+    void onCancelled(Permit permit) {
+        List<Waiter> granted;
+        synchronized (this) {
+            inFlight--;
+            granted = grantWaiters();
+        }
+        complete(granted);
+    }
+
+    // must be called while holding the lock
+    private void updateLimit(Permit permit, long rtt, boolean failed, int inFlightBeforeRelease, long now) {
+        boolean overloaded = failed;
+        if (!failed) {
+            Long baselineRtt = baselineRtts.get(permit.operation);
+            if (baselineRtt != null && rtt * 100 > baselineRtt * latencyTolerance) {
+                overloaded = true;
+            }
+            baselineRtts.put(permit.operation, baselineRtt == null || rtt < baselineRtt
+                    ? rtt
+                    : baselineRtt + (rtt - baselineRtt) / BASELINE_DRIFT_DIVISOR);
+        }
+        if (overloaded) {
+            // requests that were sent before the last decrease do not decrease the limit again
+            if (permit.startTime - lastDecrease >= 0) {
+                limit = Math.max(minLimit, limit * backoffRatio / 100);
+                lastDecrease = now;
+            }
+        } else if (inFlightBeforeRelease * 2 >= limit) {
+            // only increase the limit if it is actually used
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    // must be called while holding the lock
+    private List<Waiter> grantWaiters() {
+        if (waiters.isEmpty() || inFlight >= getLimit()) {
+            return Collections.emptyList();
+        }
+        List<Waiter> granted = new ArrayList<>();
+        while (!waiters.isEmpty() && inFlight < getLimit()) {
+            granted.add(waiters.removeFirst());
+            inFlight++;
+        }
+        return granted;
+    }
+
+    private static void complete(List<Waiter> granted) {
+        // complete outside of the lock, because completing may send requests
+        for (Waiter waiter : granted) {
+            waiter.complete(new Permit(waiter.operation));
+        }
+    }
+
+    private synchronized ScheduledExecutorService getScheduler() {
+        if (closed) {
+            throw new RejectedExecutionException("closed");
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "paysafe-concurrency-limiter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    /**
+     * Rejects all waiting requests, and stops expiring queued asynchronous requests.
+     */
+    void close() {
+        List<Waiter> rejected;
+        synchronized (this) {
+            closed = true;
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+            rejected = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        for (Waiter waiter : rejected) {
+            waiter.completeExceptionally(reject());
+        }
+    }
+
+    /**
+     * Permission to send a request.
+     */
+    static final class Permit {
+
+        private final String operation;
+        final long startTime = System.nanoTime();
+
+        private Permit(String operation) {
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * A request that is waiting for the limit.
+     */
+    private static final class Waiter extends CompletableFuture<Permit> {
+
+        private final String operation;
+
+        private Waiter(String operation) {
+            this.operation = operation;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+
+/**
+ * Closes the expired and idle connections of a {@link PooledConnection} in the background, at a fixed interval.
+ * Errors while closing connections are logged, and do not stop any further eviction.
+ * <p>
+ * Thread-safe.
+ */
+final class ConnectionEvictor implements AutoCloseable {
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * @param maxIdleTime The time in milliseconds after which unused connections are closed, or 0 to only close expired connections.
+     * @param communicatorLogger Supplies the logger for errors while closing connections. It may supply {@code null}.
+     */
+    ConnectionEvictor(PooledConnection connection, int connectionEvictionInterval, int maxIdleTime, Supplier<CommunicatorLogger> communicatorLogger) {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "paysafe-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> evictConnections(connection, maxIdleTime, communicatorLogger),
+                connectionEvictionInterval, connectionEvictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private static void evictConnections(PooledConnection connection, int maxIdleTime, Supplier<CommunicatorLogger> communicatorLogger) {
+        try {
+            connection.closeExpiredConnections();
+            if (maxIdleTime > 0) {
+                connection.closeIdleConnections(maxIdleTime, TimeUnit.MILLISECONDS);
+            }
+        } catch (RuntimeException e) {
+            // don't propagate the exception, as that would stop any further eviction
+            CommunicatorLogger logger = communicatorLogger.get();
+            if (logger != null) {
+                logger.log("Error while evicting connections", e);
+            }
+        }
+    }
+
+    /**
+     * Stops evicting connections. This waits for an ongoing eviction, so it doesn't run concurrently with closing the connection.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (@SuppressWarnings("unused") InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
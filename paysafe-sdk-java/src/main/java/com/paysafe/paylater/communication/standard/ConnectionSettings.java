@@ -0,0 +1,68 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.ConnectionType;
+
+/**
+ * Checks that a configuration only changes the settings that a connection type supports, so a setting is never silently ignored.
+ * <p>
+ * This class does not use Apache HttpClient, so it can be used by {@link PaysafeJdkConnection}.
+ */
+final class ConnectionSettings {
+
+    private ConnectionSettings() {
+    }
+
+    /**
+     * Throws an {@link IllegalArgumentException} if the given configuration changes a setting that {@link PaysafeJdkConnection} does not
+     * support: the connection pool stripes, the TLS session cache, connection eviction, the connection time to live, the DNS cache
+     * policy, or operation profiles.
+     */
+    static void requireJdkSupport(CommunicatorConfiguration configuration) {
+        List<String> unsupported = new ArrayList<>();
+        if (configuration.getConnectionPoolStripes() > 1) {
+            unsupported.add("connectionPoolStripes");
+        }
+        if (configuration.getHttpsSessionCacheSize() != CommunicatorConfiguration.DEFAULT_HTTPS_SESSION_CACHE_SIZE) {
+            unsupported.add("httpsSessionCacheSize");
+        }
+        if (configuration.getHttpsSessionTimeout() != CommunicatorConfiguration.DEFAULT_HTTPS_SESSION_TIMEOUT) {
+            unsupported.add("httpsSessionTimeout");
+        }
+        if (configuration.getConnectionEvictionInterval() > 0) {
+            unsupported.add("connectionEvictionInterval");
+        }
+        if (configuration.getConnectionTimeToLive() > 0) {
+            unsupported.add("connectionTimeToLive");
+        }
+        if (configuration.getDnsCachePolicy() != null) {
+            unsupported.add("dnsCachePolicy");
+        }
+        if (!configuration.getOperationProfiles().isEmpty()) {
+            unsupported.add("operationProfiles");
+        }
+        requireNone(unsupported, ConnectionType.JDK);
+    }
+
+    /**
+     * Throws an {@link IllegalArgumentException} if the given configuration changes a setting that {@link PaysafeVirtualThreadConnection}
+     * does not support: the connection pool stripes. Its connection pool does not pin virtual threads, so it has no lock to stripe.
+     */
+    static void requireVirtualThreadSupport(CommunicatorConfiguration configuration) {
+        List<String> unsupported = new ArrayList<>();
+        if (configuration.getConnectionPoolStripes() > 1) {
+            unsupported.add("connectionPoolStripes");
+        }
+        requireNone(unsupported, ConnectionType.VIRTUAL_THREAD);
+    }
+
+    private static void requireNone(List<String> unsupported, ConnectionType connectionType) {
+        if (!unsupported.isEmpty()) {
+            throw new IllegalArgumentException(String.join(", ", unsupported) + (unsupported.size() == 1 ? " is" : " are")
+                    + " not supported for connection type " + connectionType);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.config.Registry;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+/**
+ * A {@link PoolingHttpClientConnectionManager} that counts the connections it closes because they are idle or expired.
+ * Closing connections works exactly as in {@link PoolingHttpClientConnectionManager}; only available connections are closed.
+ */
+class CountingHttpClientConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Registry<ConnectionSocketFactory> socketFactoryRegistry;
+    private final DnsResolver dnsResolver;
+    private final AtomicLong closedIdleConnections = new AtomicLong();
+    private final AtomicLong closedExpiredConnections = new AtomicLong();
+
+    /**
+     * Creates a new connection manager. A non-positive time to live means connections can be reused indefinitely.
+     */
+    CountingHttpClientConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry, long timeToLive, TimeUnit timeUnit) {
+        super(socketFactoryRegistry, null, null, null, timeToLive, timeUnit);
+        this.socketFactoryRegistry = socketFactoryRegistry;
+        this.dnsResolver = null;
+    }
+
+    /**
+     * Creates a new connection manager that resolves host names using the given DNS resolver, and tries each resolved address in turn
+     * using a {@link FailoverConnectionOperator}. A non-positive time to live means connections can be reused indefinitely.
+     */
+    CountingHttpClientConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry, DnsResolver dnsResolver, long timeToLive,
+            TimeUnit timeUnit) {
+        super(new FailoverConnectionOperator(socketFactoryRegistry, dnsResolver), null, timeToLive, timeUnit);
+        this.socketFactoryRegistry = socketFactoryRegistry;
+        this.dnsResolver = dnsResolver;
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        // same as the super implementation: connections that were last used at or before the deadline are closed
+        long deadline = System.currentTimeMillis() - Math.max(timeUnit.toMillis(idleTime), 0);
+        enumAvailable(entry -> {
+            if (entry.getUpdated() <= deadline) {
+                entry.close();
+                closedIdleConnections.incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        long now = System.currentTimeMillis();
+        enumAvailable(entry -> {
+            if (entry.isExpired(now)) {
+                entry.close();
+                closedExpiredConnections.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Returns the socket factories used to open connections, per scheme.
+     */
+    Registry<ConnectionSocketFactory> getSocketFactoryRegistry() {
+        return socketFactoryRegistry;
+    }
+
+    /**
+     * Returns the DNS resolver used to resolve host names, or {@code null} if the default resolver is used.
+     */
+    DnsResolver getDnsResolver() {
+        return dnsResolver;
+    }
+
+    /**
+     * Returns the total number of connections that were closed because they were idle.
+     */
+    long getClosedIdleConnections() {
+        return closedIdleConnections.get();
+    }
+
+    /**
+     * Returns the total number of connections that were closed because they were expired, either because the server's keep-alive timeout
+     * or the connections' time to live has passed.
+     */
+    long getClosedExpiredConnections() {
+        return closedExpiredConnections.get();
+    }
+}
@@ -0,0 +1,80 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * An {@link SSLConnectionSocketFactory} that counts and times the TLS handshakes it performs,
+ * split into full handshakes and handshakes that resumed a cached session.
+ * <p>
+ * A handshake is considered resumed if the negotiated session was created before the handshake started.
+ * This works for both TLS 1.2 session IDs and TLS 1.3 pre-shared keys, as in both cases the resumed session keeps its original creation time.
+ */
+class CountingSSLConnectionSocketFactory extends SSLConnectionSocketFactory {
+
+    private final AtomicLong fullHandshakes = new AtomicLong();
+    private final AtomicLong fullHandshakeNanos = new AtomicLong();
+    private final AtomicLong resumedHandshakes = new AtomicLong();
+    private final AtomicLong resumedHandshakeNanos = new AtomicLong();
+
+    CountingSSLConnectionSocketFactory(SSLContext sslContext, String[] supportedProtocols, HostnameVerifier hostnameVerifier) {
+        super(sslContext, supportedProtocols, null, hostnameVerifier);
+    }
+
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+
+        // the super implementation performs the handshake
+        Socket layeredSocket = super.createLayeredSocket(socket, target, port, context);
+
+        long duration = System.nanoTime() - startNanos;
+        SSLSession session = layeredSocket instanceof SSLSocket ? ((SSLSocket) layeredSocket).getSession() : null;
+        if (session != null && session.getCreationTime() < startTime) {
+            resumedHandshakes.incrementAndGet();
+            resumedHandshakeNanos.addAndGet(duration);
+        } else {
+            fullHandshakes.incrementAndGet();
+            fullHandshakeNanos.addAndGet(duration);
+        }
+        return layeredSocket;
+    }
+
+    /**
+     * Returns the number of full handshakes.
+     */
+    long getFullHandshakes() {
+        return fullHandshakes.get();
+    }
+
+    /**
+     * Returns the total time in nanoseconds spent in full handshakes.
+     */
+    long getFullHandshakeNanos() {
+        return fullHandshakeNanos.get();
+    }
+
+    /**
+     * Returns the number of handshakes that resumed a cached session.
+     */
+    long getResumedHandshakes() {
+        return resumedHandshakes.get();
+    }
+
+    /**
+     * Returns the total time in nanoseconds spent in handshakes that resumed a cached session.
+     */
+    long getResumedHandshakeNanos() {
+        return resumedHandshakeNanos.get();
+    }
+}
@@ -0,0 +1,73 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.paysafe.paylater.communication.Deadline;
+
+/**
+ * Runs actions when deadlines expire, for instance to abort requests, or after a delay. The timer thread is created when first needed.
+ * <p>
+ * Thread-safe.
+ */
+final class DeadlineTimer {
+
+    private final String threadName;
+
+    // the following fields are guarded by this
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+
+    DeadlineTimer(String threadName) {
+        this.threadName = threadName;
+    }
+
+    /**
+     * Runs the given action when the given deadline expires.
+     *
+     * @return The scheduled action, which should be cancelled if it is no longer needed; or {@code null} if this timer has been closed.
+     */
+    ScheduledFuture<?> schedule(Deadline deadline, Runnable action) {
+        return schedule(action, deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs the given action after the given delay.
+     *
+     * @return The scheduled action, which should be cancelled if it is no longer needed; or {@code null} if this timer has been closed.
+     */
+    ScheduledFuture<?> schedule(Runnable action, long delay, TimeUnit unit) {
+        try {
+            return getScheduler().schedule(action, delay, unit);
+        } catch (@SuppressWarnings("unused") RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private synchronized ScheduledExecutorService getScheduler() {
+        if (closed) {
+            throw new RejectedExecutionException("closed");
+        }
+        if (scheduler == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            // cancelled actions are the common case, so don't let them pile up until their deadline
+            executor.setRemoveOnCancelPolicy(true);
+            scheduler = executor;
+        }
+        return scheduler;
+    }
+
+    synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import com.paysafe.paylater.communication.EndpointRoutingPolicy;
+import com.paysafe.paylater.communication.EndpointStatistics;
+
+/**
+ * Selects the endpoint for each request according to an {@link EndpointRoutingPolicy}, and keeps track of the health and latency of
+ * each endpoint.
+ * <p>
+ * Thread-safe.
+ */
+final class EndpointRouter {
+
+    // the weight of the latest latency in the moving average
+    private static final double LATENCY_WEIGHT = 0.3;
+
+    private final List<Endpoint> endpoints;
+    private final int failureThreshold;
+    private final long ejectionDuration;
+    // 0 if the average latency does not decay
+    private final long latencyHalfLife;
+    private final boolean healthChecks;
+
+    // null if health checks are disabled
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * Creates a new router.
+     *
+     * @param healthCheck Performs the health check of an endpoint, and returns whether or not it succeeded.
+     */
+    EndpointRouter(List<URI> endpoints, EndpointRoutingPolicy policy, Predicate<URI> healthCheck) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            throw new IllegalArgumentException("endpoints are required");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is required");
+        }
+        List<Endpoint> endpointList = new ArrayList<>(endpoints.size());
+        for (URI endpoint : new LinkedHashSet<>(endpoints)) {
+            endpointList.add(new Endpoint(endpoint));
+        }
+        this.endpoints = endpointList;
+        failureThreshold = policy.getFailureThreshold();
+        ejectionDuration = TimeUnit.MILLISECONDS.toNanos(policy.getEjectionDuration());
+        latencyHalfLife = TimeUnit.MILLISECONDS.toNanos(policy.getLatencyHalfLife());
+        healthChecks = policy.getHealthCheckInterval() > 0 && healthCheck != null;
+
+        if (healthChecks) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "paysafe-endpoint-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = policy.getHealthCheckInterval();
+            healthChecker.scheduleWithFixedDelay(() -> checkHealth(healthCheck), interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            healthChecker = null;
+        }
+    }
+
+    /**
+     * Selects the endpoint for the next request: the better of two random healthy endpoints, based on their average latency and the
+     * number of requests they have in flight. If no endpoint is healthy, all endpoints are candidates.
+     */
+    Endpoint select() {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+        long now = System.nanoTime();
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isHealthy(now)) {
+                candidates.add(endpoint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = endpoints;
+        }
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = candidates.get(first);
+        Endpoint b = candidates.get(second);
+        return a.score(now) <= b.score(now) ? a : b;
+    }
+
+    /**
+     * Records that a request is sent to the given endpoint. The returned start time must be passed to
+     * {@link #onResult(Endpoint, long, Throwable)} or {@link #onCancelled(Endpoint)} when the request finishes.
+     */
+    long onStart(Endpoint endpoint) {
+        endpoint.inFlight.incrementAndGet();
+        endpoint.requests.increment();
+        return System.nanoTime();
+    }
+
+    void onResult(Endpoint endpoint, long startTime, Throwable failure) {
+        onResult(endpoint, startTime, System.nanoTime(), failure);
+    }
+
+    /**
+     * Records the outcome of a request whose response was received at the given time.
+     */
+    void onResult(Endpoint endpoint, long startTime, long responseTime, Throwable failure) {
+        endpoint.inFlight.decrementAndGet();
+        if (CircuitBreaker.isFailure(failure)) {
+            endpoint.failures.increment();
+            endpoint.onFailure(System.nanoTime());
+        } else {
+            // failures do not count towards the latency, otherwise endpoints that refuse connections would look fast
+            endpoint.onSuccess(responseTime - startTime, System.nanoTime());
+        }
+    }
+
+    void onCancelled(Endpoint endpoint) {
+        endpoint.inFlight.decrementAndGet();
+    }
+
+    private void checkHealth(Predicate<URI> healthCheck) {
+        for (Endpoint endpoint : endpoints) {
+            boolean healthy;
+            try {
+                healthy = healthCheck.test(endpoint.uri);
+            } catch (@SuppressWarnings("unused") RuntimeException e) {
+                healthy = false;
+            }
+            endpoint.onHealthCheck(healthy, System.nanoTime());
+        }
+    }
+
+    /**
+     * Returns the state and counters of each endpoint.
+     */
+    List<EndpointStatistics> getStatistics() {
+        List<EndpointStatistics> statistics = new ArrayList<>(endpoints.size());
+        long now = System.nanoTime();
+        for (Endpoint endpoint : endpoints) {
+            statistics.add(endpoint.toStatistics(now));
+        }
+        return statistics;
+    }
+
+    /**
+     * Stops the health checks.
+     */
+    void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    /**
+     * An endpoint with its health and latency.
+     */
+    final class Endpoint {
+
+        final URI uri;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder ejections = new LongAdder();
+
+        // the following fields are guarded by this
+        private double averageLatency;
+        private long latencyRecordedAt;
+        private boolean healthy = true;
+        private int consecutiveFailures;
+        private long ejectedAt;
+
+        private Endpoint(URI uri) {
+            this.uri = uri;
+        }
+
+        /**
+         * Returns whether or not this endpoint can receive requests. Without health checks, an endpoint that has been ejected for the
+         * ejection duration is re-admitted on probation, so a single failure ejects it again.
+         */
+        private synchronized boolean isHealthy(long now) {
+            if (!healthy && !healthChecks && now - ejectedAt >= ejectionDuration) {
+                healthy = true;
+                consecutiveFailures = failureThreshold - 1;
+            }
+            return healthy;
+        }
+
+        private synchronized double score(long now) {
+            return getAverageLatency(now) * (inFlight.get() + 1);
+        }
+
+        /**
+         * Returns the average latency, decayed for the time since the last latency was recorded. An endpoint that no longer receives
+         * requests because it was slow therefore gets requests again after a while, which update its average.
+         */
+        private double getAverageLatency(long now) {
+            if (latencyHalfLife == 0 || averageLatency == 0) {
+                return averageLatency;
+            }
+            return averageLatency * Math.pow(0.5, (double) (now - latencyRecordedAt) / latencyHalfLife);
+        }
+
+        private synchronized void onSuccess(long latency, long now) {
+            consecutiveFailures = 0;
+            double average = getAverageLatency(now);
+            averageLatency = average == 0 ? latency : average + LATENCY_WEIGHT * (latency - average);
+            latencyRecordedAt = now;
+        }
+
+        private synchronized void onFailure(long now) {
+            consecutiveFailures++;
+            if (healthy && consecutiveFailures >= failureThreshold) {
+                eject(now);
+            }
+        }
+
+        private synchronized void onHealthCheck(boolean succeeded, long now) {
+            if (!succeeded) {
+                if (healthy) {
+                    eject(now);
+                }
+            } else if (!healthy && now - ejectedAt >= ejectionDuration) {
+                healthy = true;
+                consecutiveFailures = 0;
+            }
+        }
+
+        private void eject(long now) {
+            healthy = false;
+            ejectedAt = now;
+            consecutiveFailures = 0;
+            ejections.increment();
+        }
+
+        private synchronized EndpointStatistics toStatistics(long now) {
+            return new EndpointStatistics(uri, isHealthy(now), TimeUnit.NANOSECONDS.toMicros((long) getAverageLatency(now)), inFlight.get(),
+                    requests.sum(), failures.sum(), ejections.sum());
+        }
+    }
+}
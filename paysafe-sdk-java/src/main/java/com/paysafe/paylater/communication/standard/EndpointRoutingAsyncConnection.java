@@ -0,0 +1,80 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.EndpointRoutingPolicy;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+
+/**
+ * An {@link AsyncConnection} that spreads the requests of another asynchronous connection over several API endpoints.
+ * Cancelled requests are not recorded as failures.
+ */
+class EndpointRoutingAsyncConnection extends EndpointRoutingConnection implements AsyncConnection {
+
+    private final AsyncConnection asyncConnection;
+
+    EndpointRoutingAsyncConnection(AsyncConnection connection, List<URI> endpoints, EndpointRoutingPolicy policy) {
+        super(connection, endpoints, policy);
+        this.asyncConnection = connection;
+    }
+
+    @Override
+    public <R> CompletableFuture<R> postAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeAsync(endpoint -> asyncConnection.postAsync(toEndpointURI(uri, endpoint), requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> getAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeAsync(endpoint -> asyncConnection.getAsync(toEndpointURI(uri, endpoint), requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> putAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeAsync(endpoint -> asyncConnection.putAsync(toEndpointURI(uri, endpoint), requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeAsync(endpoint -> asyncConnection.deleteAsync(toEndpointURI(uri, endpoint), requestHeaders, responseHandler));
+    }
+
+    private <R> CompletableFuture<R> executeAsync(Function<URI, CompletableFuture<R>> request) {
+        EndpointRouter.Endpoint endpoint = router.select();
+        long startTime = router.onStart(endpoint);
+        CompletableFuture<R> future;
+        try {
+            future = request.apply(endpoint.uri);
+        } catch (RuntimeException e) {
+            router.onResult(endpoint, startTime, e);
+            throw e;
+        }
+        // record the outcome before completing the returned future, so callers observe the updated state
+        CompletableFuture<R> result = new CompletableFuture<>();
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        future.whenComplete((response, thrown) -> {
+            Throwable cause = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown;
+            if (cause instanceof CancellationException) {
+                router.onCancelled(endpoint);
+            } else {
+                router.onResult(endpoint, startTime, cause);
+            }
+            if (cause == null) {
+                result.complete(response);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+}
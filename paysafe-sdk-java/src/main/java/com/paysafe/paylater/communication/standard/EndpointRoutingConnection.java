@@ -0,0 +1,162 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.EndpointRoutingPolicy;
+import com.paysafe.paylater.communication.EndpointStatistics;
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+
+/**
+ * A connection that spreads requests over several API endpoints according to an {@link EndpointRoutingPolicy}.
+ * The scheme, host and port of each request URI are replaced by those of the selected endpoint; the path and query are kept.
+ * <p>
+ * Use {@link #create(Connection, List, EndpointRoutingPolicy)} to create instances; it returns an {@link AsyncConnection} if the wrapped
+ * connection is one.
+ */
+public class EndpointRoutingConnection implements PooledConnection {
+
+    final Connection connection;
+    final EndpointRouter router;
+
+    EndpointRoutingConnection(Connection connection, List<URI> endpoints, EndpointRoutingPolicy policy) {
+        if (connection == null) {
+            throw new IllegalArgumentException("connection is required");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is required");
+        }
+        this.connection = connection;
+        this.router = new EndpointRouter(endpoints, policy, createHealthCheck(connection, policy));
+    }
+
+    /**
+     * Creates a connection that spreads the requests of the given connection over the given endpoints.
+     * If the given connection is an {@link AsyncConnection}, so is the returned connection.
+     */
+    public static EndpointRoutingConnection create(Connection connection, List<URI> endpoints, EndpointRoutingPolicy policy) {
+        return connection instanceof AsyncConnection
+                ? new EndpointRoutingAsyncConnection((AsyncConnection) connection, endpoints, policy)
+                : new EndpointRoutingConnection(connection, endpoints, policy);
+    }
+
+    private static Predicate<URI> createHealthCheck(Connection connection, EndpointRoutingPolicy policy) {
+        int timeout = policy.getHealthCheckTimeout();
+        String path = policy.getHealthCheckPath();
+        if (path != null) {
+            ResponseHandler<Boolean> responseHandler = (statusCode, bodyStream, headers) -> statusCode < 500;
+            return endpoint -> Deadline.after(timeout, TimeUnit.MILLISECONDS)
+                    .call(() -> connection.get(toEndpointURI(URI.create(path), endpoint), null, responseHandler));
+        }
+        return endpoint -> {
+            int port = endpoint.getPort() != -1 ? endpoint.getPort() : "http".equalsIgnoreCase(endpoint.getScheme()) ? 80 : 443;
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(endpoint.getHost(), port), timeout);
+                return true;
+            } catch (@SuppressWarnings("unused") IOException e) {
+                return false;
+            }
+        };
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Returns the state and counters of each endpoint.
+     */
+    public List<EndpointStatistics> getEndpointStatistics() {
+        return router.getStatistics();
+    }
+
+    @Override
+    public <R> R post(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return execute(endpoint -> connection.post(toEndpointURI(uri, endpoint), requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return execute(endpoint -> connection.get(toEndpointURI(uri, endpoint), requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> R put(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return execute(endpoint -> connection.put(toEndpointURI(uri, endpoint), requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return execute(endpoint -> connection.delete(toEndpointURI(uri, endpoint), requestHeaders, responseHandler));
+    }
+
+    private <R> R execute(Function<URI, R> request) {
+        EndpointRouter.Endpoint endpoint = router.select();
+        long startTime = router.onStart(endpoint);
+        try {
+            R result = request.apply(endpoint.uri);
+            router.onResult(endpoint, startTime, ResponseTimer.responseTime(startTime), null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            router.onResult(endpoint, startTime, ResponseTimer.responseTime(startTime), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the given URI with the scheme, host and port of the given endpoint.
+     */
+    static URI toEndpointURI(URI uri, URI endpoint) {
+        StringBuilder sb = new StringBuilder()
+                .append(endpoint.getScheme()).append("://").append(endpoint.getRawAuthority());
+        if (uri.getRawPath() != null) {
+            sb.append(uri.getRawPath());
+        }
+        if (uri.getRawQuery() != null) {
+            sb.append('?').append(uri.getRawQuery());
+        }
+        return URI.create(sb.toString());
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        if (connection instanceof PooledConnection) {
+            ((PooledConnection) connection).closeIdleConnections(idleTime, timeUnit);
+        }
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        if (connection instanceof PooledConnection) {
+            ((PooledConnection) connection).closeExpiredConnections();
+        }
+    }
+
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        connection.enableLogging(communicatorLogger);
+    }
+
+    @Override
+    public void disableLogging() {
+        connection.disableLogging();
+    }
+
+    @Override
+    public void close() throws IOException {
+        router.close();
+        connection.close();
+    }
+}
@@ -0,0 +1,77 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+
+import org.apache.http.HttpHost;
+import org.apache.http.config.Lookup;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.DefaultHttpClientConnectionOperator;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * A connection operator that tries each resolved address of a host in turn, like {@link DefaultHttpClientConnectionOperator},
+ * but limits each attempt except the last to the failover connect timeout of its {@link CachingDnsResolver},
+ * and reports failed and successful attempts back to it.
+ */
+final class FailoverConnectionOperator extends DefaultHttpClientConnectionOperator {
+
+    private final DnsResolver dnsResolver;
+
+    FailoverConnectionOperator(Lookup<ConnectionSocketFactory> socketFactoryRegistry, DnsResolver dnsResolver) {
+        super(socketFactoryRegistry, null, dnsResolver);
+        if (dnsResolver == null) {
+            throw new IllegalArgumentException("dnsResolver is required");
+        }
+        this.dnsResolver = dnsResolver;
+    }
+
+    @Override
+    public void connect(ManagedHttpClientConnection conn, HttpHost host, InetSocketAddress localAddress, int connectTimeout,
+            SocketConfig socketConfig, HttpContext context) throws IOException {
+
+        if (host.getAddress() != null) {
+            super.connect(conn, host, localAddress, connectTimeout, socketConfig, context);
+            return;
+        }
+        CachingDnsResolver cachingResolver = dnsResolver instanceof CachingDnsResolver ? (CachingDnsResolver) dnsResolver : null;
+        int failoverConnectTimeout = cachingResolver != null ? cachingResolver.getFailoverConnectTimeout() : 0;
+
+        InetAddress[] addresses = dnsResolver.resolve(host.getHostName());
+        int port = DefaultSchemePortResolver.INSTANCE.resolve(host);
+        for (int i = 0; i < addresses.length; i++) {
+            InetAddress address = addresses[i];
+            boolean last = i == addresses.length - 1;
+            int timeout = last || failoverConnectTimeout <= 0 ? connectTimeout : capTimeout(connectTimeout, failoverConnectTimeout);
+            // with an address, the host keeps its name for TLS server name indication and host name verification
+            HttpHost addressHost = new HttpHost(address, host.getHostName(), port, host.getSchemeName());
+            try {
+                super.connect(conn, addressHost, localAddress, timeout, socketConfig, context);
+                if (cachingResolver != null) {
+                    cachingResolver.onConnectSuccess(address);
+                }
+                return;
+            } catch (ConnectException | NoRouteToHostException | ConnectTimeoutException e) {
+                if (cachingResolver != null) {
+                    cachingResolver.onConnectFailure(address);
+                }
+                if (last) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static int capTimeout(int timeout, int maxTimeout) {
+        // 0 and negative values mean no timeout
+        return timeout > 0 ? Math.min(timeout, maxTimeout) : maxTimeout;
+    }
+}
@@ -0,0 +1,44 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.HedgingPolicy;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+
+/**
+ * An {@link AsyncConnection} that sends requests through another asynchronous connection, hedging GET requests according to a {@link HedgingPolicy}.
+ * Cancelling a returned future cancels all copies of the request.
+ */
+class HedgingAsyncConnection extends HedgingConnection implements AsyncConnection {
+
+    private final AsyncConnection asyncConnection;
+
+    HedgingAsyncConnection(AsyncConnection connection, HedgingPolicy policy, int maxThreads) {
+        super(connection, policy, maxThreads);
+        this.asyncConnection = connection;
+    }
+
+    @Override
+    public <R> CompletableFuture<R> postAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return asyncConnection.postAsync(uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> getAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeHedged(uri, () -> asyncConnection.getAsync(uri, requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> putAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return asyncConnection.putAsync(uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return asyncConnection.deleteAsync(uri, requestHeaders, responseHandler);
+    }
+}
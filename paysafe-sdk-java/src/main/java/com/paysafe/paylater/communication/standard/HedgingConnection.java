@@ -0,0 +1,395 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.HedgingPolicy;
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+
+/**
+ * A connection that sends requests through another connection, hedging GET requests according to a {@link HedgingPolicy}.
+ * Other requests are sent as-is.
+ * <p>
+ * When one copy of a hedged request completes successfully, the other copy is cancelled. If the wrapped connection is an {@link AsyncConnection}
+ * this aborts the request; otherwise the blocking request runs to completion in the background, and its result is discarded.
+ * For blocking connections, GET requests are sent from a bounded pool of background threads, so the calling thread can wait for whichever copy
+ * completes first. While all of these threads are busy, GET requests are sent by the calling thread without being hedged.
+ * <p>
+ * Use {@link #create(Connection, HedgingPolicy, int)} to create instances; it returns an {@link AsyncConnection} if the wrapped connection is one.
+ */
+public class HedgingConnection implements PooledConnection {
+
+    private static final int LATENCY_WINDOW_SIZE = 200;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    final Connection connection;
+
+    private final long delay;
+    private final long minDelay;
+    private final int delayPercentile;
+    private final RetryExecutor.RetryBudget budget;
+    private final int maxThreads;
+
+    private final Map<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder hedgesDeniedByBudget = new LongAdder();
+
+    // the following fields are guarded by this; they are created when first needed
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+    private boolean closed;
+
+    HedgingConnection(Connection connection, HedgingPolicy policy, int maxThreads) {
+        if (connection == null) {
+            throw new IllegalArgumentException("connection is required");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy is required");
+        }
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be at least 1");
+        }
+        this.connection = connection;
+        // copy the settings, so later changes to the policy have no effect
+        delay = policy.getDelay();
+        minDelay = policy.getMinDelay();
+        delayPercentile = policy.getDelayPercentile();
+        budget = new RetryExecutor.RetryBudget(policy.getBudgetPercent(), policy.getBudgetCapacity());
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Creates a connection that hedges GET requests sent through the given connection according to the given policy, using at most
+     * {@link CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS} background threads.
+     * If the given connection is an {@link AsyncConnection}, so is the returned connection.
+     */
+    public static HedgingConnection create(Connection connection, HedgingPolicy policy) {
+        return create(connection, policy, CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Creates a connection that hedges GET requests sent through the given connection according to the given policy.
+     * If the given connection is an {@link AsyncConnection}, so is the returned connection; otherwise requests are sent using at most the
+     * given number of background threads. This should be the maximum number of connections of the given connection, because a thread
+     * beyond that would only wait for a connection to become available.
+     */
+    public static HedgingConnection create(Connection connection, HedgingPolicy policy, int maxThreads) {
+        return connection instanceof AsyncConnection
+                ? new HedgingAsyncConnection((AsyncConnection) connection, policy, maxThreads)
+                : new HedgingConnection(connection, policy, maxThreads);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Returns the total number of hedged requests that were sent.
+     */
+    public long getHedgedRequestCount() {
+        return hedgedRequests.sum();
+    }
+
+    /**
+     * Returns the total number of hedged requests that completed before the original request.
+     */
+    public long getHedgeWinCount() {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * Returns the total number of hedged requests that were not sent because the hedging budget was exhausted.
+     */
+    public long getHedgesDeniedByBudgetCount() {
+        return hedgesDeniedByBudget.sum();
+    }
+
+    /**
+     * Returns the current hedging delay in milliseconds for the operation of the given path, for instance {@code /purchase/info/123}.
+     */
+    public long getHedgingDelay(String path) {
+        return getHedgingDelay(latencyTrackers.get(PathTemplates.toTemplate(path)));
+    }
+
+    private long getHedgingDelay(LatencyTracker latencyTracker) {
+        if (delayPercentile == 0 || latencyTracker == null) {
+            return delay;
+        }
+        long percentile = latencyTracker.getPercentile();
+        return percentile < 0 ? delay : Math.max(minDelay, percentile);
+    }
+
+    @Override
+    public <R> R post(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return connection.post(uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        // the copies are sent by other threads
+        Deadline deadline = Deadline.current();
+        Supplier<R> get = () -> connection.get(uri, requestHeaders, responseHandler);
+        Supplier<R> task = deadline != null ? () -> deadline.call(get) : get;
+        Thread caller = Thread.currentThread();
+        Supplier<CompletableFuture<R>> request = () -> {
+            try {
+                return CompletableFuture.supplyAsync(task, getExecutor());
+            } catch (RejectedExecutionException e) {
+                if (isClosed()) {
+                    throw new CommunicationException(e);
+                }
+                if (Thread.currentThread() != caller) {
+                    // a hedge; it is not sent while all threads are busy
+                    throw e;
+                }
+                // all threads are busy; the request is sent by the calling thread, so it completes before it could be hedged
+                CompletableFuture<R> future = new CompletableFuture<>();
+                try {
+                    future.complete(task.get());
+                } catch (RuntimeException | Error t) {
+                    future.completeExceptionally(t);
+                }
+                return future;
+            }
+        };
+        CompletableFuture<R> result = executeHedged(uri, request);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CommunicationException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CommunicationException((Exception) cause);
+        }
+    }
+
+    @Override
+    public <R> R put(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return connection.put(uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return connection.delete(uri, requestHeaders, responseHandler);
+    }
+
+    /**
+     * Sends the given request, and a copy of it if it has not completed within the hedging delay.
+     * The returned future is completed with the first successful response, or exceptionally if all copies fail.
+     * A request that fails before the hedging delay is not hedged, nor is a request whose {@link Deadline} has expired.
+     */
+    <R> CompletableFuture<R> executeHedged(URI uri, Supplier<CompletableFuture<R>> request) {
+        Deadline deadline = Deadline.current();
+        LatencyTracker latencyTracker = latencyTrackers.computeIfAbsent(PathTemplates.toTemplate(uri.getPath()), key -> new LatencyTracker());
+        budget.deposit();
+
+        CompletableFuture<R> result = new CompletableFuture<>();
+        CompletableFuture<R> primary = send(request, latencyTracker);
+        // the number of copies that have not completed yet
+        AtomicInteger pending = new AtomicInteger(1);
+        // set by the first copy that succeeds
+        AtomicBoolean won = new AtomicBoolean();
+        completeWith(result, primary, pending, won, false);
+        result.whenComplete((response, thrown) -> primary.cancel(true));
+
+        long hedgingDelay = getHedgingDelay(latencyTracker);
+        try {
+            getScheduler().schedule(() -> {
+                if (result.isDone() || deadline != null && deadline.isExpired()) {
+                    return;
+                }
+                if (!budget.tryWithdraw()) {
+                    hedgesDeniedByBudget.increment();
+                    return;
+                }
+                hedgedRequests.increment();
+                pending.incrementAndGet();
+                CompletableFuture<R> hedge;
+                try {
+                    hedge = deadline != null ? deadline.call(() -> send(request, latencyTracker)) : send(request, latencyTracker);
+                } catch (@SuppressWarnings("unused") RejectedExecutionException e) {
+                    // no thread is available to send the hedge; the original request stands in for it, so the copy counted as pending
+                    // completes when the original request does
+                    hedgedRequests.decrement();
+                    completeWith(result, primary, pending, won, false);
+                    return;
+                } catch (RuntimeException e) {
+                    hedge = new CompletableFuture<>();
+                    hedge.completeExceptionally(e);
+                }
+                completeWith(result, hedge, pending, won, true);
+                CompletableFuture<R> sentHedge = hedge;
+                result.whenComplete((response, thrown) -> sentHedge.cancel(true));
+            }, hedgingDelay, TimeUnit.MILLISECONDS);
+        } catch (@SuppressWarnings("unused") RejectedExecutionException e) {
+            // this connection has been closed; the request is not hedged
+        }
+        return result;
+    }
+
+    private static <R> CompletableFuture<R> send(Supplier<CompletableFuture<R>> request, LatencyTracker latencyTracker) {
+        long startTime = System.nanoTime();
+        CompletableFuture<R> future = request.get();
+        future.whenComplete((response, thrown) -> {
+            if (thrown == null) {
+                latencyTracker.record(System.nanoTime() - startTime);
+            }
+        });
+        return future;
+    }
+
+    private <R> void completeWith(CompletableFuture<R> result, CompletableFuture<R> attempt, AtomicInteger pending, AtomicBoolean won, boolean isHedge) {
+        attempt.whenComplete((response, thrown) -> {
+            if (thrown == null) {
+                // count the win before completing the result, so callers see it once they have the response
+                if (!result.isDone() && won.compareAndSet(false, true)) {
+                    if (isHedge) {
+                        hedgesWon.increment();
+                    }
+                    result.complete(response);
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                // all copies failed; the hedge is only sent after the hedging delay, so a failure before that is final
+                result.completeExceptionally(thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown);
+            }
+        });
+    }
+
+    private synchronized ScheduledExecutorService getScheduler() {
+        if (closed) {
+            throw new RejectedExecutionException("closed");
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "paysafe-hedging-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (closed) {
+            throw new RejectedExecutionException("closed");
+        }
+        if (executor == null) {
+            // no queue, so a request is never delayed behind others; threads are only kept while they are in use
+            ThreadPoolExecutor threadPool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "paysafe-hedging");
+                thread.setDaemon(true);
+                return thread;
+            });
+            threadPool.allowCoreThreadTimeOut(true);
+            executor = threadPool;
+        }
+        return executor;
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        if (connection instanceof PooledConnection) {
+            ((PooledConnection) connection).closeIdleConnections(idleTime, timeUnit);
+        }
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        if (connection instanceof PooledConnection) {
+            ((PooledConnection) connection).closeExpiredConnections();
+        }
+    }
+
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        connection.enableLogging(communicatorLogger);
+    }
+
+    @Override
+    public void disableLogging() {
+        connection.disableLogging();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        connection.close();
+    }
+
+    /**
+     * Keeps the round-trip times of the most recent successful requests of an operation, and their percentile.
+     * The percentile is recalculated periodically instead of for each request.
+     */
+    private final class LatencyTracker {
+
+        private final long[] latencies = new long[LATENCY_WINDOW_SIZE];
+        private int next;
+        private int count;
+        private int recordsSinceCalculation;
+        private long percentile = -1;
+
+        private synchronized void record(long latencyNanos) {
+            latencies[next] = latencyNanos;
+            next = (next + 1) % latencies.length;
+            count = Math.min(count + 1, latencies.length);
+            if (count >= MIN_LATENCY_SAMPLES && (percentile < 0 || ++recordsSinceCalculation >= MIN_LATENCY_SAMPLES)) {
+                long[] sorted = Arrays.copyOf(latencies, count);
+                Arrays.sort(sorted);
+                int index = Math.max(0, (int) Math.ceil(count * delayPercentile / 100.0) - 1);
+                percentile = TimeUnit.NANOSECONDS.toMillis(sorted[index]);
+                recordsSinceCalculation = 0;
+            }
+        }
+
+        private synchronized long getPercentile() {
+            return percentile;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.RequestLine;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.protocol.HttpContext;
+
+import com.paysafe.paylater.logging.CommunicatorLogger;
+import com.paysafe.paylater.logging.LogMessageBuilder;
+import com.paysafe.paylater.logging.RequestLogMessageBuilder;
+import com.paysafe.paylater.logging.ResponseLogMessageBuilder;
+
+/**
+ * Logs requests and responses sent through the HttpComponents based connections.
+ * The logger is looked up for every message, so logging can be enabled and disabled at any time.
+ */
+class LoggingInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+
+    static final String REQUEST_ID_ATTRIBUTE = PaysafeConnection.class.getName() + ".requestId";
+    static final String START_TIME_ATTRIBUTE = PaysafeConnection.class.getName() + ".startTme";
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private final Supplier<CommunicatorLogger> communicatorLogger;
+
+    LoggingInterceptor(Supplier<CommunicatorLogger> communicatorLogger) {
+        this.communicatorLogger = communicatorLogger;
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+
+        final CommunicatorLogger logger = communicatorLogger.get();
+        if (logger != null) {
+
+            final String requestId = (String) context.getAttribute(REQUEST_ID_ATTRIBUTE);
+            if (requestId != null) {
+                logRequest(request, requestId, logger);
+            }
+            // else the context was not sent through executeRequest
+        }
+    }
+
+    @Override
+    public void process(HttpResponse response, HttpContext context) {
+
+        final CommunicatorLogger logger = communicatorLogger.get();
+        if (logger != null) {
+
+            final String requestId = (String) context.getAttribute(REQUEST_ID_ATTRIBUTE);
+            final Long startTime = (Long) context.getAttribute(START_TIME_ATTRIBUTE);
+            if (requestId != null && startTime != null) {
+                logResponse(response, requestId, startTime, logger);
+            }
+            // else the context was not sent through executeRequest
+        }
+    }
+
+    static void logRequest(final HttpRequest request, final String requestId, final CommunicatorLogger logger) {
+
+        try {
+            RequestLine requestLine = request.getRequestLine();
+            String method = requestLine.getMethod();
+            String uri = requestLine.getUri();
+
+            final RequestLogMessageBuilder logMessageBuilder = new RequestLogMessageBuilder(requestId, method, uri);
+            logMessageBuilder.addHeaders(request.getAllHeaders());
+            if (request instanceof HttpEntityEnclosingRequest) {
+
+                final HttpEntityEnclosingRequest entityEnclosingRequest = (HttpEntityEnclosingRequest) request;
+
+                HttpEntity entity = entityEnclosingRequest.getEntity();
+
+                if (entity != null) {
+                    String contentType = getContentType(entity, request.getFirstHeader(HttpHeaders.CONTENT_TYPE));
+                    // Due to privacy concerns the actual request body (which can contain personal data) is not logged.
+                    logMessageBuilder.setBody("****", contentType);
+                }
+            }
+
+            logger.log(logMessageBuilder.getMessage());
+
+        } catch (Exception e) {
+            logger.log(String.format("An error occurred trying to log request '%s'", requestId), e);
+        }
+    }
+
+    static void logResponse(final HttpResponse response, final String requestId, final long startTime, final CommunicatorLogger logger) {
+
+        final long endTime = System.currentTimeMillis();
+        final long duration = endTime - startTime;
+
+        try {
+            final int statusCode = response.getStatusLine().getStatusCode();
+
+            final ResponseLogMessageBuilder logMessageBuilder = new ResponseLogMessageBuilder(requestId, statusCode, duration);
+            logMessageBuilder.addHeaders(response.getAllHeaders());
+
+            HttpEntity entity = response.getEntity();
+
+            if (entity != null && !entity.isRepeatable()) {
+                entity = new BufferedHttpEntity(entity);
+                response.setEntity(entity);
+            }
+
+            String contentType = getContentType(entity, response.getFirstHeader(HttpHeaders.CONTENT_TYPE));
+
+            if (statusCode >= 200 && statusCode < 300) {
+                // Due to privacy concerns the response body (which can contain personal data) is not logged for success responses.
+                logMessageBuilder.setBody("****", contentType);
+            } else {
+                // No personal data is returned in exception responses.
+                setBody(logMessageBuilder, entity, contentType);
+            }
+
+            logger.log(logMessageBuilder.getMessage());
+
+        } catch (Exception e) {
+            logger.log(String.format("An error occurred trying to log response '%s'", requestId), e);
+        }
+    }
+
+    static void logError(final String requestId, final Exception error, final long startTime, final CommunicatorLogger logger) {
+
+        if (logger != null) {
+
+            final String messageTemplate = "Error occurred for sent request (requestId='%s', %d ms)";
+
+            final long endTime = System.currentTimeMillis();
+            final long duration = endTime - startTime;
+
+            final String message = String.format(messageTemplate, requestId, duration);
+
+            logger.log(message, error);
+        }
+    }
+
+    private static String getContentType(HttpEntity entity, Header defaultHeader) {
+
+        Header contentTypeHeader = entity != null
+                ? entity.getContentType()
+                : null;
+        if (contentTypeHeader == null) {
+            contentTypeHeader = defaultHeader;
+        }
+
+        return contentTypeHeader != null
+                ? contentTypeHeader.getValue()
+                : null;
+    }
+
+    private static void setBody(LogMessageBuilder logMessageBuilder, HttpEntity entity, String contentType) throws IOException {
+
+        if (entity == null) {
+            logMessageBuilder.setBody("", contentType);
+        } else if (entity instanceof JsonEntity) {
+            String body = ((JsonEntity) entity).getString();
+            logMessageBuilder.setBody(body, contentType);
+        } else {
+            logMessageBuilder.setBody(entity.getContent(), CHARSET, contentType);
+        }
+    }
+}
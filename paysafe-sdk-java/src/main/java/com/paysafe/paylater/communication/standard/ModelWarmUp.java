@@ -0,0 +1,140 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.paysafe.paylater.communication.Marshaller;
+import com.paysafe.paylater.model.AuthorizePurchaseRequest;
+import com.paysafe.paylater.model.CapturePurchaseRequest;
+import com.paysafe.paylater.model.InitializePurchaseRequest;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+import com.paysafe.paylater.model.RefundPurchaseRequest;
+
+/**
+ * Warms up a {@link Marshaller} by marshalling and unmarshalling each model type.
+ * <p>
+ * For each request and response type, an instance is created of which each field is set, recursively.
+ * This instance is then marshalled and the result unmarshalled, so each model type and each of its fields is processed.
+ */
+final class ModelWarmUp {
+
+    private static final String MODEL_PACKAGE = PurchaseOperationResponse.class.getPackage().getName();
+
+    // the request and response types of the APIs; all other model types are reachable from these
+    static final List<Class<?>> ROOT_TYPES = Collections.unmodifiableList(Arrays.asList(
+            InitializePurchaseRequest.class,
+            AuthorizePurchaseRequest.class,
+            CapturePurchaseRequest.class,
+            RefundPurchaseRequest.class,
+            PurchaseOperationResponse.class
+    ));
+
+    private ModelWarmUp() {}
+
+    /**
+     * Marshals and unmarshals each model type using the given marshaller.
+     *
+     * @return The model types that were marshalled and unmarshalled.
+     */
+    static Set<Class<?>> warmUp(Marshaller marshaller) {
+        Set<Class<?>> modelTypes = new LinkedHashSet<>();
+        for (Class<?> rootType : ROOT_TYPES) {
+            Object instance = createInstance(rootType, modelTypes, new HashSet<>());
+            String json = marshaller.marshal(instance);
+            marshaller.unmarshal(json, rootType);
+        }
+        return modelTypes;
+    }
+
+    private static Object createInstance(Type type, Set<Class<?>> modelTypes, Set<Class<?>> path) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+            if (Collection.class.isAssignableFrom(rawType)) {
+                Object element = createInstance(typeArguments[0], modelTypes, path);
+                return element != null ? Collections.singletonList(element) : null;
+            }
+            if (Map.class.isAssignableFrom(rawType)) {
+                Object key = createInstance(typeArguments[0], modelTypes, path);
+                Object value = createInstance(typeArguments[1], modelTypes, path);
+                return key != null && value != null ? Collections.singletonMap(key, value) : null;
+            }
+            return null;
+        }
+        if (!(type instanceof Class)) {
+            return null;
+        }
+        Class<?> clazz = (Class<?>) type;
+        if (clazz == String.class) {
+            return "warm-up";
+        }
+        if (clazz == Boolean.class || clazz == boolean.class) {
+            return Boolean.TRUE;
+        }
+        if (clazz == Long.class || clazz == long.class) {
+            return 1L;
+        }
+        if (clazz == Integer.class || clazz == int.class) {
+            return 1;
+        }
+        if (clazz == Double.class || clazz == double.class) {
+            return 1.0;
+        }
+        if (clazz == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (clazz == LocalDate.class) {
+            return LocalDate.of(2000, 1, 1);
+        }
+        if (clazz == OffsetDateTime.class) {
+            return OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        }
+        if (clazz.getPackage() == null || !MODEL_PACKAGE.equals(clazz.getPackage().getName())) {
+            return null;
+        }
+        if (clazz.isEnum()) {
+            modelTypes.add(clazz);
+            return clazz.getEnumConstants()[0];
+        }
+        if (!path.add(clazz)) {
+            // prevent endless recursion for recursive types
+            return null;
+        }
+        try {
+            modelTypes.add(clazz);
+            return createModelInstance(clazz, modelTypes, path);
+        } finally {
+            path.remove(clazz);
+        }
+    }
+
+    private static Object createModelInstance(Class<?> clazz, Set<Class<?>> modelTypes, Set<Class<?>> path) {
+        try {
+            Object instance = clazz.getDeclaredConstructor().newInstance();
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
+                    field.setAccessible(true);
+                    field.set(instance, createInstance(field.getGenericType(), modelTypes, path));
+                }
+            }
+            return instance;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create an instance of " + clazz.getName(), e);
+        }
+    }
+}
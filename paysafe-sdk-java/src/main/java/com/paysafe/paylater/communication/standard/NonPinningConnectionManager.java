@@ -0,0 +1,258 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * A {@link HttpClientConnectionManager} that never blocks while holding a monitor.
+ * <p>
+ * {@link PoolingHttpClientConnectionManager} waits for a connection to become available while holding a monitor,
+ * and it is called with monitors held when connections are released.
+ * Each of these pins the carrier thread of a virtual thread for as long as it waits, either for a connection or for the pool's lock.
+ * This connection manager prevents that as follows:
+ * <ul>
+ * <li>Threads wait for a connection using {@link Semaphore Semaphores}, that are sized according to the wrapped connection manager's
+ * maximum number of connections per route and in total. The wrapped connection manager is only asked for a connection when one is available.</li>
+ * <li>Calls to the wrapped connection manager are serialized using a {@link ReentrantLock}, so its own lock is never contended.</li>
+ * <li>Releasing a connection never waits for that {@link ReentrantLock}. If it is not available, the connection is queued,
+ * and released by the thread that currently holds the lock.</li>
+ * </ul>
+ * Changes to the wrapped connection manager's maximum number of connections after connections have been requested are not supported.
+ */
+class NonPinningConnectionManager implements HttpClientConnectionManager {
+
+    private final PoolingHttpClientConnectionManager delegate;
+
+    private final ReentrantLock delegateLock = new ReentrantLock();
+    private final Queue<PendingRelease> pendingReleases = new ConcurrentLinkedQueue<>();
+
+    private final Semaphore availableTotal;
+    private final Map<HttpRoute, Semaphore> availablePerRoute = new ConcurrentHashMap<>();
+    private final Map<HttpClientConnection, HttpRoute> leasedConnections = new ConcurrentHashMap<>();
+
+    private volatile boolean shutdown;
+
+    NonPinningConnectionManager(PoolingHttpClientConnectionManager delegate) {
+        this.delegate = delegate;
+        this.availableTotal = new Semaphore(delegate.getMaxTotal(), true);
+    }
+
+    PoolingHttpClientConnectionManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+
+        return new ConnectionRequest() {
+
+            private final AtomicReference<Thread> waitingThread = new AtomicReference<>();
+            private volatile boolean cancelled;
+
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+
+                if (cancelled) {
+                    throw new InterruptedException();
+                }
+                waitingThread.set(Thread.currentThread());
+                try {
+                    acquire(route, timeout, timeUnit);
+                } finally {
+                    if (waitingThread.getAndSet(null) == null) {
+                        // cancel() has interrupted, or is about to interrupt, this thread
+                        cancelled = true;
+                    }
+                }
+                if (cancelled) {
+                    release(route);
+                    throw new InterruptedException();
+                }
+                try {
+                    return lease(route, state, timeout, timeUnit);
+                } catch (InterruptedException | ExecutionException | ConnectionPoolTimeoutException | RuntimeException e) {
+                    release(route);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                cancelled = true;
+                Thread thread = waitingThread.getAndSet(null);
+                if (thread != null) {
+                    thread.interrupt();
+                }
+                return true;
+            }
+        };
+    }
+
+    private void acquire(HttpRoute route, long timeout, TimeUnit timeUnit) throws InterruptedException, ConnectionPoolTimeoutException {
+
+        checkNotShutdown();
+        Semaphore availableForRoute = availablePerRoute.computeIfAbsent(route, r -> new Semaphore(delegate.getMaxPerRoute(r), true));
+
+        // as with PoolingHttpClientConnectionManager, a non-positive timeout means waiting indefinitely
+        long deadline = timeout > 0 ? System.nanoTime() + timeUnit.toNanos(timeout) : 0;
+
+        tryAcquire(availableForRoute, deadline);
+        try {
+            tryAcquire(availableTotal, deadline);
+        } catch (InterruptedException | ConnectionPoolTimeoutException | RuntimeException e) {
+            availableForRoute.release();
+            throw e;
+        }
+    }
+
+    private static void tryAcquire(Semaphore semaphore, long deadline) throws InterruptedException, ConnectionPoolTimeoutException {
+        if (deadline == 0) {
+            semaphore.acquire();
+        } else if (!semaphore.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            throw new ConnectionPoolTimeoutException("Timeout waiting for connection from pool");
+        }
+    }
+
+    private void release(HttpRoute route) {
+        availableTotal.release();
+        availablePerRoute.get(route).release();
+    }
+
+    private HttpClientConnection lease(HttpRoute route, Object state, long timeout, TimeUnit timeUnit)
+            throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+
+        delegateLock.lockInterruptibly();
+        try {
+            checkNotShutdown();
+            releasePending();
+            // a connection is available, so the wrapped connection manager will not wait
+            HttpClientConnection connection = delegate.requestConnection(route, state).get(timeout, timeUnit);
+            leasedConnections.put(connection, route);
+            return connection;
+        } finally {
+            delegateLock.unlock();
+            releasePendingIfUnlocked();
+        }
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection connection, Object newState, long validDuration, TimeUnit timeUnit) {
+        // this method is called while holding the connection's monitor, so it must not wait for the lock
+        pendingReleases.add(new PendingRelease(connection, newState, validDuration, timeUnit));
+        releasePendingIfUnlocked();
+    }
+
+    private void releasePendingIfUnlocked() {
+        // re-check after unlocking, in case a connection was queued while the lock was held
+        while (!pendingReleases.isEmpty() && delegateLock.tryLock()) {
+            try {
+                releasePending();
+            } finally {
+                delegateLock.unlock();
+            }
+        }
+    }
+
+    private void releasePending() {
+        PendingRelease pendingRelease;
+        while ((pendingRelease = pendingReleases.poll()) != null) {
+            try {
+                delegate.releaseConnection(pendingRelease.connection, pendingRelease.state, pendingRelease.validDuration, pendingRelease.timeUnit);
+            } finally {
+                HttpRoute route = leasedConnections.remove(pendingRelease.connection);
+                if (route != null) {
+                    release(route);
+                }
+            }
+        }
+    }
+
+    private void checkNotShutdown() {
+        if (shutdown) {
+            throw new IllegalStateException("Connection pool shut down");
+        }
+    }
+
+    @Override
+    public void connect(HttpClientConnection connection, HttpRoute route, int connectTimeout, HttpContext context) throws IOException {
+        delegate.connect(connection, route, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(HttpClientConnection connection, HttpRoute route, HttpContext context) throws IOException {
+        delegate.upgrade(connection, route, context);
+    }
+
+    @Override
+    public void routeComplete(HttpClientConnection connection, HttpRoute route, HttpContext context) throws IOException {
+        delegate.routeComplete(connection, route, context);
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        delegateLock.lock();
+        try {
+            delegate.closeIdleConnections(idleTime, timeUnit);
+        } finally {
+            delegateLock.unlock();
+            releasePendingIfUnlocked();
+        }
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        delegateLock.lock();
+        try {
+            delegate.closeExpiredConnections();
+        } finally {
+            delegateLock.unlock();
+            releasePendingIfUnlocked();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        // wake up all waiting threads, so they fail instead of waiting for a connection that will never become available
+        availableTotal.release(availableTotal.getQueueLength());
+        availablePerRoute.values().forEach(semaphore -> semaphore.release(semaphore.getQueueLength()));
+        delegateLock.lock();
+        try {
+            pendingReleases.clear();
+            delegate.shutdown();
+        } finally {
+            delegateLock.unlock();
+        }
+    }
+
+    private static final class PendingRelease {
+
+        private final HttpClientConnection connection;
+        private final Object state;
+        private final long validDuration;
+        private final TimeUnit timeUnit;
+
+        private PendingRelease(HttpClientConnection connection, Object state, long validDuration, TimeUnit timeUnit) {
+            this.connection = connection;
+            this.state = state;
+            this.validDuration = validDuration;
+            this.timeUnit = timeUnit;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maps request paths to the path templates of the Paysafe Pay Later API, for instance {@code /purchase/info/123} to
+ * {@code /purchase/info/{purchaseId}}. This allows statistics and settings to be kept per operation instead of per path.
+ */
+final class PathTemplates {
+
+    static final List<String> TEMPLATES = Collections.unmodifiableList(Arrays.asList(
+            "/purchase/authorize/paylater",
+            "/purchase/capture",
+            "/purchase/info/{purchaseId}",
+            "/purchase/initialize",
+            "/purchase/legaldocuments/termsandconditions/{purchaseId}",
+            "/purchase/refund"
+    ));
+
+    private PathTemplates() {}
+
+    /**
+     * Returns the path template that matches the given path, or the path itself if no template matches.
+     * Any query string is ignored.
+     */
+    static String toTemplate(String path) {
+        String normalizedPath = normalize(path);
+        for (String template : TEMPLATES) {
+            if (matches(template, normalizedPath)) {
+                return template;
+            }
+        }
+        return normalizedPath;
+    }
+
+    /**
+     * Returns the operation for the given HTTP method and path, for instance {@code GET /purchase/info/{purchaseId}}.
+     */
+    static String toOperation(String httpMethod, String path) {
+        return httpMethod + " " + toTemplate(path);
+    }
+
+    private static String normalize(String path) {
+        int queryIndex = path.indexOf('?');
+        String pathWithoutQuery = queryIndex >= 0 ? path.substring(0, queryIndex) : path;
+        return pathWithoutQuery.startsWith("/") ? pathWithoutQuery : "/" + pathWithoutQuery;
+    }
+
+    private static boolean matches(String template, String path) {
+        String[] templateSegments = template.split("/", -1);
+        String[] pathSegments = path.split("/", -1);
+        if (templateSegments.length != pathSegments.length) {
+            return false;
+        }
+        for (int i = 0; i < templateSegments.length; i++) {
+            String templateSegment = templateSegments[i];
+            boolean isVariable = templateSegment.startsWith("{") && templateSegment.endsWith("}");
+            if (isVariable ? pathSegments[i].isEmpty() : !templateSegment.equals(pathSegments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
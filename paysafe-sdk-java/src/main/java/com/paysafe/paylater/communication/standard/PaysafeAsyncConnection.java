@@ -0,0 +1,438 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoutePlanner;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.SystemDefaultCredentialsProvider;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
+import org.apache.http.impl.io.EmptyInputStream;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.communication.ResponseHeader;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+
+/**
+ * {@link AsyncConnection} implementation based on {@link HttpAsyncClient}.
+ * <p>
+ * Requests are executed on a non-blocking I/O reactor, so pending requests do not hold a thread while waiting for a response.
+ * Once the complete response body has been received, the response handlers are invoked on a separate thread pool, so they do not
+ * block the I/O dispatch threads. The blocking methods of {@link com.paysafe.paylater.communication.Connection Connection} wait for
+ * the corresponding asynchronous call.
+ * <p>
+ * This connection requires {@code org.apache.httpcomponents:httpasyncclient} on the class path.
+ */
+public class PaysafeAsyncConnection implements AsyncConnection, PooledConnection {
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    // CloseableHttpAsyncClient is marked to be thread safe
+    protected final CloseableHttpAsyncClient httpClient;
+    // RequestConfig is marked to be immutable
+    protected final RequestConfig requestConfig;
+    // PoolingNHttpClientConnectionManager, the implementation used, is marked to be thread safe
+    private final NHttpClientConnectionManager connectionManager;
+    private final ResponseHandlerExecutor responseHandlerExecutor;
+    private final ConnectionEvictor connectionEvictor;
+    private volatile CommunicatorLogger communicatorLogger;
+
+    /**
+     * Creates a new connection with the given timeouts, the default number of maximum connections, and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeAsyncConnection(int connectTimeout, int readTimeout) {
+        this(connectTimeout, readTimeout, CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts and number of maximum connections, and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeAsyncConnection(int connectTimeout, int readTimeout, int maxConnections) {
+        this(connectTimeout, readTimeout, maxConnections, (Set<String>) null);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, and HTTPS protocols.
+     */
+    public PaysafeAsyncConnection(int connectTimeout, int readTimeout, int maxConnections, Set<String> httpsProtocols) {
+        this(connectTimeout, readTimeout, maxConnections, createSSLIOSessionStrategy(httpsProtocols));
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, and SSL I/O session strategy.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable SSL I/O session strategy.
+     */
+    public PaysafeAsyncConnection(int connectTimeout, int readTimeout, int maxConnections, SSLIOSessionStrategy sslIOSessionStrategy) {
+        this(connectTimeout, readTimeout, maxConnections, 0, 0, 0, sslIOSessionStrategy);
+    }
+
+    /**
+     * Creates a new connection with the timeouts, number of maximum connections, HTTPS protocols, connection time to live,
+     * and connection eviction settings of the given configuration.
+     */
+    public PaysafeAsyncConnection(CommunicatorConfiguration configuration) {
+        this(requireConfiguration(configuration).getConnectTimeout(), configuration.getReadTimeout(), configuration.getMaxConnections(),
+                configuration.getConnectionTimeToLive(), configuration.getConnectionEvictionInterval(), configuration.getMaxIdleTime(),
+                createSSLIOSessionStrategy(configuration.getHttpsProtocols()));
+    }
+
+    private PaysafeAsyncConnection(int connectTimeout, int readTimeout, int maxConnections, int connectionTimeToLive, int connectionEvictionInterval,
+            int maxIdleTime, SSLIOSessionStrategy sslIOSessionStrategy) {
+
+        if (sslIOSessionStrategy == null) {
+            throw new IllegalArgumentException("sslIOSessionStrategy is required");
+        }
+        requestConfig = createRequestConfig(connectTimeout, readTimeout);
+        connectionManager = createConnectionManager(connectTimeout, readTimeout, maxConnections, connectionTimeToLive, sslIOSessionStrategy);
+        responseHandlerExecutor = new ResponseHandlerExecutor("paysafe-paylater-async-response-", maxConnections);
+        httpClient = createHttpClient();
+        httpClient.start();
+        connectionEvictor = connectionEvictionInterval > 0
+                ? new ConnectionEvictor(this, connectionEvictionInterval, maxIdleTime, () -> communicatorLogger)
+                : null;
+    }
+
+    private static CommunicatorConfiguration requireConfiguration(CommunicatorConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("configuration is required");
+        }
+        return configuration;
+    }
+
+    private static SSLIOSessionStrategy createSSLIOSessionStrategy(Set<String> httpsProtocols) {
+        SSLContext sslContext = SSLContexts.createDefault();
+        return new SSLIOSessionStrategy(sslContext, PaysafeConnection.getSupportedProtocols(httpsProtocols), null,
+                SSLConnectionSocketFactory.getDefaultHostnameVerifier());
+    }
+
+    private RequestConfig createRequestConfig(int connectTimeout, int socketTimeout) {
+        return RequestConfig.custom()
+                            .setSocketTimeout(socketTimeout)
+                            .setConnectTimeout(connectTimeout)
+                            .build();
+    }
+
+    private NHttpClientConnectionManager createConnectionManager(int connectTimeout, int readTimeout, int maxConnections, int connectionTimeToLive,
+            SSLIOSessionStrategy sslIOSessionStrategy) {
+
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                                                         .setConnectTimeout(connectTimeout)
+                                                         .setSoTimeout(readTimeout)
+                                                         .build();
+        ConnectingIOReactor ioReactor;
+        try {
+            ioReactor = new DefaultConnectingIOReactor(ioReactorConfig);
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Unable to create I/O reactor", e);
+        }
+
+        Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", sslIOSessionStrategy)
+                .build();
+
+        // a time to live of 0 or less means connections only expire when the server's keep-alive timeout has passed
+        PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(ioReactor, null, sessionStrategyRegistry,
+                null, null, connectionTimeToLive, TimeUnit.MILLISECONDS);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setMaxTotal(maxConnections + 20);
+        return connectionManager;
+    }
+
+    private CloseableHttpAsyncClient createHttpClient() {
+
+        // add support for system properties
+        HttpRoutePlanner routePlanner = new SystemDefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE, ProxySelector.getDefault());
+        CredentialsProvider credentialsProvider = new SystemDefaultCredentialsProvider();
+
+        // add logging - last for requests; responses are logged once their body has been received
+        LoggingInterceptor loggingInterceptor = new LoggingInterceptor(() -> communicatorLogger);
+
+        return HttpAsyncClients.custom()
+                               .setConnectionManager(connectionManager)
+                               .addInterceptorLast((HttpRequestInterceptor) loggingInterceptor)
+                               .setRoutePlanner(routePlanner)
+                               .setDefaultCredentialsProvider(credentialsProvider)
+                               .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (connectionEvictor != null) {
+            connectionEvictor.close();
+        }
+        try {
+            httpClient.close();
+        } finally {
+            responseHandlerExecutor.close();
+        }
+    }
+
+    @Override
+    public <R> R post(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return await(postAsync(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return await(getAsync(uri, requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> R put(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return await(putAsync(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return await(deleteAsync(uri, requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> postAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+
+        HttpPost httpPost = new HttpPost(uri);
+        httpPost.setConfig(requestConfig);
+        addHeaders(httpPost, requestHeaders);
+        if (body != null) {
+            httpPost.setEntity(new JsonEntity(body, CHARSET));
+        }
+        return executeRequest(httpPost, responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> getAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+
+        HttpGet httpGet = new HttpGet(uri);
+        httpGet.setConfig(requestConfig);
+        addHeaders(httpGet, requestHeaders);
+        return executeRequest(httpGet, responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> putAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+
+        HttpPut httpPut = new HttpPut(uri);
+        httpPut.setConfig(requestConfig);
+        addHeaders(httpPut, requestHeaders);
+        if (body != null) {
+            httpPut.setEntity(new JsonEntity(body, CHARSET));
+        }
+        return executeRequest(httpPut, responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+
+        HttpDelete httpDelete = new HttpDelete(uri);
+        httpDelete.setConfig(requestConfig);
+        addHeaders(httpDelete, requestHeaders);
+        return executeRequest(httpDelete, responseHandler);
+    }
+
+    protected void addHeaders(HttpRequestBase httpRequestBase, List<RequestHeader> requestHeaders) {
+        if (requestHeaders != null) {
+            for (RequestHeader requestHeader : requestHeaders) {
+                httpRequestBase.addHeader(new BasicHeader(requestHeader.getName(), requestHeader.getValue()));
+            }
+        }
+    }
+
+    protected <R> CompletableFuture<R> executeRequest(HttpUriRequest request, ResponseHandler<R> responseHandler) {
+
+        final String requestId = UUID.randomUUID().toString();
+        final long startTime = System.currentTimeMillis();
+
+        HttpContext context = new BasicHttpContext();
+        context.setAttribute(LoggingInterceptor.REQUEST_ID_ATTRIBUTE, requestId);
+        context.setAttribute(LoggingInterceptor.START_TIME_ATTRIBUTE, startTime);
+
+        final CompletableFuture<R> result = new CompletableFuture<>();
+
+        Future<HttpResponse> httpFuture = httpClient.execute(request, context, new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse httpResponse) {
+                // the response body has been received completely; handle it on a separate thread, to not block the I/O dispatch thread
+                responseHandlerExecutor.execute(() -> onResponse(httpResponse));
+            }
+
+            private void onResponse(HttpResponse httpResponse) {
+                final CommunicatorLogger logger = communicatorLogger;
+                if (logger != null) {
+                    LoggingInterceptor.logResponse(httpResponse, requestId, startTime, logger);
+                }
+                try {
+                    result.complete(handleResponse(httpResponse, responseHandler));
+                } catch (IOException e) {
+                    LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
+                    result.completeExceptionally(new CommunicationException(e));
+                } catch (RuntimeException e) {
+                    // do not log runtime exceptions that originate from the response handler, those are not communication errors
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
+                result.completeExceptionally(e instanceof CommunicationException ? e : new CommunicationException(e));
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                httpFuture.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <R> R handleResponse(HttpResponse httpResponse, ResponseHandler<R> responseHandler) throws IOException {
+        int statusCode = httpResponse.getStatusLine().getStatusCode();
+        List<ResponseHeader> headers = getHeaders(httpResponse);
+
+        try (InputStream bodyStream = getBodyStream(httpResponse.getEntity())) {
+            return responseHandler.handleResponse(statusCode, bodyStream, headers);
+        }
+    }
+
+    protected List<ResponseHeader> getHeaders(HttpResponse httpResponse) {
+        Header[] headers = httpResponse.getAllHeaders();
+        List<ResponseHeader> result = new ArrayList<>(headers.length);
+        for (Header header : headers) {
+            result.add(new ResponseHeader(header.getName(), header.getValue()));
+        }
+        return result;
+    }
+
+    private InputStream getBodyStream(HttpEntity entity) throws IOException {
+        return entity != null && entity.getContent() != null
+                ? entity.getContent()
+                : EmptyInputStream.INSTANCE;
+    }
+
+    /**
+     * Waits for the given future. If a {@link Deadline} is active, this does not wait beyond it, and the request is cancelled when it expires.
+     *
+     * @throws DeadlineExceededException if the deadline expires before the response has been handled
+     */
+    private static <R> R await(CompletableFuture<R> future) {
+        Deadline deadline = Deadline.current();
+        try {
+            if (deadline == null) {
+                return future.get();
+            }
+            try {
+                return future.get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (future.cancel(true)) {
+                    throw new DeadlineExceededException("The deadline of the call expired while waiting for the response", e);
+                }
+                // the response was handled just in time
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CommunicationException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CommunicationException((Exception) cause);
+        }
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        connectionManager.closeIdleConnections(idleTime, timeUnit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        connectionManager.closeExpiredConnections();
+    }
+
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        if (communicatorLogger == null) {
+            throw new IllegalArgumentException("communicatorLogger is required");
+        }
+        this.communicatorLogger = communicatorLogger;
+    }
+
+    @Override
+    public void disableLogging() {
+        this.communicatorLogger = null;
+    }
+}
@@ -1,33 +1,76 @@
 package com.paysafe.paylater.communication.standard;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.utils.URIBuilder;
 
+import com.paysafe.paylater.communication.ApiFamily;
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.BulkheadPolicy;
+import com.paysafe.paylater.communication.BulkheadStatistics;
+import com.paysafe.paylater.communication.CoalescingStatistics;
 import com.paysafe.paylater.communication.Communicator;
+import com.paysafe.paylater.communication.ConcurrencyLimitPolicy;
 import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
 import com.paysafe.paylater.communication.HttpMethod;
 import com.paysafe.paylater.communication.Marshaller;
 import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RateLimitPolicy;
 import com.paysafe.paylater.communication.RequestHeader;
 import com.paysafe.paylater.communication.ResponseHandler;
 import com.paysafe.paylater.communication.ResponseHeader;
+import com.paysafe.paylater.communication.RetryPolicy;
+import com.paysafe.paylater.communication.RetryStatistics;
+import com.paysafe.paylater.communication.WarmUpOptions;
+import com.paysafe.paylater.communication.WarmUpResult;
+import com.paysafe.paylater.exception.BulkheadFullException;
 import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ConcurrencyLimitExceededException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
 import com.paysafe.paylater.exception.NotFoundException;
+import com.paysafe.paylater.exception.ResponseBodyWriteException;
 import com.paysafe.paylater.exception.ResponseException;
 import com.paysafe.paylater.logging.CommunicatorLogger;
+import com.paysafe.paylater.model.ConditionalResponse;
+import com.paysafe.paylater.model.DownloadResponse;
 import com.paysafe.paylater.model.PurchaseOperationResponse;
 import com.paysafe.paylater.model.ResponseWithAuthorization;
 
@@ -46,8 +89,84 @@ public class PaysafeCommunicator implements Communicator {
     private final URI apiEndpoint;
     private final Connection connection;
     private final Marshaller marshaller;
+    // null if requests are not retried
+    private final RetryExecutor retryExecutor;
+    // 0 if calls are only limited by the current deadline
+    private final int callTimeout;
+    // fails asynchronous calls when their deadline expires
+    private final DeadlineTimer deadlineTimer = new DeadlineTimer("paysafe-call-deadline");
+    // limiters with a fixed limit; empty if calls are not limited per API family
+    private final Map<ApiFamily, ConcurrencyLimiter> bulkheads = new EnumMap<>(ApiFamily.class);
+    // null if requests are not rate limited
+    private final RateLimiter rateLimiter;
+    // null if GET requests are not coalesced
+    private final RequestCoalescer<BufferedResponse> coalescer;
+    // sends the warm-up requests of blocking connections; threads are only started during a warm-up, and stop when idle
+    private final ExecutorService warmUpExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "paysafe-warm-up");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public PaysafeCommunicator(URI apiEndpoint, Connection connection, Marshaller marshaller) {
+        this(apiEndpoint, connection, marshaller, null);
+    }
+
+    /**
+     * Creates a new communicator that retries failed requests according to the given retry policy.
+     * If the retry policy is {@code null}, requests are not retried.
+     */
+    public PaysafeCommunicator(URI apiEndpoint, Connection connection, Marshaller marshaller, RetryPolicy retryPolicy) {
+        this(apiEndpoint, connection, marshaller, retryPolicy, 0);
+    }
+
+    /**
+     * Creates a new communicator that retries failed requests according to the given retry policy, and that limits each call
+     * to the given number of milliseconds, including any retries. If the retry policy is {@code null}, requests are not retried.
+     * If the call timeout is 0, calls are only limited by the {@link Deadline} that is active on the calling thread.
+     *
+     * @see Deadline
+     */
+    public PaysafeCommunicator(URI apiEndpoint, Connection connection, Marshaller marshaller, RetryPolicy retryPolicy, int callTimeout) {
+        this(apiEndpoint, connection, marshaller, retryPolicy, callTimeout, null);
+    }
+
+    /**
+     * Creates a new communicator that retries failed requests according to the given retry policy, that limits each call
+     * to the given number of milliseconds, and that limits the number of concurrent calls of each API family according to the given
+     * bulkhead policies. If the retry policy is {@code null}, requests are not retried. If the call timeout is 0, calls are only
+     * limited by the {@link Deadline} that is active on the calling thread. API families without a bulkhead policy are not limited.
+     *
+     * @see BulkheadPolicy
+     */
+    public PaysafeCommunicator(URI apiEndpoint, Connection connection, Marshaller marshaller, RetryPolicy retryPolicy, int callTimeout,
+            Map<ApiFamily, BulkheadPolicy> bulkheadPolicies) {
+        this(apiEndpoint, connection, marshaller, retryPolicy, callTimeout, bulkheadPolicies, null, null);
+    }
+
+    /**
+     * Creates a new communicator like {@link #PaysafeCommunicator(URI, Connection, Marshaller, RetryPolicy, int, Map)}, that also limits
+     * the rate of requests per secret key. The given rate limit policy, which may be {@code null}, applies to all operations without
+     * a policy of their own. The given operation rate limit policies, which may be {@code null}, are keyed by path template.
+     *
+     * @see RateLimitPolicy
+     */
+    public PaysafeCommunicator(URI apiEndpoint, Connection connection, Marshaller marshaller, RetryPolicy retryPolicy, int callTimeout,
+            Map<ApiFamily, BulkheadPolicy> bulkheadPolicies, RateLimitPolicy rateLimitPolicy, Map<String, RateLimitPolicy> operationRateLimitPolicies) {
+        this(apiEndpoint, connection, marshaller, retryPolicy, callTimeout, bulkheadPolicies, rateLimitPolicy, operationRateLimitPolicies, false);
+    }
+
+    /**
+     * Creates a new communicator like {@link #PaysafeCommunicator(URI, Connection, Marshaller, RetryPolicy, int, Map, RateLimitPolicy, Map)},
+     * that also coalesces identical GET requests if requested. Coalesced requests share a single call: while a GET request is in flight,
+     * GET requests for the same path with the same headers wait for its response instead of sending a request of their own.
+     * Each of them gets the response, or the exception, of the shared call.
+     *
+     * @see #getCoalescingStatistics()
+     */
+    public PaysafeCommunicator(URI apiEndpoint, Connection connection, Marshaller marshaller, RetryPolicy retryPolicy, int callTimeout,
+            Map<ApiFamily, BulkheadPolicy> bulkheadPolicies, RateLimitPolicy rateLimitPolicy, Map<String, RateLimitPolicy> operationRateLimitPolicies,
+            boolean requestCoalescing) {
         if (apiEndpoint == null) {
             throw new IllegalArgumentException("apiEndpoint is required");
         }
@@ -63,9 +182,33 @@ public class PaysafeCommunicator implements Communicator {
         if (marshaller == null) {
             throw new IllegalArgumentException("marshaller is required");
         }
+        if (callTimeout < 0) {
+            throw new IllegalArgumentException("callTimeout must not be negative");
+        }
         this.apiEndpoint = apiEndpoint;
         this.connection = connection;
         this.marshaller = marshaller;
+        this.retryExecutor = retryPolicy != null ? new RetryExecutor(retryPolicy) : null;
+        this.callTimeout = callTimeout;
+        boolean rateLimited = rateLimitPolicy != null || operationRateLimitPolicies != null && !operationRateLimitPolicies.isEmpty();
+        this.rateLimiter = rateLimited ? new RateLimiter(rateLimitPolicy, operationRateLimitPolicies) : null;
+        this.coalescer = requestCoalescing ? new RequestCoalescer<>() : null;
+        if (bulkheadPolicies != null) {
+            for (Map.Entry<ApiFamily, BulkheadPolicy> entry : bulkheadPolicies.entrySet()) {
+                bulkheads.put(entry.getKey(), new ConcurrencyLimiter(toConcurrencyLimitPolicy(entry.getValue())));
+            }
+        }
+    }
+
+    private static ConcurrencyLimitPolicy toConcurrencyLimitPolicy(BulkheadPolicy bulkheadPolicy) {
+        // a minimum limit that equals the maximum limit fixes the limit
+        return new ConcurrencyLimitPolicy()
+                .withInitialLimit(bulkheadPolicy.getMaxConcurrentCalls())
+                .withMinLimit(bulkheadPolicy.getMaxConcurrentCalls())
+                .withMaxLimit(bulkheadPolicy.getMaxConcurrentCalls())
+                .withOverflowPolicy(bulkheadPolicy.getOverflowPolicy())
+                .withMaxQueueSize(bulkheadPolicy.getMaxQueueSize())
+                .withMaxQueueWait(bulkheadPolicy.getMaxQueueWait());
     }
 
     private static String extractAuthorization(List<ResponseHeader> headers) {
@@ -164,6 +307,292 @@ public class PaysafeCommunicator implements Communicator {
         throw new IllegalArgumentException("unsupported http method: " + httpMethod);
     }
 
+    @Override
+    public <O> CompletableFuture<O> executeAsync(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Object requestBody,
+            Class<O> responseType, Executor executor) {
+        return executeAsync(httpMethod, relativePath, requestHeaders, requestBody, defaultResponseHandler(relativePath, responseType), executor);
+    }
+
+    @Override
+    public <O> CompletableFuture<ResponseWithAuthorization<O>> executeWithAuthorizationHeaderAsync(HttpMethod httpMethod, String relativePath,
+            List<RequestHeader> requestHeaders, Object requestBody, Class<O> responseType, Executor executor) {
+        return executeAsync(httpMethod, relativePath, requestHeaders, requestBody, responseHandlerWithAuthorization(relativePath, responseType), executor);
+    }
+
+    private <O> CompletableFuture<O> executeAsync(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Object requestBody,
+            ResponseHandler<O> responseHandler, Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is required");
+        }
+        // the deadline is determined by the calling thread, not the thread that sends the request
+        Deadline deadline = getDeadline();
+        if (!(connection instanceof AsyncConnection)) {
+            Supplier<O> call = () -> execute(httpMethod, relativePath, requestHeaders, requestBody, responseHandler);
+            CompletableFuture<O> future = CompletableFuture.supplyAsync(deadline != null ? () -> deadline.call(call) : call, executor);
+            return deadline != null ? withDeadline(future, deadline) : future;
+        }
+
+        CompletableFuture<O> future;
+        try {
+            future = httpMethod == HttpMethod.GET && coalescer != null
+                    ? getCoalescedAsync((AsyncConnection) connection, relativePath, requestHeaders, responseHandler, deadline)
+                    : sendAsync((AsyncConnection) connection, httpMethod, relativePath, requestHeaders, requestBody, responseHandler, deadline);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        return completeWith(future, executor);
+    }
+
+    private <O> CompletableFuture<O> sendAsync(AsyncConnection asyncConnection, HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders,
+            Object requestBody, ResponseHandler<O> responseHandler, Deadline deadline) {
+        URI uri = toAbsoluteURI(relativePath);
+
+        List<RequestHeader> headers = requestHeaders != null ? requestHeaders : new ArrayList<>();
+
+        // the request body is marshalled only once, even if the request is retried
+        Supplier<CompletableFuture<O>> request;
+        switch (httpMethod) {
+            case POST:
+                String postJson = getRequestBodyAsJsonString(headers, requestBody);
+                request = () -> asyncConnection.postAsync(uri, headers, postJson, responseHandler);
+                break;
+            case GET:
+                request = () -> asyncConnection.getAsync(uri, headers, responseHandler);
+                break;
+            case PUT:
+                String putJson = getRequestBodyAsJsonString(headers, requestBody);
+                request = () -> asyncConnection.putAsync(uri, headers, putJson, responseHandler);
+                break;
+            case DELETE:
+                request = () -> asyncConnection.deleteAsync(uri, headers, responseHandler);
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported http method: " + httpMethod);
+        }
+        if (rateLimiter != null) {
+            request = withRateLimitAsync(relativePath, headers, deadline, request);
+        }
+        Supplier<CompletableFuture<O>> attempt = deadline != null ? withDeadline(request, deadline) : request;
+        Supplier<CompletableFuture<O>> call = retryExecutor != null
+                ? () -> retryExecutor.executeAsync(httpMethod, relativePath, headers, deadline, attempt)
+                : attempt;
+
+        ApiFamily apiFamily = getApiFamily(httpMethod, relativePath);
+        CompletableFuture<O> future = apiFamily != null ? executeInBulkhead(apiFamily, call) : call.get();
+        return deadline != null ? withDeadline(future, deadline) : future;
+    }
+
+    /**
+     * Sends a GET request, or waits for the response of an identical GET request that is in flight, without blocking the calling thread.
+     * The given deadline also limits the time spent waiting for the identical request.
+     * Cancelling the returned future stops waiting, and cancels the shared request if no other request waits for it.
+     */
+    private <O> CompletableFuture<O> getCoalescedAsync(AsyncConnection asyncConnection, String relativePath, List<RequestHeader> requestHeaders,
+            ResponseHandler<O> responseHandler, Deadline deadline) {
+        List<RequestHeader> headers = requestHeaders != null ? requestHeaders : new ArrayList<>();
+
+        CompletableFuture<BufferedResponse> shared = coalescer.executeAsync(getCoalescingKey(relativePath, headers),
+                () -> sendAsync(asyncConnection, HttpMethod.GET, relativePath, headers, null, bufferingResponseHandler(relativePath), deadline));
+        CompletableFuture<BufferedResponse> response = deadline != null ? withDeadline(shared, deadline) : shared;
+        CompletableFuture<O> result = new CompletableFuture<>();
+        response.whenComplete((bufferedResponse, thrown) -> {
+            if (thrown != null) {
+                result.completeExceptionally(thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown);
+                return;
+            }
+            try {
+                result.complete(bufferedResponse.handle(responseHandler));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((ignored, thrown) -> {
+            if (result.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns a request that sends the given request once the rate limit allows it, without blocking the calling thread.
+     * Error responses with a {@code Retry-After} header pause the requests with the same secret key before the returned future completes,
+     * so a retry already waits for it. Cancelling the returned future cancels the request, or prevents it from being sent.
+     */
+    private <O> Supplier<CompletableFuture<O>> withRateLimitAsync(String relativePath, List<RequestHeader> requestHeaders, Deadline deadline,
+            Supplier<CompletableFuture<O>> request) {
+        return () -> {
+            CompletableFuture<Void> permitted = rateLimiter.acquireAsync(relativePath, requestHeaders, deadline);
+            CompletableFuture<O> result = new CompletableFuture<>();
+            AtomicReference<CompletableFuture<O>> started = new AtomicReference<>();
+            result.whenComplete((response, thrown) -> {
+                if (!result.isCancelled()) {
+                    return;
+                }
+                CompletableFuture<O> future = started.get();
+                if (future != null) {
+                    future.cancel(true);
+                } else {
+                    permitted.cancel(false);
+                }
+            });
+            permitted.whenComplete((ignored, thrown) -> {
+                if (thrown != null) {
+                    result.completeExceptionally(thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown);
+                    return;
+                }
+                if (result.isDone()) {
+                    return;
+                }
+                CompletableFuture<O> future;
+                try {
+                    future = request.get();
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                started.set(future);
+                if (result.isCancelled()) {
+                    future.cancel(true);
+                }
+                future.whenComplete((response, requestThrown) -> {
+                    if (requestThrown != null) {
+                        Throwable cause = requestThrown instanceof CompletionException && requestThrown.getCause() != null ? requestThrown.getCause() : requestThrown;
+                        rateLimiter.onFailure(requestHeaders, cause);
+                        result.completeExceptionally(cause);
+                    } else {
+                        result.complete(response);
+                    }
+                });
+            });
+            return result;
+        };
+    }
+
+    /**
+     * Makes the given call once the bulkhead of the given API family has a free slot, without blocking the calling thread.
+     * Cancelling the returned future cancels the call, or removes it from the queue of the bulkhead.
+     */
+    private <O> CompletableFuture<O> executeInBulkhead(ApiFamily apiFamily, Supplier<CompletableFuture<O>> call) {
+        ConcurrencyLimiter bulkhead = bulkheads.get(apiFamily);
+        CompletableFuture<ConcurrencyLimiter.Permit> permitFuture = bulkhead.acquireAsync();
+        CompletableFuture<O> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<O>> started = new AtomicReference<>();
+        result.whenComplete((response, thrown) -> {
+            if (!result.isCancelled()) {
+                return;
+            }
+            CompletableFuture<O> future = started.get();
+            if (future != null) {
+                future.cancel(true);
+            } else if (bulkhead.removeWaiter(permitFuture)) {
+                permitFuture.cancel(true);
+            }
+        });
+        permitFuture.whenComplete((permit, thrown) -> {
+            if (thrown != null) {
+                Throwable cause = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown;
+                result.completeExceptionally(cause instanceof ConcurrencyLimitExceededException ? bulkheadFull(apiFamily) : cause);
+                return;
+            }
+            if (result.isDone()) {
+                // cancelled while waiting for a slot
+                bulkhead.onCancelled(permit);
+                return;
+            }
+            CompletableFuture<O> future;
+            try {
+                future = call.get();
+            } catch (RuntimeException e) {
+                bulkhead.onResult(permit, e);
+                result.completeExceptionally(e);
+                return;
+            }
+            started.set(future);
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+            future.whenComplete((response, callThrown) -> {
+                // release the slot first, so callers that see the result also see the slot as free
+                bulkhead.onResult(permit, null);
+                if (callThrown != null) {
+                    result.completeExceptionally(callThrown instanceof CompletionException && callThrown.getCause() != null ? callThrown.getCause() : callThrown);
+                } else {
+                    result.complete(response);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Returns a future that fails with a {@link DeadlineExceededException} if the given future is not completed before the given deadline.
+     * In that case, the given future is cancelled. Cancelling the returned future cancels the given future.
+     */
+    private <O> CompletableFuture<O> withDeadline(CompletableFuture<O> future, Deadline deadline) {
+        if (future.isDone()) {
+            return future;
+        }
+        CompletableFuture<O> result = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = deadlineTimer.schedule(deadline, () -> {
+            if (result.completeExceptionally(new DeadlineExceededException("The deadline of the call expired while waiting for the response"))) {
+                future.cancel(true);
+            }
+        });
+        future.whenComplete((response, thrown) -> {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            if (thrown != null) {
+                result.completeExceptionally(thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown);
+            } else {
+                result.complete(response);
+            }
+        });
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns a future that is completed using the given executor, so dependent stages do not run on the connection's I/O threads.
+     * Cancelling the returned future cancels the given future.
+     */
+    private static <O> CompletableFuture<O> completeWith(CompletableFuture<O> future, Executor executor) {
+        CompletableFuture<O> result = new CompletableFuture<>();
+        future.whenCompleteAsync((response, thrown) -> {
+            if (thrown != null) {
+                result.completeExceptionally(thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown);
+            } else {
+                result.complete(response);
+            }
+        }, executor);
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <O> O execute(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Object requestBody, ResponseHandler<O> responseHandler) {
+        switch (httpMethod) {
+            case POST:
+                return post(relativePath, requestHeaders, requestBody, responseHandler);
+            case GET:
+                return get(relativePath, requestHeaders, responseHandler);
+            case PUT:
+                return put(relativePath, requestHeaders, requestBody, responseHandler);
+            case DELETE:
+                return delete(relativePath, requestHeaders, responseHandler);
+        }
+        throw new IllegalArgumentException("unsupported http method: " + httpMethod);
+    }
+
     @Override
     public <O> O post(String relativePath, List<RequestHeader> requestHeaders, Object requestBody, Class<O> responseType) {
         return post(relativePath, requestHeaders, requestBody, defaultResponseHandler(relativePath, responseType));
@@ -177,13 +606,11 @@ public class PaysafeCommunicator implements Communicator {
     private <O> O post(String relativePath, List<RequestHeader> requestHeaders, Object requestBody, ResponseHandler<O> responseHandler) {
         URI uri = toAbsoluteURI(relativePath);
 
-        if (requestHeaders == null) {
-            requestHeaders = new ArrayList<>();
-        }
+        List<RequestHeader> headers = requestHeaders != null ? requestHeaders : new ArrayList<>();
 
-        String requestJson = getRequestBodyAsJsonString(requestHeaders, requestBody);
+        String requestJson = getRequestBodyAsJsonString(headers, requestBody);
 
-        return connection.post(uri, requestHeaders, requestJson, responseHandler);
+        return send(HttpMethod.POST, relativePath, headers, () -> connection.post(uri, headers, requestJson, responseHandler));
     }
 
     @Override
@@ -196,14 +623,156 @@ public class PaysafeCommunicator implements Communicator {
         return get(relativePath, requestHeaders, responseHandlerWithAuthorization(relativePath, responseType));
     }
 
+    @Override
+    public <O> ConditionalResponse<O> getIfModified(String relativePath, List<RequestHeader> requestHeaders, String eTag, String lastModified,
+            Class<O> responseType) {
+        return get(relativePath, withConditions(requestHeaders, eTag, lastModified), conditionalResponseHandler(relativePath, responseType));
+    }
+
+    @Override
+    public <O> CompletableFuture<ConditionalResponse<O>> getIfModifiedAsync(String relativePath, List<RequestHeader> requestHeaders, String eTag,
+            String lastModified, Class<O> responseType, Executor executor) {
+        return executeAsync(HttpMethod.GET, relativePath, withConditions(requestHeaders, eTag, lastModified), null,
+                conditionalResponseHandler(relativePath, responseType), executor);
+    }
+
+    @Override
+    public DownloadResponse download(String relativePath, List<RequestHeader> requestHeaders, OutputStream outputStream) {
+        if (outputStream == null) {
+            throw new IllegalArgumentException("outputStream is required");
+        }
+        return download(relativePath, requestHeaders, bodyStream -> copy(bodyStream, outputStream));
+    }
+
+    @Override
+    public DownloadResponse download(String relativePath, List<RequestHeader> requestHeaders, Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException("path is required");
+        }
+        // the body is written to a temporary file, which only replaces an existing file once the download succeeded
+        AtomicReference<Path> temporaryFile = new AtomicReference<>();
+        try {
+            DownloadResponse response = download(relativePath, requestHeaders, bodyStream -> {
+                Path file = createTemporaryFile(path);
+                temporaryFile.set(file);
+                try (OutputStream outputStream = Files.newOutputStream(file)) {
+                    return copy(bodyStream, outputStream);
+                }
+            });
+            Path file = temporaryFile.get();
+            try {
+                Files.move(file, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new ResponseBodyWriteException(e);
+            }
+            return response;
+        } catch (RuntimeException | Error e) {
+            Path file = temporaryFile.get();
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static Path createTemporaryFile(Path path) throws IOException {
+        // in the same directory, so it can be moved atomically
+        Path directory = path.toAbsolutePath().getParent();
+        Path fileName = path.getFileName();
+        return Files.createTempFile(directory, (fileName != null ? fileName.toString() : "download") + ".", ".part");
+    }
+
+    private DownloadResponse download(String relativePath, List<RequestHeader> requestHeaders, BodyWriter bodyWriter) {
+        URI uri = toAbsoluteURI(relativePath);
+
+        List<RequestHeader> headers = requestHeaders != null ? requestHeaders : new ArrayList<>();
+
+        // set by the first attempt that starts writing the body; later attempts must not write it again
+        AtomicBoolean writing = new AtomicBoolean();
+        ResponseHandler<DownloadResponse> responseHandler = (statusCode, bodyStream, responseHeaders) -> {
+            // the time spent writing the body to a slow consumer is not part of the round-trip time
+            ResponseTimer.markReceived();
+            throwExceptionIfNecessary(statusCode, bodyStream, responseHeaders, relativePath);
+            if (!writing.compareAndSet(false, true)) {
+                throw new IllegalStateException("The response body is already written by another attempt");
+            }
+            ReadTrackingInputStream trackingStream = new ReadTrackingInputStream(bodyStream);
+            long contentLength;
+            try {
+                contentLength = bodyWriter.write(trackingStream);
+            } catch (IOException e) {
+                // only a failure to read the body is a communication error; a failure to write it is a problem of the consumer
+                throw trackingStream.failed ? new CommunicationException(e) : new ResponseBodyWriteException(e);
+            }
+            // a body writer may stop at a read error without rethrowing it, which would leave the body truncated
+            if (trackingStream.failed) {
+                throw new CommunicationException("Reading the response body failed after " + contentLength + " bytes");
+            }
+            String expectedLength = ResponseHeader.getHeaderValue(responseHeaders, HttpHeaders.CONTENT_LENGTH);
+            if (expectedLength != null && Long.parseLong(expectedLength.trim()) != contentLength) {
+                throw new CommunicationException("Premature end of the response body (expected: " + expectedLength.trim()
+                        + "; received: " + contentLength + ")");
+            }
+            return new DownloadResponse(getContentType(responseHeaders), contentLength,
+                    ResponseHeader.getHeaderValue(responseHeaders, HttpHeaders.ETAG),
+                    ResponseHeader.getHeaderValue(responseHeaders, HttpHeaders.LAST_MODIFIED));
+        };
+        // the body is not buffered, so the call is not coalesced; it is not hedged either, because only one copy can write the body
+        Connection downloadConnection = getUnhedgedConnection();
+        return send(HttpMethod.GET, relativePath, headers, () -> downloadConnection.get(uri, headers, responseHandler), () -> !writing.get());
+    }
+
+    private static long copy(InputStream bodyStream, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[8192];
+        long count = 0;
+        int len;
+        while ((len = bodyStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, len);
+            count += len;
+        }
+        outputStream.flush();
+        return count;
+    }
+
+    private static List<RequestHeader> withConditions(List<RequestHeader> requestHeaders, String eTag, String lastModified) {
+        List<RequestHeader> headers = requestHeaders != null ? new ArrayList<>(requestHeaders) : new ArrayList<>();
+        if (eTag != null) {
+            headers.add(new RequestHeader(HttpHeaders.IF_NONE_MATCH, eTag));
+        }
+        if (lastModified != null) {
+            headers.add(new RequestHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified));
+        }
+        return headers;
+    }
+
     private <O> O get(String relativePath, List<RequestHeader> requestHeaders, ResponseHandler<O> responseHandler) {
         URI uri = toAbsoluteURI(relativePath);
 
-        if (requestHeaders == null) {
-            requestHeaders = new ArrayList<>();
+        List<RequestHeader> headers = requestHeaders != null ? requestHeaders : new ArrayList<>();
+
+        if (coalescer != null) {
+            ResponseHandler<BufferedResponse> bufferingResponseHandler = bufferingResponseHandler(relativePath);
+            BufferedResponse response = coalescer.execute(getCoalescingKey(relativePath, headers), getDeadline(),
+                    () -> send(HttpMethod.GET, relativePath, headers, () -> connection.get(uri, headers, bufferingResponseHandler)));
+            return response.handle(responseHandler);
         }
+        return send(HttpMethod.GET, relativePath, headers, () -> connection.get(uri, headers, responseHandler));
+    }
 
-        return connection.get(uri, requestHeaders, responseHandler);
+    /**
+     * Returns the key of GET requests that can share a call: requests for the same path with the same headers, including the secret key
+     * or access token, get the same response.
+     */
+    private static String getCoalescingKey(String relativePath, List<RequestHeader> requestHeaders) {
+        StringBuilder key = new StringBuilder(relativePath);
+        for (RequestHeader header : requestHeaders) {
+            key.append('\n').append(header.getName()).append(':').append(header.getValue());
+        }
+        return key.toString();
     }
 
     @Override
@@ -219,13 +788,11 @@ public class PaysafeCommunicator implements Communicator {
     private <O> O put(String relativePath, List<RequestHeader> requestHeaders, Object requestBody, ResponseHandler<O> responseHandler) {
         URI uri = toAbsoluteURI(relativePath);
 
-        if (requestHeaders == null) {
-            requestHeaders = new ArrayList<>();
-        }
+        List<RequestHeader> headers = requestHeaders != null ? requestHeaders : new ArrayList<>();
 
-        String requestJson = getRequestBodyAsJsonString(requestHeaders, requestBody);
+        String requestJson = getRequestBodyAsJsonString(headers, requestBody);
 
-        return connection.put(uri, requestHeaders, requestJson, responseHandler);
+        return send(HttpMethod.PUT, relativePath, headers, () -> connection.put(uri, headers, requestJson, responseHandler));
     }
 
     @Override
@@ -241,11 +808,137 @@ public class PaysafeCommunicator implements Communicator {
     private <O> O delete(String relativePath, List<RequestHeader> requestHeaders, ResponseHandler<O> responseHandler) {
         URI uri = toAbsoluteURI(relativePath);
 
-        if (requestHeaders == null) {
-            requestHeaders = new ArrayList<>();
+        List<RequestHeader> headers = requestHeaders != null ? requestHeaders : new ArrayList<>();
+
+        return send(HttpMethod.DELETE, relativePath, headers, () -> connection.delete(uri, headers, responseHandler));
+    }
+
+    private <O> O send(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Supplier<O> request) {
+        return send(httpMethod, relativePath, requestHeaders, request, () -> true);
+    }
+
+    /**
+     * Sends a request like {@link #send(HttpMethod, String, List, Supplier)}, but only retries it while the given condition holds.
+     */
+    private <O> O send(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Supplier<O> request,
+            BooleanSupplier retryAllowed) {
+        Deadline deadline = getDeadline();
+        Supplier<O> rateLimited = rateLimiter != null ? withRateLimit(relativePath, requestHeaders, deadline, request) : request;
+        Supplier<O> attempt = deadline != null ? withDeadline(rateLimited, deadline) : rateLimited;
+        Supplier<O> call = retryExecutor != null
+                ? () -> retryExecutor.execute(httpMethod, relativePath, requestHeaders, deadline, attempt, retryAllowed)
+                : attempt;
+
+        ApiFamily apiFamily = getApiFamily(httpMethod, relativePath);
+        if (apiFamily == null) {
+            return call.get();
+        }
+        ConcurrencyLimiter bulkhead = bulkheads.get(apiFamily);
+        ConcurrencyLimiter.Permit permit;
+        try {
+            // the deadline limits the time spent waiting for a slot
+            permit = deadline != null ? deadline.call(bulkhead::acquire) : bulkhead.acquire();
+        } catch (@SuppressWarnings("unused") ConcurrencyLimitExceededException e) {
+            throw bulkheadFull(apiFamily);
+        }
+        try {
+            O response = call.get();
+            bulkhead.onResult(permit, null);
+            return response;
+        } catch (RuntimeException | Error e) {
+            bulkhead.onResult(permit, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a request that waits until the rate limit allows the given request to be sent. Error responses with a {@code Retry-After}
+     * header pause the requests with the same secret key.
+     */
+    private <O> Supplier<O> withRateLimit(String relativePath, List<RequestHeader> requestHeaders, Deadline deadline, Supplier<O> request) {
+        return () -> {
+            rateLimiter.acquire(relativePath, requestHeaders, deadline);
+            try {
+                return request.get();
+            } catch (RuntimeException e) {
+                rateLimiter.onFailure(requestHeaders, e);
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Returns the API family of the given request if it has a bulkhead, or {@code null} otherwise.
+     */
+    private ApiFamily getApiFamily(HttpMethod httpMethod, String relativePath) {
+        if (bulkheads.isEmpty()) {
+            return null;
+        }
+        String pathTemplate = PathTemplates.toTemplate(relativePath);
+        ApiFamily apiFamily;
+        if (pathTemplate.startsWith("/purchase/authorize/")) {
+            apiFamily = ApiFamily.AUTHORIZATION;
+        } else if (pathTemplate.startsWith("/purchase/legaldocuments/")) {
+            apiFamily = ApiFamily.LEGAL_DOCUMENTS;
+        } else {
+            apiFamily = httpMethod == HttpMethod.GET ? ApiFamily.READS : ApiFamily.LIFECYCLE_WRITES;
         }
+        return bulkheads.containsKey(apiFamily) ? apiFamily : null;
+    }
+
+    private static BulkheadFullException bulkheadFull(ApiFamily apiFamily) {
+        return new BulkheadFullException("The bulkhead of API family " + apiFamily + " is full; the call was not made");
+    }
+
+    /**
+     * Returns the occupancy and rejection counter of the bulkhead of each API family that has one,
+     * or an empty list if calls are not limited per API family.
+     *
+     * @see BulkheadPolicy
+     */
+    public List<BulkheadStatistics> getBulkheadStatistics() {
+        List<BulkheadStatistics> statistics = new ArrayList<>(bulkheads.size());
+        for (Map.Entry<ApiFamily, ConcurrencyLimiter> entry : bulkheads.entrySet()) {
+            ConcurrencyLimiter bulkhead = entry.getValue();
+            statistics.add(new BulkheadStatistics(entry.getKey(), bulkhead.getLimit(), bulkhead.getInFlight(), bulkhead.getQueueLength(),
+                    bulkhead.getRejectedCount()));
+        }
+        return statistics;
+    }
 
-        return connection.delete(uri, requestHeaders, responseHandler);
+    /**
+     * Returns the counters of request coalescing, or {@code null} if GET requests are not coalesced.
+     */
+    public CoalescingStatistics getCoalescingStatistics() {
+        return coalescer != null ? new CoalescingStatistics(coalescer.getRequests(), coalescer.getCalls()) : null;
+    }
+
+    /**
+     * Returns the deadline of a call that starts now: the earliest of the deadline that is active on the calling thread and the call timeout.
+     * Returns {@code null} if there is neither.
+     */
+    private Deadline getDeadline() {
+        return Deadline.earliest(Deadline.current(), callTimeout > 0 ? Deadline.after(callTimeout, TimeUnit.MILLISECONDS) : null);
+    }
+
+    /**
+     * Returns a request that fails without being sent if the given deadline has expired, and otherwise is sent with the deadline
+     * {@link Deadline#activate() active}, so the connection can limit its timeouts to the time that remains.
+     */
+    private static <T> Supplier<T> withDeadline(Supplier<T> request, Deadline deadline) {
+        return () -> deadline.call(() -> {
+            deadline.throwIfExpired();
+            return request.get();
+        });
+    }
+
+    /**
+     * Returns the retry counters of each operation that has been executed, or an empty list if requests are not retried.
+     *
+     * @see RetryPolicy
+     */
+    public List<RetryStatistics> getRetryStatistics() {
+        return retryExecutor != null ? retryExecutor.getStatistics() : Collections.emptyList();
     }
 
     @Override
@@ -299,6 +992,18 @@ public class PaysafeCommunicator implements Communicator {
         };
     }
 
+    private <O> ResponseHandler<ConditionalResponse<O>> conditionalResponseHandler(String relativePath, Class<O> responseType) {
+        ResponseHandler<O> responseHandler = defaultResponseHandler(relativePath, responseType);
+        return (statusCode, bodyStream, headers) -> {
+            String eTag = ResponseHeader.getHeaderValue(headers, HttpHeaders.ETAG);
+            String lastModified = ResponseHeader.getHeaderValue(headers, HttpHeaders.LAST_MODIFIED);
+            if (statusCode == HttpStatus.SC_NOT_MODIFIED) {
+                return new ConditionalResponse<>(true, null, eTag, lastModified);
+            }
+            return new ConditionalResponse<>(false, responseHandler.handleResponse(statusCode, bodyStream, headers), eTag, lastModified);
+        };
+    }
+
     protected <O> ResponseHandler<ResponseWithAuthorization<O>> responseHandlerWithAuthorization(String relativePath, Class<O> responseType) {
         return (statusCode, bodyStream, headers) -> {
             throwExceptionIfNecessary(statusCode, bodyStream, headers, relativePath);
@@ -308,6 +1013,34 @@ public class PaysafeCommunicator implements Communicator {
         };
     }
 
+    /**
+     * Returns a response handler that checks the response for errors like the other response handlers, and buffers it otherwise,
+     * so the response of a coalesced request can be handled by each request that shares it.
+     */
+    private static ResponseHandler<BufferedResponse> bufferingResponseHandler(String relativePath) {
+        return (statusCode, bodyStream, headers) -> {
+            // a not modified response to a conditional request is handled by each request
+            if (statusCode != HttpStatus.SC_NOT_MODIFIED) {
+                throwExceptionIfNecessary(statusCode, bodyStream, headers, relativePath);
+            }
+            return new BufferedResponse(statusCode, toByteArray(bodyStream), headers);
+        };
+    }
+
+    private static byte[] toByteArray(InputStream bodyStream) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int len;
+            while ((len = bodyStream.read(buffer)) != -1) {
+                body.write(buffer, 0, len);
+            }
+            return body.toByteArray();
+        } catch (IOException e) {
+            throw new CommunicationException(e);
+        }
+    }
+
     private String getRequestBodyAsJsonString(List<RequestHeader> requestHeaders, Object requestBody) {
         if (requestBody == null) {
             return null;
@@ -316,8 +1049,94 @@ public class PaysafeCommunicator implements Communicator {
         return marshaller.marshal(requestBody);
     }
 
+    @Override
+    public WarmUpResult warmUp(WarmUpOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+
+        long startTime = System.nanoTime();
+        int connectionsOpened = options.getConnections() > 0
+                ? openConnections(options.getPath(), options.getConnections(), options.getTimeout())
+                : 0;
+        Duration connectionsDuration = Duration.ofNanos(System.nanoTime() - startTime);
+
+        startTime = System.nanoTime();
+        int modelTypes = options.isWarmUpMarshaller() ? ModelWarmUp.warmUp(marshaller).size() : 0;
+        Duration marshallerDuration = Duration.ofNanos(System.nanoTime() - startTime);
+
+        return new WarmUpResult(connectionsOpened, options.getConnections() - connectionsOpened, connectionsDuration, modelTypes, marshallerDuration);
+    }
+
+    /**
+     * Opens the given number of connections by concurrently sending GET requests to the given path.
+     * The requests of blocking connections are sent by separate threads that start sending at the same time,
+     * so the requests are in flight together and each needs a connection of its own.
+     * The requests are not hedged, as copies of a request would open additional connections.
+     *
+     * @return The number of requests that received a response.
+     */
+    private int openConnections(String path, int connections, int timeout) {
+        URI uri = toAbsoluteURI(path);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Connection warmUpConnection = getUnhedgedConnection();
+        ResponseHandler<Boolean> responseHandler = (statusCode, bodyStream, headers) -> Boolean.TRUE;
+
+        List<Future<Boolean>> results = new ArrayList<>(connections);
+        if (warmUpConnection instanceof AsyncConnection) {
+            AsyncConnection asyncConnection = (AsyncConnection) warmUpConnection;
+            for (int i = 0; i < connections; i++) {
+                results.add(asyncConnection.getAsync(uri, new ArrayList<>(), responseHandler));
+            }
+        } else {
+            CountDownLatch ready = new CountDownLatch(connections);
+            for (int i = 0; i < connections; i++) {
+                results.add(warmUpExecutor.submit(() -> {
+                    ready.countDown();
+                    ready.await(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                    return warmUpConnection.get(uri, new ArrayList<>(), responseHandler);
+                }));
+            }
+        }
+        int opened = 0;
+        try {
+            for (Future<Boolean> result : results) {
+                try {
+                    result.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                    opened++;
+                } catch (@SuppressWarnings("unused") ExecutionException | TimeoutException e) {
+                    // the connection could not be opened in time; this is reported as a failed connection
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return opened;
+        } finally {
+            // stop the requests that did not complete in time
+            for (Future<Boolean> result : results) {
+                result.cancel(true);
+            }
+        }
+    }
+
+    private Connection getUnhedgedConnection() {
+        return connection instanceof HedgingConnection ? ((HedgingConnection) connection).getConnection() : connection;
+    }
+
     @Override
     public void close() throws IOException {
+        deadlineTimer.close();
+        warmUpExecutor.shutdownNow();
+        for (ConcurrencyLimiter bulkhead : bulkheads.values()) {
+            bulkhead.close();
+        }
+        if (rateLimiter != null) {
+            rateLimiter.close();
+        }
+        if (retryExecutor != null) {
+            retryExecutor.close();
+        }
         connection.close();
     }
 
@@ -344,4 +1163,65 @@ public class PaysafeCommunicator implements Communicator {
     public void disableLogging() {
         connection.disableLogging();
     }
+
+    /**
+     * An input stream that remembers whether reading from the stream it wraps failed.
+     */
+    private static final class ReadTrackingInputStream extends FilterInputStream {
+
+        private boolean failed;
+
+        private ReadTrackingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+
+        /**
+         * Writes the given response body, and returns the number of bytes written.
+         */
+        long write(InputStream bodyStream) throws IOException;
+    }
+
+    /**
+     * A successful response with its body in memory.
+     */
+    private static final class BufferedResponse {
+
+        private final int statusCode;
+        private final byte[] body;
+        private final List<ResponseHeader> headers;
+
+        private BufferedResponse(int statusCode, byte[] body, List<ResponseHeader> headers) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.headers = headers;
+        }
+
+        private <O> O handle(ResponseHandler<O> responseHandler) {
+            return responseHandler.handleResponse(statusCode, new ByteArrayInputStream(body), headers);
+        }
+    }
 }
@@ -1,29 +1,38 @@
 package com.paysafe.paylater.communication.standard;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.ProxySelector;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpEntityEnclosingRequest;
-import org.apache.http.HttpHeaders;
-import org.apache.http.HttpRequest;
 import org.apache.http.HttpRequestInterceptor;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpResponseInterceptor;
-import org.apache.http.RequestLine;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
@@ -36,12 +45,12 @@ import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.DnsResolver;
 import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.routing.HttpRoutePlanner;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.client.SystemDefaultCredentialsProvider;
@@ -50,21 +59,23 @@ import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
 import org.apache.http.impl.io.EmptyInputStream;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContexts;
 
 import com.paysafe.paylater.communication.CommunicatorConfiguration;
 import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.DnsCachePolicy;
+import com.paysafe.paylater.communication.OperationProfile;
 import com.paysafe.paylater.communication.PooledConnection;
 import com.paysafe.paylater.communication.RequestHeader;
 import com.paysafe.paylater.communication.ResponseHandler;
 import com.paysafe.paylater.communication.ResponseHeader;
 import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
 import com.paysafe.paylater.logging.CommunicatorLogger;
-import com.paysafe.paylater.logging.LogMessageBuilder;
-import com.paysafe.paylater.logging.RequestLogMessageBuilder;
-import com.paysafe.paylater.logging.ResponseLogMessageBuilder;
 
 /**
  * {@link Connection} implementation based on {@link HttpClient}.
@@ -73,15 +84,22 @@ public class PaysafeConnection implements PooledConnection {
 
     private static final Charset CHARSET = StandardCharsets.UTF_8;
 
-    private static final String REQUEST_ID_ATTRIBUTE = PaysafeConnection.class.getName() + ".requestId";
-    private static final String START_TIME_ATTRIBUTE = PaysafeConnection.class.getName() + ".startTme";
-
     // CloseableHttpClient is marked to be thread safe
     protected final CloseableHttpClient httpClient;
     // RequestConfig is marked to be immutable
     protected final RequestConfig requestConfig;
-    // PoolingHttpClientConnectionManager, the implementation used, is marked to be thread safe
+    // PoolingHttpClientConnectionManager, the default implementation used, is marked to be thread safe
     private final HttpClientConnectionManager connectionManager;
+    // the request configurations of operations with a profile, keyed by path template
+    private final Map<String, RequestConfig> operationRequestConfigs;
+    // the connection pools of operations with a profile that has its own pool, keyed by path template
+    private final Map<String, OperationPool> operationPools;
+    // closes idle and expired connections in the background; null if disabled
+    private final ConnectionEvictor connectionEvictor;
+    // resolves host names if the default resolver is not used; null otherwise
+    private final DnsResolver dnsResolver;
+    // aborts requests when the deadline of their call expires
+    private final DeadlineTimer deadlineTimer = new DeadlineTimer("paysafe-request-deadline");
     private volatile CommunicatorLogger communicatorLogger;
 
     /**
@@ -111,60 +129,309 @@ public class PaysafeConnection implements PooledConnection {
         this(connectTimeout, readTimeout, maxConnections, createSSLConnectionSocketFactory(httpsProtocols));
     }
 
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, number of connection pool stripes, and HTTPS protocols.
+     * With more than one stripe, the maximum number of connections is divided over that many connection pools,
+     * which reduces lock contention when many threads use this connection concurrently.
+     *
+     * @see CommunicatorConfiguration#getConnectionPoolStripes()
+     */
+    public PaysafeConnection(int connectTimeout, int readTimeout, int maxConnections, int connectionPoolStripes, Set<String> httpsProtocols) {
+        this(connectTimeout, readTimeout,
+                createHttpClientConnectionManager(maxConnections, connectionPoolStripes, 0, createSSLConnectionSocketFactory(httpsProtocols)));
+    }
+
+    /**
+     * Creates a new connection based on the given configuration. Besides the settings that the other constructors support,
+     * this supports limiting the time to live of connections, closing idle and expired connections in the background,
+     * configuring the TLS session cache, operation profiles, and caching resolved host names.
+     *
+     * @see CommunicatorConfiguration#getConnectionRequestTimeout()
+     * @see CommunicatorConfiguration#getConnectionEvictionInterval()
+     * @see CommunicatorConfiguration#getMaxIdleTime()
+     * @see CommunicatorConfiguration#getConnectionTimeToLive()
+     * @see CommunicatorConfiguration#getHttpsSessionCacheSize()
+     * @see CommunicatorConfiguration#getHttpsSessionTimeout()
+     * @see CommunicatorConfiguration#getOperationProfiles()
+     * @see CommunicatorConfiguration#getDnsCachePolicy()
+     */
+    public PaysafeConnection(CommunicatorConfiguration configuration) {
+        this(configuration, createDnsResolver(configuration));
+    }
+
+    /**
+     * Creates a new connection based on the given configuration that resolves host names using the given DNS resolver.
+     * Each resolved address is tried in turn until a connection is opened. If the resolver is a {@link CachingDnsResolver},
+     * addresses that fail to connect are reported back to it, and each attempt except the last is limited to its failover connect timeout.
+     * The resolver is closed when this connection is closed if it is {@link Closeable}.
+     *
+     * @param dnsResolver The DNS resolver to use, or {@code null} to use the default resolver. This overrides the DNS cache policy of the
+     *                    configuration.
+     */
+    public PaysafeConnection(CommunicatorConfiguration configuration, DnsResolver dnsResolver) {
+        this(configuration, dnsResolver, false);
+    }
+
+    /**
+     * Creates a new connection based on the given configuration that resolves host names using the given DNS resolver.
+     * If {@code nonPinning} is {@code true}, the shared connection pool and the connection pools of operations are each wrapped in a
+     * {@link NonPinningConnectionManager}; connection pool stripes are then not supported.
+     */
+    PaysafeConnection(CommunicatorConfiguration configuration, DnsResolver dnsResolver, boolean nonPinning) {
+        this(requireConfiguration(configuration).getConnectTimeout(), configuration.getReadTimeout(), configuration.getConnectionRequestTimeout(),
+                createHttpClientConnectionManager(configuration, dnsResolver, nonPinning),
+                configuration.getConnectionEvictionInterval(), configuration.getMaxIdleTime(), configuration.getConnectionTimeToLive(),
+                configuration.getOperationProfiles(), dnsResolver);
+    }
+
     /**
      * Creates a new connection with the given timeouts, number of maximum connections, and SSL connection socket factory.
      * This constructor can be used in case none of the other constructors can be used due to SSL issues,
      * to provide a fully customizable SSL connection socket factory.
      */
     public PaysafeConnection(int connectTimeout, int readTimeout, int maxConnections, SSLConnectionSocketFactory sslConnectionSocketFactory) {
+        this(connectTimeout, readTimeout, createHttpClientConnectionManager(maxConnections, sslConnectionSocketFactory));
+    }
 
-        if (sslConnectionSocketFactory == null) {
-            throw new IllegalArgumentException("sslConnectionSocketFactory is required");
+    /**
+     * Creates a new connection with the given timeouts that uses the given connection manager.
+     * The connection manager is shut down when this connection is closed.
+     */
+    protected PaysafeConnection(int connectTimeout, int readTimeout, HttpClientConnectionManager connectionManager) {
+        this(connectTimeout, readTimeout, -1, connectionManager, 0, 0, 0, Collections.emptyMap(), null);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts that uses the given connection manager, and closes its expired and idle connections
+     * in the background if the connection eviction interval is positive.
+     */
+    PaysafeConnection(int connectTimeout, int readTimeout, HttpClientConnectionManager connectionManager, int connectionEvictionInterval,
+            int maxIdleTime) {
+        this(connectTimeout, readTimeout, -1, connectionManager, connectionEvictionInterval, maxIdleTime, 0, Collections.emptyMap(), null);
+    }
+
+    private PaysafeConnection(int connectTimeout, int readTimeout, int connectionRequestTimeout, HttpClientConnectionManager connectionManager,
+            int connectionEvictionInterval, int maxIdleTime, int connectionTimeToLive, Map<String, OperationProfile> operationProfiles,
+            DnsResolver dnsResolver) {
+
+        if (connectionManager == null) {
+            throw new IllegalArgumentException("connectionManager is required");
         }
-        requestConfig = createRequestConfig(connectTimeout, readTimeout);
-        connectionManager = createHttpClientConnectionManager(maxConnections, sslConnectionSocketFactory);
-        httpClient = createHttpClient();
+        requestConfig = createRequestConfig(connectTimeout, readTimeout, connectionRequestTimeout);
+        this.connectionManager = connectionManager;
+        this.dnsResolver = dnsResolver;
+        httpClient = createHttpClient(connectionManager);
+        operationRequestConfigs = new HashMap<>();
+        operationPools = new HashMap<>();
+        for (Map.Entry<String, OperationProfile> entry : operationProfiles.entrySet()) {
+            OperationProfile profile = entry.getValue();
+            operationRequestConfigs.put(entry.getKey(), createRequestConfig(
+                    profile.getConnectTimeout() != OperationProfile.DEFAULT_TIMEOUT ? profile.getConnectTimeout() : connectTimeout,
+                    profile.getReadTimeout() != OperationProfile.DEFAULT_TIMEOUT ? profile.getReadTimeout() : readTimeout,
+                    connectionRequestTimeout));
+            if (profile.getMaxConnections() > 0) {
+                operationPools.put(entry.getKey(), createOperationPool(profile.getMaxConnections(), connectionTimeToLive));
+            }
+        }
+        connectionEvictor = connectionEvictionInterval > 0
+                ? new ConnectionEvictor(this, connectionEvictionInterval, maxIdleTime, () -> communicatorLogger)
+                : null;
+    }
+
+    static CommunicatorConfiguration requireConfiguration(CommunicatorConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("configuration is required");
+        }
+        return configuration;
     }
 
-    private static SSLConnectionSocketFactory createSSLConnectionSocketFactory(Set<String> httpsProtocols) {
-        SSLContext sslContext = SSLContexts.createDefault();
+    static DnsResolver createDnsResolver(CommunicatorConfiguration configuration) {
+        DnsCachePolicy dnsCachePolicy = requireConfiguration(configuration).getDnsCachePolicy();
+        return dnsCachePolicy != null ? new CachingDnsResolver(dnsCachePolicy) : null;
+    }
+
+    static SSLConnectionSocketFactory createSSLConnectionSocketFactory(Set<String> httpsProtocols) {
+        return createSSLConnectionSocketFactory(httpsProtocols,
+                CommunicatorConfiguration.DEFAULT_HTTPS_SESSION_CACHE_SIZE, CommunicatorConfiguration.DEFAULT_HTTPS_SESSION_TIMEOUT);
+    }
+
+    static SSLConnectionSocketFactory createSSLConnectionSocketFactory(Set<String> httpsProtocols, int httpsSessionCacheSize, int httpsSessionTimeout) {
+        return createSSLConnectionSocketFactory(SSLContexts.createDefault(), httpsProtocols, httpsSessionCacheSize, httpsSessionTimeout);
+    }
+
+    static SSLConnectionSocketFactory createSSLConnectionSocketFactory(SSLContext sslContext, Set<String> httpsProtocols,
+            int httpsSessionCacheSize, int httpsSessionTimeout) {
+
+        // each SSL context has its own client session cache, so sessions are only resumed by connections of this SSL context
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        if (sessionContext != null) {
+            sessionContext.setSessionCacheSize(Math.max(httpsSessionCacheSize, 0));
+            sessionContext.setSessionTimeout((int) TimeUnit.MILLISECONDS.toSeconds(Math.max(httpsSessionTimeout, 0) + 999L));
+        }
         HostnameVerifier hostnameVerifier = SSLConnectionSocketFactory.getDefaultHostnameVerifier();
 
+        return new CountingSSLConnectionSocketFactory(sslContext, getSupportedProtocols(httpsProtocols), hostnameVerifier);
+    }
+
+    static String[] getSupportedProtocols(Set<String> httpsProtocols) {
         // Default to HTTPS
-        Set<String> supportedProtocols = httpsProtocols == null || httpsProtocols.isEmpty()
+        Set<String> requestedProtocols = httpsProtocols == null || httpsProtocols.isEmpty()
                 ? CommunicatorConfiguration.DEFAULT_HTTPS_PROTOCOLS
                 : httpsProtocols;
 
-        return new SSLConnectionSocketFactory(sslContext, supportedProtocols.toArray(new String[0]), null, hostnameVerifier);
+        // leave out protocols this JVM does not support, like TLSv1.3 on older Java 8 versions, unless that would leave none
+        Set<String> supportedProtocols = new LinkedHashSet<>(requestedProtocols);
+        supportedProtocols.retainAll(getJvmSupportedProtocols());
+        if (supportedProtocols.isEmpty()) {
+            supportedProtocols = requestedProtocols;
+        }
+        return supportedProtocols.toArray(new String[0]);
     }
 
-    private RequestConfig createRequestConfig(int connectTimeout, int socketTimeout) {
+    private static Set<String> getJvmSupportedProtocols() {
+        try {
+            return new HashSet<>(Arrays.asList(SSLContext.getDefault().getSupportedSSLParameters().getProtocols()));
+        } catch (@SuppressWarnings("unused") NoSuchAlgorithmException e) {
+            return Collections.emptySet();
+        }
+    }
+
+    private RequestConfig createRequestConfig(int connectTimeout, int socketTimeout, int connectionRequestTimeout) {
         return RequestConfig.custom()
                             .setSocketTimeout(socketTimeout)
                             .setConnectTimeout(connectTimeout)
+                            .setConnectionRequestTimeout(connectionRequestTimeout)
                             .build();
     }
 
-    private HttpClientConnectionManager createHttpClientConnectionManager(int maxConnections, SSLConnectionSocketFactory sslConnectionSocketFactory) {
-        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+    /**
+     * Caps the timeouts of the given request to the time that remains until the given deadline.
+     */
+    private void applyDeadline(HttpRequestBase request, Deadline deadline) {
+        RequestConfig config = request.getConfig() != null ? request.getConfig() : requestConfig;
+        int remaining = (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadline.remaining(TimeUnit.MILLISECONDS)));
+        request.setConfig(RequestConfig.copy(config)
+                                       .setConnectionRequestTimeout(capTimeout(config.getConnectionRequestTimeout(), remaining))
+                                       .setConnectTimeout(capTimeout(config.getConnectTimeout(), remaining))
+                                       .setSocketTimeout(capTimeout(config.getSocketTimeout(), remaining))
+                                       .build());
+    }
+
+    private static int capTimeout(int timeout, int remaining) {
+        // 0 and negative values mean no timeout
+        return timeout > 0 ? Math.min(timeout, remaining) : remaining;
+    }
+
+    private static HttpClientConnectionManager createHttpClientConnectionManager(CommunicatorConfiguration configuration, DnsResolver dnsResolver,
+            boolean nonPinning) {
+
+        if (nonPinning) {
+            ConnectionSettings.requireVirtualThreadSupport(configuration);
+        }
+        HttpClientConnectionManager connectionManager = createHttpClientConnectionManager(configuration.getMaxConnections(),
+                configuration.getConnectionPoolStripes(), configuration.getConnectionTimeToLive(), dnsResolver,
+                createSSLConnectionSocketFactory(configuration.getHttpsProtocols(), configuration.getHttpsSessionCacheSize(),
+                        configuration.getHttpsSessionTimeout()));
+        // without stripes, the connection manager is a single pool
+        return nonPinning ? new NonPinningConnectionManager((PoolingHttpClientConnectionManager) connectionManager) : connectionManager;
+    }
+
+    static PoolingHttpClientConnectionManager createHttpClientConnectionManager(int maxConnections, SSLConnectionSocketFactory sslConnectionSocketFactory) {
+        return createHttpClientConnectionManager(maxConnections, 0, sslConnectionSocketFactory);
+    }
+
+    static PoolingHttpClientConnectionManager createHttpClientConnectionManager(int maxConnections, int connectionTimeToLive,
+            SSLConnectionSocketFactory sslConnectionSocketFactory) {
+        return createHttpClientConnectionManager(createSocketFactoryRegistry(sslConnectionSocketFactory), maxConnections, maxConnections + 20,
+                connectionTimeToLive, null);
+    }
+
+    static HttpClientConnectionManager createHttpClientConnectionManager(int maxConnections, int connectionPoolStripes, int connectionTimeToLive,
+            SSLConnectionSocketFactory sslConnectionSocketFactory) {
+        return createHttpClientConnectionManager(maxConnections, connectionPoolStripes, connectionTimeToLive, null, sslConnectionSocketFactory);
+    }
+
+    /**
+     * Creates a connection manager that resolves host names using the given DNS resolver, or the default resolver if it is {@code null}.
+     */
+    static HttpClientConnectionManager createHttpClientConnectionManager(int maxConnections, int connectionPoolStripes, int connectionTimeToLive,
+            DnsResolver dnsResolver, SSLConnectionSocketFactory sslConnectionSocketFactory) {
+
+        if (connectionPoolStripes < 1) {
+            throw new IllegalArgumentException("connectionPoolStripes must be at least 1");
+        }
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = createSocketFactoryRegistry(sslConnectionSocketFactory);
+        // there are no more stripes than connections, so no stripe is left without connections
+        int stripeCount = Math.min(connectionPoolStripes, maxConnections);
+        if (stripeCount <= 1) {
+            return createHttpClientConnectionManager(socketFactoryRegistry, maxConnections, maxConnections + 20, connectionTimeToLive, dnsResolver);
+        }
+        // divide the maximum number of connections over the stripes, so they add up to exactly the maximum
+        List<PoolingHttpClientConnectionManager> stripes = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            int maxConnectionsPerStripe = getShare(maxConnections, stripeCount, i);
+            int maxTotalPerStripe = maxConnectionsPerStripe + getShare(20, stripeCount, i);
+            stripes.add(createHttpClientConnectionManager(socketFactoryRegistry, maxConnectionsPerStripe, maxTotalPerStripe, connectionTimeToLive,
+                    dnsResolver));
+        }
+        return new StripedHttpClientConnectionManager(stripes);
+    }
+
+    private static Registry<ConnectionSocketFactory> createSocketFactoryRegistry(SSLConnectionSocketFactory sslConnectionSocketFactory) {
+
+        if (sslConnectionSocketFactory == null) {
+            throw new IllegalArgumentException("sslConnectionSocketFactory is required");
+        }
+        return RegistryBuilder.<ConnectionSocketFactory>create()
                 .register("http", PlainConnectionSocketFactory.getSocketFactory())
                 .register("https", sslConnectionSocketFactory)
                 .build();
+    }
+
+    private static PoolingHttpClientConnectionManager createHttpClientConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry,
+            int maxPerRoute, int maxTotal, int connectionTimeToLive, DnsResolver dnsResolver) {
 
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
-        connectionManager.setDefaultMaxPerRoute(maxConnections);
-        connectionManager.setMaxTotal(maxConnections + 20);
+        PoolingHttpClientConnectionManager connectionManager = dnsResolver != null
+                ? new CountingHttpClientConnectionManager(socketFactoryRegistry, dnsResolver, connectionTimeToLive, TimeUnit.MILLISECONDS)
+                : new CountingHttpClientConnectionManager(socketFactoryRegistry, connectionTimeToLive, TimeUnit.MILLISECONDS);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setMaxTotal(maxTotal);
         return connectionManager;
     }
 
-    private CloseableHttpClient createHttpClient() {
+    /**
+     * Returns the share of the given part when dividing the given total over the given number of parts as evenly as possible.
+     */
+    private static int getShare(int total, int parts, int part) {
+        return total / parts + (part < total % parts ? 1 : 0);
+    }
+
+    /**
+     * Creates a connection pool for a single operation. It shares the socket factories, and therefore the TLS session cache,
+     * and the DNS resolver with the shared pool. If the shared pool does not pin virtual threads, neither does this pool.
+     */
+    private OperationPool createOperationPool(int maxConnections, int connectionTimeToLive) {
+        List<PoolingHttpClientConnectionManager> sharedManagers = getPoolingConnectionManagers();
+        if (sharedManagers.isEmpty() || !(sharedManagers.get(0) instanceof CountingHttpClientConnectionManager)) {
+            throw new IllegalStateException("operation connection pools require a pooling connection manager");
+        }
+        CountingHttpClientConnectionManager sharedManager = (CountingHttpClientConnectionManager) sharedManagers.get(0);
+        PoolingHttpClientConnectionManager manager = createHttpClientConnectionManager(sharedManager.getSocketFactoryRegistry(), maxConnections,
+                maxConnections + 20, connectionTimeToLive, sharedManager.getDnsResolver());
+        HttpClientConnectionManager clientManager = connectionManager instanceof NonPinningConnectionManager
+                ? new NonPinningConnectionManager(manager)
+                : manager;
+        return new OperationPool(manager, createHttpClient(clientManager));
+    }
+
+    private CloseableHttpClient createHttpClient(HttpClientConnectionManager connectionManager) {
 
         // add support for system properties
         HttpRoutePlanner routePlanner = new SystemDefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE, ProxySelector.getDefault());
         CredentialsProvider credentialsProvider = new SystemDefaultCredentialsProvider();
 
         // add logging - last for requests, first for responses
-        LoggingInterceptor loggingInterceptor = new LoggingInterceptor();
+        LoggingInterceptor loggingInterceptor = new LoggingInterceptor(() -> communicatorLogger);
 
         return HttpClients.custom()
                           .setConnectionManager(connectionManager)
@@ -177,7 +444,17 @@ public class PaysafeConnection implements PooledConnection {
 
     @Override
     public void close() throws IOException {
+        if (connectionEvictor != null) {
+            connectionEvictor.close();
+        }
+        deadlineTimer.close();
+        for (OperationPool pool : operationPools.values()) {
+            pool.httpClient.close();
+        }
         httpClient.close();
+        if (dnsResolver instanceof Closeable) {
+            ((Closeable) dnsResolver).close();
+        }
     }
 
     @Override
@@ -190,7 +467,7 @@ public class PaysafeConnection implements PooledConnection {
     private <R> R post(URI uri, List<RequestHeader> requestHeaders, HttpEntity requestEntity, ResponseHandler<R> responseHandler) {
 
         HttpPost httpPost = new HttpPost(uri);
-        httpPost.setConfig(requestConfig);
+        httpPost.setConfig(getRequestConfig(uri));
         addHeaders(httpPost, requestHeaders);
         if (requestEntity != null) {
             httpPost.setEntity(requestEntity);
@@ -202,7 +479,7 @@ public class PaysafeConnection implements PooledConnection {
     public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
 
         HttpGet httpGet = new HttpGet(uri);
-        httpGet.setConfig(requestConfig);
+        httpGet.setConfig(getRequestConfig(uri));
         addHeaders(httpGet, requestHeaders);
         return executeRequest(httpGet, responseHandler);
     }
@@ -217,7 +494,7 @@ public class PaysafeConnection implements PooledConnection {
     private <R> R put(URI uri, List<RequestHeader> requestHeaders, HttpEntity requestEntity, ResponseHandler<R> responseHandler) {
 
         HttpPut httpPut = new HttpPut(uri);
-        httpPut.setConfig(requestConfig);
+        httpPut.setConfig(getRequestConfig(uri));
         addHeaders(httpPut, requestHeaders);
         if (requestEntity != null) {
             httpPut.setEntity(requestEntity);
@@ -229,11 +506,30 @@ public class PaysafeConnection implements PooledConnection {
     public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
 
         HttpDelete httpDelete = new HttpDelete(uri);
-        httpDelete.setConfig(requestConfig);
+        httpDelete.setConfig(getRequestConfig(uri));
         addHeaders(httpDelete, requestHeaders);
         return executeRequest(httpDelete, responseHandler);
     }
 
+    /**
+     * Returns the request configuration for the operation of the given URI.
+     */
+    protected RequestConfig getRequestConfig(URI uri) {
+        if (operationRequestConfigs.isEmpty()) {
+            return requestConfig;
+        }
+        RequestConfig operationRequestConfig = operationRequestConfigs.get(PathTemplates.toTemplate(uri.getPath()));
+        return operationRequestConfig != null ? operationRequestConfig : requestConfig;
+    }
+
+    private CloseableHttpClient getHttpClient(HttpUriRequest request) {
+        if (operationPools.isEmpty()) {
+            return httpClient;
+        }
+        OperationPool pool = operationPools.get(PathTemplates.toTemplate(request.getURI().getPath()));
+        return pool != null ? pool.httpClient : httpClient;
+    }
+
     private HttpEntity createRequestEntity(String body) {
         return body != null ? new JsonEntity(body, CHARSET) : null;
     }
@@ -246,20 +542,36 @@ public class PaysafeConnection implements PooledConnection {
         }
     }
 
+    /**
+     * Executes the given request. If a {@link Deadline} is active, the timeouts of the request are capped to the time that remains,
+     * and the request is aborted when the deadline expires.
+     *
+     * @throws DeadlineExceededException if the deadline expires before the response has been handled
+     */
     @SuppressWarnings("resource")
     protected <R> R executeRequest(HttpUriRequest request, ResponseHandler<R> responseHandler) {
 
+        Deadline deadline = Deadline.current();
+        ScheduledFuture<?> abortAction = null;
+        if (deadline != null) {
+            deadline.throwIfExpired();
+            if (request instanceof HttpRequestBase) {
+                applyDeadline((HttpRequestBase) request, deadline);
+            }
+            abortAction = deadlineTimer.schedule(deadline, request::abort);
+        }
+
         final String requestId = UUID.randomUUID().toString();
         final long startTime = System.currentTimeMillis();
 
         HttpContext context = new BasicHttpContext();
-        context.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
-        context.setAttribute(START_TIME_ATTRIBUTE, startTime);
+        context.setAttribute(LoggingInterceptor.REQUEST_ID_ATTRIBUTE, requestId);
+        context.setAttribute(LoggingInterceptor.START_TIME_ATTRIBUTE, startTime);
 
         boolean logRuntimeExceptions = true;
 
         try {
-            CloseableHttpResponse httpResponse = httpClient.execute(request, context);
+            CloseableHttpResponse httpResponse = getHttpClient(request).execute(request, context);
             HttpEntity entity = httpResponse.getEntity();
             int statusCode = httpResponse.getStatusLine().getStatusCode();
             List<ResponseHeader> headers = getHeaders(httpResponse);
@@ -271,16 +583,24 @@ public class PaysafeConnection implements PooledConnection {
                 return responseHandler.handleResponse(statusCode, bodyStream, headers);
             }
         } catch (IOException e) {
-            logError(requestId, e, startTime);
-            throw new CommunicationException(e);
+            LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
+            throw deadline != null && deadline.isExpired()
+                    ? new DeadlineExceededException("The deadline of the call expired while waiting for a connection or the response", e)
+                    : new CommunicationException(e);
         } catch (CommunicationException e) {
-            logError(requestId, e, startTime);
-            throw e;
+            LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
+            throw deadline != null && deadline.isExpired() && !(e instanceof DeadlineExceededException)
+                    ? new DeadlineExceededException("The deadline of the call expired while reading the response", e)
+                    : e;
         } catch (RuntimeException e) {
             if (logRuntimeExceptions) {
-                logError(requestId, e, startTime);
+                LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
             }
             throw e;
+        } finally {
+            if (abortAction != null) {
+                abortAction.cancel(false);
+            }
         }
     }
 
@@ -302,162 +622,188 @@ public class PaysafeConnection implements PooledConnection {
     @Override
     public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
         connectionManager.closeIdleConnections(idleTime, timeUnit);
+        for (OperationPool pool : operationPools.values()) {
+            pool.connectionManager.closeIdleConnections(idleTime, timeUnit);
+        }
     }
 
     @Override
     public void closeExpiredConnections() {
         connectionManager.closeExpiredConnections();
+        for (OperationPool pool : operationPools.values()) {
+            pool.connectionManager.closeExpiredConnections();
+        }
     }
 
-    @Override
-    public void enableLogging(CommunicatorLogger communicatorLogger) {
-        if (communicatorLogger == null) {
-            throw new IllegalArgumentException("communicatorLogger is required");
+    /**
+     * Returns the statistics of the shared connection pool. If the connection pool is striped, this contains the statistics of each stripe.
+     * If the connection pool does not provide statistics, this is an empty list.
+     *
+     * @see #getOperationPoolStats()
+     */
+    public List<PoolStats> getConnectionPoolStats() {
+        List<PoolingHttpClientConnectionManager> connectionManagers = getPoolingConnectionManagers();
+        List<PoolStats> stats = new ArrayList<>(connectionManagers.size());
+        for (PoolingHttpClientConnectionManager manager : connectionManagers) {
+            stats.add(manager.getTotalStats());
         }
-        this.communicatorLogger = communicatorLogger;
+        return stats;
     }
 
-    @Override
-    public void disableLogging() {
-        this.communicatorLogger = null;
+    /**
+     * Returns the statistics of the connection pools of operations that have their own pool, keyed by path template.
+     *
+     * @see CommunicatorConfiguration#getOperationProfiles()
+     */
+    public Map<String, PoolStats> getOperationPoolStats() {
+        Map<String, PoolStats> stats = new TreeMap<>();
+        for (Map.Entry<String, OperationPool> entry : operationPools.entrySet()) {
+            stats.put(entry.getKey(), entry.getValue().connectionManager.getTotalStats());
+        }
+        return stats;
     }
 
-    // logging code
-
-    private void logRequest(final HttpRequest request, final String requestId, final CommunicatorLogger logger) {
-
-        try {
-            RequestLine requestLine = request.getRequestLine();
-            String method = requestLine.getMethod();
-            String uri = requestLine.getUri();
-
-            final RequestLogMessageBuilder logMessageBuilder = new RequestLogMessageBuilder(requestId, method, uri);
-            logMessageBuilder.addHeaders(request.getAllHeaders());
-            if (request instanceof HttpEntityEnclosingRequest) {
-
-                final HttpEntityEnclosingRequest entityEnclosingRequest = (HttpEntityEnclosingRequest) request;
-
-                HttpEntity entity = entityEnclosingRequest.getEntity();
-
-                if (entity != null) {
-                    String contentType = getContentType(entity, request.getFirstHeader(HttpHeaders.CONTENT_TYPE));
-                    // Due to privacy concerns the actual request body (which can contain personal data) is not logged.
-                    logMessageBuilder.setBody("****", contentType);
-                }
+    /**
+     * Returns the total number of pooled connections that were closed because they were idle,
+     * either by the background connection evictor or by {@link #closeIdleConnections(long, TimeUnit)}.
+     *
+     * @see CommunicatorConfiguration#getMaxIdleTime()
+     */
+    public long getClosedIdleConnectionCount() {
+        long count = 0;
+        for (PoolingHttpClientConnectionManager manager : getAllPoolingConnectionManagers()) {
+            if (manager instanceof CountingHttpClientConnectionManager) {
+                count += ((CountingHttpClientConnectionManager) manager).getClosedIdleConnections();
             }
-
-            logger.log(logMessageBuilder.getMessage());
-
-        } catch (Exception e) {
-            logger.log(String.format("An error occurred trying to log request '%s'", requestId), e);
         }
+        return count;
     }
 
-    private void logResponse(final HttpResponse response, final String requestId, final long startTime, final CommunicatorLogger logger) {
-
-        final long endTime = System.currentTimeMillis();
-        final long duration = endTime - startTime;
-
-        try {
-            final int statusCode = response.getStatusLine().getStatusCode();
-
-            final ResponseLogMessageBuilder logMessageBuilder = new ResponseLogMessageBuilder(requestId, statusCode, duration);
-            logMessageBuilder.addHeaders(response.getAllHeaders());
-
-            HttpEntity entity = response.getEntity();
-
-            if (entity != null && !entity.isRepeatable()) {
-                entity = new BufferedHttpEntity(entity);
-                response.setEntity(entity);
-            }
-
-            String contentType = getContentType(entity, response.getFirstHeader(HttpHeaders.CONTENT_TYPE));
-
-            if (statusCode >= 200 && statusCode < 300) {
-                // Due to privacy concerns the response body (which can contain personal data) is not logged for success responses.
-                logMessageBuilder.setBody("****", contentType);
-            } else {
-                // No personal data is returned in exception responses.
-                setBody(logMessageBuilder, entity, contentType);
+    /**
+     * Returns the total number of pooled connections that were closed because their keep-alive timeout or time to live had passed,
+     * either by the background connection evictor or by {@link #closeExpiredConnections()}.
+     *
+     * @see CommunicatorConfiguration#getConnectionTimeToLive()
+     */
+    public long getClosedExpiredConnectionCount() {
+        long count = 0;
+        for (PoolingHttpClientConnectionManager manager : getAllPoolingConnectionManagers()) {
+            if (manager instanceof CountingHttpClientConnectionManager) {
+                count += ((CountingHttpClientConnectionManager) manager).getClosedExpiredConnections();
             }
-
-            logger.log(logMessageBuilder.getMessage());
-
-        } catch (Exception e) {
-            logger.log(String.format("An error occurred trying to log response '%s'", requestId), e);
         }
+        return count;
     }
 
-    private String getContentType(HttpEntity entity, Header defaultHeader) {
-
-        Header contentTypeHeader = entity != null
-                ? entity.getContentType()
-                : null;
-        if (contentTypeHeader == null) {
-            contentTypeHeader = defaultHeader;
+    /**
+     * Returns the total number of full TLS handshakes performed when opening connections.
+     * Handshakes are not counted if this connection was created with a custom {@link SSLConnectionSocketFactory}.
+     *
+     * @see CommunicatorConfiguration#getHttpsSessionCacheSize()
+     */
+    public long getFullHandshakeCount() {
+        long count = 0;
+        for (CountingSSLConnectionSocketFactory factory : getSSLConnectionSocketFactories()) {
+            count += factory.getFullHandshakes();
         }
-
-        return contentTypeHeader != null
-                ? contentTypeHeader.getValue()
-                : null;
+        return count;
     }
 
-    private void setBody(LogMessageBuilder logMessageBuilder, HttpEntity entity, String contentType) throws IOException {
-
-        if (entity == null) {
-            logMessageBuilder.setBody("", contentType);
-        } else if (entity instanceof JsonEntity) {
-            String body = ((JsonEntity) entity).getString();
-            logMessageBuilder.setBody(body, contentType);
-        } else {
-            logMessageBuilder.setBody(entity.getContent(), CHARSET, contentType);
+    /**
+     * Returns the total time spent in full TLS handshakes.
+     */
+    public Duration getFullHandshakeDuration() {
+        long nanos = 0;
+        for (CountingSSLConnectionSocketFactory factory : getSSLConnectionSocketFactories()) {
+            nanos += factory.getFullHandshakeNanos();
         }
+        return Duration.ofNanos(nanos);
     }
 
-    private void logError(final String requestId, final Exception error, final long startTime) {
-
-        if (communicatorLogger != null) {
-
-            final String messageTemplate = "Error occurred for sent request (requestId='%s', %d ms)";
-
-            final long endTime = System.currentTimeMillis();
-            final long duration = endTime - startTime;
-
-            final String message = String.format(messageTemplate, requestId, duration);
+    /**
+     * Returns the total number of TLS handshakes that resumed a cached session when opening connections.
+     *
+     * @see CommunicatorConfiguration#getHttpsSessionCacheSize()
+     */
+    public long getResumedHandshakeCount() {
+        long count = 0;
+        for (CountingSSLConnectionSocketFactory factory : getSSLConnectionSocketFactories()) {
+            count += factory.getResumedHandshakes();
+        }
+        return count;
+    }
 
-            communicatorLogger.log(message, error);
+    /**
+     * Returns the total time spent in TLS handshakes that resumed a cached session.
+     */
+    public Duration getResumedHandshakeDuration() {
+        long nanos = 0;
+        for (CountingSSLConnectionSocketFactory factory : getSSLConnectionSocketFactories()) {
+            nanos += factory.getResumedHandshakeNanos();
         }
+        return Duration.ofNanos(nanos);
     }
 
-    private class LoggingInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+    private Set<CountingSSLConnectionSocketFactory> getSSLConnectionSocketFactories() {
+        // connection pool stripes and operation connection pools share their socket factories
+        Set<CountingSSLConnectionSocketFactory> factories = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (PoolingHttpClientConnectionManager manager : getAllPoolingConnectionManagers()) {
+            if (manager instanceof CountingHttpClientConnectionManager) {
+                ConnectionSocketFactory factory = ((CountingHttpClientConnectionManager) manager).getSocketFactoryRegistry().lookup("https");
+                if (factory instanceof CountingSSLConnectionSocketFactory) {
+                    factories.add((CountingSSLConnectionSocketFactory) factory);
+                }
+            }
+        }
+        return factories;
+    }
 
-        @Override
-        public void process(HttpRequest request, HttpContext context) {
+    private List<PoolingHttpClientConnectionManager> getPoolingConnectionManagers() {
+        HttpClientConnectionManager manager = connectionManager;
+        if (manager instanceof NonPinningConnectionManager) {
+            manager = ((NonPinningConnectionManager) manager).getDelegate();
+        }
+        if (manager instanceof StripedHttpClientConnectionManager) {
+            return ((StripedHttpClientConnectionManager) manager).getStripes();
+        }
+        if (manager instanceof PoolingHttpClientConnectionManager) {
+            return Collections.singletonList((PoolingHttpClientConnectionManager) manager);
+        }
+        return Collections.emptyList();
+    }
 
-            final CommunicatorLogger logger = communicatorLogger;
-            if (logger != null) {
+    private List<PoolingHttpClientConnectionManager> getAllPoolingConnectionManagers() {
+        if (operationPools.isEmpty()) {
+            return getPoolingConnectionManagers();
+        }
+        List<PoolingHttpClientConnectionManager> managers = new ArrayList<>(getPoolingConnectionManagers());
+        for (OperationPool pool : operationPools.values()) {
+            managers.add(pool.connectionManager);
+        }
+        return managers;
+    }
 
-                final String requestId = (String) context.getAttribute(REQUEST_ID_ATTRIBUTE);
-                if (requestId != null) {
-                    logRequest(request, requestId, logger);
-                }
-                // else the context was not sent through executeRequest
-            }
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        if (communicatorLogger == null) {
+            throw new IllegalArgumentException("communicatorLogger is required");
         }
+        this.communicatorLogger = communicatorLogger;
+    }
+
+    @Override
+    public void disableLogging() {
+        this.communicatorLogger = null;
+    }
 
-        @Override
-        public void process(HttpResponse response, HttpContext context) {
+    private static final class OperationPool {
 
-            final CommunicatorLogger logger = communicatorLogger;
-            if (logger != null) {
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final CloseableHttpClient httpClient;
 
-                final String requestId = (String) context.getAttribute(REQUEST_ID_ATTRIBUTE);
-                final Long startTime = (Long) context.getAttribute(START_TIME_ATTRIBUTE);
-                if (requestId != null && startTime != null) {
-                    logResponse(response, requestId, startTime, logger);
-                }
-                // else the context was not sent through executeRequest
-            }
+        private OperationPool(PoolingHttpClientConnectionManager connectionManager, CloseableHttpClient httpClient) {
+            this.connectionManager = connectionManager;
+            this.httpClient = httpClient;
         }
     }
 }
@@ -0,0 +1,715 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.auth.SystemDefaultCredentialsProvider;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.routing.SystemDefaultRoutePlanner;
+import org.apache.hc.client5.http.nio.AsyncClientConnectionManager;
+import org.apache.hc.client5.http.nio.AsyncConnectionEndpoint;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ConnectionInitiator;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.communication.ResponseHeader;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+import com.paysafe.paylater.logging.RequestLogMessageBuilder;
+import com.paysafe.paylater.logging.ResponseLogMessageBuilder;
+
+/**
+ * {@link AsyncConnection} implementation that multiplexes requests over HTTP/2 connections, based on HttpClient 5.
+ * <p>
+ * The HTTP protocol version is negotiated using ALPN. If the server supports HTTP/2, concurrent requests to the same
+ * route share a single connection, each request using its own stream. At most {@code maxConcurrentStreams} requests per route
+ * are sent concurrently; additional requests are queued inside the connection until a stream becomes available.
+ * Until a first connection to a route has been released for reuse, requests to that route are sent one at a time.
+ * If the server does not support HTTP/2, or for plain HTTP, this connection falls back to HTTP/1.1 with a pool of at most
+ * {@code maxConnections} connections per route.
+ * <p>
+ * This connection requires {@code org.apache.httpcomponents.client5:httpclient5} on the class path.
+ */
+public class PaysafeHttp2Connection implements AsyncConnection, PooledConnection {
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    // CloseableHttpAsyncClient is marked to be thread safe
+    protected final CloseableHttpAsyncClient httpClient;
+    // RequestConfig is marked to be immutable
+    protected final RequestConfig requestConfig;
+    // PoolingAsyncClientConnectionManager is marked to be thread safe
+    private final PoolingAsyncClientConnectionManager connectionManager;
+    private final int maxConcurrentStreams;
+    // by route key, so requests to one route are not held up by requests to another
+    private final Map<String, StreamLimiter> streamLimiters = new ConcurrentHashMap<>();
+    private final ConnectionEvictor connectionEvictor;
+    private volatile CommunicatorLogger communicatorLogger;
+
+    /**
+     * Creates a new connection with the given timeouts, the default number of maximum connections and concurrent streams,
+     * and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONCURRENT_STREAMS
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeHttp2Connection(int connectTimeout, int readTimeout) {
+        this(connectTimeout, readTimeout, CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS, CommunicatorConfiguration.DEFAULT_MAX_CONCURRENT_STREAMS);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts and number of maximum connections and concurrent streams,
+     * and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeHttp2Connection(int connectTimeout, int readTimeout, int maxConnections, int maxConcurrentStreams) {
+        this(connectTimeout, readTimeout, maxConnections, maxConcurrentStreams, (Set<String>) null);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections and concurrent streams, and HTTPS protocols.
+     */
+    public PaysafeHttp2Connection(int connectTimeout, int readTimeout, int maxConnections, int maxConcurrentStreams, Set<String> httpsProtocols) {
+        this(connectTimeout, readTimeout, maxConnections, maxConcurrentStreams, createTlsStrategy(httpsProtocols));
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections and concurrent streams, and TLS strategy.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable TLS strategy.
+     */
+    public PaysafeHttp2Connection(int connectTimeout, int readTimeout, int maxConnections, int maxConcurrentStreams, TlsStrategy tlsStrategy) {
+        this(connectTimeout, readTimeout, maxConnections, maxConcurrentStreams, 0, 0, 0, tlsStrategy);
+    }
+
+    /**
+     * Creates a new connection with the timeouts, number of maximum connections and concurrent streams, HTTPS protocols,
+     * connection time to live, and connection eviction settings of the given configuration.
+     */
+    public PaysafeHttp2Connection(CommunicatorConfiguration configuration) {
+        this(requireConfiguration(configuration).getConnectTimeout(), configuration.getReadTimeout(), configuration.getMaxConnections(),
+                configuration.getMaxConcurrentStreams(), configuration.getConnectionTimeToLive(), configuration.getConnectionEvictionInterval(),
+                configuration.getMaxIdleTime(), createTlsStrategy(configuration.getHttpsProtocols()));
+    }
+
+    private PaysafeHttp2Connection(int connectTimeout, int readTimeout, int maxConnections, int maxConcurrentStreams, int connectionTimeToLive,
+            int connectionEvictionInterval, int maxIdleTime, TlsStrategy tlsStrategy) {
+
+        if (tlsStrategy == null) {
+            throw new IllegalArgumentException("tlsStrategy is required");
+        }
+        if (maxConcurrentStreams <= 0) {
+            throw new IllegalArgumentException("maxConcurrentStreams must be positive");
+        }
+        requestConfig = createRequestConfig(readTimeout);
+        connectionManager = createConnectionManager(connectTimeout, readTimeout, maxConnections, connectionTimeToLive, tlsStrategy);
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        httpClient = createHttpClient(maxConcurrentStreams);
+        httpClient.start();
+        connectionEvictor = connectionEvictionInterval > 0
+                ? new ConnectionEvictor(this, connectionEvictionInterval, maxIdleTime, () -> communicatorLogger)
+                : null;
+    }
+
+    private static CommunicatorConfiguration requireConfiguration(CommunicatorConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("configuration is required");
+        }
+        return configuration;
+    }
+
+    private static TlsStrategy createTlsStrategy(Set<String> httpsProtocols) {
+        SSLContext sslContext = SSLContexts.createDefault();
+        return ClientTlsStrategyBuilder.create()
+                                       .setSslContext(sslContext)
+                                       .setTlsVersions(PaysafeConnection.getSupportedProtocols(httpsProtocols))
+                                       .buildAsync();
+    }
+
+    private RequestConfig createRequestConfig(int readTimeout) {
+        return RequestConfig.custom()
+                            .setResponseTimeout(toTimeout(readTimeout))
+                            .build();
+    }
+
+    private static Timeout toTimeout(int timeout) {
+        // a negative timeout means the default should be used, as with the other connections
+        return timeout >= 0 ? Timeout.ofMilliseconds(timeout) : null;
+    }
+
+    private PoolingAsyncClientConnectionManager createConnectionManager(int connectTimeout, int readTimeout, int maxConnections,
+            int connectionTimeToLive, TlsStrategy tlsStrategy) {
+
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                                                            .setConnectTimeout(toTimeout(connectTimeout))
+                                                            .setSocketTimeout(toTimeout(readTimeout))
+                                                            // 0 means connections only expire when the server's keep-alive timeout has passed
+                                                            .setTimeToLive(connectionTimeToLive > 0 ? TimeValue.ofMilliseconds(connectionTimeToLive) : null)
+                                                            .build();
+        // negotiate HTTP/2 using ALPN, falling back to HTTP/1.1
+        TlsConfig tlsConfig = TlsConfig.custom()
+                                       .setVersionPolicy(HttpVersionPolicy.NEGOTIATE)
+                                       .build();
+
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                                                         .setTlsStrategy(tlsStrategy)
+                                                         .setDefaultConnectionConfig(connectionConfig)
+                                                         .setDefaultTlsConfig(tlsConfig)
+                                                         .setMaxConnPerRoute(maxConnections)
+                                                         .setMaxConnTotal(maxConnections + 20)
+                                                         // share leased HTTP/2 connections between concurrent requests
+                                                         .setMessageMultiplexing(true)
+                                                         .build();
+    }
+
+    private CloseableHttpAsyncClient createHttpClient(int maxConcurrentStreams) {
+
+        // once a connection can be reused it can be shared, so all queued requests can be sent
+        AsyncClientConnectionManager releaseListeningConnectionManager = new ReleaseListeningConnectionManager(connectionManager, (routeKey, reusable) -> {
+            StreamLimiter streamLimiter = streamLimiters.get(routeKey);
+            if (streamLimiter != null) {
+                streamLimiter.released(reusable);
+            }
+        });
+
+        H2Config h2Config = H2Config.custom()
+                                    .setMaxConcurrentStreams(maxConcurrentStreams)
+                                    .setPushEnabled(false)
+                                    .build();
+
+        return HttpAsyncClients.custom()
+                               .setConnectionManager(releaseListeningConnectionManager)
+                               .setH2Config(h2Config)
+                               .setDefaultRequestConfig(requestConfig)
+                               // connections are only shared if they do not carry any state
+                               .disableConnectionState()
+                               // add support for system properties
+                               .setRoutePlanner(new SystemDefaultRoutePlanner(ProxySelector.getDefault()))
+                               .setDefaultCredentialsProvider(new SystemDefaultCredentialsProvider())
+                               .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (connectionEvictor != null) {
+            connectionEvictor.close();
+        }
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    @Override
+    public <R> R post(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return await(postAsync(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return await(getAsync(uri, requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> R put(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return await(putAsync(uri, requestHeaders, body, responseHandler));
+    }
+
+    @Override
+    public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return await(deleteAsync(uri, requestHeaders, responseHandler));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> postAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+
+        SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.post(uri);
+        addHeaders(requestBuilder, requestHeaders);
+        if (body != null) {
+            requestBuilder.setBody(body, ContentType.APPLICATION_JSON.withCharset(CHARSET));
+        }
+        return executeRequest(requestBuilder.build(), responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> getAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+
+        SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.get(uri);
+        addHeaders(requestBuilder, requestHeaders);
+        return executeRequest(requestBuilder.build(), responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> putAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+
+        SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.put(uri);
+        addHeaders(requestBuilder, requestHeaders);
+        if (body != null) {
+            requestBuilder.setBody(body, ContentType.APPLICATION_JSON.withCharset(CHARSET));
+        }
+        return executeRequest(requestBuilder.build(), responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+
+        SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.delete(uri);
+        addHeaders(requestBuilder, requestHeaders);
+        return executeRequest(requestBuilder.build(), responseHandler);
+    }
+
+    protected void addHeaders(SimpleRequestBuilder requestBuilder, List<RequestHeader> requestHeaders) {
+        if (requestHeaders != null) {
+            for (RequestHeader requestHeader : requestHeaders) {
+                requestBuilder.addHeader(requestHeader.getName(), requestHeader.getValue());
+            }
+        }
+    }
+
+    protected <R> CompletableFuture<R> executeRequest(SimpleHttpRequest request, ResponseHandler<R> responseHandler) {
+
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        String routeKey = getRouteKey(request.getScheme(), request.getAuthority().getHostName(), request.getAuthority().getPort());
+        StreamLimiter streamLimiter = streamLimiters.computeIfAbsent(routeKey, key -> new StreamLimiter(maxConcurrentStreams));
+        streamLimiter.execute(() -> sendRequest(request, responseHandler, result, streamLimiter));
+        return result;
+    }
+
+    /**
+     * Returns a key that identifies the route to the given target, so it can be matched with the {@link HttpRoute} of a connection.
+     */
+    private static String getRouteKey(String scheme, String hostName, int port) {
+        boolean secure = "https".equalsIgnoreCase(scheme);
+        return (secure ? "https" : "http") + "://" + hostName.toLowerCase(Locale.ROOT) + ":" + (port >= 0 ? port : secure ? 443 : 80);
+    }
+
+    private <R> void sendRequest(SimpleHttpRequest request, ResponseHandler<R> responseHandler, CompletableFuture<R> result,
+            StreamLimiter streamLimiter) {
+
+        if (result.isDone()) {
+            // cancelled while waiting for a stream
+            streamLimiter.release();
+            return;
+        }
+
+        final String requestId = UUID.randomUUID().toString();
+        final long startTime = System.currentTimeMillis();
+
+        final CommunicatorLogger logger = communicatorLogger;
+        if (logger != null) {
+            logRequest(request, requestId, logger);
+        }
+
+        final Future<SimpleHttpResponse> httpFuture;
+        try {
+            httpFuture = httpClient.execute(SimpleRequestProducer.create(request), SimpleResponseConsumer.create(), null, createCallback(
+                    responseHandler, result, requestId, startTime, streamLimiter));
+        } catch (RuntimeException e) {
+            // the request was not started, for instance because this connection has been closed
+            streamLimiter.release();
+            result.completeExceptionally(e);
+            return;
+        }
+
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                httpFuture.cancel(true);
+            }
+        });
+    }
+
+    private <R> FutureCallback<SimpleHttpResponse> createCallback(ResponseHandler<R> responseHandler, CompletableFuture<R> result,
+            String requestId, long startTime, StreamLimiter streamLimiter) {
+
+        return new FutureCallback<SimpleHttpResponse>() {
+
+            @Override
+            public void completed(SimpleHttpResponse httpResponse) {
+                streamLimiter.completed();
+
+                final CommunicatorLogger logger = communicatorLogger;
+                if (logger != null) {
+                    logResponse(httpResponse, requestId, startTime, logger);
+                }
+                try {
+                    result.complete(handleResponse(httpResponse, responseHandler));
+                } catch (IOException e) {
+                    LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
+                    result.completeExceptionally(new CommunicationException(e));
+                } catch (RuntimeException e) {
+                    // do not log runtime exceptions that originate from the response handler, those are not communication errors
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                streamLimiter.release();
+
+                LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
+                result.completeExceptionally(e instanceof CommunicationException ? e : new CommunicationException(e));
+            }
+
+            @Override
+            public void cancelled() {
+                streamLimiter.release();
+
+                result.cancel(false);
+            }
+        };
+    }
+
+    private <R> R handleResponse(SimpleHttpResponse httpResponse, ResponseHandler<R> responseHandler) throws IOException {
+        int statusCode = httpResponse.getCode();
+        List<ResponseHeader> headers = getHeaders(httpResponse);
+
+        try (InputStream bodyStream = getBodyStream(httpResponse)) {
+            return responseHandler.handleResponse(statusCode, bodyStream, headers);
+        }
+    }
+
+    protected List<ResponseHeader> getHeaders(SimpleHttpResponse httpResponse) {
+        Header[] headers = httpResponse.getHeaders();
+        List<ResponseHeader> result = new ArrayList<>(headers.length);
+        for (Header header : headers) {
+            result.add(new ResponseHeader(header.getName(), header.getValue()));
+        }
+        return result;
+    }
+
+    private InputStream getBodyStream(SimpleHttpResponse httpResponse) {
+        byte[] body = httpResponse.getBodyBytes();
+        return new ByteArrayInputStream(body != null ? body : new byte[0]);
+    }
+
+    private static void logRequest(SimpleHttpRequest request, String requestId, CommunicatorLogger logger) {
+
+        try {
+            final RequestLogMessageBuilder logMessageBuilder = new RequestLogMessageBuilder(requestId, request.getMethod(), request.getRequestUri());
+            for (Header header : request.getHeaders()) {
+                logMessageBuilder.addHeader(header.getName(), header.getValue());
+            }
+            if (request.getBody() != null) {
+                ContentType contentType = request.getBody().getContentType();
+                // Due to privacy concerns the actual request body (which can contain personal data) is not logged.
+                logMessageBuilder.setBody("****", contentType != null ? contentType.toString() : null);
+            }
+
+            logger.log(logMessageBuilder.getMessage());
+
+        } catch (Exception e) {
+            logger.log(String.format("An error occurred trying to log request '%s'", requestId), e);
+        }
+    }
+
+    private static void logResponse(SimpleHttpResponse response, String requestId, long startTime, CommunicatorLogger logger) {
+
+        final long endTime = System.currentTimeMillis();
+        final long duration = endTime - startTime;
+
+        try {
+            final int statusCode = response.getCode();
+
+            final ResponseLogMessageBuilder logMessageBuilder = new ResponseLogMessageBuilder(requestId, statusCode, duration);
+            for (Header header : response.getHeaders()) {
+                logMessageBuilder.addHeader(header.getName(), header.getValue());
+            }
+
+            Header contentTypeHeader = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+            String contentType = contentTypeHeader != null ? contentTypeHeader.getValue() : null;
+
+            if (statusCode >= 200 && statusCode < 300) {
+                // Due to privacy concerns the response body (which can contain personal data) is not logged for success responses.
+                logMessageBuilder.setBody("****", contentType);
+            } else {
+                // No personal data is returned in exception responses.
+                String body = response.getBodyText();
+                logMessageBuilder.setBody(body != null ? body : "", contentType);
+            }
+
+            logger.log(logMessageBuilder.getMessage());
+
+        } catch (Exception e) {
+            logger.log(String.format("An error occurred trying to log response '%s'", requestId), e);
+        }
+    }
+
+    /**
+     * Waits for the given future. If a {@link Deadline} is active, this does not wait beyond it, and the request is cancelled when it expires.
+     *
+     * @throws DeadlineExceededException if the deadline expires before the response has been handled
+     */
+    private static <R> R await(CompletableFuture<R> future) {
+        Deadline deadline = Deadline.current();
+        try {
+            if (deadline == null) {
+                return future.get();
+            }
+            try {
+                return future.get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (future.cancel(true)) {
+                    throw new DeadlineExceededException("The deadline of the call expired while waiting for the response", e);
+                }
+                // the response was handled just in time
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CommunicationException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CommunicationException((Exception) cause);
+        }
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        connectionManager.closeIdle(TimeValue.of(idleTime, timeUnit));
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        connectionManager.closeExpired();
+    }
+
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        if (communicatorLogger == null) {
+            throw new IllegalArgumentException("communicatorLogger is required");
+        }
+        this.communicatorLogger = communicatorLogger;
+    }
+
+    @Override
+    public void disableLogging() {
+        this.communicatorLogger = null;
+    }
+
+    /**
+     * Limits the number of requests to a single route that are in flight at the same time. Requests that exceed the limit are queued,
+     * and started in order as soon as an earlier request has finished. Every started request must be released exactly once.
+     * <p>
+     * Until a first connection has been released for reuse, only one request is let through, and a request that completed
+     * successfully only lets the next request through after its connection has been released. This way concurrent requests
+     * share the connection that was established once HTTP/2 has been negotiated, instead of each request opening a new connection.
+     */
+    private static final class StreamLimiter {
+
+        private final int maxConcurrentStreams;
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+        private int limit = 1;
+        private int active;
+
+        StreamLimiter(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+
+        void execute(Runnable request) {
+            synchronized (this) {
+                if (active >= limit) {
+                    pending.add(request);
+                    return;
+                }
+                active++;
+            }
+            request.run();
+        }
+
+        /**
+         * Releases a request that completed successfully.
+         */
+        void completed() {
+            List<Runnable> next;
+            synchronized (this) {
+                active--;
+                if (limit < maxConcurrentStreams) {
+                    // wait until the connection has been released
+                    return;
+                }
+                next = poll();
+            }
+            next.forEach(Runnable::run);
+        }
+
+        /**
+         * Releases a request that failed or was cancelled.
+         */
+        void release() {
+            List<Runnable> next;
+            synchronized (this) {
+                active--;
+                next = poll();
+            }
+            next.forEach(Runnable::run);
+        }
+
+        /**
+         * Called when a connection has been released to the pool.
+         */
+        void released(boolean reusable) {
+            List<Runnable> next;
+            synchronized (this) {
+                if (reusable) {
+                    limit = maxConcurrentStreams;
+                }
+                next = poll();
+            }
+            next.forEach(Runnable::run);
+        }
+
+        private List<Runnable> poll() {
+            List<Runnable> next = new ArrayList<>();
+            while (active < limit && !pending.isEmpty()) {
+                next.add(pending.poll());
+                active++;
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Notifies a listener after a connection has been released to the pool, with the key of its route and whether or not it can be reused.
+     */
+    private static final class ReleaseListeningConnectionManager implements AsyncClientConnectionManager {
+
+        private final AsyncClientConnectionManager delegate;
+        private final BiConsumer<String, Boolean> releaseListener;
+        // the route keys of the leased endpoints
+        private final Map<AsyncConnectionEndpoint, String> routeKeys = new ConcurrentHashMap<>();
+
+        ReleaseListeningConnectionManager(AsyncClientConnectionManager delegate, BiConsumer<String, Boolean> releaseListener) {
+            this.delegate = delegate;
+            this.releaseListener = releaseListener;
+        }
+
+        @Override
+        public Future<AsyncConnectionEndpoint> lease(String id, HttpRoute route, Object state, Timeout requestTimeout,
+                FutureCallback<AsyncConnectionEndpoint> callback) {
+
+            HttpHost targetHost = route.getTargetHost();
+            String routeKey = getRouteKey(targetHost.getSchemeName(), targetHost.getHostName(), targetHost.getPort());
+            return delegate.lease(id, route, state, requestTimeout, new FutureCallback<AsyncConnectionEndpoint>() {
+
+                @Override
+                public void completed(AsyncConnectionEndpoint endpoint) {
+                    routeKeys.put(endpoint, routeKey);
+                    if (callback != null) {
+                        callback.completed(endpoint);
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    if (callback != null) {
+                        callback.failed(e);
+                    }
+                }
+
+                @Override
+                public void cancelled() {
+                    if (callback != null) {
+                        callback.cancelled();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void release(AsyncConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+            // a zero valid duration means the connection is discarded
+            boolean reusable = endpoint.isConnected() && validDuration != null && validDuration.toMilliseconds() != 0;
+            String routeKey = routeKeys.remove(endpoint);
+            delegate.release(endpoint, newState, validDuration);
+            if (routeKey != null) {
+                releaseListener.accept(routeKey, reusable);
+            }
+        }
+
+        @Override
+        public Future<AsyncConnectionEndpoint> connect(AsyncConnectionEndpoint endpoint, ConnectionInitiator connectionInitiator,
+                Timeout connectTimeout, Object attachment, HttpContext context, FutureCallback<AsyncConnectionEndpoint> callback) {
+            return delegate.connect(endpoint, connectionInitiator, connectTimeout, attachment, context, callback);
+        }
+
+        @Override
+        public void upgrade(AsyncConnectionEndpoint endpoint, Object attachment, HttpContext context) {
+            delegate.upgrade(endpoint, attachment, context);
+        }
+
+        @Override
+        public void upgrade(AsyncConnectionEndpoint endpoint, Object attachment, HttpContext context,
+                FutureCallback<AsyncConnectionEndpoint> callback) {
+            delegate.upgrade(endpoint, attachment, context, callback);
+        }
+
+        @Override
+        public void close(CloseMode closeMode) {
+            delegate.close(closeMode);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
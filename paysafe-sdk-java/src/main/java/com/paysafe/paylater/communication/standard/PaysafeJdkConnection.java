@@ -0,0 +1,148 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+
+/**
+ * {@link Connection} implementation based on the {@code java.net.http.HttpClient} that is built into Java 11 and later.
+ * <p>
+ * This class is part of a multi-release jar. This version is used on Java versions before Java 11, and cannot be instantiated;
+ * its constructors throw an {@link UnsupportedOperationException}.
+ */
+public class PaysafeJdkConnection implements PooledConnection {
+
+    /**
+     * Creates a new connection with the given timeouts and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout) {
+        this(connectTimeout, readTimeout, null);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts and HTTPS protocols, and the default number of maximum connections.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, Set<String> httpsProtocols) {
+        throw unsupported();
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, and HTTPS protocols.
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, int maxConnections, Set<String> httpsProtocols) {
+        throw unsupported();
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, SSL context and HTTPS protocols, and the default number of maximum connections.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable SSL context.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, SSLContext sslContext, Set<String> httpsProtocols) {
+        throw unsupported();
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, SSL context and HTTPS protocols.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable SSL context.
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, int maxConnections, SSLContext sslContext, Set<String> httpsProtocols) {
+        throw unsupported();
+    }
+
+    /**
+     * Creates a new connection with the timeouts, number of maximum connections and HTTPS protocols of the given configuration.
+     *
+     * @throws IllegalArgumentException if the configuration changes a setting that this connection does not support: the connection pool
+     *             stripes, the TLS session cache, connection eviction, the connection time to live, the DNS cache policy, or operation profiles.
+     * @see CommunicatorConfiguration#getConnectionRequestTimeout()
+     */
+    public PaysafeJdkConnection(CommunicatorConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("configuration is required");
+        }
+        // reject unsupported settings as on Java 11 and later, so configurations behave the same on each Java version
+        ConnectionSettings.requireJdkSupport(configuration);
+        throw unsupported();
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, SSL context and HTTPS protocols.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable SSL context.
+     *
+     * @param connectionRequestTimeout The time in milliseconds to wait until fewer than {@code maxConnections} requests are in flight,
+     *            or 0 to wait indefinitely.
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, int connectionRequestTimeout, int maxConnections, SSLContext sslContext,
+            Set<String> httpsProtocols) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("The JDK HTTP client requires Java 11 or later");
+    }
+
+    @Override
+    public void close() throws IOException {
+        throw unsupported();
+    }
+
+    @Override
+    public <R> R post(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        throw unsupported();
+    }
+
+    @Override
+    public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        throw unsupported();
+    }
+
+    @Override
+    public <R> R put(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        throw unsupported();
+    }
+
+    @Override
+    public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        throw unsupported();
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        throw unsupported();
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        throw unsupported();
+    }
+
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        throw unsupported();
+    }
+
+    @Override
+    public void disableLogging() {
+        throw unsupported();
+    }
+}
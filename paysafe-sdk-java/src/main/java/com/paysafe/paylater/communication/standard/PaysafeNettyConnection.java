@@ -0,0 +1,823 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.communication.ResponseHeader;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+import com.paysafe.paylater.logging.RequestLogMessageBuilder;
+import com.paysafe.paylater.logging.ResponseLogMessageBuilder;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.AbstractChannelPoolMap;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.channel.pool.ChannelPoolMap;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.pool.FixedChannelPool.AcquireTimeoutAction;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * {@link Connection} implementation based on <a href="https://netty.io/">Netty</a>.
+ * <p>
+ * This connection uses native epoll on Linux if {@code io.netty:netty-transport-native-epoll} is on the class path, and NIO otherwise.
+ * Request and response bodies are kept in pooled direct buffers. Response bodies are passed to {@link ResponseHandler ResponseHandlers}
+ * without copying them to the heap first. The response handlers of asynchronous requests run on a separate thread pool, not on the event loop.
+ * <p>
+ * Some differences with {@link PaysafeConnection}:
+ * <ul>
+ * <li>Proxies are not supported.</li>
+ * <li>Response bodies are received completely before they are passed to the response handler, so their size is limited to
+ * {@link #DEFAULT_MAX_RESPONSE_SIZE} bytes by default.</li>
+ * </ul>
+ * This connection requires {@code io.netty:netty-codec-http} on the class path.
+ */
+public class PaysafeNettyConnection implements AsyncConnection, PooledConnection {
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=" + CHARSET.name();
+    // HttpHeaderNames.KEEP_ALIVE is deprecated, as the header is not part of HTTP/1.1
+    private static final String KEEP_ALIVE = "Keep-Alive";
+
+    /**
+     * The default maximum size in bytes of a response body. Larger responses fail with a {@link CommunicationException}.
+     */
+    public static final int DEFAULT_MAX_RESPONSE_SIZE = 64 * 1024 * 1024;
+
+    private static final AttributeKey<Exchange> EXCHANGE = AttributeKey.valueOf(PaysafeNettyConnection.class.getName() + ".exchange");
+    private static final AttributeKey<Long> IDLE_SINCE = AttributeKey.valueOf(PaysafeNettyConnection.class.getName() + ".idleSince");
+    private static final AttributeKey<Long> EXPIRES_AT = AttributeKey.valueOf(PaysafeNettyConnection.class.getName() + ".expiresAt");
+    private static final AttributeKey<Long> LIVES_UNTIL = AttributeKey.valueOf(PaysafeNettyConnection.class.getName() + ".livesUntil");
+
+    private final EventLoopGroup eventLoopGroup;
+    private final ChannelPoolMap<PoolKey, FixedChannelPool> pools;
+    private final long readTimeoutNanos;
+    private final int maxResponseSize;
+    private final SslContext sslContext;
+    private final ResponseHandlerExecutor responseHandlerExecutor;
+    private final long timeToLiveNanos;
+    private final ConnectionEvictor connectionEvictor;
+
+    // channels that are currently released to their pool
+    private final Set<Channel> idleChannels = ConcurrentHashMap.newKeySet();
+
+    private final ChannelHandler readTracker = new ReadTracker();
+    private final ChannelHandler responseReceiver = new ResponseReceiver();
+    // expired channels are closed instead of reused, as with PaysafeConnection
+    private final ChannelHealthChecker healthChecker = channel ->
+            channel.eventLoop().newSucceededFuture(channel.isActive() && !isExpired(channel, System.nanoTime()));
+
+    private volatile CommunicatorLogger communicatorLogger;
+
+    /**
+     * Creates a new connection with the given timeouts, the default number of maximum connections, and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeNettyConnection(int connectTimeout, int readTimeout) {
+        this(connectTimeout, readTimeout, CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts and number of maximum connections, and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeNettyConnection(int connectTimeout, int readTimeout, int maxConnections) {
+        this(connectTimeout, readTimeout, maxConnections, (Set<String>) null);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, and HTTPS protocols.
+     */
+    public PaysafeNettyConnection(int connectTimeout, int readTimeout, int maxConnections, Set<String> httpsProtocols) {
+        this(connectTimeout, readTimeout, maxConnections, createSslContext(httpsProtocols));
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, and SSL context.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable SSL context.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_CONNECTION_REQUEST_TIMEOUT
+     * @see #DEFAULT_MAX_RESPONSE_SIZE
+     */
+    public PaysafeNettyConnection(int connectTimeout, int readTimeout, int maxConnections, SslContext sslContext) {
+        this(connectTimeout, readTimeout, CommunicatorConfiguration.DEFAULT_CONNECTION_REQUEST_TIMEOUT, maxConnections, DEFAULT_MAX_RESPONSE_SIZE,
+                sslContext);
+    }
+
+    /**
+     * Creates a new connection with the timeouts, number of maximum connections, HTTPS protocols, connection time to live,
+     * and connection eviction settings of the given configuration.
+     *
+     * @see #DEFAULT_MAX_RESPONSE_SIZE
+     */
+    public PaysafeNettyConnection(CommunicatorConfiguration configuration) {
+        this(requireConfiguration(configuration).getConnectTimeout(), configuration.getReadTimeout(), configuration.getConnectionRequestTimeout(),
+                configuration.getMaxConnections(), DEFAULT_MAX_RESPONSE_SIZE, configuration.getConnectionTimeToLive(),
+                configuration.getConnectionEvictionInterval(), configuration.getMaxIdleTime(), createSslContext(configuration.getHttpsProtocols()));
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, maximum response size, and SSL context.
+     *
+     * @param connectionRequestTimeout The time in milliseconds to wait for a connection from the connection pool, or 0 to wait indefinitely.
+     * @param maxResponseSize The maximum size in bytes of a response body.
+     */
+    public PaysafeNettyConnection(int connectTimeout, int readTimeout, int connectionRequestTimeout, int maxConnections, int maxResponseSize,
+            SslContext sslContext) {
+        this(connectTimeout, readTimeout, connectionRequestTimeout, maxConnections, maxResponseSize, 0, 0, 0, sslContext);
+    }
+
+    private PaysafeNettyConnection(int connectTimeout, int readTimeout, int connectionRequestTimeout, int maxConnections, int maxResponseSize,
+            int connectionTimeToLive, int connectionEvictionInterval, int maxIdleTime, SslContext sslContext) {
+
+        if (sslContext == null) {
+            throw new IllegalArgumentException("sslContext is required");
+        }
+        if (maxResponseSize < 1) {
+            throw new IllegalArgumentException("maxResponseSize must be at least 1");
+        }
+        this.sslContext = sslContext;
+        this.readTimeoutNanos = readTimeout > 0 ? TimeUnit.MILLISECONDS.toNanos(readTimeout) : 0;
+        this.maxResponseSize = maxResponseSize;
+        this.timeToLiveNanos = connectionTimeToLive > 0 ? TimeUnit.MILLISECONDS.toNanos(connectionTimeToLive) : 0;
+        this.responseHandlerExecutor = new ResponseHandlerExecutor("paysafe-paylater-netty-response-", maxConnections);
+
+        DefaultThreadFactory threadFactory = new DefaultThreadFactory("paysafe-paylater-netty", true);
+        boolean epoll = isEpollAvailable();
+        eventLoopGroup = epoll ? new EpollEventLoopGroup(0, threadFactory) : new NioEventLoopGroup(0, threadFactory);
+
+        Bootstrap bootstrap = new Bootstrap()
+                .group(eventLoopGroup)
+                .channel(epoll ? EpollSocketChannel.class : NioSocketChannel.class)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true);
+        if (connectTimeout > 0) {
+            bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout);
+        }
+
+        pools = new AbstractChannelPoolMap<PoolKey, FixedChannelPool>() {
+            @Override
+            protected FixedChannelPool newPool(PoolKey key) {
+                // prefer the most recently used channel, which is the least likely to have been closed by the server
+                return new FixedChannelPool(bootstrap.clone().remoteAddress(key.address), new PoolHandler(key), healthChecker,
+                        connectionRequestTimeout > 0 ? AcquireTimeoutAction.FAIL : null, connectionRequestTimeout > 0 ? connectionRequestTimeout : -1,
+                        maxConnections, Integer.MAX_VALUE, true, true);
+            }
+        };
+        connectionEvictor = connectionEvictionInterval > 0
+                ? new ConnectionEvictor(this, connectionEvictionInterval, maxIdleTime, () -> communicatorLogger)
+                : null;
+    }
+
+    private static CommunicatorConfiguration requireConfiguration(CommunicatorConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("configuration is required");
+        }
+        return configuration;
+    }
+
+    private static SslContext createSslContext(Set<String> httpsProtocols) {
+        try {
+            return SslContextBuilder.forClient()
+                                    .protocols(PaysafeConnection.getSupportedProtocols(httpsProtocols))
+                                    .build();
+        } catch (SSLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isEpollAvailable() {
+        try {
+            return Epoll.isAvailable();
+        } catch (@SuppressWarnings("unused") NoClassDefFoundError e) {
+            // netty-transport-native-epoll is not on the class path
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (connectionEvictor != null) {
+            connectionEvictor.close();
+        }
+        ((AbstractChannelPoolMap<PoolKey, FixedChannelPool>) pools).close();
+        eventLoopGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS).syncUninterruptibly();
+        responseHandlerExecutor.close();
+    }
+
+    @Override
+    public <R> R post(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return execute(HttpMethod.POST, uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return execute(HttpMethod.GET, uri, requestHeaders, null, responseHandler);
+    }
+
+    @Override
+    public <R> R put(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return execute(HttpMethod.PUT, uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return execute(HttpMethod.DELETE, uri, requestHeaders, null, responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> postAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeAsync(HttpMethod.POST, uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> getAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeAsync(HttpMethod.GET, uri, requestHeaders, null, responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> putAsync(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeAsync(HttpMethod.PUT, uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteAsync(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeAsync(HttpMethod.DELETE, uri, requestHeaders, null, responseHandler);
+    }
+
+    private <R> R execute(HttpMethod method, URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+
+        final String requestId = UUID.randomUUID().toString();
+        final long startTime = System.currentTimeMillis();
+
+        CompletableFuture<FullHttpResponse> responseFuture = send(method, uri, requestHeaders, body, requestId, startTime);
+
+        FullHttpResponse response;
+        try {
+            response = await(responseFuture);
+        } catch (InterruptedException e) {
+            responseFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
+            throw new CommunicationException(e);
+        } catch (ExecutionException e) {
+            CommunicationException exception = toCommunicationException(e.getCause());
+            LoggingInterceptor.logError(requestId, exception, startTime, communicatorLogger);
+            throw exception;
+        } catch (TimeoutException e) {
+            DeadlineExceededException exception = new DeadlineExceededException("The deadline of the call expired while waiting for the response", e);
+            LoggingInterceptor.logError(requestId, exception, startTime, communicatorLogger);
+            throw exception;
+        }
+
+        // handle the response in the calling thread, to not block the event loop
+        try {
+            return handleResponse(response, responseHandler);
+        } catch (IOException e) {
+            LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
+            throw new CommunicationException(e);
+        }
+    }
+
+    /**
+     * Waits for the given response. If a {@link Deadline} is active, this does not wait beyond it, and the request is aborted when it expires.
+     */
+    private static FullHttpResponse await(CompletableFuture<FullHttpResponse> responseFuture)
+            throws InterruptedException, ExecutionException, TimeoutException {
+
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return responseFuture.get();
+        }
+        try {
+            return responseFuture.get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (responseFuture.cancel(true)) {
+                throw e;
+            }
+            // the response arrived just in time, and must be released after handling it
+            return responseFuture.get();
+        }
+    }
+
+    private <R> CompletableFuture<R> executeAsync(HttpMethod method, URI uri, List<RequestHeader> requestHeaders, String body,
+            ResponseHandler<R> responseHandler) {
+
+        final String requestId = UUID.randomUUID().toString();
+        final long startTime = System.currentTimeMillis();
+
+        CompletableFuture<FullHttpResponse> responseFuture = send(method, uri, requestHeaders, body, requestId, startTime);
+
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        // handle the response on a separate thread, to not block the event loop
+        responseFuture.whenCompleteAsync((response, thrown) -> {
+            if (thrown != null) {
+                if (!(thrown instanceof CancellationException)) {
+                    CommunicationException exception = toCommunicationException(thrown);
+                    LoggingInterceptor.logError(requestId, exception, startTime, communicatorLogger);
+                    result.completeExceptionally(exception);
+                }
+                return;
+            }
+            try {
+                result.complete(handleResponse(response, responseHandler));
+            } catch (IOException e) {
+                LoggingInterceptor.logError(requestId, e, startTime, communicatorLogger);
+                result.completeExceptionally(new CommunicationException(e));
+            } catch (RuntimeException e) {
+                // do not log runtime exceptions that originate from the response handler, those are not communication errors
+                result.completeExceptionally(e);
+            }
+        }, responseHandlerExecutor);
+        result.whenComplete((response, thrown) -> {
+            if (result.isCancelled()) {
+                responseFuture.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static CommunicationException toCommunicationException(Throwable thrown) {
+        if (thrown instanceof CommunicationException) {
+            return (CommunicationException) thrown;
+        }
+        return new CommunicationException(thrown instanceof Exception ? (Exception) thrown : new IOException(thrown));
+    }
+
+    private static <R> R handleResponse(FullHttpResponse response, ResponseHandler<R> responseHandler) throws IOException {
+        int statusCode = response.status().code();
+        List<ResponseHeader> headers = getHeaders(response);
+
+        // the stream releases the response's buffer when it is closed
+        try (InputStream bodyStream = new ByteBufInputStream(response.content(), true)) {
+            return responseHandler.handleResponse(statusCode, bodyStream, headers);
+        }
+    }
+
+    private static List<ResponseHeader> getHeaders(FullHttpResponse response) {
+        List<ResponseHeader> result = new ArrayList<>(response.headers().size());
+        for (Map.Entry<String, String> header : response.headers()) {
+            result.add(new ResponseHeader(header.getKey(), header.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Sends a request, and returns a future that is completed with the full response.
+     * The caller must release the response. If the returned future is cancelled, the request is aborted.
+     */
+    private CompletableFuture<FullHttpResponse> send(HttpMethod method, URI uri, List<RequestHeader> requestHeaders, String body,
+            String requestId, long startTime) {
+
+        final CompletableFuture<FullHttpResponse> result = new CompletableFuture<>();
+
+        final PoolKey key = new PoolKey(uri);
+        final FixedChannelPool pool = pools.get(key);
+        pool.acquire().addListener((io.netty.util.concurrent.Future<Channel> acquired) -> {
+            if (!acquired.isSuccess()) {
+                result.completeExceptionally(acquired.cause());
+                return;
+            }
+            Channel channel = acquired.getNow();
+            if (result.isDone()) {
+                // cancelled while waiting for a channel
+                pool.release(channel);
+                return;
+            }
+
+            final CommunicatorLogger logger = communicatorLogger;
+            FullHttpRequest request = createRequest(channel.alloc(), method, key, uri, requestHeaders, body);
+            if (logger != null) {
+                logRequest(request, requestId, body != null, logger);
+            }
+
+            Exchange exchange = new Exchange(channel, pool, result, requestId, startTime);
+            channel.attr(EXCHANGE).set(exchange);
+            result.whenComplete((response, thrown) -> {
+                if (result.isCancelled()) {
+                    channel.eventLoop().execute(() -> exchange.fail(new CancellationException()));
+                }
+            });
+            channel.writeAndFlush(request).addListener(written -> {
+                if (written.isSuccess()) {
+                    exchange.startReadTimeout();
+                } else {
+                    exchange.fail(written.cause());
+                }
+            });
+        });
+        return result;
+    }
+
+    private static FullHttpRequest createRequest(ByteBufAllocator allocator, HttpMethod method, PoolKey key, URI uri,
+            List<RequestHeader> requestHeaders, String body) {
+
+        ByteBuf content = body != null ? ByteBufUtil.writeUtf8(allocator, body) : Unpooled.EMPTY_BUFFER;
+
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String rawQuery = uri.getRawQuery();
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, rawQuery != null ? path + "?" + rawQuery : path, content);
+
+        request.headers().set(HttpHeaderNames.HOST, key.hostHeader);
+        if (requestHeaders != null) {
+            for (RequestHeader requestHeader : requestHeaders) {
+                request.headers().add(requestHeader.getName(), requestHeader.getValue());
+            }
+        }
+        if (body != null) {
+            if (!request.headers().contains(HttpHeaderNames.CONTENT_TYPE)) {
+                request.headers().set(HttpHeaderNames.CONTENT_TYPE, JSON_CONTENT_TYPE);
+            }
+            HttpUtil.setContentLength(request, content.readableBytes());
+        }
+        return request;
+    }
+
+    private static void logRequest(FullHttpRequest request, String requestId, boolean hasBody, CommunicatorLogger logger) {
+
+        try {
+            final RequestLogMessageBuilder logMessageBuilder = new RequestLogMessageBuilder(requestId, request.method().name(), request.uri());
+            for (Map.Entry<String, String> header : request.headers()) {
+                logMessageBuilder.addHeader(header.getKey(), header.getValue());
+            }
+            if (hasBody) {
+                // Due to privacy concerns the actual request body (which can contain personal data) is not logged.
+                logMessageBuilder.setBody("****", request.headers().get(HttpHeaderNames.CONTENT_TYPE));
+            }
+
+            logger.log(logMessageBuilder.getMessage());
+
+        } catch (Exception e) {
+            logger.log(String.format("An error occurred trying to log request '%s'", requestId), e);
+        }
+    }
+
+    private static void logResponse(FullHttpResponse response, String requestId, long startTime, CommunicatorLogger logger) {
+
+        final long endTime = System.currentTimeMillis();
+        final long duration = endTime - startTime;
+
+        try {
+            final int statusCode = response.status().code();
+
+            final ResponseLogMessageBuilder logMessageBuilder = new ResponseLogMessageBuilder(requestId, statusCode, duration);
+            for (Map.Entry<String, String> header : response.headers()) {
+                logMessageBuilder.addHeader(header.getKey(), header.getValue());
+            }
+
+            String contentType = response.headers().get(HttpHeaderNames.CONTENT_TYPE);
+
+            if (statusCode >= 200 && statusCode < 300) {
+                // Due to privacy concerns the response body (which can contain personal data) is not logged for success responses.
+                logMessageBuilder.setBody("****", contentType);
+            } else {
+                // No personal data is returned in exception responses.
+                logMessageBuilder.setBody(response.content().toString(CHARSET), contentType);
+            }
+
+            logger.log(logMessageBuilder.getMessage());
+
+        } catch (Exception e) {
+            logger.log(String.format("An error occurred trying to log response '%s'", requestId), e);
+        }
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        closeIdleChannels(true, System.nanoTime() - timeUnit.toNanos(idleTime));
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        closeIdleChannels(false, 0);
+    }
+
+    private void closeIdleChannels(boolean closeIdle, long idleSinceLimit) {
+        long now = System.nanoTime();
+        for (Channel channel : idleChannels) {
+            // close on the channel's event loop, so a channel is not closed while it is being acquired
+            channel.eventLoop().execute(() -> {
+                Long idleSince = channel.attr(IDLE_SINCE).get();
+                boolean idle = closeIdle && idleSince != null && idleSince - idleSinceLimit <= 0;
+                if ((idle || isExpired(channel, now)) && idleChannels.remove(channel)) {
+                    channel.close();
+                }
+            });
+        }
+    }
+
+    private static boolean isExpired(Channel channel, long now) {
+        Long expiresAt = channel.attr(EXPIRES_AT).get();
+        Long livesUntil = channel.attr(LIVES_UNTIL).get();
+        return expiresAt != null && now - expiresAt >= 0 || livesUntil != null && now - livesUntil >= 0;
+    }
+
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        if (communicatorLogger == null) {
+            throw new IllegalArgumentException("communicatorLogger is required");
+        }
+        this.communicatorLogger = communicatorLogger;
+    }
+
+    @Override
+    public void disableLogging() {
+        this.communicatorLogger = null;
+    }
+
+    private static final class PoolKey {
+
+        private final InetSocketAddress address;
+        private final boolean secure;
+        private final String hostHeader;
+
+        private PoolKey(URI uri) {
+            this.secure = "https".equalsIgnoreCase(uri.getScheme());
+            int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+            this.address = InetSocketAddress.createUnresolved(uri.getHost(), port);
+            this.hostHeader = uri.getPort() != -1 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o == null || o.getClass() != getClass()) {
+                return false;
+            }
+            PoolKey other = (PoolKey) o;
+            return secure == other.secure && address.equals(other.address);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(address, secure);
+        }
+    }
+
+    private final class PoolHandler implements ChannelPoolHandler {
+
+        private final PoolKey key;
+
+        private PoolHandler(PoolKey key) {
+            this.key = key;
+        }
+
+        @Override
+        public void channelCreated(Channel channel) {
+            ChannelPipeline pipeline = channel.pipeline();
+            if (key.secure) {
+                SslHandler sslHandler = sslContext.newHandler(channel.alloc(), key.address.getHostString(), key.address.getPort());
+                SSLEngine engine = sslHandler.engine();
+                SSLParameters sslParameters = engine.getSSLParameters();
+                sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+                engine.setSSLParameters(sslParameters);
+                pipeline.addLast(sslHandler);
+            }
+            pipeline.addLast(readTracker);
+            pipeline.addLast(new HttpClientCodec());
+            pipeline.addLast(new HttpObjectAggregator(maxResponseSize));
+            pipeline.addLast(responseReceiver);
+
+            channel.closeFuture().addListener(closed -> idleChannels.remove(channel));
+            if (timeToLiveNanos > 0) {
+                channel.attr(LIVES_UNTIL).set(System.nanoTime() + timeToLiveNanos);
+            }
+        }
+
+        @Override
+        public void channelAcquired(Channel channel) {
+            idleChannels.remove(channel);
+        }
+
+        @Override
+        public void channelReleased(Channel channel) {
+            channel.attr(IDLE_SINCE).set(System.nanoTime());
+            if (channel.isActive()) {
+                idleChannels.add(channel);
+            }
+        }
+    }
+
+    /**
+     * Keeps track of the last time data was read for the current exchange, for the read timeout.
+     */
+    @ChannelHandler.Sharable
+    private static final class ReadTracker extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            Exchange exchange = ctx.channel().attr(EXCHANGE).get();
+            if (exchange != null) {
+                exchange.lastRead = System.nanoTime();
+            }
+            ctx.fireChannelRead(msg);
+        }
+    }
+
+    /**
+     * Completes the current exchange of a channel.
+     */
+    @ChannelHandler.Sharable
+    private final class ResponseReceiver extends SimpleChannelInboundHandler<FullHttpResponse> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+            Exchange exchange = ctx.channel().attr(EXCHANGE).get();
+            if (exchange != null) {
+                exchange.complete(response.retain());
+            }
+            // else an unexpected response; it is released by SimpleChannelInboundHandler
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            Exchange exchange = ctx.channel().attr(EXCHANGE).get();
+            if (exchange != null) {
+                exchange.fail(cause);
+            } else {
+                ctx.close();
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            Exchange exchange = ctx.channel().attr(EXCHANGE).get();
+            if (exchange != null) {
+                exchange.fail(new IOException("Connection closed before the response was received"));
+            }
+            super.channelInactive(ctx);
+        }
+    }
+
+    /**
+     * A single request and response over a channel. All methods are called from the channel's event loop.
+     */
+    private final class Exchange {
+
+        private final Channel channel;
+        private final ChannelPool pool;
+        private final CompletableFuture<FullHttpResponse> result;
+        private final String requestId;
+        private final long startTime;
+
+        private long lastRead;
+        private ScheduledFuture<?> readTimeout;
+        private boolean done;
+
+        private Exchange(Channel channel, ChannelPool pool, CompletableFuture<FullHttpResponse> result, String requestId, long startTime) {
+            this.channel = channel;
+            this.pool = pool;
+            this.result = result;
+            this.requestId = requestId;
+            this.startTime = startTime;
+        }
+
+        private void startReadTimeout() {
+            lastRead = System.nanoTime();
+            if (readTimeoutNanos > 0 && !done) {
+                readTimeout = channel.eventLoop().schedule(this::checkReadTimeout, readTimeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void checkReadTimeout() {
+            long remaining = readTimeoutNanos - (System.nanoTime() - lastRead);
+            if (remaining <= 0) {
+                fail(new SocketTimeoutException("Read timed out"));
+            } else if (!done) {
+                readTimeout = channel.eventLoop().schedule(this::checkReadTimeout, remaining, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void complete(FullHttpResponse response) {
+            if (!finish()) {
+                response.release();
+                return;
+            }
+            final CommunicatorLogger logger = communicatorLogger;
+            if (logger != null) {
+                logResponse(response, requestId, startTime, logger);
+            }
+            if (HttpUtil.isKeepAlive(response)) {
+                channel.attr(EXPIRES_AT).set(getExpiresAt(response));
+            } else {
+                channel.close();
+            }
+            // complete only after the channel is back in the pool, so a subsequent request can reuse it
+            pool.release(channel).addListener(released -> {
+                if (!result.complete(response)) {
+                    response.release();
+                }
+            });
+        }
+
+        private void fail(Throwable cause) {
+            if (!finish()) {
+                return;
+            }
+            channel.close();
+            pool.release(channel);
+            result.completeExceptionally(cause);
+        }
+
+        private boolean finish() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            channel.attr(EXCHANGE).set(null);
+            if (readTimeout != null) {
+                readTimeout.cancel(false);
+            }
+            return true;
+        }
+
+        private Long getExpiresAt(FullHttpResponse response) {
+            String keepAlive = response.headers().get(KEEP_ALIVE);
+            if (keepAlive != null) {
+                for (String element : keepAlive.split(",")) {
+                    String[] nameAndValue = element.trim().split("=", 2);
+                    if (nameAndValue.length == 2 && "timeout".equalsIgnoreCase(nameAndValue[0].trim())) {
+                        try {
+                            return System.nanoTime() + TimeUnit.SECONDS.toNanos(Long.parseLong(nameAndValue[1].trim()));
+                        } catch (@SuppressWarnings("unused") NumberFormatException e) {
+                            // ignore invalid timeouts, as PaysafeConnection does
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.Set;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.VirtualThreads;
+
+/**
+ * A {@link PaysafeConnection} that is suitable for virtual threads.
+ * <p>
+ * Calling threads that wait for a pooled connection do so without holding a monitor, and releasing a connection never waits while holding one,
+ * so virtual threads do not pin their carrier threads. Apart from that, this connection behaves the same as {@link PaysafeConnection}.
+ * This connection can be used with any Java version, but it only makes a difference when called from virtual threads.
+ *
+ * @see VirtualThreads
+ */
+public class PaysafeVirtualThreadConnection extends PaysafeConnection {
+
+    /**
+     * Creates a new connection with the given timeouts, the default number of maximum connections, and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeVirtualThreadConnection(int connectTimeout, int readTimeout) {
+        this(connectTimeout, readTimeout, CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts and number of maximum connections, and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeVirtualThreadConnection(int connectTimeout, int readTimeout, int maxConnections) {
+        this(connectTimeout, readTimeout, maxConnections, (Set<String>) null);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, and HTTPS protocols.
+     */
+    public PaysafeVirtualThreadConnection(int connectTimeout, int readTimeout, int maxConnections, Set<String> httpsProtocols) {
+        this(connectTimeout, readTimeout, maxConnections, createSSLConnectionSocketFactory(httpsProtocols));
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, and SSL connection socket factory.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable SSL connection socket factory.
+     */
+    public PaysafeVirtualThreadConnection(int connectTimeout, int readTimeout, int maxConnections, SSLConnectionSocketFactory sslConnectionSocketFactory) {
+        super(connectTimeout, readTimeout, new NonPinningConnectionManager(createHttpClientConnectionManager(maxConnections, sslConnectionSocketFactory)));
+    }
+
+    /**
+     * Creates a new connection based on the given configuration. This supports the same settings as
+     * {@link PaysafeConnection#PaysafeConnection(CommunicatorConfiguration)}, except connection pool stripes, which are rejected.
+     *
+     * @throws IllegalArgumentException If the configuration has more than one connection pool stripe.
+     */
+    public PaysafeVirtualThreadConnection(CommunicatorConfiguration configuration) {
+        this(configuration, createDnsResolver(configuration));
+    }
+
+    /**
+     * Creates a new connection based on the given configuration that resolves host names using the given DNS resolver.
+     *
+     * @param dnsResolver The DNS resolver to use, or {@code null} to use the default resolver. This overrides the DNS cache policy of the
+     *                    configuration.
+     * @throws IllegalArgumentException If the configuration has more than one connection pool stripe.
+     * @see PaysafeConnection#PaysafeConnection(CommunicatorConfiguration, DnsResolver)
+     */
+    public PaysafeVirtualThreadConnection(CommunicatorConfiguration configuration, DnsResolver dnsResolver) {
+        super(configuration, dnsResolver, true);
+    }
+}
@@ -0,0 +1,215 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.utils.DateUtils;
+
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.RateLimitPolicy;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.exception.RateLimitExceededException;
+import com.paysafe.paylater.exception.ResponseException;
+
+/**
+ * Limits the rate of requests per secret key according to {@link RateLimitPolicy rate limit policies}.
+ * Operations with a policy of their own have a token bucket of their own; all other operations of a secret key share one token bucket.
+ * Requests that exceed the burst size of their bucket are not rejected but delayed, each by one interval more than the request before it.
+ * <p>
+ * Thread-safe.
+ */
+final class RateLimiter {
+
+    static final String SECRET_KEY_HEADER = "paysafe-pl-secret-key";
+
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+    // the bucket of operations without a policy of their own
+    private static final String SHARED_BUCKET = "";
+
+    private final RateLimitPolicy defaultPolicy;
+    private final Map<String, RateLimitPolicy> operationPolicies;
+
+    private final Map<String, KeyState> keyStates = new ConcurrentHashMap<>();
+    // delays asynchronous requests
+    private final DeadlineTimer timer = new DeadlineTimer("paysafe-rate-limiter");
+
+    /**
+     * Creates a new rate limiter. The default policy, which may be {@code null}, applies to all operations that do not have a policy
+     * of their own. If it is {@code null}, only operations with a policy of their own are limited.
+     *
+     * @param operationPolicies The policies of operations, keyed by path template. May be {@code null}.
+     */
+    RateLimiter(RateLimitPolicy defaultPolicy, Map<String, RateLimitPolicy> operationPolicies) {
+        this.defaultPolicy = defaultPolicy;
+        this.operationPolicies = operationPolicies != null ? new HashMap<>(operationPolicies) : new HashMap<>();
+    }
+
+    /**
+     * Waits until a request with the given headers can be sent.
+     *
+     * @throws RateLimitExceededException if the request would have to wait longer than the maximum wait of its policy
+     * @throws DeadlineExceededException if the given deadline, which may be {@code null}, would expire while waiting
+     */
+    void acquire(String relativePath, List<RequestHeader> requestHeaders, Deadline deadline) {
+        long delay = reserve(relativePath, requestHeaders, deadline);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommunicationException(e);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #acquire(String, List, Deadline)}. The returned future is completed when the request can be sent,
+     * without blocking a thread while waiting.
+     */
+    CompletableFuture<Void> acquireAsync(String relativePath, List<RequestHeader> requestHeaders, Deadline deadline) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        long delay;
+        try {
+            delay = reserve(relativePath, requestHeaders, deadline);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        if (delay <= 0) {
+            future.complete(null);
+            return future;
+        }
+        ScheduledFuture<?> scheduled = timer.schedule(() -> future.complete(null), delay, TimeUnit.NANOSECONDS);
+        if (scheduled == null) {
+            future.completeExceptionally(new CommunicationException("The rate limiter has been closed"));
+        }
+        return future;
+    }
+
+    /**
+     * Pauses the requests with the secret key of the given request headers if the given failure is an error response with a
+     * {@code Retry-After} header.
+     */
+    void onFailure(List<RequestHeader> requestHeaders, Throwable failure) {
+        long retryAfter = getRetryAfter(failure);
+        if (retryAfter > 0) {
+            getKeyState(requestHeaders).pause(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfter));
+        }
+    }
+
+    /**
+     * Reserves a token for a request, and returns the number of nanoseconds the request should wait before it is sent.
+     */
+    private long reserve(String relativePath, List<RequestHeader> requestHeaders, Deadline deadline) {
+        String pathTemplate = PathTemplates.toTemplate(relativePath);
+        RateLimitPolicy policy = operationPolicies.get(pathTemplate);
+        String bucketName = pathTemplate;
+        if (policy == null) {
+            policy = defaultPolicy;
+            bucketName = SHARED_BUCKET;
+        }
+        if (policy == null) {
+            return 0;
+        }
+        KeyState keyState = getKeyState(requestHeaders);
+        Bucket bucket = keyState.getBucket(bucketName, policy);
+
+        long maxWait = TimeUnit.MILLISECONDS.toNanos(policy.getMaxWait());
+        long remaining = deadline != null ? deadline.remaining(TimeUnit.NANOSECONDS) : Long.MAX_VALUE;
+        long delay = bucket.reserve(System.nanoTime(), keyState.pausedUntil, Math.min(maxWait, remaining));
+        if (delay > Math.min(maxWait, remaining)) {
+            if (remaining < maxWait) {
+                throw new DeadlineExceededException("The deadline of the call would expire while waiting for the rate limit");
+            }
+            throw new RateLimitExceededException("The rate limit is exceeded; the request was not sent");
+        }
+        return delay;
+    }
+
+    private KeyState getKeyState(List<RequestHeader> requestHeaders) {
+        String secretKey = RequestHeader.getHeaderValue(requestHeaders, SECRET_KEY_HEADER);
+        return keyStates.computeIfAbsent(secretKey != null ? secretKey : "", key -> new KeyState());
+    }
+
+    /**
+     * Returns the number of milliseconds of the {@code Retry-After} header of the error response of the given failure,
+     * or -1 if there is no such header.
+     */
+    static long getRetryAfter(Throwable failure) {
+        ResponseException responseException = RetryExecutor.findCause(failure, ResponseException.class);
+        String retryAfter = responseException != null ? responseException.getHeaderValue(RETRY_AFTER_HEADER) : null;
+        if (retryAfter == null || retryAfter.trim().isEmpty()) {
+            return -1;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (@SuppressWarnings("unused") NumberFormatException e) {
+            Date date = DateUtils.parseDate(retryAfter.trim());
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : -1;
+        }
+    }
+
+    void close() {
+        timer.close();
+    }
+
+    private static final class KeyState {
+
+        private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+        // the System.nanoTime() until which requests are paused; in the past if they are not paused
+        private volatile long pausedUntil = System.nanoTime();
+
+        private Bucket getBucket(String bucketName, RateLimitPolicy policy) {
+            return buckets.computeIfAbsent(bucketName, name -> new Bucket(policy));
+        }
+
+        private synchronized void pause(long until) {
+            if (until - pausedUntil > 0) {
+                pausedUntil = until;
+            }
+        }
+    }
+
+    /**
+     * A token bucket, implemented as a generic cell rate algorithm: instead of counting tokens, it keeps the theoretical arrival time
+     * of the next request, which moves one interval ahead for each request.
+     */
+    private static final class Bucket {
+
+        private final long interval;
+        private final long burstTolerance;
+
+        // guarded by this
+        private long theoreticalArrivalTime = System.nanoTime();
+
+        private Bucket(RateLimitPolicy policy) {
+            interval = TimeUnit.SECONDS.toNanos(1) / policy.getRequestsPerSecond();
+            burstTolerance = (policy.getBurstSize() - 1) * interval;
+        }
+
+        /**
+         * Returns the number of nanoseconds a request should wait before it is sent. The token is only reserved if that does not exceed
+         * the given maximum wait. After a pause, requests are sent one interval apart instead of in a burst.
+         */
+        private synchronized long reserve(long now, long pausedUntil, long maxWait) {
+            long arrivalTime = theoreticalArrivalTime - now > 0 ? theoreticalArrivalTime : now;
+            if (pausedUntil - now > 0 && pausedUntil + burstTolerance - arrivalTime > 0) {
+                arrivalTime = pausedUntil + burstTolerance;
+            }
+            long delay = Math.max(0, arrivalTime - burstTolerance - now);
+            if (delay <= maxWait) {
+                theoreticalArrivalTime = arrivalTime + interval;
+            }
+            return delay;
+        }
+    }
+}
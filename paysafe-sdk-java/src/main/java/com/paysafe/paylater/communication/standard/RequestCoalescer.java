@@ -0,0 +1,285 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.exception.BulkheadFullException;
+import com.paysafe.paylater.exception.CircuitBreakerOpenException;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ConcurrencyLimitExceededException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.exception.MarshallerSyntaxException;
+import com.paysafe.paylater.exception.NotFoundException;
+import com.paysafe.paylater.exception.RateLimitExceededException;
+import com.paysafe.paylater.exception.ResponseException;
+
+/**
+ * Lets concurrent identical requests share a single call: while a call for a key is in flight, requests with the same key wait for
+ * its result instead of making a call of their own. The result of the call is passed to all of them. If the call fails, each waiting
+ * request gets an exception of its own, with the exception of the call as its cause. If the call fails because the {@link Deadline} of
+ * the request that made it expired, the waiting requests do not fail with it, but make or share a new call instead.
+ * <p>
+ * The shared call is only cancelled when all requests that wait for it have been cancelled.
+ * <p>
+ * Thread-safe.
+ */
+final class RequestCoalescer<T> {
+
+    private final Map<String, Flight<T>> flights = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * Makes the given call, or waits for the result of the call with the same key that is in flight.
+     *
+     * @param deadline Limits the time spent waiting for a call in flight. May be {@code null}.
+     * @throws DeadlineExceededException if the deadline expires while waiting for a call in flight
+     */
+    T execute(String key, Deadline deadline, Supplier<T> call) {
+        requests.increment();
+        while (true) {
+            Flight<T> flight = new Flight<>();
+            Flight<T> existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                calls.increment();
+                try {
+                    T result = call.get();
+                    complete(key, flight, result, null);
+                    return result;
+                } catch (RuntimeException | Error e) {
+                    complete(key, flight, null, e);
+                    throw e;
+                }
+            }
+            if (existing.addWaiter()) {
+                try {
+                    return await(key, existing, deadline);
+                } catch (DeadlineExceededException e) {
+                    if (deadline != null && deadline.isExpired()) {
+                        throw e;
+                    }
+                    // only the deadline of the request that made the call expired; the completed flight has been removed
+                    continue;
+                }
+            }
+            // the flight was cancelled just now
+            flights.remove(key, existing);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute(String, Deadline, Supplier)}. Cancelling the returned future stops waiting,
+     * and cancels the shared call if no other request waits for it.
+     */
+    CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> call) {
+        requests.increment();
+        return joinAsync(key, call);
+    }
+
+    private CompletableFuture<T> joinAsync(String key, Supplier<CompletableFuture<T>> call) {
+        while (true) {
+            Flight<T> flight = new Flight<>();
+            Flight<T> existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                calls.increment();
+                CompletableFuture<T> future;
+                try {
+                    future = call.get();
+                } catch (RuntimeException e) {
+                    complete(key, flight, null, e);
+                    throw e;
+                }
+                flight.setCall(future);
+                future.whenComplete((result, thrown) -> complete(key, flight, result, thrown));
+                return newWaiter(key, flight, null);
+            }
+            if (existing.addWaiter()) {
+                return newWaiter(key, existing, call);
+            }
+            flights.remove(key, existing);
+        }
+    }
+
+    private void complete(String key, Flight<T> flight, T result, Throwable thrown) {
+        // later requests start a new call, so they do not get a result that was obtained before they were made
+        flights.remove(key, flight);
+        if (thrown != null) {
+            flight.result.completeExceptionally(thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown);
+        } else {
+            flight.result.complete(result);
+        }
+    }
+
+    private T await(String key, Flight<T> flight, Deadline deadline) {
+        try {
+            return deadline != null ? flight.result.get(Math.max(0, deadline.remaining(TimeUnit.NANOSECONDS)), TimeUnit.NANOSECONDS) : flight.result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = copyOf(e.getCause());
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CommunicationException((Exception) cause);
+        } catch (@SuppressWarnings("unused") TimeoutException e) {
+            removeWaiter(key, flight);
+            throw new DeadlineExceededException("The deadline of the call expired while waiting for an identical call");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            removeWaiter(key, flight);
+            throw new CommunicationException(e);
+        }
+    }
+
+    /**
+     * Returns a future for a request that waits for the given flight.
+     *
+     * @param call The call to make if the flight fails because the deadline of the request that made it expired, or {@code null} for
+     *            that request itself.
+     */
+    private CompletableFuture<T> newWaiter(String key, Flight<T> flight, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> waiter = new CompletableFuture<>();
+        flight.result.whenComplete((result, thrown) -> {
+            if (thrown == null) {
+                waiter.complete(result);
+            } else if (call == null) {
+                waiter.completeExceptionally(thrown);
+            } else if (thrown instanceof DeadlineExceededException) {
+                // the deadline of this request is applied by its caller; the completed flight has been removed
+                CompletableFuture<T> retry;
+                try {
+                    retry = joinAsync(key, call);
+                } catch (RuntimeException e) {
+                    waiter.completeExceptionally(e);
+                    return;
+                }
+                retry.whenComplete((retryResult, retryThrown) -> {
+                    if (retryThrown != null) {
+                        waiter.completeExceptionally(retryThrown);
+                    } else {
+                        waiter.complete(retryResult);
+                    }
+                });
+                waiter.whenComplete((ignored, ignoredThrown) -> {
+                    if (waiter.isCancelled()) {
+                        retry.cancel(true);
+                    }
+                });
+            } else {
+                waiter.completeExceptionally(copyOf(thrown));
+            }
+        });
+        waiter.whenComplete((result, thrown) -> {
+            if (waiter.isCancelled()) {
+                removeWaiter(key, flight);
+            }
+        });
+        return waiter;
+    }
+
+    /**
+     * Returns a new exception for a request that waited for a call that failed with the given exception, so requests do not share
+     * an exception instance. The new exception has the same type where the SDK distinguishes that type, and the given exception as cause.
+     */
+    private static Throwable copyOf(Throwable thrown) {
+        if (thrown instanceof Error) {
+            return thrown;
+        }
+        Class<?> type = thrown.getClass();
+        String message = thrown.getMessage();
+        Exception cause = (Exception) thrown;
+        if (type == ResponseException.class) {
+            ResponseException e = (ResponseException) thrown;
+            return new ResponseException(e.getResponseStatusCode(), e.getBody(), e.getHeaders()).initCause(e);
+        }
+        if (type == NotFoundException.class) {
+            return new NotFoundException(message, cause);
+        }
+        if (type == DeadlineExceededException.class) {
+            return new DeadlineExceededException(message, cause);
+        }
+        if (type == CircuitBreakerOpenException.class) {
+            return new CircuitBreakerOpenException(message).initCause(cause);
+        }
+        if (type == RateLimitExceededException.class) {
+            return new RateLimitExceededException(message).initCause(cause);
+        }
+        if (type == BulkheadFullException.class) {
+            return new BulkheadFullException(message).initCause(cause);
+        }
+        if (type == ConcurrencyLimitExceededException.class) {
+            return new ConcurrencyLimitExceededException(message).initCause(cause);
+        }
+        if (type == MarshallerSyntaxException.class) {
+            return new MarshallerSyntaxException(cause);
+        }
+        return new CommunicationException(message, cause);
+    }
+
+    private void removeWaiter(String key, Flight<T> flight) {
+        CompletableFuture<T> call = flight.removeWaiter();
+        if (call != null) {
+            flights.remove(key, flight);
+            call.cancel(true);
+        }
+    }
+
+    /**
+     * Returns the total number of requests.
+     */
+    long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the total number of calls that were made; the other requests shared a call.
+     */
+    long getCalls() {
+        return calls.sum();
+    }
+
+    private static final class Flight<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        // the following fields are guarded by this
+        // the requests that wait for the result, including the one that made the call
+        private int waiters = 1;
+        private boolean cancelled;
+        // null for synchronous calls, which cannot be cancelled
+        private CompletableFuture<T> call;
+
+        private synchronized void setCall(CompletableFuture<T> call) {
+            this.call = call;
+        }
+
+        private synchronized boolean addWaiter() {
+            if (cancelled) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        /**
+         * Removes a waiter, and returns the call to cancel if it was the last one.
+         */
+        private synchronized CompletableFuture<T> removeWaiter() {
+            waiters--;
+            if (waiters > 0 || call == null || result.isDone()) {
+                return null;
+            }
+            cancelled = true;
+            return call;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link com.paysafe.paylater.communication.ResponseHandler ResponseHandlers} of asynchronous requests, so unmarshalling
+ * responses does not block the I/O threads of a connection. Threads are started when needed, and stop when they have been idle for a minute.
+ * Once this executor is closed, tasks run on the calling thread, so responses that arrive while closing are still handled.
+ * <p>
+ * Thread-safe.
+ */
+final class ResponseHandlerExecutor implements Executor, AutoCloseable {
+
+    private final ThreadPoolExecutor threadPool;
+
+    ResponseHandlerExecutor(String threadNamePrefix, int maxThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        threadPool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (runnable, executor) -> runnable.run());
+        threadPool.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        threadPool.execute(command);
+    }
+
+    @Override
+    public void close() {
+        threadPool.shutdown();
+    }
+}
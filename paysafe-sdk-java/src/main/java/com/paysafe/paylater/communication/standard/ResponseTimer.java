@@ -0,0 +1,33 @@
+package com.paysafe.paylater.communication.standard;
+
+/**
+ * Records when the response of a request was received, for response handlers that can take long after that, for instance because
+ * they stream the body to a slow consumer. Connections that measure round-trip times of requests that are sent on the calling thread
+ * use that time instead of the time the request completed, so a slow consumer does not look like a slow server.
+ * <p>
+ * The time is kept per thread, so it is only seen by connections that call the response handler on the calling thread.
+ */
+final class ResponseTimer {
+
+    private static final ThreadLocal<Long> RECEIVED = new ThreadLocal<>();
+
+    private ResponseTimer() {}
+
+    /**
+     * Records that the response of the request that is handled on the calling thread was received.
+     */
+    static void markReceived() {
+        RECEIVED.set(System.nanoTime());
+    }
+
+    /**
+     * Returns the time in nanoseconds that the response of a request that was started at the given time was received, if a response
+     * handler recorded it on the calling thread, or the current time otherwise.
+     */
+    static long responseTime(long startTime) {
+        long now = System.nanoTime();
+        Long received = RECEIVED.get();
+        // a time that was recorded before the request started belongs to an earlier request
+        return received != null && received - startTime >= 0 ? received : now;
+    }
+}
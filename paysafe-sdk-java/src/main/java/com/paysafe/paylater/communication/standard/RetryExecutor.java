@@ -0,0 +1,361 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.apache.http.conn.ConnectTimeoutException;
+
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.HttpMethod;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.RetryPolicy;
+import com.paysafe.paylater.communication.RetryStatistics;
+import com.paysafe.paylater.exception.CircuitBreakerOpenException;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ConcurrencyLimitExceededException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.exception.RateLimitExceededException;
+import com.paysafe.paylater.exception.ResponseException;
+
+/**
+ * Executes requests according to a {@link RetryPolicy}.
+ * <p>
+ * Thread-safe.
+ */
+final class RetryExecutor {
+
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final Set<Integer> retryableStatusCodes;
+    private final String idempotencyKeyHeader;
+    private final RetryBudget retryBudget;
+
+    private final Map<String, Counters> countersByOperation = new ConcurrentHashMap<>();
+
+    // schedules asynchronous retries; created when first needed
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+
+    RetryExecutor(RetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("retryPolicy is required");
+        }
+        // copy the settings, so later changes to the retry policy have no effect
+        maxAttempts = retryPolicy.getMaxAttempts();
+        baseDelay = retryPolicy.getBaseDelay();
+        maxDelay = Math.max(retryPolicy.getMaxDelay(), retryPolicy.getBaseDelay());
+        retryableStatusCodes = new HashSet<>(retryPolicy.getRetryableStatusCodes());
+        idempotencyKeyHeader = retryPolicy.getIdempotencyKeyHeader();
+        retryBudget = new RetryBudget(retryPolicy.getRetryBudgetPercent(), retryPolicy.getRetryBudgetCapacity());
+    }
+
+    /**
+     * Performs the given request, retrying it if it fails and if the retry policy allows it.
+     * If the request is not retried, the last exception is thrown.
+     * A request is not retried if the given deadline, which may be {@code null}, would expire before the retry is sent.
+     */
+    <O> O execute(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Deadline deadline, Supplier<O> request) {
+        return execute(httpMethod, relativePath, requestHeaders, deadline, request, () -> true);
+    }
+
+    /**
+     * Performs the given request like {@link #execute(HttpMethod, String, List, Deadline, Supplier)}, but only retries it while the
+     * given condition holds; for instance, while no part of a streamed response has been written.
+     */
+    <O> O execute(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Deadline deadline, Supplier<O> request,
+            BooleanSupplier retryAllowed) {
+        Counters counters = startRequest(httpMethod, relativePath);
+        boolean idempotent = isIdempotent(httpMethod, requestHeaders);
+
+        long delay = baseDelay;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return request.get();
+            } catch (RuntimeException e) {
+                delay = nextDelay(delay, e);
+                if (!retryAllowed.getAsBoolean() || !shouldRetry(e, idempotent, attempt, counters, deadline, delay)) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (@SuppressWarnings("unused") InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                counters.retries.increment();
+            }
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute(HttpMethod, String, List, Deadline, Supplier)}. Retries are scheduled, so no thread is blocked between attempts.
+     * Cancelling the returned future cancels the current attempt, and prevents further retries.
+     */
+    <O> CompletableFuture<O> executeAsync(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Deadline deadline,
+            Supplier<CompletableFuture<O>> request) {
+
+        Counters counters = startRequest(httpMethod, relativePath);
+        boolean idempotent = isIdempotent(httpMethod, requestHeaders);
+
+        CompletableFuture<O> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<O>> currentAttempt = new AtomicReference<>();
+        result.whenComplete((response, thrown) -> {
+            CompletableFuture<O> attempt = currentAttempt.get();
+            if (result.isCancelled() && attempt != null) {
+                attempt.cancel(true);
+            }
+        });
+        executeAsync(request, idempotent, deadline, 1, baseDelay, counters, result, currentAttempt);
+        return result;
+    }
+
+    private <O> void executeAsync(Supplier<CompletableFuture<O>> request, boolean idempotent, Deadline deadline, int attempt, long previousDelay,
+            Counters counters, CompletableFuture<O> result, AtomicReference<CompletableFuture<O>> currentAttempt) {
+
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<O> future;
+        try {
+            future = request.get();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        currentAttempt.set(future);
+        future.whenComplete((response, thrown) -> {
+            if (thrown == null) {
+                result.complete(response);
+                return;
+            }
+            Throwable cause = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown;
+            long delay = nextDelay(previousDelay, cause);
+            if (result.isDone() || !shouldRetry(cause, idempotent, attempt, counters, deadline, delay)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            try {
+                getScheduler().schedule(() -> {
+                    counters.retries.increment();
+                    executeAsync(request, idempotent, deadline, attempt + 1, delay, counters, result, currentAttempt);
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (@SuppressWarnings("unused") RejectedExecutionException e) {
+                // this executor has been closed
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private Counters startRequest(HttpMethod httpMethod, String relativePath) {
+        String operation = PathTemplates.toOperation(httpMethod.name(), relativePath);
+        Counters counters = countersByOperation.computeIfAbsent(operation, Counters::new);
+        counters.requests.increment();
+        retryBudget.deposit();
+        return counters;
+    }
+
+    private boolean isIdempotent(HttpMethod httpMethod, List<RequestHeader> requestHeaders) {
+        if (httpMethod != HttpMethod.POST) {
+            return true;
+        }
+        if (idempotencyKeyHeader != null && requestHeaders != null) {
+            for (RequestHeader requestHeader : requestHeaders) {
+                if (idempotencyKeyHeader.equalsIgnoreCase(requestHeader.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean shouldRetry(Throwable failure, boolean idempotent, int attempt, Counters counters, Deadline deadline, long delay) {
+        if (!isRetryable(failure, idempotent)) {
+            return false;
+        }
+        if (attempt >= maxAttempts) {
+            if (maxAttempts > 1) {
+                counters.retriesExhausted.increment();
+            }
+            return false;
+        }
+        if (delay > maxDelay) {
+            // the Paysafe Pay Later platform asked to wait longer than the retry policy allows
+            return false;
+        }
+        if (deadline != null && deadline.remaining(TimeUnit.MILLISECONDS) <= delay) {
+            // the retry could not be sent before the deadline; don't spend the retry budget on it
+            return false;
+        }
+        if (!retryBudget.tryWithdraw()) {
+            counters.retriesDeniedByBudget.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isRetryable(Throwable failure, boolean idempotent) {
+        if (failure instanceof CircuitBreakerOpenException || failure instanceof ConcurrencyLimitExceededException
+                || failure instanceof RateLimitExceededException) {
+            // the request was not sent to protect the Paysafe Pay Later platform; retrying would defeat that
+            return false;
+        }
+        if (failure instanceof DeadlineExceededException) {
+            return false;
+        }
+        if (isConnectFailure(failure)) {
+            // the request has not been sent, so it can always be retried
+            return true;
+        }
+        if (!idempotent) {
+            return false;
+        }
+        ResponseException responseException = findCause(failure, ResponseException.class);
+        if (responseException != null) {
+            return retryableStatusCodes.contains(responseException.getResponseStatusCode());
+        }
+        return failure instanceof CommunicationException;
+    }
+
+    static boolean isConnectFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof ConnectException
+                    || cause instanceof NoRouteToHostException
+                    || cause instanceof UnknownHostException
+                    // includes ConnectionPoolTimeoutException
+                    || cause instanceof ConnectTimeoutException) {
+                return true;
+            }
+            // the connect timeout exceptions of the other HTTP clients do not extend ConnectException
+            if (cause.getClass().getSimpleName().endsWith("ConnectTimeoutException")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <T extends Throwable> T findCause(Throwable failure, Class<T> type) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the next delay using decorrelated jitter: a random value between the base delay and three times the previous delay,
+     * capped at the maximum delay. If the given failure is an error response with a {@code Retry-After} header, the delay is at least
+     * that long, even if that exceeds the maximum delay.
+     */
+    private long nextDelay(long previousDelay, Throwable failure) {
+        long upperBound = Math.min(maxDelay, Math.max(baseDelay, previousDelay * 3));
+        long delay = upperBound > baseDelay ? ThreadLocalRandom.current().nextLong(baseDelay, upperBound + 1) : baseDelay;
+        return Math.max(delay, RateLimiter.getRetryAfter(failure));
+    }
+
+    private synchronized ScheduledExecutorService getScheduler() {
+        if (closed) {
+            throw new RejectedExecutionException("closed");
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "paysafe-retry-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    /**
+     * Returns the retry counters of each operation that has been executed.
+     */
+    List<RetryStatistics> getStatistics() {
+        List<RetryStatistics> statistics = new ArrayList<>(countersByOperation.size());
+        for (Counters counters : countersByOperation.values()) {
+            statistics.add(counters.toStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Stops scheduling asynchronous retries. Scheduled retries are not performed.
+     */
+    synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static final class Counters {
+
+        private final String operation;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder retriesDeniedByBudget = new LongAdder();
+        private final LongAdder retriesExhausted = new LongAdder();
+
+        private Counters(String operation) {
+            this.operation = operation;
+        }
+
+        private RetryStatistics toStatistics() {
+            return new RetryStatistics(operation, requests.sum(), retries.sum(), retriesDeniedByBudget.sum(), retriesExhausted.sum());
+        }
+    }
+
+    /**
+     * A token bucket that limits the number of retries relative to the number of requests.
+     * Tokens are kept in thousandths, so requests can add a fraction of a token.
+     */
+    static final class RetryBudget {
+
+        private static final long TOKEN = 1000;
+
+        private final long depositPerRequest;
+        private final long capacity;
+        private final AtomicLong tokens;
+
+        RetryBudget(int percent, int capacity) {
+            depositPerRequest = percent * TOKEN / 100;
+            this.capacity = capacity * TOKEN;
+            tokens = new AtomicLong(this.capacity);
+        }
+
+        void deposit() {
+            tokens.updateAndGet(current -> Math.min(capacity, current + depositPerRequest));
+        }
+
+        boolean tryWithdraw() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current < TOKEN) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - TOKEN));
+            return true;
+        }
+    }
+}
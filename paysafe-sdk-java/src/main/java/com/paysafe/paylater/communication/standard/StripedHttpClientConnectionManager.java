@@ -0,0 +1,219 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * A {@link HttpClientConnectionManager} that stripes connections across a number of {@link PoolingHttpClientConnectionManager PoolingHttpClientConnectionManagers}.
+ * <p>
+ * Each {@link PoolingHttpClientConnectionManager} guards its pool with a single lock, which every lease and release needs to acquire.
+ * With many concurrent threads this lock becomes contended. This connection manager divides the maximum number of connections over
+ * several stripes, each with its own pool and lock, so concurrent threads mostly use different locks:
+ * <ul>
+ * <li>A thread leases its connections from the stripe that is assigned to it based on its id, so the same thread keeps using the same stripe.
+ * Only if that stripe is fully in use for the route, the connection is leased from the stripe that has the most connections left for the route.</li>
+ * <li>A connection is always released to the stripe it was leased from.</li>
+ * <li>Within a stripe, the most recently released connection is reused first (LIFO), so warm connections are preferred
+ * and connections that are not needed become idle and can be closed.</li>
+ * </ul>
+ */
+class StripedHttpClientConnectionManager implements HttpClientConnectionManager {
+
+    private final Stripe[] stripes;
+    private final Map<HttpClientConnection, Lease> leasedConnections = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new connection manager with the given stripes.
+     * Each stripe is considered fully in use for a route when it has as many connections to that route in use as its default maximum number
+     * of connections per route.
+     * The maximum number of connections of the stripes should not be changed after this connection manager has been created.
+     */
+    StripedHttpClientConnectionManager(List<PoolingHttpClientConnectionManager> stripes) {
+        if (stripes == null || stripes.isEmpty()) {
+            throw new IllegalArgumentException("stripes are required");
+        }
+        this.stripes = new Stripe[stripes.size()];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe(stripes.get(i));
+        }
+    }
+
+    /**
+     * Returns the connection managers of each of the stripes, in order.
+     */
+    List<PoolingHttpClientConnectionManager> getStripes() {
+        List<PoolingHttpClientConnectionManager> result = new ArrayList<>(stripes.length);
+        for (Stripe stripe : stripes) {
+            result.add(stripe.delegate);
+        }
+        return result;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+
+        final Stripe stripe = selectStripe(route);
+        final AtomicInteger inUse = stripe.getInUse(route);
+        inUse.incrementAndGet();
+
+        final ConnectionRequest request;
+        try {
+            request = stripe.delegate.requestConnection(route, state);
+        } catch (RuntimeException e) {
+            inUse.decrementAndGet();
+            throw e;
+        }
+
+        return new ConnectionRequest() {
+
+            private final AtomicBoolean failed = new AtomicBoolean();
+
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                try {
+                    HttpClientConnection connection = request.get(timeout, timeUnit);
+                    leasedConnections.put(connection, new Lease(stripe, inUse));
+                    return connection;
+                } catch (InterruptedException | ExecutionException | ConnectionPoolTimeoutException | RuntimeException e) {
+                    if (failed.compareAndSet(false, true)) {
+                        inUse.decrementAndGet();
+                    }
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    private Stripe selectStripe(HttpRoute route) {
+        Stripe preferred = stripes[(int) (Thread.currentThread().getId() % stripes.length)];
+        // don't ask the stripe for its maximum; that would need its lock
+        int preferredAvailable = preferred.getAvailable(route);
+        if (preferredAvailable > 0) {
+            return preferred;
+        }
+        Stripe mostAvailable = preferred;
+        int mostAvailableCount = preferredAvailable;
+        for (Stripe stripe : stripes) {
+            int available = stripe.getAvailable(route);
+            if (available > mostAvailableCount) {
+                mostAvailable = stripe;
+                mostAvailableCount = available;
+            }
+        }
+        return mostAvailable;
+    }
+
+    private Stripe getStripe(HttpClientConnection connection) {
+        Lease lease = leasedConnections.get(connection);
+        if (lease == null) {
+            throw new IllegalStateException("Connection not obtained from this manager");
+        }
+        return lease.stripe;
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection connection, Object newState, long validDuration, TimeUnit timeUnit) {
+        Stripe stripe = getStripe(connection);
+        try {
+            stripe.delegate.releaseConnection(connection, newState, validDuration, timeUnit);
+        } finally {
+            Lease lease = leasedConnections.remove(connection);
+            if (lease != null) {
+                lease.inUse.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void connect(HttpClientConnection connection, HttpRoute route, int connectTimeout, HttpContext context) throws IOException {
+        getStripe(connection).delegate.connect(connection, route, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(HttpClientConnection connection, HttpRoute route, HttpContext context) throws IOException {
+        getStripe(connection).delegate.upgrade(connection, route, context);
+    }
+
+    @Override
+    public void routeComplete(HttpClientConnection connection, HttpRoute route, HttpContext context) throws IOException {
+        getStripe(connection).delegate.routeComplete(connection, route, context);
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        for (Stripe stripe : stripes) {
+            stripe.delegate.closeIdleConnections(idleTime, timeUnit);
+        }
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        for (Stripe stripe : stripes) {
+            stripe.delegate.closeExpiredConnections();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (Stripe stripe : stripes) {
+            stripe.delegate.shutdown();
+        }
+        leasedConnections.clear();
+    }
+
+    private static final class Stripe {
+
+        private final PoolingHttpClientConnectionManager delegate;
+        private final int maxPerRoute;
+        // the number of connections per route that are leased from, or requested from, this stripe
+        private final Map<HttpRoute, AtomicInteger> inUse = new ConcurrentHashMap<>();
+
+        private Stripe(PoolingHttpClientConnectionManager delegate) {
+            this.delegate = delegate;
+            this.maxPerRoute = delegate.getDefaultMaxPerRoute();
+        }
+
+        private AtomicInteger getInUse(HttpRoute route) {
+            return inUse.computeIfAbsent(route, key -> new AtomicInteger());
+        }
+
+        /**
+         * Returns the number of connections to the given route that can still be leased from this stripe; negative if requests are pending.
+         */
+        private int getAvailable(HttpRoute route) {
+            AtomicInteger routeInUse = inUse.get(route);
+            return maxPerRoute - (routeInUse != null ? routeInUse.get() : 0);
+        }
+    }
+
+    private static final class Lease {
+
+        private final Stripe stripe;
+        private final AtomicInteger inUse;
+
+        private Lease(Stripe stripe, AtomicInteger inUse) {
+            this.stripe = stripe;
+            this.inUse = inUse;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.paysafe.paylater.exception;
+
+/**
+ * Indicates that a call was not made because the bulkhead of its API family had no free slot.
+ *
+ * @see com.paysafe.paylater.communication.BulkheadPolicy
+ */
+@SuppressWarnings("serial")
+public class BulkheadFullException extends ConcurrencyLimitExceededException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.paysafe.paylater.exception;
+
+/**
+ * Indicates that a request was not sent to the Paysafe Pay Later platform because the circuit breaker is open,
+ * after too many recent requests failed or were too slow. Requests are allowed again after the circuit breaker's open duration.
+ */
+@SuppressWarnings("serial")
+public class CircuitBreakerOpenException extends CommunicationException {
+
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
@@ -9,4 +9,12 @@ public class CommunicationException extends RuntimeException {
     public CommunicationException(Exception e) {
         super(e);
     }
+
+    public CommunicationException(String message) {
+        super(message);
+    }
+
+    public CommunicationException(String message, Exception e) {
+        super(message, e);
+    }
 }
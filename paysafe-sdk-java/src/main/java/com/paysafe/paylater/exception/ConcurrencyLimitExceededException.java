@@ -0,0 +1,13 @@
+package com.paysafe.paylater.exception;
+
+/**
+ * Indicates that a request was not sent to the Paysafe Pay Later platform because too many requests were already in flight.
+ * The concurrency limit adapts to the observed latency and errors of the Paysafe Pay Later platform.
+ */
+@SuppressWarnings("serial")
+public class ConcurrencyLimitExceededException extends CommunicationException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.paysafe.paylater.exception;
+
+/**
+ * Indicates that a call to the Paysafe Pay Later platform was abandoned because its deadline passed,
+ * either before the request was sent or while waiting for a connection or the response.
+ *
+ * @see com.paysafe.paylater.communication.Deadline
+ */
+@SuppressWarnings("serial")
+public class DeadlineExceededException extends CommunicationException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Exception e) {
+        super(message, e);
+    }
+}
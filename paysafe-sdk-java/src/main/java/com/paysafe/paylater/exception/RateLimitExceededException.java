@@ -0,0 +1,15 @@
+package com.paysafe.paylater.exception;
+
+/**
+ * Indicates that a request was not sent to the Paysafe Pay Later platform because it would have had to wait too long for the rate limit
+ * of its secret key.
+ *
+ * @see com.paysafe.paylater.communication.RateLimitPolicy
+ */
+@SuppressWarnings("serial")
+public class RateLimitExceededException extends CommunicationException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.paysafe.paylater.exception;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Indicates that a downloaded response body could not be written to the output stream or file it was downloaded to, for instance
+ * because the consumer of the output stream disconnected. This is not a communication error: it does not count as a failure of the
+ * Paysafe Pay Later platform, and the download is not retried.
+ */
+@SuppressWarnings("serial")
+public class ResponseBodyWriteException extends UncheckedIOException {
+
+    public ResponseBodyWriteException(IOException e) {
+        super(e);
+    }
+}
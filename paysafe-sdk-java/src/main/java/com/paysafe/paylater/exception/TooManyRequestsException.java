@@ -0,0 +1,15 @@
+package com.paysafe.paylater.exception;
+
+import com.paysafe.paylater.model.OperationResult;
+
+/**
+ * Represents an error response from the Paysafe Pay Later platform when too many requests were sent.
+ * The {@code Retry-After} response header, if present, tells when requests can be sent again.
+ */
+@SuppressWarnings("serial")
+public class TooManyRequestsException extends ApiException {
+
+    public TooManyRequestsException(ResponseException e, OperationResult operationResult) {
+        super(e, operationResult);
+    }
+}
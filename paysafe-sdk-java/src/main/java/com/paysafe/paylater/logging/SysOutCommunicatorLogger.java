@@ -1,6 +1,7 @@
 package com.paysafe.paylater.logging;
 
-import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
@@ -21,23 +22,21 @@ public final class SysOutCommunicatorLogger implements CommunicatorLogger {
 
     @Override
     public void log(String message) {
-        // System.out can be changed using System.setOut; make sure the same object is used for locking and printing
-        final PrintStream sysOut = System.out;
-        synchronized (sysOut) {
-            sysOut.println(getDatePrefix() + message);
-        }
+        System.out.println(getDatePrefix() + message);
     }
 
     @Override
     public void log(String message, Throwable thrown) {
-        // System.out can be changed using System.setOut; make sure the same object is used for locking and printing
-        final PrintStream sysOut = System.out;
-        synchronized (sysOut) {
-            sysOut.println(getDatePrefix() + message);
+        // Print the message and stack trace with one call instead of locking System.out while printing;
+        // that way the output is not interleaved with other messages, without blocking virtual threads on a monitor.
+        final StringWriter stringWriter = new StringWriter();
+        try (PrintWriter printWriter = new PrintWriter(stringWriter)) {
+            printWriter.println(getDatePrefix() + message);
             if (thrown != null) {
-                thrown.printStackTrace(sysOut);
+                thrown.printStackTrace(printWriter);
             }
         }
+        System.out.print(stringWriter);
     }
 
     private String getDatePrefix() {
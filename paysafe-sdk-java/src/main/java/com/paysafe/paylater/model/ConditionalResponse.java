@@ -0,0 +1,47 @@
+package com.paysafe.paylater.model;
+
+/**
+ * The response to a conditional GET request: either a new response, or an indication that the response that the request was
+ * conditional on was not modified.
+ */
+public class ConditionalResponse<O> {
+    private final boolean notModified;
+    private final O response;
+    private final String eTag;
+    private final String lastModified;
+
+    public ConditionalResponse(boolean notModified, O response, String eTag, String lastModified) {
+        this.notModified = notModified;
+        this.response = response;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns whether the response that the request was conditional on was not modified; if so, there is no new response.
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Returns the new response, or {@code null} if the response was not modified.
+     */
+    public O getResponse() {
+        return response;
+    }
+
+    /**
+     * Returns the value of the {@code ETag} header, or {@code null} if there was none.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Returns the value of the {@code Last-Modified} header, or {@code null} if there was none.
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,46 @@
+package com.paysafe.paylater.model;
+
+/**
+ * The metadata of a response whose body was written to an output stream or file instead of being returned.
+ */
+public class DownloadResponse {
+    private final String contentType;
+    private final long contentLength;
+    private final String eTag;
+    private final String lastModified;
+
+    public DownloadResponse(String contentType, long contentLength, String eTag, String lastModified) {
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns the value of the {@code Content-Type} header, or {@code null} if there was none.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns the number of bytes that were written.
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Returns the value of the {@code ETag} header, or {@code null} if there was none.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Returns the value of the {@code Last-Modified} header, or {@code null} if there was none.
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,462 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.PooledConnection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.ResponseHandler;
+import com.paysafe.paylater.communication.ResponseHeader;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+import com.paysafe.paylater.logging.RequestLogMessageBuilder;
+import com.paysafe.paylater.logging.ResponseLogMessageBuilder;
+
+/**
+ * {@link Connection} implementation based on the {@link HttpClient} that is built into Java 11 and later.
+ * <p>
+ * This connection does not use Apache HttpClient, which means fewer classes need to be loaded before the first request can be sent.
+ * Some differences with {@link PaysafeConnection}:
+ * <ul>
+ * <li>The read timeout limits the time to wait for the response headers of a request, instead of the time to wait for each read.
+ * Likewise, an active {@link Deadline} limits the time to wait for a connection and for the response headers.</li>
+ * <li>The {@link HttpClient} does not limit the number of connections. Instead, this connection limits the number of requests
+ * in flight to {@code maxConnections} for all routes together, which has the same effect with HTTP/1.1. Requests that exceed the limit
+ * wait until an earlier request has finished.</li>
+ * <li>Idle connections are closed by the {@link HttpClient} itself, so {@link #closeIdleConnections(long, TimeUnit)} and
+ * {@link #closeExpiredConnections()} do nothing.</li>
+ * </ul>
+ * Only classes of the JDK and this SDK are used, not those of Apache HttpClient.
+ * This class requires Java 11 or later. On earlier Java versions, its constructors throw an {@link UnsupportedOperationException}.
+ */
+public class PaysafeJdkConnection implements PooledConnection {
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=" + CHARSET.name();
+
+    // HttpClient is immutable and thread safe
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    // in nanoseconds, or 0 to wait indefinitely
+    private final long connectionRequestTimeout;
+    // one permit per connection
+    private final Semaphore connections;
+    private volatile CommunicatorLogger communicatorLogger;
+
+    /**
+     * Creates a new connection with the given timeouts, the default number of maximum connections, and the default HTTPS protocols.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS
+     * @see CommunicatorConfiguration#DEFAULT_HTTPS_PROTOCOLS
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout) {
+        this(connectTimeout, readTimeout, null);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts and HTTPS protocols, and the default number of maximum connections.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, Set<String> httpsProtocols) {
+        this(connectTimeout, readTimeout, CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS, httpsProtocols);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, and HTTPS protocols.
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, int maxConnections, Set<String> httpsProtocols) {
+        this(connectTimeout, readTimeout, maxConnections, getDefaultSSLContext(), httpsProtocols);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, SSL context and HTTPS protocols, and the default number of maximum connections.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable SSL context.
+     *
+     * @see CommunicatorConfiguration#DEFAULT_MAX_CONNECTIONS
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, SSLContext sslContext, Set<String> httpsProtocols) {
+        this(connectTimeout, readTimeout, CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS, sslContext, httpsProtocols);
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, SSL context and HTTPS protocols.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable SSL context.
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, int maxConnections, SSLContext sslContext, Set<String> httpsProtocols) {
+        this(connectTimeout, readTimeout, 0, maxConnections, sslContext, httpsProtocols);
+    }
+
+    /**
+     * Creates a new connection with the timeouts, number of maximum connections and HTTPS protocols of the given configuration.
+     *
+     * @throws IllegalArgumentException if the configuration changes a setting that this connection does not support: the connection pool
+     *             stripes, the TLS session cache, connection eviction, the connection time to live, the DNS cache policy, or operation profiles.
+     * @see CommunicatorConfiguration#getConnectionRequestTimeout()
+     */
+    public PaysafeJdkConnection(CommunicatorConfiguration configuration) {
+        this(requireSupportedConfiguration(configuration).getConnectTimeout(), configuration.getReadTimeout(), configuration.getConnectionRequestTimeout(),
+                configuration.getMaxConnections(), getDefaultSSLContext(), configuration.getHttpsProtocols());
+    }
+
+    /**
+     * Creates a new connection with the given timeouts, number of maximum connections, SSL context and HTTPS protocols.
+     * This constructor can be used in case none of the other constructors can be used due to SSL issues,
+     * to provide a fully customizable SSL context.
+     *
+     * @param connectionRequestTimeout The time in milliseconds to wait until fewer than {@code maxConnections} requests are in flight,
+     *            or 0 to wait indefinitely.
+     */
+    public PaysafeJdkConnection(int connectTimeout, int readTimeout, int connectionRequestTimeout, int maxConnections, SSLContext sslContext,
+            Set<String> httpsProtocols) {
+
+        if (sslContext == null) {
+            throw new IllegalArgumentException("sslContext is required");
+        }
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be at least 1");
+        }
+        SSLParameters sslParameters = new SSLParameters();
+        sslParameters.setProtocols(getSupportedProtocols(httpsProtocols, sslContext));
+
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                                               .version(HttpClient.Version.HTTP_1_1)
+                                               .sslContext(sslContext)
+                                               .sslParameters(sslParameters);
+        // add support for system properties
+        ProxySelector proxySelector = ProxySelector.getDefault();
+        if (proxySelector != null) {
+            builder.proxy(proxySelector);
+        }
+        Duration connectTimeoutDuration = toDuration(connectTimeout);
+        if (connectTimeoutDuration != null) {
+            builder.connectTimeout(connectTimeoutDuration);
+        }
+        this.httpClient = builder.build();
+        this.readTimeout = toDuration(readTimeout);
+        this.connectionRequestTimeout = connectionRequestTimeout > 0 ? TimeUnit.MILLISECONDS.toNanos(connectionRequestTimeout) : 0;
+        this.connections = new Semaphore(maxConnections, true);
+    }
+
+    private static CommunicatorConfiguration requireSupportedConfiguration(CommunicatorConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("configuration is required");
+        }
+        ConnectionSettings.requireJdkSupport(configuration);
+        return configuration;
+    }
+
+    private static SSLContext getDefaultSSLContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String[] getSupportedProtocols(Set<String> httpsProtocols, SSLContext sslContext) {
+        // not shared with PaysafeConnection, as loading that class would load Apache HttpClient classes as well
+        Set<String> requestedProtocols = httpsProtocols == null || httpsProtocols.isEmpty()
+                ? CommunicatorConfiguration.DEFAULT_HTTPS_PROTOCOLS
+                : httpsProtocols;
+
+        // leave out protocols the SSL context does not support, unless that would leave none
+        Set<String> supportedProtocols = new LinkedHashSet<>(requestedProtocols);
+        supportedProtocols.retainAll(Arrays.asList(sslContext.getSupportedSSLParameters().getProtocols()));
+        if (supportedProtocols.isEmpty()) {
+            supportedProtocols = requestedProtocols;
+        }
+        return supportedProtocols.toArray(new String[0]);
+    }
+
+    private static Duration toDuration(int timeout) {
+        // as with PaysafeConnection, a non-positive timeout means no timeout
+        return timeout > 0 ? Duration.ofMillis(timeout) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // HttpClient can only be closed explicitly as of Java 21; before that its resources are released once it is no longer referenced
+        if (httpClient instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) httpClient).close();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    @Override
+    public <R> R post(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeRequest("POST", uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> R get(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeRequest("GET", uri, requestHeaders, null, responseHandler);
+    }
+
+    @Override
+    public <R> R put(URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+        return executeRequest("PUT", uri, requestHeaders, body, responseHandler);
+    }
+
+    @Override
+    public <R> R delete(URI uri, List<RequestHeader> requestHeaders, ResponseHandler<R> responseHandler) {
+        return executeRequest("DELETE", uri, requestHeaders, null, responseHandler);
+    }
+
+    private <R> R executeRequest(String method, URI uri, List<RequestHeader> requestHeaders, String body, ResponseHandler<R> responseHandler) {
+
+        final String requestId = UUID.randomUUID().toString();
+        final long startTime = System.currentTimeMillis();
+
+        final CommunicatorLogger logger = communicatorLogger;
+
+        boolean logRuntimeExceptions = true;
+
+        final Deadline deadline = Deadline.current();
+        try {
+            acquireConnection(deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logError(requestId, e, startTime, logger);
+            throw new CommunicationException(e);
+        } catch (CommunicationException e) {
+            logError(requestId, e, startTime, logger);
+            throw e;
+        }
+        try {
+            HttpRequest request = createRequest(method, uri, requestHeaders, body, deadline);
+            if (logger != null) {
+                logRequest(request, requestId, body != null, logger);
+            }
+
+            HttpResponse<InputStream> httpResponse = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            int statusCode = httpResponse.statusCode();
+            List<ResponseHeader> headers = getHeaders(httpResponse);
+
+            InputStream bodyStream = httpResponse.body();
+            if (logger != null) {
+                bodyStream = logResponse(statusCode, headers, bodyStream, requestId, startTime, logger);
+            }
+
+            try (InputStream responseBodyStream = bodyStream) {
+                // do not log runtime exceptions that originate from the response handler, those are not communication errors
+                logRuntimeExceptions = false;
+
+                return responseHandler.handleResponse(statusCode, responseBodyStream, headers);
+            }
+        } catch (IOException e) {
+            logError(requestId, e, startTime, logger);
+            throw deadline != null && deadline.isExpired()
+                    ? new DeadlineExceededException("The deadline of the call expired while waiting for the response", e)
+                    : new CommunicationException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logError(requestId, e, startTime, logger);
+            throw new CommunicationException(e);
+        } catch (CommunicationException e) {
+            logError(requestId, e, startTime, logger);
+            throw e;
+        } catch (RuntimeException e) {
+            if (logRuntimeExceptions) {
+                logError(requestId, e, startTime, logger);
+            }
+            throw e;
+        } finally {
+            // the response body has been read or closed, so the HttpClient can reuse the connection
+            connections.release();
+        }
+    }
+
+    /**
+     * Waits for a connection, at most for the connection request timeout. If a {@link Deadline} is active, this does not wait beyond it.
+     *
+     * @throws DeadlineExceededException if the deadline expires before a connection is available
+     * @throws CommunicationException if the connection request timeout expires before a connection is available
+     */
+    private void acquireConnection(Deadline deadline) throws InterruptedException {
+        if (deadline == null && connectionRequestTimeout == 0) {
+            connections.acquire();
+            return;
+        }
+        long deadlineRemaining = deadline != null ? deadline.remaining(TimeUnit.NANOSECONDS) : Long.MAX_VALUE;
+        long timeout = connectionRequestTimeout > 0 ? Math.min(connectionRequestTimeout, deadlineRemaining) : deadlineRemaining;
+        if (!connections.tryAcquire(timeout, TimeUnit.NANOSECONDS)) {
+            if (deadline != null && deadline.isExpired()) {
+                throw new DeadlineExceededException("The deadline of the call expired while waiting for a connection");
+            }
+            throw new CommunicationException("Timeout waiting for connection");
+        }
+    }
+
+    /**
+     * Creates a request. If a {@link Deadline} is active, the read timeout is capped to the time that remains.
+     */
+    private HttpRequest createRequest(String method, URI uri, List<RequestHeader> requestHeaders, String body, Deadline deadline) {
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                                                 .method(method, body != null
+                                                         ? HttpRequest.BodyPublishers.ofString(body, CHARSET)
+                                                         : HttpRequest.BodyPublishers.noBody());
+        Duration timeout = readTimeout;
+        if (deadline != null) {
+            Duration remaining = Duration.ofNanos(Math.max(1, deadline.remaining(TimeUnit.NANOSECONDS)));
+            timeout = timeout == null || remaining.compareTo(timeout) < 0 ? remaining : timeout;
+        }
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+        boolean hasContentType = false;
+        if (requestHeaders != null) {
+            for (RequestHeader requestHeader : requestHeaders) {
+                builder.header(requestHeader.getName(), requestHeader.getValue());
+                hasContentType |= CONTENT_TYPE.equalsIgnoreCase(requestHeader.getName());
+            }
+        }
+        if (body != null && !hasContentType) {
+            builder.header(CONTENT_TYPE, JSON_CONTENT_TYPE);
+        }
+        return builder.build();
+    }
+
+    private List<ResponseHeader> getHeaders(HttpResponse<?> httpResponse) {
+        List<ResponseHeader> result = new ArrayList<>();
+        for (Map.Entry<String, List<String>> header : httpResponse.headers().map().entrySet()) {
+            for (String value : header.getValue()) {
+                result.add(new ResponseHeader(header.getKey(), value));
+            }
+        }
+        return result;
+    }
+
+    private static void logRequest(HttpRequest request, String requestId, boolean hasBody, CommunicatorLogger logger) {
+
+        try {
+            URI uri = request.uri();
+            String rawQuery = uri.getRawQuery();
+
+            final RequestLogMessageBuilder logMessageBuilder = new RequestLogMessageBuilder(requestId, request.method(),
+                    rawQuery != null ? uri.getRawPath() + "?" + rawQuery : uri.getRawPath());
+            request.headers().map().forEach((name, values) -> values.forEach(value -> logMessageBuilder.addHeader(name, value)));
+            if (hasBody) {
+                // Due to privacy concerns the actual request body (which can contain personal data) is not logged.
+                logMessageBuilder.setBody("****", request.headers().firstValue(CONTENT_TYPE).orElse(null));
+            }
+
+            logger.log(logMessageBuilder.getMessage());
+
+        } catch (Exception e) {
+            logger.log(String.format("An error occurred trying to log request '%s'", requestId), e);
+        }
+    }
+
+    private static InputStream logResponse(int statusCode, List<ResponseHeader> headers, InputStream bodyStream, String requestId, long startTime,
+            CommunicatorLogger logger) throws IOException {
+
+        final long endTime = System.currentTimeMillis();
+        final long duration = endTime - startTime;
+
+        // read the body before logging, so it can still be passed to the response handler
+        final byte[] body = bodyStream.readAllBytes();
+        bodyStream.close();
+
+        try {
+            final ResponseLogMessageBuilder logMessageBuilder = new ResponseLogMessageBuilder(requestId, statusCode, duration);
+            String contentType = null;
+            for (ResponseHeader header : headers) {
+                logMessageBuilder.addHeader(header.getName(), header.getValue());
+                if (contentType == null && CONTENT_TYPE.equalsIgnoreCase(header.getName())) {
+                    contentType = header.getValue();
+                }
+            }
+
+            if (statusCode >= 200 && statusCode < 300) {
+                // Due to privacy concerns the response body (which can contain personal data) is not logged for success responses.
+                logMessageBuilder.setBody("****", contentType);
+            } else {
+                // No personal data is returned in exception responses.
+                logMessageBuilder.setBody(new String(body, CHARSET), contentType);
+            }
+
+            logger.log(logMessageBuilder.getMessage());
+
+        } catch (Exception e) {
+            logger.log(String.format("An error occurred trying to log response '%s'", requestId), e);
+        }
+
+        return new ByteArrayInputStream(body);
+    }
+
+    private static void logError(String requestId, Exception error, long startTime, CommunicatorLogger logger) {
+
+        if (logger != null) {
+            // same message as LoggingInterceptor, which is not used because it implements Apache HttpClient interfaces
+            final long duration = System.currentTimeMillis() - startTime;
+            logger.log(String.format("Error occurred for sent request (requestId='%s', %d ms)", requestId, duration), error);
+        }
+    }
+
+    /**
+     * Does nothing; the {@link HttpClient} closes idle connections itself.
+     * The time after which idle connections are closed can be configured using system property {@code jdk.httpclient.keepalive.timeout}.
+     */
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        // the HttpClient closes idle connections itself
+    }
+
+    /**
+     * Does nothing; the {@link HttpClient} closes expired connections itself.
+     */
+    @Override
+    public void closeExpiredConnections() {
+        // the HttpClient closes expired connections itself
+    }
+
+    @Override
+    public void enableLogging(CommunicatorLogger communicatorLogger) {
+        if (communicatorLogger == null) {
+            throw new IllegalArgumentException("communicatorLogger is required");
+        }
+        this.communicatorLogger = communicatorLogger;
+    }
+
+    @Override
+    public void disableLogging() {
+        this.communicatorLogger = null;
+    }
+}
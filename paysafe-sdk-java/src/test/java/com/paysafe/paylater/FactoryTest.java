@@ -1,5 +1,6 @@
 package com.paysafe.paylater;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 
@@ -9,10 +10,16 @@ import org.junit.Test;
 import com.paysafe.paylater.communication.Communicator;
 import com.paysafe.paylater.communication.CommunicatorConfiguration;
 import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.ConnectionType;
 import com.paysafe.paylater.communication.standard.JsonMarshaller;
+import com.paysafe.paylater.communication.standard.PaysafeAsyncConnection;
 import com.paysafe.paylater.communication.standard.PaysafeCommunicator;
 import com.paysafe.paylater.communication.standard.PaysafeConnection;
 import com.paysafe.paylater.communication.standard.PaysafeConnectionTest;
+import com.paysafe.paylater.communication.standard.PaysafeHttp2Connection;
+import com.paysafe.paylater.communication.standard.PaysafeJdkConnection;
+import com.paysafe.paylater.communication.standard.PaysafeNettyConnection;
+import com.paysafe.paylater.communication.standard.PaysafeVirtualThreadConnection;
 
 public class FactoryTest {
 
@@ -48,4 +55,95 @@ public class FactoryTest {
         Assert.assertTrue(connection instanceof PaysafeConnection);
         PaysafeConnectionTest.assertConnection((PaysafeConnection) connection, -1, -1, 100);
     }
+
+    @Test
+    public void testCreateAsyncConnection() throws IOException {
+        CommunicatorConfiguration configuration = Factory.createConfiguration(PROPERTIES_URI)
+                .withConnectionType(ConnectionType.ASYNC);
+
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.assertTrue(connection instanceof PaysafeAsyncConnection);
+        }
+    }
+
+    @Test
+    public void testCreateHttp2Connection() throws IOException {
+        CommunicatorConfiguration configuration = Factory.createConfiguration(PROPERTIES_URI)
+                .withConnectionType(ConnectionType.HTTP2);
+
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.assertTrue(connection instanceof PaysafeHttp2Connection);
+        }
+    }
+
+    @Test
+    public void testCreateVirtualThreadConnection() throws IOException {
+        CommunicatorConfiguration configuration = Factory.createConfiguration(PROPERTIES_URI)
+                .withConnectionType(ConnectionType.VIRTUAL_THREAD);
+
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.assertTrue(connection instanceof PaysafeVirtualThreadConnection);
+        }
+    }
+
+    @Test
+    public void testCreateVirtualThreadConnectionWithUnsupportedSettings() throws IOException {
+        CommunicatorConfiguration configuration = Factory.createConfiguration(PROPERTIES_URI)
+                .withConnectionType(ConnectionType.VIRTUAL_THREAD)
+                .withConnectionPoolStripes(4);
+
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.fail("connection created: " + connection);
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("connectionPoolStripes is not supported for connection type VIRTUAL_THREAD", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCreateJdkConnection() throws IOException {
+        CommunicatorConfiguration configuration = Factory.createConfiguration(PROPERTIES_URI)
+                .withConnectionType(ConnectionType.JDK);
+
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.assertTrue(connection instanceof PaysafeJdkConnection);
+        } catch (UnsupportedOperationException e) {
+            // running on a Java version before Java 11
+            Assert.assertEquals("The JDK HTTP client requires Java 11 or later", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateJdkConnectionWithConnectionTimeToLive() throws IOException {
+        CommunicatorConfiguration configuration = Factory.createConfiguration(PROPERTIES_URI)
+                .withConnectionType(ConnectionType.JDK)
+                .withConnectionTimeToLive(1000);
+
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.fail("connection created: " + connection);
+        }
+    }
+
+    @Test
+    public void testCreateJdkConnectionWithUnsupportedSettings() throws IOException {
+        CommunicatorConfiguration configuration = Factory.createConfiguration(PROPERTIES_URI)
+                .withConnectionType(ConnectionType.JDK)
+                .withConnectionPoolStripes(4)
+                .withHttpsSessionTimeout(1000);
+
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.fail("connection created: " + connection);
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("connectionPoolStripes, httpsSessionTimeout are not supported for connection type JDK", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCreateNettyConnection() throws IOException {
+        CommunicatorConfiguration configuration = Factory.createConfiguration(PROPERTIES_URI)
+                .withConnectionType(ConnectionType.NETTY);
+
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.assertTrue(connection instanceof PaysafeNettyConnection);
+        }
+    }
 }
@@ -0,0 +1,104 @@
+package com.paysafe.paylater.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.standard.PaysafeAsyncConnection;
+import com.paysafe.paylater.communication.standard.PaysafeBaseCommunicationTest;
+import com.paysafe.paylater.exception.ValidationException;
+import com.paysafe.paylater.model.InitializePurchaseRequest;
+import com.paysafe.paylater.model.OperationStatus;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+import com.paysafe.paylater.model.ResponseWithAuthorization;
+
+/**
+ * Tests for the asynchronous variants of the API methods.
+ */
+public class AsyncApiTest extends PaysafeBaseCommunicationTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGetPurchaseAsyncWithBlockingConnection() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("/com/paysafe/paylater/communication/standard/purchase.json"));
+
+        try (PurchaseLifecycleApi api = createApi(host)) {
+            PurchaseOperationResponse purchase = api.getPurchaseAsync("1", "aSecretKey", executor).get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(OperationStatus.OK, purchase.getResult().getStatus());
+        }
+    }
+
+    @Test
+    public void testGetPurchaseAsyncWithAsyncConnection() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("/com/paysafe/paylater/communication/standard/purchase.json"));
+
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(createCommunicator(host, createAsyncConnection()))) {
+            PurchaseOperationResponse purchase = api.getPurchaseAsync("1", "aSecretKey", executor).get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(OperationStatus.OK, purchase.getResult().getStatus());
+        }
+    }
+
+    @Test
+    public void testInitializePurchaseAsyncWithAccessToken() throws Exception {
+        HttpHost host = setup("/purchase/initialize", okJsonResponseWithAccessToken("/com/paysafe/paylater/communication/standard/purchase.json", "an_access_token"));
+
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(createCommunicator(host, createAsyncConnection()))) {
+            ResponseWithAuthorization<PurchaseOperationResponse> response = api.initializePurchaseAsync(new InitializePurchaseRequest(), "aSecretKey", executor)
+                                                                               .get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals("Bearer an_access_token", response.getAuthorization());
+            Assert.assertNotNull(response.getResponse().getPurchase());
+        }
+    }
+
+    @Test
+    public void testErrorResponseIsMapped() throws Exception {
+        HttpHost host = setup("/purchase/initialize", jsonResponse("missingField.json", 400));
+
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(createCommunicator(host, createAsyncConnection()))) {
+            CompletableFuture<ResponseWithAuthorization<PurchaseOperationResponse>> future = api.initializePurchaseAsync(new InitializePurchaseRequest(), "aSecretKey", executor);
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                Assert.fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(ValidationException.class, e.getCause().getClass());
+                Assert.assertEquals(400, ((ValidationException) e.getCause()).getResponseStatusCode());
+            }
+        }
+    }
+
+    @Test
+    public void testErrorResponseIsMappedWithBlockingConnection() throws Exception {
+        HttpHost host = setup("/purchase/initialize", jsonResponse("missingField.json", 400));
+
+        try (PurchaseLifecycleApi api = createApi(host)) {
+            CompletableFuture<ResponseWithAuthorization<PurchaseOperationResponse>> future = api.initializePurchaseAsync(new InitializePurchaseRequest(), "aSecretKey", executor);
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                Assert.fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(ValidationException.class, e.getCause().getClass());
+            }
+        }
+    }
+
+    private PaysafeAsyncConnection createAsyncConnection() {
+        return new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+}
@@ -0,0 +1,278 @@
+package com.paysafe.paylater.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.paysafe.paylater.communication.CircuitBreakerPolicy;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.HedgingPolicy;
+import com.paysafe.paylater.communication.RetryPolicy;
+import com.paysafe.paylater.communication.standard.CircuitBreaker;
+import com.paysafe.paylater.communication.standard.CircuitBreakerConnection;
+import com.paysafe.paylater.communication.standard.HedgingConnection;
+import com.paysafe.paylater.communication.standard.JsonMarshaller;
+import com.paysafe.paylater.communication.standard.PaysafeCommunicator;
+import com.paysafe.paylater.communication.standard.PaysafeConnection;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ReferenceException;
+import com.paysafe.paylater.exception.ResponseBodyWriteException;
+import com.paysafe.paylater.model.DownloadResponse;
+
+public class LegalDocumentsApiDownloadTest extends LocalServerTestBase {
+
+    private static final String SECRET_KEY = "aSecretKey";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    @Test
+    public void testDownloadToOutputStream() throws Exception {
+        byte[] document = createDocument();
+        try (LegalDocumentsApi api = createApi(setup(document))) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            DownloadResponse response = api.getTermsAndConditions("1", SECRET_KEY, outputStream);
+
+            Assert.assertArrayEquals(document, outputStream.toByteArray());
+            Assert.assertEquals(document.length, response.getContentLength());
+            Assert.assertTrue(response.getContentType().startsWith("text/html"));
+        }
+    }
+
+    @Test
+    public void testDownloadToPath() throws Exception {
+        byte[] document = createDocument();
+        try (LegalDocumentsApi api = createApi(setup(document))) {
+            Path path = temporaryFolder.getRoot().toPath().resolve("terms.html");
+            DownloadResponse response = api.getTermsAndConditions("1", SECRET_KEY, path);
+
+            Assert.assertArrayEquals(document, Files.readAllBytes(path));
+            Assert.assertEquals(document.length, response.getContentLength());
+        }
+    }
+
+    @Test
+    public void testErrorResponseKeepsExistingFile() throws Exception {
+        serverBootstrap.registerHandler("/purchase/legaldocuments/termsandconditions/*", (request, response, context) -> {
+            response.setStatusCode(HttpStatus.SC_NOT_FOUND);
+            response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+        });
+        try (LegalDocumentsApi api = createApi(toURI(start()))) {
+            Path path = temporaryFolder.newFile("terms.html").toPath();
+            Files.write(path, "existing".getBytes(StandardCharsets.UTF_8));
+            try {
+                api.getTermsAndConditions("1", SECRET_KEY, path);
+                Assert.fail("expected ReferenceException");
+            } catch (@SuppressWarnings("unused") ReferenceException e) {
+                // expected
+            }
+            Assert.assertEquals("existing", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testDownloadIsRetriedUntilBodyIsWritten() throws Exception {
+        byte[] document = createDocument();
+        serverBootstrap.registerHandler("/purchase/legaldocuments/termsandconditions/*", (request, response, context) -> {
+            int count = requestCount.incrementAndGet();
+            if (count == 1) {
+                response.setStatusCode(HttpStatus.SC_SERVICE_UNAVAILABLE);
+                response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+            } else {
+                // the connection is closed after half of the document
+                response.setEntity(new TruncatedEntity(document, true));
+            }
+        });
+        try (LegalDocumentsApi api = createApi(toURI(start()))) {
+            Path path = temporaryFolder.getRoot().toPath().resolve("terms.html");
+            try {
+                api.getTermsAndConditions("1", SECRET_KEY, path);
+                Assert.fail("expected CommunicationException");
+            } catch (@SuppressWarnings("unused") CommunicationException e) {
+                // expected
+            }
+            // the error response was retried, the truncated response was not
+            Assert.assertEquals(2, requestCount.get());
+            Assert.assertFalse(Files.exists(path));
+        }
+    }
+
+    @Test
+    public void testTruncatedChunkedDownloadFails() throws Exception {
+        byte[] document = createDocument();
+        serverBootstrap.registerHandler("/purchase/legaldocuments/termsandconditions/*", (request, response, context) -> {
+            // no content length, so the body is chunked and cannot be checked against its expected length
+            response.setEntity(new TruncatedEntity(document, false));
+        });
+        try (LegalDocumentsApi api = createApi(toURI(start()))) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try {
+                api.getTermsAndConditions("1", SECRET_KEY, outputStream);
+                Assert.fail("expected CommunicationException");
+            } catch (@SuppressWarnings("unused") CommunicationException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testFailedDownloadKeepsExistingFile() throws Exception {
+        byte[] document = createDocument();
+        serverBootstrap.registerHandler("/purchase/legaldocuments/termsandconditions/*", (request, response, context) -> {
+            response.setEntity(new TruncatedEntity(document, false));
+        });
+        try (LegalDocumentsApi api = createApi(toURI(start()))) {
+            Path path = temporaryFolder.newFile("terms.html").toPath();
+            Files.write(path, "existing".getBytes(StandardCharsets.UTF_8));
+            try {
+                api.getTermsAndConditions("1", SECRET_KEY, path);
+                Assert.fail("expected CommunicationException");
+            } catch (@SuppressWarnings("unused") CommunicationException e) {
+                // expected
+            }
+            Assert.assertEquals("existing", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            // the temporary file is removed as well
+            try (Stream<Path> files = Files.list(temporaryFolder.getRoot().toPath())) {
+                Assert.assertEquals(1, files.count());
+            }
+        }
+    }
+
+    @Test
+    public void testFailedWriteIsNotHedgedOrCountedAsFailure() throws Exception {
+        byte[] document = createDocument();
+        serverBootstrap.registerHandler("/purchase/legaldocuments/termsandconditions/*", (request, response, context) -> {
+            requestCount.incrementAndGet();
+            try {
+                // slower than the hedging delay
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setEntity(new ByteArrayEntity(document, ContentType.TEXT_HTML));
+        });
+        URI apiEndpoint = toURI(start());
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerPolicy()
+                .withMinimumNumberOfCalls(2));
+        Connection connection = HedgingConnection.create(CircuitBreakerConnection.create(createConnection(), circuitBreaker), new HedgingPolicy()
+                .withDelay(10)
+                .withDelayPercentile(0));
+        try (LegalDocumentsApi api = new LegalDocumentsApi(new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE, new RetryPolicy()))) {
+            OutputStream outputStream = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    throw new IOException("consumer disconnected");
+                }
+            };
+            for (int i = 0; i < 3; i++) {
+                try {
+                    api.getTermsAndConditions("1", SECRET_KEY, outputStream);
+                    Assert.fail("expected ResponseBodyWriteException");
+                } catch (@SuppressWarnings("unused") ResponseBodyWriteException e) {
+                    // expected
+                }
+            }
+            // each download sent exactly one request, and none of them counted as a failure of the platform
+            Assert.assertEquals(3, requestCount.get());
+            Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        }
+    }
+
+    private URI setup(byte[] document) throws Exception {
+        serverBootstrap.registerHandler("/purchase/legaldocuments/termsandconditions/*", (request, response, context) -> {
+            requestCount.incrementAndGet();
+            response.setEntity(new ByteArrayEntity(document, ContentType.TEXT_HTML));
+        });
+        return toURI(start());
+    }
+
+    private static LegalDocumentsApi createApi(URI apiEndpoint) {
+        Connection connection = createConnection();
+        RetryPolicy retryPolicy = new RetryPolicy()
+                .withBaseDelay(10);
+        return new LegalDocumentsApi(new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE, retryPolicy));
+    }
+
+    private static Connection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+
+    /**
+     * Returns a document that is larger than the buffers used to copy it.
+     */
+    private static byte[] createDocument() {
+        byte[] document = new byte[100000];
+        byte[] line = "<p>Terms and conditions</p>\n".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < document.length; i++) {
+            document[i] = line[i % line.length];
+        }
+        return document;
+    }
+
+    private static final class TruncatedEntity extends AbstractHttpEntity {
+
+        private final byte[] content;
+        private final boolean knownLength;
+
+        private TruncatedEntity(byte[] content, boolean knownLength) {
+            this.content = content;
+            this.knownLength = knownLength;
+            setContentType(ContentType.TEXT_HTML.toString());
+            setChunked(!knownLength);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            return knownLength ? content.length : -1;
+        }
+
+        @Override
+        public InputStream getContent() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(Arrays.copyOf(content, content.length / 2));
+            outputStream.flush();
+            throw new IOException("connection closed");
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+}
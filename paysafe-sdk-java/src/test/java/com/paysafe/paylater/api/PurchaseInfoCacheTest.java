@@ -0,0 +1,240 @@
+package com.paysafe.paylater.api;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.OngoingStubbing;
+
+import com.paysafe.paylater.communication.Communicator;
+import com.paysafe.paylater.communication.HttpMethod;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.standard.JsonMarshaller;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ReferenceException;
+import com.paysafe.paylater.exception.ResponseException;
+import com.paysafe.paylater.model.CapturePurchaseRequest;
+import com.paysafe.paylater.model.PurchaseInformation;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PurchaseInfoCacheTest {
+
+    private static final String PURCHASE_ID = "aPurchaseId";
+    private static final String SECRET_KEY = "aSecretKey";
+
+    @Mock
+    private Communicator communicator;
+
+    private PurchaseInfoCache cache;
+
+    @Before
+    public void setup() {
+        when(communicator.getMarshaller()).thenReturn(JsonMarshaller.INSTANCE);
+        whenGetPurchase().thenAnswer(invocation -> createResponse(PURCHASE_ID));
+    }
+
+    @After
+    public void closeCache() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void testPurchaseIsCached() {
+        PurchaseLifecycleApi api = createApi(new PurchaseInfoCachePolicy());
+
+        PurchaseOperationResponse first = api.getPurchase(PURCHASE_ID, SECRET_KEY);
+        PurchaseOperationResponse second = api.getPurchase(PURCHASE_ID, SECRET_KEY);
+        PurchaseOperationResponse third = api.getPurchase(PURCHASE_ID, SECRET_KEY);
+
+        verifyGetPurchase(1);
+        Assert.assertEquals(PURCHASE_ID, third.getPurchase().getPurchaseId());
+        // each lookup returns its own copy
+        Assert.assertNotSame(first, second);
+        Assert.assertNotSame(second, third);
+
+        PurchaseInfoCacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals(2, statistics.getHits());
+        Assert.assertEquals(1, statistics.getMisses());
+    }
+
+    @Test
+    public void testPurchaseIsNotSharedBetweenSecretKeys() {
+        PurchaseLifecycleApi api = createApi(new PurchaseInfoCachePolicy());
+
+        api.getPurchase(PURCHASE_ID, SECRET_KEY);
+        api.getPurchase(PURCHASE_ID, "anotherSecretKey");
+
+        verifyGetPurchase(2);
+    }
+
+    @Test
+    public void testCaptureInvalidatesPurchase() {
+        when(communicator.execute(eq(HttpMethod.POST), eq("/purchase/capture"), anyListOf(RequestHeader.class), any(),
+                eq(PurchaseOperationResponse.class)))
+                .thenReturn(createResponse(PURCHASE_ID));
+        PurchaseLifecycleApi api = createApi(new PurchaseInfoCachePolicy());
+
+        api.getPurchase(PURCHASE_ID, SECRET_KEY);
+        CapturePurchaseRequest captureRequest = new CapturePurchaseRequest();
+        captureRequest.setPurchaseId(PURCHASE_ID);
+        api.capturePurchase(captureRequest, SECRET_KEY);
+        api.getPurchase(PURCHASE_ID, SECRET_KEY);
+
+        verifyGetPurchase(2);
+        Assert.assertEquals(1, cache.getStatistics().getInvalidations());
+    }
+
+    @Test
+    public void testExpiredPurchaseIsReturnedWhileRevalidating() throws Exception {
+        PurchaseLifecycleApi api = createApi(new PurchaseInfoCachePolicy()
+                .withTimeToLive(50)
+                .withStaleWhileRevalidate(10000));
+
+        api.getPurchase(PURCHASE_ID, SECRET_KEY);
+        Thread.sleep(100);
+        Assert.assertNotNull(api.getPurchase(PURCHASE_ID, SECRET_KEY));
+        Assert.assertEquals(1, cache.getStatistics().getStaleHits());
+
+        // refreshed in the background
+        verify(communicator, timeout(5000).times(2)).execute(eq(HttpMethod.GET), anyString(), anyListOf(RequestHeader.class), any(),
+                eq(PurchaseOperationResponse.class));
+        waitForHit(api);
+    }
+
+    @Test
+    public void testExpiredPurchaseIsReturnedIfApiIsUnavailable() throws Exception {
+        PurchaseLifecycleApi api = createApi(new PurchaseInfoCachePolicy()
+                .withTimeToLive(50)
+                .withStaleWhileRevalidate(0)
+                .withStaleIfError(10000));
+
+        api.getPurchase(PURCHASE_ID, SECRET_KEY);
+        Thread.sleep(100);
+
+        whenGetPurchase().thenThrow(new CommunicationException("unavailable"));
+        Assert.assertEquals(PURCHASE_ID, api.getPurchase(PURCHASE_ID, SECRET_KEY).getPurchase().getPurchaseId());
+        Assert.assertEquals(1, cache.getStatistics().getStaleHits());
+
+        // errors caused by the request itself are not hidden
+        whenGetPurchase().thenThrow(new ResponseException(404, "{}", Collections.emptyList()));
+        try {
+            api.getPurchase(PURCHASE_ID, SECRET_KEY);
+            Assert.fail("expected ReferenceException");
+        } catch (@SuppressWarnings("unused") ReferenceException e) {
+            // expected
+        }
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPurchaseIsEvicted() {
+        whenGetPurchase().thenAnswer(invocation -> createResponse(invocation.getArgumentAt(1, String.class)));
+        PurchaseLifecycleApi api = createApi(new PurchaseInfoCachePolicy()
+                .withMaxSize(2));
+
+        api.getPurchase("1", SECRET_KEY);
+        api.getPurchase("2", SECRET_KEY);
+        api.getPurchase("1", SECRET_KEY);
+        api.getPurchase("3", SECRET_KEY);
+        // 2 was evicted, 1 was not
+        api.getPurchase("1", SECRET_KEY);
+        api.getPurchase("2", SECRET_KEY);
+
+        verifyGetPurchase(4);
+        PurchaseInfoCacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals(2, statistics.getEvictions());
+        Assert.assertEquals(2, statistics.getHits());
+        Assert.assertEquals(4, statistics.getMisses());
+    }
+
+    @Test
+    public void testPurchaseIsCachedAsync() throws Exception {
+        when(communicator.executeAsync(eq(HttpMethod.GET), anyString(), anyListOf(RequestHeader.class), any(),
+                eq(PurchaseOperationResponse.class), any(Executor.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(createResponse(PURCHASE_ID)));
+        PurchaseLifecycleApi api = createApi(new PurchaseInfoCachePolicy());
+
+        api.getPurchaseAsync(PURCHASE_ID, SECRET_KEY, Runnable::run).get();
+        CompletableFuture<PurchaseOperationResponse> cached = api.getPurchaseAsync(PURCHASE_ID, SECRET_KEY, Runnable::run);
+
+        Assert.assertTrue(cached.isDone());
+        Assert.assertEquals(PURCHASE_ID, cached.get().getPurchase().getPurchaseId());
+        verify(communicator, times(1)).executeAsync(eq(HttpMethod.GET), anyString(), anyListOf(RequestHeader.class), any(),
+                eq(PurchaseOperationResponse.class), any(Executor.class));
+    }
+
+    @Test
+    public void testInvalidationOnlyDiscardsLookupsOfSamePurchase() throws Exception {
+        CompletableFuture<PurchaseOperationResponse> first = new CompletableFuture<>();
+        CompletableFuture<PurchaseOperationResponse> second = new CompletableFuture<>();
+        when(communicator.executeAsync(eq(HttpMethod.GET), anyString(), anyListOf(RequestHeader.class), any(),
+                eq(PurchaseOperationResponse.class), any(Executor.class)))
+                .thenReturn(first).thenReturn(second);
+        PurchaseLifecycleApi api = createApi(new PurchaseInfoCachePolicy());
+
+        CompletableFuture<PurchaseOperationResponse> lookup1 = api.getPurchaseAsync("1", SECRET_KEY, Runnable::run);
+        CompletableFuture<PurchaseOperationResponse> lookup2 = api.getPurchaseAsync("2", SECRET_KEY, Runnable::run);
+        // purchase 1 is captured while both lookups are in flight
+        cache.invalidate("1");
+        first.complete(createResponse("1"));
+        second.complete(createResponse("2"));
+        lookup1.get();
+        lookup2.get();
+
+        // the lookup of purchase 1 may have obtained it before it was captured; the lookup of purchase 2 is not affected
+        Assert.assertEquals(1, cache.size());
+        Assert.assertTrue(api.getPurchaseAsync("2", SECRET_KEY, Runnable::run).isDone());
+        Assert.assertEquals(1, cache.getStatistics().getHits());
+    }
+
+    private PurchaseLifecycleApi createApi(PurchaseInfoCachePolicy policy) {
+        cache = new PurchaseInfoCache(policy);
+        return new PurchaseLifecycleApi(communicator, cache);
+    }
+
+    private OngoingStubbing<PurchaseOperationResponse> whenGetPurchase() {
+        return when(communicator.execute(eq(HttpMethod.GET), anyString(), anyListOf(RequestHeader.class), any(),
+                eq(PurchaseOperationResponse.class)));
+    }
+
+    private void verifyGetPurchase(int count) {
+        verify(communicator, times(count)).execute(eq(HttpMethod.GET), anyString(), anyListOf(RequestHeader.class), any(),
+                eq(PurchaseOperationResponse.class));
+    }
+
+    private void waitForHit(PurchaseLifecycleApi api) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.getStatistics().getHits() == 0) {
+            Assert.assertTrue("purchase not refreshed in time", System.currentTimeMillis() < deadline);
+            api.getPurchase(PURCHASE_ID, SECRET_KEY);
+            Thread.sleep(10);
+        }
+    }
+
+    private static PurchaseOperationResponse createResponse(String purchaseId) {
+        PurchaseInformation purchase = new PurchaseInformation();
+        purchase.setPurchaseId(purchaseId);
+        PurchaseOperationResponse response = new PurchaseOperationResponse();
+        response.setPurchase(purchase);
+        return response;
+    }
+}
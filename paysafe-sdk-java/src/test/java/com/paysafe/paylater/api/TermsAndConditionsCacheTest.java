@@ -0,0 +1,147 @@
+package com.paysafe.paylater.api;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.standard.PaysafeAsyncConnection;
+import com.paysafe.paylater.communication.standard.PaysafeConnection;
+
+public class TermsAndConditionsCacheTest extends LocalServerTestBase {
+
+    private static final String DOCUMENT = "<html><body>Terms and conditions</body></html>";
+    private static final String ETAG = "\"v1\"";
+    private static final String SECRET_KEY = "aSecretKey";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    // the If-None-Match header of each request, or null if there was none
+    private final List<String> conditions = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testDocumentIsCached() throws Exception {
+        TermsAndConditionsCache cache = new TermsAndConditionsCache(new TermsAndConditionsCachePolicy());
+        try (LegalDocumentsApi api = createApi(setup(), cache)) {
+            Assert.assertEquals(DOCUMENT, api.getTermsAndConditions("1", SECRET_KEY));
+            Assert.assertEquals(DOCUMENT, api.getTermsAndConditions("1", SECRET_KEY));
+
+            Assert.assertEquals(1, conditions.size());
+            Assert.assertEquals(1, cache.getStatistics().getHits());
+        }
+    }
+
+    @Test
+    public void testExpiredDocumentIsRevalidated() throws Exception {
+        TermsAndConditionsCache cache = new TermsAndConditionsCache(new TermsAndConditionsCachePolicy()
+                .withTimeToLive(0));
+        try (LegalDocumentsApi api = createApi(setup(), cache)) {
+            Assert.assertEquals(DOCUMENT, api.getTermsAndConditions("1", SECRET_KEY));
+            Assert.assertEquals(DOCUMENT, api.getTermsAndConditions("1", SECRET_KEY));
+
+            Assert.assertEquals(2, conditions.size());
+            Assert.assertNull(conditions.get(0));
+            Assert.assertEquals(ETAG, conditions.get(1));
+            TermsAndConditionsCacheStatistics statistics = cache.getStatistics();
+            Assert.assertEquals(1, statistics.getNotModified());
+            Assert.assertEquals(1, statistics.getDownloads());
+        }
+    }
+
+    @Test
+    public void testExpiredDocumentIsRevalidatedAsync() throws Exception {
+        TermsAndConditionsCache cache = new TermsAndConditionsCache(new TermsAndConditionsCachePolicy()
+                .withTimeToLive(0));
+        PaysafeAsyncConnection connection = new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        try (LegalDocumentsApi api = new LegalDocumentsApi(Factory.createCommunicator(setup(), connection), cache)) {
+            Assert.assertEquals(DOCUMENT, api.getTermsAndConditionsAsync("1", SECRET_KEY, Runnable::run).get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(DOCUMENT, api.getTermsAndConditionsAsync("1", SECRET_KEY, Runnable::run).get(5, TimeUnit.SECONDS));
+
+            Assert.assertEquals(ETAG, conditions.get(1));
+            Assert.assertEquals(1, cache.getStatistics().getNotModified());
+        }
+    }
+
+    @Test
+    public void testIdenticalDocumentsAreStoredOnce() throws Exception {
+        TermsAndConditionsCache cache = new TermsAndConditionsCache(new TermsAndConditionsCachePolicy());
+        try (LegalDocumentsApi api = createApi(setup(), cache)) {
+            api.getTermsAndConditions("1", SECRET_KEY);
+            long memorySize = cache.getStatistics().getMemorySize();
+            Assert.assertTrue(memorySize > 0);
+
+            for (int i = 2; i <= 5; i++) {
+                Assert.assertEquals(DOCUMENT, api.getTermsAndConditions(Integer.toString(i), SECRET_KEY));
+            }
+            TermsAndConditionsCacheStatistics statistics = cache.getStatistics();
+            Assert.assertEquals(5, statistics.getDownloads());
+            Assert.assertEquals(4, statistics.getDuplicateDownloads());
+            Assert.assertEquals(memorySize, statistics.getMemorySize());
+        }
+    }
+
+    @Test
+    public void testDocumentsAreReadFromDisk() throws Exception {
+        TermsAndConditionsCachePolicy policy = new TermsAndConditionsCachePolicy()
+                .withMaxMemorySize(0)
+                .withDiskDirectory(temporaryFolder.getRoot().toPath());
+        TermsAndConditionsCache cache = new TermsAndConditionsCache(policy);
+        URI apiEndpoint = setup();
+        try (LegalDocumentsApi api = createApi(apiEndpoint, cache)) {
+            api.getTermsAndConditions("1", SECRET_KEY);
+            Assert.assertEquals(DOCUMENT, api.getTermsAndConditions("1", SECRET_KEY));
+
+            TermsAndConditionsCacheStatistics statistics = cache.getStatistics();
+            Assert.assertEquals(1, statistics.getDiskReads());
+            Assert.assertEquals(0, statistics.getMemorySize());
+            Assert.assertTrue(statistics.getDiskSize() > 0);
+        }
+
+        // a new cache uses the documents that are already on disk
+        TermsAndConditionsCache newCache = new TermsAndConditionsCache(policy);
+        try (LegalDocumentsApi api = createApi(apiEndpoint, newCache)) {
+            api.getTermsAndConditions("2", SECRET_KEY);
+            Assert.assertEquals(1, newCache.getStatistics().getDuplicateDownloads());
+        }
+    }
+
+    /**
+     * Sets up a server that returns the same document for each purchase, or a not modified response if the request has its ETag.
+     */
+    private URI setup() throws Exception {
+        serverBootstrap.registerHandler("/purchase/legaldocuments/termsandconditions/*", (request, response, context) -> {
+            Header ifNoneMatch = request.getFirstHeader(HttpHeaders.IF_NONE_MATCH);
+            conditions.add(ifNoneMatch != null ? ifNoneMatch.getValue() : null);
+            response.setHeader(HttpHeaders.ETAG, ETAG);
+            if (ifNoneMatch != null && ETAG.equals(ifNoneMatch.getValue())) {
+                response.setStatusCode(HttpStatus.SC_NOT_MODIFIED);
+                return;
+            }
+            response.setEntity(new StringEntity(DOCUMENT, ContentType.TEXT_HTML));
+        });
+        HttpHost host = start();
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+
+    private static LegalDocumentsApi createApi(URI apiEndpoint, TermsAndConditionsCache cache) {
+        PaysafeConnection connection = new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        return new LegalDocumentsApi(Factory.createCommunicator(apiEndpoint, connection), cache);
+    }
+}
@@ -0,0 +1,345 @@
+package com.paysafe.paylater.api;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.communication.Communicator;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.standard.PaysafeAsyncConnection;
+import com.paysafe.paylater.communication.standard.PaysafeConnection;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.model.InitializePurchaseRequest;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+import com.paysafe.paylater.model.ResponseWithAuthorization;
+
+public class TermsAndConditionsPrefetcherTest extends LocalServerTestBase {
+
+    private static final String DOCUMENT = "<html><body>Terms and conditions</body></html>";
+    private static final String SECRET_KEY = "aSecretKey";
+
+    private final TermsAndConditionsPrefetcher prefetcher = new TermsAndConditionsPrefetcher(new TermsAndConditionsPrefetchPolicy());
+
+    // the Authorization header of each terms-and-conditions request
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final AtomicInteger purchaseInfoRequests = new AtomicInteger();
+
+    @After
+    public void closePrefetcher() {
+        prefetcher.close();
+    }
+
+    @Test
+    public void testDocumentIsPrefetchedAfterInitialize() throws Exception {
+        Communicator communicator = createCommunicator(setup(0), createConnection());
+        try (LegalDocumentsApi legalDocumentsApi = new LegalDocumentsApi(communicator, null, prefetcher);
+                PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator, null, legalDocumentsApi)) {
+
+            ResponseWithAuthorization<PurchaseOperationResponse> response = api.initializePurchase(new InitializePurchaseRequest(), SECRET_KEY);
+            Assert.assertEquals(DOCUMENT, legalDocumentsApi.getTermsAndConditionsWithAuthorization("1", response.getAuthorization()));
+
+            Assert.assertEquals(1, authorizations.size());
+            Assert.assertEquals("Bearer an_access_token", authorizations.get(0));
+            TermsAndConditionsPrefetchStatistics statistics = prefetcher.getStatistics();
+            Assert.assertEquals(1, statistics.getPrefetches());
+            Assert.assertEquals(1, statistics.getHits());
+
+            // a prefetched document is returned only once
+            Assert.assertEquals(DOCUMENT, legalDocumentsApi.getTermsAndConditionsWithAuthorization("1", response.getAuthorization()));
+            Assert.assertEquals(2, authorizations.size());
+        }
+    }
+
+    @Test
+    public void testDocumentIsPrefetchedAfterInitializeAsync() throws Exception {
+        Communicator communicator = createCommunicator(setup(0), new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT));
+        try (LegalDocumentsApi legalDocumentsApi = new LegalDocumentsApi(communicator, null, prefetcher);
+                PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator, null, legalDocumentsApi)) {
+
+            ResponseWithAuthorization<PurchaseOperationResponse> response = api.initializePurchaseAsync(new InitializePurchaseRequest(), SECRET_KEY, Runnable::run)
+                                                                               .get(5, TimeUnit.SECONDS);
+            String document = legalDocumentsApi.getTermsAndConditionsWithAuthorizationAsync("1", response.getAuthorization(), Runnable::run)
+                                               .get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(DOCUMENT, document);
+            Assert.assertEquals(1, authorizations.size());
+            Assert.assertEquals(1, prefetcher.getStatistics().getHits());
+        }
+    }
+
+    @Test
+    public void testPrefetchedDocumentIsNotReturnedForOtherAuthorization() throws Exception {
+        Communicator communicator = createCommunicator(setup(0), createConnection());
+        try (LegalDocumentsApi legalDocumentsApi = new LegalDocumentsApi(communicator, null, prefetcher);
+                PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator, null, legalDocumentsApi)) {
+
+            api.initializePurchase(new InitializePurchaseRequest(), SECRET_KEY);
+            Assert.assertEquals(DOCUMENT, legalDocumentsApi.getTermsAndConditionsWithAuthorization("1", "Bearer another_access_token"));
+
+            Assert.assertTrue(authorizations.contains("Bearer another_access_token"));
+            Assert.assertEquals(0, prefetcher.getStatistics().getHits());
+        }
+    }
+
+    @Test
+    public void testFailedPrefetchIsNotReturned() throws Exception {
+        Communicator communicator = createCommunicator(setup(1), createConnection());
+        try (LegalDocumentsApi legalDocumentsApi = new LegalDocumentsApi(communicator, null, prefetcher);
+                PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator, null, legalDocumentsApi)) {
+
+            ResponseWithAuthorization<PurchaseOperationResponse> response = api.initializePurchase(new InitializePurchaseRequest(), SECRET_KEY);
+            Assert.assertEquals(DOCUMENT, legalDocumentsApi.getTermsAndConditionsWithAuthorization("1", response.getAuthorization()));
+
+            Assert.assertEquals(2, authorizations.size());
+            TermsAndConditionsPrefetchStatistics statistics = prefetcher.getStatistics();
+            Assert.assertEquals(1, statistics.getFailures());
+            Assert.assertEquals(0, statistics.getHits());
+        }
+    }
+
+    @Test
+    public void testInitializeResponseIsNotCached() throws Exception {
+        Communicator communicator = createCommunicator(setup(0), createConnection());
+        try (PurchaseInfoCache cache = new PurchaseInfoCache(new PurchaseInfoCachePolicy());
+                LegalDocumentsApi legalDocumentsApi = new LegalDocumentsApi(communicator, null, prefetcher);
+                PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator, cache, legalDocumentsApi)) {
+
+            ResponseWithAuthorization<PurchaseOperationResponse> response = api.initializePurchase(new InitializePurchaseRequest(), SECRET_KEY);
+            PurchaseOperationResponse purchase = api.getPurchaseWithAuthorization("1", response.getAuthorization());
+
+            Assert.assertEquals("1", purchase.getPurchase().getPurchaseId());
+            Assert.assertEquals(1, purchaseInfoRequests.get());
+            Assert.assertEquals(0, cache.getStatistics().getHits());
+        }
+    }
+
+    @Test
+    public void testFailedPrefetchDoesNotFailInitialize() throws Exception {
+        Communicator communicator = createCommunicator(setup(0), createConnection());
+        try (LegalDocumentsApi legalDocumentsApi = new LegalDocumentsApi(communicator, null, prefetcher) {
+                    @Override
+                    public void prefetchTermsAndConditionsWithAuthorization(String purchaseId, String authorization) {
+                        throw new IllegalStateException("prefetch failed");
+                    }
+                };
+                PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator, null, legalDocumentsApi)) {
+
+            ResponseWithAuthorization<PurchaseOperationResponse> response = api.initializePurchase(new InitializePurchaseRequest(), SECRET_KEY);
+            Assert.assertEquals("Bearer an_access_token", response.getAuthorization());
+            Assert.assertEquals(1, prefetcher.getStatistics().getFailures());
+
+            response = api.initializePurchaseAsync(new InitializePurchaseRequest(), SECRET_KEY, Runnable::run).get(5, TimeUnit.SECONDS);
+            Assert.assertEquals("Bearer an_access_token", response.getAuthorization());
+            Assert.assertEquals(2, prefetcher.getStatistics().getFailures());
+        }
+    }
+
+    @Test
+    public void testWaitForPrefetchIsLimitedByDeadline() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            prefetcher.prefetch("1", "Bearer an_access_token", executor -> CompletableFuture.supplyAsync(() -> await(release), executor));
+
+            long startTime = System.nanoTime();
+            try {
+                Deadline.after(100, TimeUnit.MILLISECONDS).call(() -> prefetcher.get("1", "Bearer an_access_token", () -> "loaded"));
+                Assert.fail("expected DeadlineExceededException");
+            } catch (@SuppressWarnings("unused") DeadlineExceededException e) {
+                // expected
+            }
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5));
+            Assert.assertEquals(0, prefetcher.getStatistics().getHits());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testWaitForPrefetchIsLimitedByTimeToLive() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<CompletableFuture<String>> request = new AtomicReference<>();
+        try (TermsAndConditionsPrefetcher shortLivedPrefetcher = new TermsAndConditionsPrefetcher(new TermsAndConditionsPrefetchPolicy()
+                .withTimeToLive(200))) {
+
+            shortLivedPrefetcher.prefetch("1", "Bearer an_access_token", executor -> {
+                request.set(CompletableFuture.supplyAsync(() -> await(release), executor));
+                return request.get();
+            });
+
+            long startTime = System.nanoTime();
+            Assert.assertEquals("loaded", shortLivedPrefetcher.get("1", "Bearer an_access_token", () -> "loaded"));
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5));
+            Assert.assertTrue(request.get().isCancelled());
+            Assert.assertEquals(1, shortLivedPrefetcher.getStatistics().getDiscarded());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testEvictedPrefetchIsCancelled() throws Exception {
+        CompletableFuture<String> request = new CompletableFuture<>();
+        try (TermsAndConditionsPrefetcher smallPrefetcher = new TermsAndConditionsPrefetcher(new TermsAndConditionsPrefetchPolicy()
+                .withMaxSize(1))) {
+
+            smallPrefetcher.prefetch("1", "Bearer an_access_token", executor -> request);
+            smallPrefetcher.prefetch("2", "Bearer an_access_token", executor -> new CompletableFuture<>());
+
+            Assert.assertTrue(request.isCancelled());
+            Assert.assertEquals(1, smallPrefetcher.size());
+            Assert.assertEquals(1, smallPrefetcher.getStatistics().getDiscarded());
+        }
+    }
+
+    @Test
+    public void testExpiredPrefetchIsCancelled() throws Exception {
+        CompletableFuture<String> request = new CompletableFuture<>();
+        try (TermsAndConditionsPrefetcher shortLivedPrefetcher = new TermsAndConditionsPrefetcher(new TermsAndConditionsPrefetchPolicy()
+                .withTimeToLive(50))) {
+
+            shortLivedPrefetcher.prefetch("1", "Bearer an_access_token", executor -> request);
+            Thread.sleep(100);
+            shortLivedPrefetcher.prefetch("2", "Bearer an_access_token", executor -> new CompletableFuture<>());
+
+            Assert.assertTrue(request.isCancelled());
+            Assert.assertEquals(1, shortLivedPrefetcher.size());
+            Assert.assertEquals(1, shortLivedPrefetcher.getStatistics().getDiscarded());
+        }
+    }
+
+    @Test
+    public void testEvictedPrefetchThatHasNotStartedIsNotSent() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        try (TermsAndConditionsPrefetcher smallPrefetcher = new TermsAndConditionsPrefetcher(new TermsAndConditionsPrefetchPolicy()
+                .withMaxSize(2))) {
+
+            try {
+                // occupy all prefetch threads
+                smallPrefetcher.prefetch("1", "Bearer an_access_token", executor -> CompletableFuture.supplyAsync(() -> await(release), executor));
+                smallPrefetcher.prefetch("2", "Bearer an_access_token", executor -> CompletableFuture.supplyAsync(() -> await(release), executor));
+                smallPrefetcher.prefetch("3", "Bearer an_access_token", executor -> CompletableFuture.supplyAsync(() -> {
+                    sent.incrementAndGet();
+                    return DOCUMENT;
+                }, executor));
+                // evicts the first three prefetches
+                for (int i = 4; i <= 6; i++) {
+                    smallPrefetcher.prefetch(String.valueOf(i), "Bearer an_access_token", executor -> new CompletableFuture<>());
+                }
+                Assert.assertEquals(4, smallPrefetcher.getStatistics().getDiscarded());
+            } finally {
+                release.countDown();
+            }
+            Thread.sleep(100);
+            Assert.assertEquals(0, sent.get());
+        }
+    }
+
+    @Test
+    public void testPrefetchIsDroppedWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // occupy all prefetch threads, and fill the queue
+            for (int i = 0; i < 2 + TermsAndConditionsPrefetcher.MAX_QUEUED_PREFETCHES; i++) {
+                prefetcher.prefetch(String.valueOf(i), "Bearer an_access_token", executor -> CompletableFuture.supplyAsync(() -> await(release), executor));
+            }
+            prefetcher.prefetch("dropped", "Bearer an_access_token", executor -> CompletableFuture.supplyAsync(() -> DOCUMENT, executor));
+
+            Assert.assertEquals(1, prefetcher.getStatistics().getDiscarded());
+            Assert.assertEquals(0, prefetcher.getStatistics().getFailures());
+            Assert.assertEquals("loaded", prefetcher.get("dropped", "Bearer an_access_token", () -> "loaded"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testPrefetchThatHasNotStartedIsNotWaitedFor() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        try {
+            // occupy all prefetch threads
+            prefetcher.prefetch("1", "Bearer an_access_token", executor -> CompletableFuture.supplyAsync(() -> await(release), executor));
+            prefetcher.prefetch("2", "Bearer an_access_token", executor -> CompletableFuture.supplyAsync(() -> await(release), executor));
+            prefetcher.prefetch("3", "Bearer an_access_token", executor -> CompletableFuture.supplyAsync(() -> {
+                sent.incrementAndGet();
+                return DOCUMENT;
+            }, executor));
+
+            Assert.assertEquals("loaded", prefetcher.get("3", "Bearer an_access_token", () -> "loaded"));
+            Assert.assertEquals(1, prefetcher.getStatistics().getDiscarded());
+        } finally {
+            release.countDown();
+        }
+        // the prefetch that had not started is not sent at all
+        Thread.sleep(100);
+        Assert.assertEquals(0, sent.get());
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (@SuppressWarnings("unused") InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return DOCUMENT;
+    }
+
+    /**
+     * Sets up a server that initializes purchase 1 with an access token, returns purchase 1 for each purchase info request, and returns
+     * the same document for each purchase after failing the given number of terms-and-conditions requests.
+     */
+    private URI setup(int failures) throws Exception {
+        serverBootstrap.registerHandler("/purchase/initialize", (request, response, context) -> {
+            InputStream body = getClass().getResourceAsStream("/com/paysafe/paylater/communication/standard/purchase.json");
+            response.setHeader("access_token", "an_access_token");
+            response.setEntity(new InputStreamEntity(body, ContentType.APPLICATION_JSON));
+        });
+        serverBootstrap.registerHandler("/purchase/info/*", (request, response, context) -> {
+            purchaseInfoRequests.incrementAndGet();
+            InputStream body = getClass().getResourceAsStream("/com/paysafe/paylater/communication/standard/purchase.json");
+            response.setEntity(new InputStreamEntity(body, ContentType.APPLICATION_JSON));
+        });
+        AtomicInteger failed = new AtomicInteger();
+        serverBootstrap.registerHandler("/purchase/legaldocuments/termsandconditions/*", (request, response, context) -> {
+            authorizations.add(request.getFirstHeader(HttpHeaders.AUTHORIZATION).getValue());
+            if (failed.incrementAndGet() <= failures) {
+                response.setStatusCode(HttpStatus.SC_NOT_FOUND);
+                response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+                return;
+            }
+            response.setEntity(new StringEntity(DOCUMENT, ContentType.TEXT_HTML));
+        });
+        HttpHost host = start();
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+
+    private static Connection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static Communicator createCommunicator(URI apiEndpoint, Connection connection) {
+        return Factory.createCommunicator(apiEndpoint, connection);
+    }
+}
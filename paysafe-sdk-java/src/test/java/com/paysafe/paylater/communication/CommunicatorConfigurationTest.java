@@ -63,6 +63,369 @@ public class CommunicatorConfigurationTest {
                 DEFAULT_HTTPS_PROTOCOLS);
     }
 
+    @Test
+    public void testConstructFromPropertiesWithMaxConcurrentStreams() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_MAX_CONCURRENT_STREAMS, new CommunicatorConfiguration(properties).getMaxConcurrentStreams());
+
+        properties.setProperty("paysafe.paylater.api.maxConcurrentStreams", "50");
+
+        Assert.assertEquals(50, new CommunicatorConfiguration(properties).getMaxConcurrentStreams());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithConnectionPoolStripes() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_CONNECTION_POOL_STRIPES, new CommunicatorConfiguration(properties).getConnectionPoolStripes());
+
+        properties.setProperty("paysafe.paylater.api.connectionPoolStripes", "8");
+
+        Assert.assertEquals(8, new CommunicatorConfiguration(properties).getConnectionPoolStripes());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithConnectionEviction() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_CONNECTION_EVICTION_INTERVAL, configuration.getConnectionEvictionInterval());
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_MAX_IDLE_TIME, configuration.getMaxIdleTime());
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_CONNECTION_TIME_TO_LIVE, configuration.getConnectionTimeToLive());
+
+        properties.setProperty("paysafe.paylater.api.connectionEvictionInterval", "5000");
+        properties.setProperty("paysafe.paylater.api.maxIdleTime", "30000");
+        properties.setProperty("paysafe.paylater.api.connectionTimeToLive", "300000");
+
+        configuration = new CommunicatorConfiguration(properties);
+        Assert.assertEquals(5000, configuration.getConnectionEvictionInterval());
+        Assert.assertEquals(30000, configuration.getMaxIdleTime());
+        Assert.assertEquals(300000, configuration.getConnectionTimeToLive());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithHttpsSessionCache() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_HTTPS_SESSION_CACHE_SIZE, configuration.getHttpsSessionCacheSize());
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_HTTPS_SESSION_TIMEOUT, configuration.getHttpsSessionTimeout());
+
+        properties.setProperty("paysafe.paylater.api.https.sessionCacheSize", "20");
+        properties.setProperty("paysafe.paylater.api.https.sessionTimeout", "600000");
+
+        configuration = new CommunicatorConfiguration(properties);
+        Assert.assertEquals(20, configuration.getHttpsSessionCacheSize());
+        Assert.assertEquals(600000, configuration.getHttpsSessionTimeout());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithRetryPolicy() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertNull(configuration.getRetryPolicy());
+
+        properties.setProperty("paysafe.paylater.api.retry.maxAttempts", "4");
+        properties.setProperty("paysafe.paylater.api.retry.baseDelay", "50");
+        properties.setProperty("paysafe.paylater.api.retry.maxDelay", "1000");
+        properties.setProperty("paysafe.paylater.api.retry.idempotencyKeyHeader", "X-Request-Id");
+        properties.setProperty("paysafe.paylater.api.retry.budgetPercent", "20");
+        properties.setProperty("paysafe.paylater.api.retry.budgetCapacity", "5");
+
+        configuration = new CommunicatorConfiguration(properties);
+        RetryPolicy retryPolicy = configuration.getRetryPolicy();
+        Assert.assertNotNull(retryPolicy);
+        Assert.assertEquals(4, retryPolicy.getMaxAttempts());
+        Assert.assertEquals(50, retryPolicy.getBaseDelay());
+        Assert.assertEquals(1000, retryPolicy.getMaxDelay());
+        Assert.assertEquals("X-Request-Id", retryPolicy.getIdempotencyKeyHeader());
+        Assert.assertEquals(20, retryPolicy.getRetryBudgetPercent());
+        Assert.assertEquals(5, retryPolicy.getRetryBudgetCapacity());
+        Assert.assertEquals(RetryPolicy.DEFAULT_RETRYABLE_STATUS_CODES, retryPolicy.getRetryableStatusCodes());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithCircuitBreakerPolicy() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+        properties.setProperty("paysafe.paylater.api.circuitBreaker.failureRateThreshold", "25");
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertNull(configuration.getCircuitBreakerPolicy());
+
+        properties.setProperty("paysafe.paylater.api.circuitBreaker.enabled", "true");
+        properties.setProperty("paysafe.paylater.api.circuitBreaker.slowCallRateThreshold", "80");
+        properties.setProperty("paysafe.paylater.api.circuitBreaker.slowCallDuration", "2000");
+        properties.setProperty("paysafe.paylater.api.circuitBreaker.slidingWindowSize", "50");
+        properties.setProperty("paysafe.paylater.api.circuitBreaker.minimumNumberOfCalls", "10");
+        properties.setProperty("paysafe.paylater.api.circuitBreaker.openDuration", "15000");
+        properties.setProperty("paysafe.paylater.api.circuitBreaker.halfOpenProbes", "3");
+
+        configuration = new CommunicatorConfiguration(properties);
+        CircuitBreakerPolicy circuitBreakerPolicy = configuration.getCircuitBreakerPolicy();
+        Assert.assertNotNull(circuitBreakerPolicy);
+        Assert.assertEquals(25, circuitBreakerPolicy.getFailureRateThreshold());
+        Assert.assertEquals(80, circuitBreakerPolicy.getSlowCallRateThreshold());
+        Assert.assertEquals(2000, circuitBreakerPolicy.getSlowCallDuration());
+        Assert.assertEquals(50, circuitBreakerPolicy.getSlidingWindowSize());
+        Assert.assertEquals(10, circuitBreakerPolicy.getMinimumNumberOfCalls());
+        Assert.assertEquals(15000, circuitBreakerPolicy.getOpenDuration());
+        Assert.assertEquals(3, circuitBreakerPolicy.getHalfOpenProbes());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithConcurrencyLimitPolicy() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertNull(configuration.getConcurrencyLimitPolicy());
+
+        properties.setProperty("paysafe.paylater.api.concurrencyLimit.enabled", "true");
+        properties.setProperty("paysafe.paylater.api.concurrencyLimit.initialLimit", "10");
+        properties.setProperty("paysafe.paylater.api.concurrencyLimit.minLimit", "2");
+        properties.setProperty("paysafe.paylater.api.concurrencyLimit.maxLimit", "50");
+        properties.setProperty("paysafe.paylater.api.concurrencyLimit.backoffRatio", "75");
+        properties.setProperty("paysafe.paylater.api.concurrencyLimit.latencyTolerance", "300");
+        properties.setProperty("paysafe.paylater.api.concurrencyLimit.overflowPolicy", "queue");
+        properties.setProperty("paysafe.paylater.api.concurrencyLimit.maxQueueSize", "25");
+        properties.setProperty("paysafe.paylater.api.concurrencyLimit.maxQueueWait", "500");
+
+        configuration = new CommunicatorConfiguration(properties);
+        ConcurrencyLimitPolicy concurrencyLimitPolicy = configuration.getConcurrencyLimitPolicy();
+        Assert.assertNotNull(concurrencyLimitPolicy);
+        Assert.assertEquals(10, concurrencyLimitPolicy.getInitialLimit());
+        Assert.assertEquals(2, concurrencyLimitPolicy.getMinLimit());
+        Assert.assertEquals(50, concurrencyLimitPolicy.getMaxLimit());
+        Assert.assertEquals(75, concurrencyLimitPolicy.getBackoffRatio());
+        Assert.assertEquals(300, concurrencyLimitPolicy.getLatencyTolerance());
+        Assert.assertEquals(ConcurrencyLimitPolicy.OverflowPolicy.QUEUE, concurrencyLimitPolicy.getOverflowPolicy());
+        Assert.assertEquals(25, concurrencyLimitPolicy.getMaxQueueSize());
+        Assert.assertEquals(500, concurrencyLimitPolicy.getMaxQueueWait());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithHedgingPolicy() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertNull(configuration.getHedgingPolicy());
+
+        properties.setProperty("paysafe.paylater.api.hedging.enabled", "true");
+        properties.setProperty("paysafe.paylater.api.hedging.delay", "250");
+        properties.setProperty("paysafe.paylater.api.hedging.minDelay", "20");
+        properties.setProperty("paysafe.paylater.api.hedging.delayPercentile", "99");
+        properties.setProperty("paysafe.paylater.api.hedging.budgetPercent", "2");
+        properties.setProperty("paysafe.paylater.api.hedging.budgetCapacity", "4");
+
+        configuration = new CommunicatorConfiguration(properties);
+        HedgingPolicy hedgingPolicy = configuration.getHedgingPolicy();
+        Assert.assertNotNull(hedgingPolicy);
+        Assert.assertEquals(250, hedgingPolicy.getDelay());
+        Assert.assertEquals(20, hedgingPolicy.getMinDelay());
+        Assert.assertEquals(99, hedgingPolicy.getDelayPercentile());
+        Assert.assertEquals(2, hedgingPolicy.getBudgetPercent());
+        Assert.assertEquals(4, hedgingPolicy.getBudgetCapacity());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithTimeoutBudgets() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_CALL_TIMEOUT, configuration.getCallTimeout());
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_CONNECTION_REQUEST_TIMEOUT, configuration.getConnectionRequestTimeout());
+
+        properties.setProperty("paysafe.paylater.api.callTimeout", "3000");
+        properties.setProperty("paysafe.paylater.api.connectionRequestTimeout", "500");
+
+        configuration = new CommunicatorConfiguration(properties);
+        Assert.assertEquals(3000, configuration.getCallTimeout());
+        Assert.assertEquals(500, configuration.getConnectionRequestTimeout());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithOperationProfiles() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertTrue(configuration.getOperationProfiles().isEmpty());
+
+        properties.setProperty("paysafe.paylater.api.operation.authorizePayLater.readTimeout", "30000");
+        properties.setProperty("paysafe.paylater.api.operation.authorizePayLater.maxConnections", "5");
+        properties.setProperty("paysafe.paylater.api.operation./purchase/info/{purchaseId}.connectTimeout", "100");
+        properties.setProperty("paysafe.paylater.api.operation./purchase/info/{purchaseId}.readTimeout", "200");
+
+        configuration = new CommunicatorConfiguration(properties);
+        Assert.assertEquals(2, configuration.getOperationProfiles().size());
+
+        OperationProfile authorizeProfile = configuration.getOperationProfiles().get("/purchase/authorize/paylater");
+        Assert.assertNotNull(authorizeProfile);
+        Assert.assertEquals(OperationProfile.DEFAULT_TIMEOUT, authorizeProfile.getConnectTimeout());
+        Assert.assertEquals(30000, authorizeProfile.getReadTimeout());
+        Assert.assertEquals(5, authorizeProfile.getMaxConnections());
+
+        OperationProfile infoProfile = configuration.getOperationProfiles().get("/purchase/info/{purchaseId}");
+        Assert.assertNotNull(infoProfile);
+        Assert.assertEquals(100, infoProfile.getConnectTimeout());
+        Assert.assertEquals(200, infoProfile.getReadTimeout());
+        Assert.assertEquals(OperationProfile.DEFAULT_MAX_CONNECTIONS, infoProfile.getMaxConnections());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithBulkheads() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertTrue(configuration.getBulkheadPolicies().isEmpty());
+
+        properties.setProperty("paysafe.paylater.api.bulkhead.authorization.maxConcurrentCalls", "20");
+        properties.setProperty("paysafe.paylater.api.bulkhead.legal_documents.maxConcurrentCalls", "2");
+        properties.setProperty("paysafe.paylater.api.bulkhead.legal_documents.overflowPolicy", "queue");
+        properties.setProperty("paysafe.paylater.api.bulkhead.legal_documents.maxQueueSize", "5");
+        properties.setProperty("paysafe.paylater.api.bulkhead.legal_documents.maxQueueWait", "250");
+        // ignored without maxConcurrentCalls
+        properties.setProperty("paysafe.paylater.api.bulkhead.reads.maxQueueSize", "5");
+
+        configuration = new CommunicatorConfiguration(properties);
+        Assert.assertEquals(2, configuration.getBulkheadPolicies().size());
+
+        BulkheadPolicy authorizationPolicy = configuration.getBulkheadPolicies().get(ApiFamily.AUTHORIZATION);
+        Assert.assertNotNull(authorizationPolicy);
+        Assert.assertEquals(20, authorizationPolicy.getMaxConcurrentCalls());
+        Assert.assertEquals(ConcurrencyLimitPolicy.OverflowPolicy.REJECT, authorizationPolicy.getOverflowPolicy());
+        Assert.assertEquals(BulkheadPolicy.DEFAULT_MAX_QUEUE_SIZE, authorizationPolicy.getMaxQueueSize());
+        Assert.assertEquals(BulkheadPolicy.DEFAULT_MAX_QUEUE_WAIT, authorizationPolicy.getMaxQueueWait());
+
+        BulkheadPolicy legalDocumentsPolicy = configuration.getBulkheadPolicies().get(ApiFamily.LEGAL_DOCUMENTS);
+        Assert.assertNotNull(legalDocumentsPolicy);
+        Assert.assertEquals(2, legalDocumentsPolicy.getMaxConcurrentCalls());
+        Assert.assertEquals(ConcurrencyLimitPolicy.OverflowPolicy.QUEUE, legalDocumentsPolicy.getOverflowPolicy());
+        Assert.assertEquals(5, legalDocumentsPolicy.getMaxQueueSize());
+        Assert.assertEquals(250, legalDocumentsPolicy.getMaxQueueWait());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithRateLimits() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertNull(configuration.getRateLimitPolicy());
+        Assert.assertTrue(configuration.getOperationRateLimitPolicies().isEmpty());
+
+        properties.setProperty("paysafe.paylater.api.rateLimit.requestsPerSecond", "50");
+        properties.setProperty("paysafe.paylater.api.rateLimit.maxWait", "200");
+        properties.setProperty("paysafe.paylater.api.rateLimit.operation.getTermsAndConditions.requestsPerSecond", "2");
+        properties.setProperty("paysafe.paylater.api.rateLimit.operation.getTermsAndConditions.burstSize", "1");
+
+        configuration = new CommunicatorConfiguration(properties);
+        RateLimitPolicy rateLimitPolicy = configuration.getRateLimitPolicy();
+        Assert.assertNotNull(rateLimitPolicy);
+        Assert.assertEquals(50, rateLimitPolicy.getRequestsPerSecond());
+        Assert.assertEquals(RateLimitPolicy.DEFAULT_BURST_SIZE, rateLimitPolicy.getBurstSize());
+        Assert.assertEquals(200, rateLimitPolicy.getMaxWait());
+
+        Assert.assertEquals(1, configuration.getOperationRateLimitPolicies().size());
+        RateLimitPolicy operationPolicy = configuration.getOperationRateLimitPolicies().get("/purchase/legaldocuments/termsandconditions/{purchaseId}");
+        Assert.assertNotNull(operationPolicy);
+        Assert.assertEquals(2, operationPolicy.getRequestsPerSecond());
+        Assert.assertEquals(1, operationPolicy.getBurstSize());
+        Assert.assertEquals(RateLimitPolicy.DEFAULT_MAX_WAIT, operationPolicy.getMaxWait());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithDnsCache() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertNull(configuration.getDnsCachePolicy());
+
+        properties.setProperty("paysafe.paylater.api.dns.enabled", "true");
+        properties.setProperty("paysafe.paylater.api.dns.timeToLive", "10000");
+        properties.setProperty("paysafe.paylater.api.dns.failoverConnectTimeout", "250");
+
+        configuration = new CommunicatorConfiguration(properties);
+        DnsCachePolicy dnsCachePolicy = configuration.getDnsCachePolicy();
+        Assert.assertNotNull(dnsCachePolicy);
+        Assert.assertEquals(10000, dnsCachePolicy.getTimeToLive());
+        Assert.assertEquals(DnsCachePolicy.DEFAULT_MAX_STALE_TIME, dnsCachePolicy.getMaxStaleTime());
+        Assert.assertEquals(250, dnsCachePolicy.getFailoverConnectTimeout());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithRequestCoalescing() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertFalse(configuration.isRequestCoalescing());
+
+        properties.setProperty("paysafe.paylater.api.coalescing.enabled", "true");
+
+        configuration = new CommunicatorConfiguration(properties);
+        Assert.assertTrue(configuration.isRequestCoalescing());
+    }
+
+    @Test
+    public void testConstructFromPropertiesWithAdditionalEndpoints() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
+        Assert.assertTrue(configuration.getAdditionalApiEndpoints().isEmpty());
+        Assert.assertNull(configuration.getEndpointRoutingPolicy());
+
+        properties.setProperty("paysafe.paylater.api.additionalEndpoints", "https://eu.example.com, https://us.example.com:8443");
+        properties.setProperty("paysafe.paylater.api.routing.healthCheckPath", "/health");
+        properties.setProperty("paysafe.paylater.api.routing.failureThreshold", "5");
+
+        configuration = new CommunicatorConfiguration(properties);
+        Assert.assertEquals(Arrays.asList(URI.create("https://eu.example.com"), URI.create("https://us.example.com:8443")),
+                configuration.getAdditionalApiEndpoints());
+        EndpointRoutingPolicy endpointRoutingPolicy = configuration.getEndpointRoutingPolicy();
+        Assert.assertNotNull(endpointRoutingPolicy);
+        Assert.assertEquals("/health", endpointRoutingPolicy.getHealthCheckPath());
+        Assert.assertEquals(5, endpointRoutingPolicy.getFailureThreshold());
+        Assert.assertEquals(EndpointRoutingPolicy.DEFAULT_HEALTH_CHECK_INTERVAL, endpointRoutingPolicy.getHealthCheckInterval());
+        Assert.assertEquals(EndpointRoutingPolicy.DEFAULT_EJECTION_DURATION, endpointRoutingPolicy.getEjectionDuration());
+
+        properties.setProperty("paysafe.paylater.api.additionalEndpoints", "https://eu.example.com/v1");
+        try {
+            new CommunicatorConfiguration(properties);
+            Assert.fail("expected IllegalArgumentException");
+        } catch (@SuppressWarnings("unused") IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testConstructFromPropertiesWithHostAndScheme() {
 
@@ -138,6 +501,19 @@ public class CommunicatorConfigurationTest {
                 new HashSet<>(Arrays.asList("TLSv1", "TLSv1.1", "TLSv1.2")));
     }
 
+    @Test
+    public void testConstructFromPropertiesWithConnectionType() {
+
+        Properties properties = new Properties();
+        properties.setProperty("paysafe.paylater.api.endpoint.host", TEST_ENDPOINT_HOST);
+
+        Assert.assertEquals(CommunicatorConfiguration.DEFAULT_CONNECTION_TYPE, new CommunicatorConfiguration(properties).getConnectionType());
+
+        properties.setProperty("paysafe.paylater.api.connectionType", "async");
+
+        Assert.assertEquals(ConnectionType.ASYNC, new CommunicatorConfiguration(properties).getConnectionType());
+    }
+
     private void assertConfiguration(Properties properties, String apiEndpoint, int connectTimeout, int readTimeout, int saxConnections, Set<String> httpsProtocols) {
         CommunicatorConfiguration configuration = new CommunicatorConfiguration(properties);
         Assert.assertEquals(URI.create(apiEndpoint), configuration.getApiEndpoint());
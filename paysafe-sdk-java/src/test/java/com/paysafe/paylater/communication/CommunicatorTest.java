@@ -0,0 +1,189 @@
+package com.paysafe.paylater.communication;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.paysafe.paylater.exception.ResponseException;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+import com.paysafe.paylater.model.ConditionalResponse;
+import com.paysafe.paylater.model.DownloadResponse;
+import com.paysafe.paylater.model.ResponseWithAuthorization;
+
+public class CommunicatorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    // implements only the methods that existing implementations provide
+    private final Communicator communicator = new MinimalCommunicator();
+
+    @Test
+    public void testExecuteAsyncDelegatesToExecute() throws Exception {
+        Assert.assertEquals("GET /purchase", communicator.executeAsync(HttpMethod.GET, "/purchase", null, null, String.class, Runnable::run)
+                                                         .get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("access_token", communicator.executeWithAuthorizationHeaderAsync(HttpMethod.POST, "/purchase", null, null, String.class,
+                Runnable::run).get(5, TimeUnit.SECONDS).getAuthorization());
+    }
+
+    @Test
+    public void testGetIfModifiedSendsConditionalHeaders() throws Exception {
+        ConditionalResponse<String> response = communicator.getIfModified("/purchase", null, "\"1\"", null, String.class);
+
+        Assert.assertTrue(response.isNotModified());
+        Assert.assertNull(response.getResponse());
+        Assert.assertEquals("\"1\"", response.getETag());
+
+        response = communicator.getIfModified("/purchase", Collections.emptyList(), "\"2\"", "Wed, 21 Oct 2026 07:28:00 GMT", String.class);
+        Assert.assertFalse(response.isNotModified());
+        Assert.assertEquals("GET /purchase If-None-Match: \"2\" If-Modified-Since: Wed, 21 Oct 2026 07:28:00 GMT", response.getResponse());
+
+        response = communicator.getIfModifiedAsync("/purchase", null, null, null, String.class, Runnable::run).get(5, TimeUnit.SECONDS);
+        Assert.assertFalse(response.isNotModified());
+        Assert.assertEquals("GET /purchase", response.getResponse());
+    }
+
+    @Test
+    public void testDownloadBuffersResponse() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DownloadResponse response = communicator.download("/purchase", Collections.emptyList(), outputStream);
+
+        Assert.assertEquals("GET /purchase", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        Assert.assertEquals(outputStream.size(), response.getContentLength());
+    }
+
+    @Test
+    public void testDownloadToPathBuffersResponse() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("purchase");
+        communicator.download("/purchase", Collections.emptyList(), path);
+
+        Assert.assertEquals("GET /purchase", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWarmUpSendsRequests() {
+        WarmUpResult result = communicator.warmUp(new WarmUpOptions()
+                .withConnections(2));
+
+        Assert.assertTrue(result.isSuccessful());
+        Assert.assertEquals(2, result.getConnectionsOpened());
+        Assert.assertEquals(0, result.getModelTypes());
+    }
+
+    private static final class MinimalCommunicator implements Communicator {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <O> O execute(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders, Object requestBody, Class<O> responseType) {
+            return (O) (httpMethod + " " + relativePath);
+        }
+
+        @Override
+        public <O> ResponseWithAuthorization<O> executeWithAuthorizationHeader(HttpMethod httpMethod, String relativePath, List<RequestHeader> requestHeaders,
+                Object requestBody, Class<O> responseType) {
+            return new ResponseWithAuthorization<>("access_token", execute(httpMethod, relativePath, requestHeaders, requestBody, responseType));
+        }
+
+        @Override
+        public <O> O post(String relativePath, List<RequestHeader> requestHeaders, Object requestBody, Class<O> responseType) {
+            return execute(HttpMethod.POST, relativePath, requestHeaders, requestBody, responseType);
+        }
+
+        @Override
+        public <O> ResponseWithAuthorization<O> postWithAuthorization(String relativePath, List<RequestHeader> requestHeaders, Object requestBody,
+                Class<O> responseType) {
+            return executeWithAuthorizationHeader(HttpMethod.POST, relativePath, requestHeaders, requestBody, responseType);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <O> O get(String relativePath, List<RequestHeader> requestHeaders, Class<O> responseType) {
+            if (requestHeaders == null || requestHeaders.isEmpty()) {
+                return execute(HttpMethod.GET, relativePath, requestHeaders, null, responseType);
+            }
+            if ("\"1\"".equals(RequestHeader.getHeaderValue(requestHeaders, "If-None-Match"))) {
+                throw new ResponseException(304, "", Collections.emptyList());
+            }
+            StringBuilder response = new StringBuilder(execute(HttpMethod.GET, relativePath, requestHeaders, null, String.class));
+            for (RequestHeader header : requestHeaders) {
+                response.append(' ').append(header.getName()).append(": ").append(header.getValue());
+            }
+            return (O) response.toString();
+        }
+
+        @Override
+        public <O> ResponseWithAuthorization<O> getWithAuthorization(String relativePath, List<RequestHeader> requestHeaders, Class<O> responseType) {
+            return executeWithAuthorizationHeader(HttpMethod.GET, relativePath, requestHeaders, null, responseType);
+        }
+
+        @Override
+        public <O> O put(String relativePath, List<RequestHeader> requestHeaders, Object requestBody, Class<O> responseType) {
+            return execute(HttpMethod.PUT, relativePath, requestHeaders, requestBody, responseType);
+        }
+
+        @Override
+        public <O> ResponseWithAuthorization<O> putWithAuthorization(String relativePath, List<RequestHeader> requestHeaders, Object requestBody,
+                Class<O> responseType) {
+            return executeWithAuthorizationHeader(HttpMethod.PUT, relativePath, requestHeaders, requestBody, responseType);
+        }
+
+        @Override
+        public <O> O delete(String relativePath, List<RequestHeader> requestHeaders, Class<O> responseType) {
+            return execute(HttpMethod.DELETE, relativePath, requestHeaders, null, responseType);
+        }
+
+        @Override
+        public <O> ResponseWithAuthorization<O> deleteWithAuthorization(String relativePath, List<RequestHeader> requestHeaders, Class<O> responseType) {
+            return executeWithAuthorizationHeader(HttpMethod.DELETE, relativePath, requestHeaders, null, responseType);
+        }
+
+        @Override
+        public Connection getConnection() {
+            return null;
+        }
+
+        @Override
+        public Marshaller getMarshaller() {
+            return null;
+        }
+
+        @Override
+        public <T> T unmarshal(String responseJson, Class<T> type) {
+            return null;
+        }
+
+        @Override
+        public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+            // nothing to close
+        }
+
+        @Override
+        public void closeExpiredConnections() {
+            // nothing to close
+        }
+
+        @Override
+        public void enableLogging(CommunicatorLogger communicatorLogger) {
+            // no logging
+        }
+
+        @Override
+        public void disableLogging() {
+            // no logging
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.DnsCachePolicy;
+
+public class CachingDnsResolverTest {
+
+    private static final String HOST = "paysafe.test";
+
+    @Test
+    public void testAddressesAreCached() throws Exception {
+        AtomicInteger resolveCount = new AtomicInteger();
+        DnsResolver delegate = host -> {
+            resolveCount.incrementAndGet();
+            return new InetAddress[] { address(1) };
+        };
+        try (CachingDnsResolver resolver = new CachingDnsResolver(delegate, new DnsCachePolicy())) {
+            for (int i = 0; i < 5; i++) {
+                Assert.assertArrayEquals(new InetAddress[] { address(1) }, resolver.resolve(HOST));
+            }
+            Assert.assertEquals(1, resolveCount.get());
+        }
+    }
+
+    @Test
+    public void testExpiredAddressesAreRefreshedInBackground() throws Exception {
+        AtomicReference<InetAddress[]> addresses = new AtomicReference<>(new InetAddress[] { address(1) });
+        DnsResolver delegate = host -> addresses.get();
+        DnsCachePolicy policy = new DnsCachePolicy()
+                .withTimeToLive(50);
+        try (CachingDnsResolver resolver = new CachingDnsResolver(delegate, policy)) {
+            Assert.assertArrayEquals(new InetAddress[] { address(1) }, resolver.resolve(HOST));
+
+            addresses.set(new InetAddress[] { address(2) });
+            Thread.sleep(100);
+            // the expired address is returned while the new one is resolved
+            Assert.assertArrayEquals(new InetAddress[] { address(1) }, resolver.resolve(HOST));
+            waitFor(resolver, address(2));
+        }
+    }
+
+    @Test
+    public void testStaleAddressesAreUsedIfRefreshFails() throws Exception {
+        AtomicInteger resolveCount = new AtomicInteger();
+        DnsResolver delegate = host -> {
+            if (resolveCount.incrementAndGet() > 1) {
+                throw new UnknownHostException(host);
+            }
+            return new InetAddress[] { address(1) };
+        };
+        DnsCachePolicy policy = new DnsCachePolicy()
+                .withTimeToLive(50)
+                .withMaxStaleTime(300);
+        try (CachingDnsResolver resolver = new CachingDnsResolver(delegate, policy)) {
+            resolver.resolve(HOST);
+            Thread.sleep(100);
+            for (int i = 0; i < 3; i++) {
+                Assert.assertArrayEquals(new InetAddress[] { address(1) }, resolver.resolve(HOST));
+                Thread.sleep(20);
+            }
+            Assert.assertTrue(resolveCount.get() > 1);
+
+            Thread.sleep(300);
+            try {
+                resolver.resolve(HOST);
+                Assert.fail("expected UnknownHostException");
+            } catch (@SuppressWarnings("unused") UnknownHostException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testAddressesAreRotated() throws Exception {
+        DnsResolver delegate = host -> new InetAddress[] { address(1), address(2), address(3) };
+        try (CachingDnsResolver resolver = new CachingDnsResolver(delegate, new DnsCachePolicy())) {
+            Assert.assertArrayEquals(new InetAddress[] { address(1), address(2), address(3) }, resolver.resolve(HOST));
+            Assert.assertArrayEquals(new InetAddress[] { address(2), address(3), address(1) }, resolver.resolve(HOST));
+            Assert.assertArrayEquals(new InetAddress[] { address(3), address(1), address(2) }, resolver.resolve(HOST));
+            Assert.assertArrayEquals(new InetAddress[] { address(1), address(2), address(3) }, resolver.resolve(HOST));
+        }
+    }
+
+    @Test
+    public void testFailedAddressesAreTriedLast() throws Exception {
+        DnsResolver delegate = host -> new InetAddress[] { address(1), address(2), address(3) };
+        try (CachingDnsResolver resolver = new CachingDnsResolver(delegate, new DnsCachePolicy())) {
+            resolver.onConnectFailure(address(1));
+            Assert.assertArrayEquals(new InetAddress[] { address(2), address(3), address(1) }, resolver.resolve(HOST));
+            Assert.assertArrayEquals(new InetAddress[] { address(2), address(3), address(1) }, resolver.resolve(HOST));
+            Assert.assertArrayEquals(new InetAddress[] { address(3), address(2), address(1) }, resolver.resolve(HOST));
+
+            resolver.onConnectSuccess(address(1));
+            Assert.assertArrayEquals(new InetAddress[] { address(1), address(2), address(3) }, resolver.resolve(HOST));
+        }
+    }
+
+    @Test
+    public void testConnectionFailsOverToNextAddress() throws Exception {
+        InetAddress loopback = InetAddress.getByName("127.0.0.1");
+        // the server only listens on 127.0.0.1, so connecting to 127.0.0.2 is refused
+        InetAddress unreachable = InetAddress.getByName("127.0.0.2");
+        HttpServer server = ServerBootstrap.bootstrap()
+                .setLocalAddress(loopback)
+                .registerHandler("*", (request, response, context) -> response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON)))
+                .create();
+        server.start();
+
+        AtomicInteger resolveCount = new AtomicInteger();
+        DnsResolver delegate = host -> {
+            resolveCount.incrementAndGet();
+            return new InetAddress[] { unreachable, loopback };
+        };
+        CachingDnsResolver resolver = new CachingDnsResolver(delegate, new DnsCachePolicy());
+        try (PaysafeConnection connection = new PaysafeConnection(new CommunicatorConfiguration(), resolver)) {
+            URI uri = new URI("http", null, HOST, server.getLocalPort(), "/purchase/info/1", null, null);
+            for (int i = 0; i < 4; i++) {
+                // a new connection for each request, so each request resolves the host name
+                int statusCode = connection.get(uri, null, (status, bodyStream, headers) -> status);
+                Assert.assertEquals(200, statusCode);
+                connection.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+            }
+            Assert.assertEquals(1, resolveCount.get());
+            // the refused address is tried last
+            Assert.assertArrayEquals(new InetAddress[] { loopback, unreachable }, resolver.resolve(HOST));
+        } finally {
+            server.shutdown(0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void waitFor(CachingDnsResolver resolver, InetAddress address) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Arrays.equals(new InetAddress[] { address }, resolver.resolve(HOST))) {
+            Assert.assertTrue("address not refreshed in time", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static InetAddress address(int lastByte) throws UnknownHostException {
+        return InetAddress.getByAddress(HOST, new byte[] { 10, 0, 0, (byte) lastByte });
+    }
+}
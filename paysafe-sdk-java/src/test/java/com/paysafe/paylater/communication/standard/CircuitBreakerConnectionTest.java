@@ -0,0 +1,325 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.CircuitBreakerPolicy;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.ConnectionType;
+import com.paysafe.paylater.communication.RetryPolicy;
+import com.paysafe.paylater.exception.CircuitBreakerOpenException;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.PaysafeException;
+import com.paysafe.paylater.exception.ResponseException;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * Tests for {@link CircuitBreakerConnection} and {@link CircuitBreaker}.
+ */
+public class CircuitBreakerConnectionTest extends LocalServerTestBase {
+
+    @Test
+    public void testOpensOnFailureRate() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, Integer.MAX_VALUE, 0);
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerPolicy()
+                .withSlidingWindowSize(4)
+                .withMinimumNumberOfCalls(4)
+                .withOpenDuration(60000));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), circuitBreaker, null)) {
+            for (int i = 0; i < 4; i++) {
+                try {
+                    api.getPurchase("1", "aSecretKey");
+                    Assert.fail("expected PaysafeException");
+                } catch (PaysafeException e) {
+                    Assert.assertEquals(503, e.getResponseStatusCode());
+                }
+            }
+            Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+            Assert.assertEquals(100, circuitBreaker.getFailureRate(), 0);
+
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected CircuitBreakerOpenException");
+            } catch (@SuppressWarnings("unused") CircuitBreakerOpenException e) {
+                // expected
+            }
+            Assert.assertEquals(4, requestCount.get());
+            Assert.assertEquals(1, circuitBreaker.getRejectedCallCount());
+        }
+    }
+
+    @Test
+    public void testNotifiesListenersOfPolicy() throws Exception {
+        HttpHost host = setup(new AtomicInteger(), Integer.MAX_VALUE, 0);
+
+        List<CircuitBreaker.State> states = Collections.synchronizedList(new ArrayList<>());
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration()
+                .withApiEndpoint(toURI(host))
+                .withCircuitBreakerPolicy(new CircuitBreakerPolicy()
+                        .withSlidingWindowSize(2)
+                        .withMinimumNumberOfCalls(2)
+                        .withOpenDuration(60000)
+                        .withListener((circuitBreaker, fromState, toState) -> states.add(toState)));
+        Connection connection = Factory.createConnection(configuration);
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(new PaysafeCommunicator(toURI(host), connection, JsonMarshaller.INSTANCE, null))) {
+            for (int i = 0; i < 2; i++) {
+                try {
+                    api.getPurchase("1", "aSecretKey");
+                    Assert.fail("expected PaysafeException");
+                } catch (PaysafeException e) {
+                    Assert.assertEquals(503, e.getResponseStatusCode());
+                }
+            }
+        }
+        Assert.assertEquals(Collections.singletonList(CircuitBreaker.State.OPEN), states);
+    }
+
+    @Test
+    public void testStaysClosedBelowMinimumNumberOfCalls() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 3, 0);
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerPolicy()
+                .withSlidingWindowSize(10)
+                .withMinimumNumberOfCalls(5));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), circuitBreaker, null)) {
+            for (int i = 0; i < 3; i++) {
+                try {
+                    api.getPurchase("1", "aSecretKey");
+                    Assert.fail("expected PaysafeException");
+                } catch (@SuppressWarnings("unused") PaysafeException e) {
+                    // expected
+                }
+            }
+            Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+            Assert.assertEquals(-1, circuitBreaker.getFailureRate(), 0);
+
+            // 3 failures out of 5 calls
+            api.getPurchase("1", "aSecretKey");
+            api.getPurchase("1", "aSecretKey");
+            Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+            Assert.assertEquals(60, circuitBreaker.getFailureRate(), 0);
+        }
+    }
+
+    @Test
+    public void testHalfOpenProbesClose() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 2, 0);
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerPolicy()
+                .withSlidingWindowSize(2)
+                .withMinimumNumberOfCalls(2)
+                .withOpenDuration(50)
+                .withHalfOpenProbes(2));
+        List<String> transitions = Collections.synchronizedList(new ArrayList<>());
+        circuitBreaker.addListener((source, fromState, toState) -> transitions.add(fromState + "->" + toState));
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), circuitBreaker, null)) {
+            for (int i = 0; i < 2; i++) {
+                try {
+                    api.getPurchase("1", "aSecretKey");
+                    Assert.fail("expected PaysafeException");
+                } catch (@SuppressWarnings("unused") PaysafeException e) {
+                    // expected
+                }
+            }
+            Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+            Thread.sleep(100);
+
+            api.getPurchase("1", "aSecretKey");
+            Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+            api.getPurchase("1", "aSecretKey");
+            Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+            Assert.assertEquals(-1, circuitBreaker.getFailureRate(), 0);
+        }
+        Assert.assertEquals(4, requestCount.get());
+        Assert.assertEquals(transitions.toString(), 3, transitions.size());
+        Assert.assertEquals("CLOSED->OPEN", transitions.get(0));
+        Assert.assertEquals("OPEN->HALF_OPEN", transitions.get(1));
+        Assert.assertEquals("HALF_OPEN->CLOSED", transitions.get(2));
+    }
+
+    @Test
+    public void testHalfOpenProbeFailureReopens() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, Integer.MAX_VALUE, 0);
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerPolicy()
+                .withSlidingWindowSize(1)
+                .withMinimumNumberOfCalls(1)
+                .withOpenDuration(0));
+        List<String> transitions = Collections.synchronizedList(new ArrayList<>());
+        circuitBreaker.addListener((source, fromState, toState) -> transitions.add(fromState + "->" + toState));
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), circuitBreaker, null)) {
+            for (int i = 0; i < 2; i++) {
+                try {
+                    api.getPurchase("1", "aSecretKey");
+                    Assert.fail("expected PaysafeException");
+                } catch (@SuppressWarnings("unused") PaysafeException e) {
+                    // expected
+                }
+            }
+        }
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertEquals(2, requestCount.get());
+        Assert.assertEquals(transitions.toString(), 3, transitions.size());
+        Assert.assertEquals("HALF_OPEN->OPEN", transitions.get(2));
+    }
+
+    @Test
+    public void testOpensOnSlowCallRate() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 50);
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerPolicy()
+                .withSlowCallDuration(20)
+                .withSlidingWindowSize(2)
+                .withMinimumNumberOfCalls(2));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), circuitBreaker, null)) {
+            api.getPurchase("1", "aSecretKey");
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+            Assert.assertEquals(0, circuitBreaker.getFailureRate(), 0);
+            Assert.assertEquals(100, circuitBreaker.getSlowCallRate(), 0);
+        }
+    }
+
+    @Test
+    public void testOpenCircuitIsNotRetried() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, Integer.MAX_VALUE, 0);
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerPolicy()
+                .withSlidingWindowSize(1)
+                .withMinimumNumberOfCalls(1));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), circuitBreaker, new RetryPolicy().withBaseDelay(1))) {
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected CircuitBreakerOpenException");
+            } catch (@SuppressWarnings("unused") CircuitBreakerOpenException e) {
+                // expected
+            }
+            Assert.assertEquals(1, requestCount.get());
+            Assert.assertEquals(1, circuitBreaker.getRejectedCallCount());
+        }
+    }
+
+    @Test
+    public void testAsyncOpenCircuit() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, Integer.MAX_VALUE, 0);
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerPolicy()
+                .withSlidingWindowSize(1)
+                .withMinimumNumberOfCalls(1));
+        Connection connection = CircuitBreakerConnection.create(new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT), circuitBreaker);
+        Assert.assertTrue(connection instanceof AsyncConnection);
+
+        PaysafeCommunicator communicator = new PaysafeCommunicator(toURI(host), connection, JsonMarshaller.INSTANCE);
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator)) {
+            for (int i = 0; i < 2; i++) {
+                try {
+                    api.getPurchaseAsync("1", "aSecretKey", Runnable::run).get(5, TimeUnit.SECONDS);
+                    Assert.fail("expected ExecutionException");
+                } catch (ExecutionException e) {
+                    Assert.assertEquals(i == 0 ? PaysafeException.class : CircuitBreakerOpenException.class, e.getCause().getClass());
+                }
+            }
+            Assert.assertEquals(1, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testIsFailure() {
+        Assert.assertFalse(CircuitBreaker.isFailure(null));
+        Assert.assertFalse(CircuitBreaker.isFailure(new ResponseException(400, "{}", null)));
+        Assert.assertFalse(CircuitBreaker.isFailure(new IllegalStateException()));
+        Assert.assertTrue(CircuitBreaker.isFailure(new ResponseException(503, "{}", null)));
+        Assert.assertTrue(CircuitBreaker.isFailure(new CommunicationException(new ResponseException(502, "", null))));
+        Assert.assertTrue(CircuitBreaker.isFailure(new CommunicationException(new java.net.SocketTimeoutException())));
+    }
+
+    @Test
+    public void testFactoryCreatesCircuitBreakerConnection() throws Exception {
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration()
+                .withApiEndpoint(new URI("https://localhost"))
+                .withCircuitBreakerPolicy(new CircuitBreakerPolicy());
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.assertTrue(connection instanceof CircuitBreakerConnection);
+            Assert.assertTrue(((CircuitBreakerConnection) connection).getConnection() instanceof PaysafeConnection);
+        }
+
+        configuration.setConnectionType(ConnectionType.ASYNC);
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.assertTrue(connection instanceof CircuitBreakerConnection);
+            Assert.assertTrue(connection instanceof AsyncConnection);
+        }
+
+        configuration.setCircuitBreakerPolicy(null);
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.assertFalse(connection instanceof CircuitBreakerConnection);
+        }
+    }
+
+    /**
+     * Sets up a server that responds to the given number of requests with a 503 status code, and to later requests with a purchase.
+     * Each response is delayed by the given number of milliseconds.
+     */
+    private HttpHost setup(AtomicInteger requestCount, int failures, long delay) throws Exception {
+        serverBootstrap.registerHandler("/purchase/*", (request, response, context) -> {
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+            if (requestCount.incrementAndGet() <= failures) {
+                response.setStatusCode(503);
+                response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+            } else {
+                response.setStatusCode(200);
+                response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+                response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+            }
+        });
+        return start();
+    }
+
+    private static PurchaseLifecycleApi createApi(URI apiEndpoint, CircuitBreaker circuitBreaker, RetryPolicy retryPolicy) {
+        Connection connection = CircuitBreakerConnection.create(new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT), circuitBreaker);
+        return new PurchaseLifecycleApi(new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE, retryPolicy));
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+}
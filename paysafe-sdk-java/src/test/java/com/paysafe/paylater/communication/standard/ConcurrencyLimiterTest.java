@@ -0,0 +1,249 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.CircuitBreakerPolicy;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.ConcurrencyLimitPolicy;
+import com.paysafe.paylater.communication.ConcurrencyLimitPolicy.OverflowPolicy;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ConcurrencyLimitExceededException;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * Tests for {@link ConcurrencyLimiter} and {@link ConcurrencyLimitedConnection}.
+ */
+public class ConcurrencyLimiterTest extends LocalServerTestBase {
+
+    @Test
+    public void testRejectsOverLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitPolicy().withInitialLimit(2));
+
+        ConcurrencyLimiter.Permit first = limiter.acquire();
+        limiter.acquire();
+        try {
+            limiter.acquire();
+            Assert.fail("expected ConcurrencyLimitExceededException");
+        } catch (@SuppressWarnings("unused") ConcurrencyLimitExceededException e) {
+            // expected
+        }
+        Assert.assertEquals(2, limiter.getInFlight());
+        Assert.assertEquals(1, limiter.getRejectedCount());
+
+        limiter.onResult(first, null);
+        limiter.acquire();
+        Assert.assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void testQueueWaitsForPermit() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitPolicy()
+                .withInitialLimit(1)
+                .withOverflowPolicy(OverflowPolicy.QUEUE)
+                .withMaxQueueWait(5000));
+
+        ConcurrencyLimiter.Permit permit = limiter.acquire();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ConcurrencyLimiter.Permit> queued = executor.submit(() -> limiter.acquire());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (limiter.getQueueLength() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assert.assertEquals(1, limiter.getQueueLength());
+            Assert.assertFalse(queued.isDone());
+
+            limiter.onResult(permit, null);
+            Assert.assertNotNull(queued.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(0, limiter.getQueueLength());
+            Assert.assertEquals(1, limiter.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueueTimesOut() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitPolicy()
+                .withInitialLimit(1)
+                .withOverflowPolicy(OverflowPolicy.QUEUE)
+                .withMaxQueueWait(50));
+
+        limiter.acquire();
+        long startTime = System.nanoTime();
+        try {
+            limiter.acquire();
+            Assert.fail("expected ConcurrencyLimitExceededException");
+        } catch (@SuppressWarnings("unused") ConcurrencyLimitExceededException e) {
+            // expected
+        }
+        Assert.assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assert.assertEquals(0, limiter.getQueueLength());
+        Assert.assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testFailuresDecreaseLimitOncePerWindow() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitPolicy()
+                .withInitialLimit(10)
+                .withBackoffRatio(50));
+
+        ConcurrencyLimiter.Permit first = limiter.acquire();
+        ConcurrencyLimiter.Permit second = limiter.acquire();
+        limiter.onResult(first, new CommunicationException(new java.net.SocketTimeoutException()));
+        Assert.assertEquals(5, limiter.getLimit());
+
+        // sent before the decrease, so this failure is part of the same overload
+        limiter.onResult(second, new CommunicationException(new java.net.SocketTimeoutException()));
+        Assert.assertEquals(5, limiter.getLimit());
+
+        limiter.onResult(limiter.acquire(), new CommunicationException(new java.net.SocketTimeoutException()));
+        Assert.assertEquals(2, limiter.getLimit());
+
+        // the limit never goes below the minimum
+        limiter.onResult(limiter.acquire(), new CommunicationException(new java.net.SocketTimeoutException()));
+        limiter.onResult(limiter.acquire(), new CommunicationException(new java.net.SocketTimeoutException()));
+        Assert.assertEquals(ConcurrencyLimitPolicy.DEFAULT_MIN_LIMIT, limiter.getLimit());
+    }
+
+    @Test
+    public void testSlowResponsesDecreaseLimit() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitPolicy()
+                .withInitialLimit(10)
+                .withBackoffRatio(50));
+
+        limiter.onResult(limiter.acquire(), null);
+        Assert.assertEquals(10, limiter.getLimit());
+
+        ConcurrencyLimiter.Permit permit = limiter.acquire();
+        Thread.sleep(20);
+        limiter.onResult(permit, null);
+        Assert.assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    public void testMixedLatencyDoesNotDecreaseLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitPolicy()
+                .withInitialLimit(20)
+                .withBackoffRatio(50));
+
+        // fast purchase lookups and slow documents, each well within the latency tolerance of their own operation
+        long now = System.nanoTime();
+        for (int i = 0; i < 40; i++) {
+            ConcurrencyLimiter.Permit fast = limiter.acquire("/purchase/info/{purchaseId}");
+            ConcurrencyLimiter.Permit slow = limiter.acquire("/purchase/legaldocuments/termsandconditions/{purchaseId}");
+            now += TimeUnit.MILLISECONDS.toNanos(500);
+            limiter.onResult(fast, null, TimeUnit.MILLISECONDS.toNanos(5), now);
+            limiter.onResult(slow, null, TimeUnit.MILLISECONDS.toNanos(200), now);
+        }
+
+        Assert.assertTrue(limiter.getLimit() >= 20);
+        Assert.assertEquals(5, limiter.getBaselineRtt("/purchase/info/{purchaseId}"));
+        Assert.assertEquals(200, limiter.getBaselineRtt("/purchase/legaldocuments/termsandconditions/{purchaseId}"));
+        Assert.assertEquals(5, limiter.getBaselineRtt());
+    }
+
+    @Test
+    public void testLimitIncreasesWhenUsed() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitPolicy()
+                .withInitialLimit(2)
+                .withMaxLimit(4)
+                // prevent timing differences from decreasing the limit
+                .withLatencyTolerance(Integer.MAX_VALUE / 100));
+
+        for (int i = 0; i < 50; i++) {
+            List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int j = 0; j < limiter.getLimit(); j++) {
+                permits.add(limiter.acquire());
+            }
+            for (ConcurrencyLimiter.Permit permit : permits) {
+                limiter.onResult(permit, null);
+            }
+        }
+        Assert.assertEquals(4, limiter.getLimit());
+
+        // a single request at a time does not use the limit, so it does not increase it
+        limiter = new ConcurrencyLimiter(new ConcurrencyLimitPolicy()
+                .withInitialLimit(4)
+                .withLatencyTolerance(Integer.MAX_VALUE / 100));
+        for (int i = 0; i < 50; i++) {
+            limiter.onResult(limiter.acquire(), null);
+        }
+        Assert.assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void testAsyncRequestsAreQueued() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        serverBootstrap.registerHandler("/purchase/*", (request, response, context) -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        HttpHost host = start();
+
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitPolicy()
+                .withInitialLimit(1)
+                .withMaxLimit(1)
+                .withOverflowPolicy(OverflowPolicy.QUEUE)
+                .withMaxQueueWait(5000));
+        Connection connection = ConcurrencyLimitedConnection.create(new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT), limiter);
+        Assert.assertTrue(connection instanceof AsyncConnection);
+
+        URI apiEndpoint = new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE))) {
+            List<CompletableFuture<PurchaseOperationResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(api.getPurchaseAsync("1", "aSecretKey", Runnable::run));
+            }
+            for (CompletableFuture<PurchaseOperationResponse> future : futures) {
+                Assert.assertNotNull(future.get(5, TimeUnit.SECONDS).getResult());
+            }
+        }
+        Assert.assertEquals(1, maxActive.get());
+        Assert.assertEquals(0, limiter.getInFlight());
+        Assert.assertEquals(0, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testFactoryCreatesConcurrencyLimitedConnection() throws Exception {
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration()
+                .withApiEndpoint(new URI("https://localhost"))
+                .withCircuitBreakerPolicy(new CircuitBreakerPolicy())
+                .withConcurrencyLimitPolicy(new ConcurrencyLimitPolicy());
+        try (Connection connection = Factory.createConnection(configuration)) {
+            Assert.assertTrue(connection instanceof ConcurrencyLimitedConnection);
+            Assert.assertTrue(((ConcurrencyLimitedConnection) connection).getConnection() instanceof CircuitBreakerConnection);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.EndpointRoutingPolicy;
+import com.paysafe.paylater.communication.EndpointStatistics;
+import com.paysafe.paylater.exception.PaysafeException;
+
+/**
+ * Tests for {@link EndpointRoutingConnection}, using a local stub server per endpoint.
+ */
+public class EndpointRoutingConnectionTest {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @After
+    public void shutDown() {
+        for (HttpServer server : servers) {
+            server.shutdown(0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void testSlowEndpointIsTriedAgainAfterLatencyDecays() throws Exception {
+        URI slowEndpoint = URI.create("http://slow.example.com");
+        URI fastEndpoint = URI.create("http://fast.example.com");
+        EndpointRoutingPolicy policy = new EndpointRoutingPolicy()
+                .withHealthCheckInterval(0)
+                .withLatencyHalfLife(50);
+        EndpointRouter router = new EndpointRouter(Arrays.asList(slowEndpoint, fastEndpoint), policy, null);
+        try {
+            EndpointRouter.Endpoint slow = select(router, slowEndpoint);
+            long startTime = router.onStart(slow);
+            router.onResult(slow, startTime, startTime + TimeUnit.MILLISECONDS.toNanos(1000), null);
+
+            // the fast endpoint keeps receiving requests, so only the latency of the slow endpoint decays
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            EndpointRouter.Endpoint selected;
+            do {
+                EndpointRouter.Endpoint fast = select(router, fastEndpoint);
+                startTime = router.onStart(fast);
+                router.onResult(fast, startTime, startTime + TimeUnit.MILLISECONDS.toNanos(10), null);
+                Thread.sleep(10);
+                selected = router.select();
+            } while (selected.uri.equals(fastEndpoint) && System.nanoTime() < deadline);
+
+            Assert.assertEquals(slowEndpoint, selected.uri);
+        } finally {
+            router.close();
+        }
+    }
+
+    private static EndpointRouter.Endpoint select(EndpointRouter router, URI endpoint) {
+        while (true) {
+            EndpointRouter.Endpoint selected = router.select();
+            if (selected.uri.equals(endpoint)) {
+                return selected;
+            }
+        }
+    }
+
+    @Test
+    public void testFasterEndpointIsPreferred() throws Exception {
+        AtomicInteger fastRequests = new AtomicInteger();
+        AtomicInteger slowRequests = new AtomicInteger();
+        URI fastEndpoint = startServer(fastRequests, 0, new AtomicInteger(200), new AtomicInteger(200));
+        URI slowEndpoint = startServer(slowRequests, 100, new AtomicInteger(200), new AtomicInteger(200));
+
+        EndpointRoutingPolicy policy = new EndpointRoutingPolicy()
+                .withHealthCheckInterval(0);
+        try (PurchaseLifecycleApi api = createApi(createConnection(), Arrays.asList(slowEndpoint, fastEndpoint), policy)) {
+            for (int i = 0; i < 20; i++) {
+                Assert.assertNotNull(api.getPurchase("1", "aSecretKey").getResult());
+            }
+        }
+        // each endpoint is tried at most once before the latencies are known
+        Assert.assertEquals(20, fastRequests.get() + slowRequests.get());
+        Assert.assertTrue("slow endpoint got " + slowRequests.get() + " requests", slowRequests.get() <= 1);
+    }
+
+    @Test
+    public void testAsyncFasterEndpointIsPreferred() throws Exception {
+        AtomicInteger fastRequests = new AtomicInteger();
+        AtomicInteger slowRequests = new AtomicInteger();
+        URI fastEndpoint = startServer(fastRequests, 0, new AtomicInteger(200), new AtomicInteger(200));
+        URI slowEndpoint = startServer(slowRequests, 100, new AtomicInteger(200), new AtomicInteger(200));
+
+        EndpointRoutingPolicy policy = new EndpointRoutingPolicy()
+                .withHealthCheckInterval(0);
+        PaysafeAsyncConnection connection = new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        try (PurchaseLifecycleApi api = createApi(connection, Arrays.asList(slowEndpoint, fastEndpoint), policy)) {
+            for (int i = 0; i < 20; i++) {
+                Assert.assertNotNull(api.getPurchaseAsync("1", "aSecretKey", Runnable::run).get(5, TimeUnit.SECONDS).getResult());
+            }
+        }
+        Assert.assertEquals(20, fastRequests.get() + slowRequests.get());
+        Assert.assertTrue("slow endpoint got " + slowRequests.get() + " requests", slowRequests.get() <= 1);
+    }
+
+    @Test
+    public void testFailingEndpointIsEjected() throws Exception {
+        AtomicInteger failingRequests = new AtomicInteger();
+        AtomicInteger healthyRequests = new AtomicInteger();
+        URI failingEndpoint = startServer(failingRequests, 0, new AtomicInteger(503), new AtomicInteger(200));
+        URI healthyEndpoint = startServer(healthyRequests, 0, new AtomicInteger(200), new AtomicInteger(200));
+
+        EndpointRoutingPolicy policy = new EndpointRoutingPolicy()
+                .withHealthCheckInterval(0)
+                .withFailureThreshold(2)
+                .withEjectionDuration(60000);
+        EndpointRoutingConnection connection = EndpointRoutingConnection.create(createConnection(),
+                Arrays.asList(failingEndpoint, healthyEndpoint), policy);
+        try (PurchaseLifecycleApi api = createApi(connection, failingEndpoint)) {
+            int failures = 0;
+            for (int i = 0; i < 20; i++) {
+                try {
+                    api.getPurchase("1", "aSecretKey");
+                } catch (PaysafeException e) {
+                    Assert.assertEquals(503, e.getResponseStatusCode());
+                    failures++;
+                }
+            }
+            Assert.assertEquals(failingRequests.get(), failures);
+            Assert.assertTrue(failingRequests.get() <= 2);
+            Assert.assertEquals(20 - failures, healthyRequests.get());
+
+            if (failingRequests.get() == 2) {
+                EndpointStatistics statistics = getStatistics(connection, failingEndpoint);
+                Assert.assertFalse(statistics.isHealthy());
+                Assert.assertEquals(1, statistics.getEjections());
+                Assert.assertEquals(2, statistics.getFailures());
+            }
+            Assert.assertTrue(getStatistics(connection, healthyEndpoint).isHealthy());
+        }
+    }
+
+    @Test
+    public void testEndpointIsReadmittedAfterHealthCheck() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger healthStatus = new AtomicInteger(503);
+        URI recoveringEndpoint = startServer(requests, 0, new AtomicInteger(200), healthStatus);
+        URI otherEndpoint = startServer(new AtomicInteger(), 0, new AtomicInteger(200), new AtomicInteger(200));
+
+        EndpointRoutingPolicy policy = new EndpointRoutingPolicy()
+                .withHealthCheckInterval(50)
+                .withHealthCheckPath("/health")
+                .withEjectionDuration(100);
+        EndpointRoutingConnection connection = EndpointRoutingConnection.create(createConnection(),
+                Arrays.asList(recoveringEndpoint, otherEndpoint), policy);
+        try (PurchaseLifecycleApi api = createApi(connection, recoveringEndpoint)) {
+            waitFor(() -> !getStatistics(connection, recoveringEndpoint).isHealthy());
+            for (int i = 0; i < 10; i++) {
+                api.getPurchase("1", "aSecretKey");
+            }
+            Assert.assertEquals(0, requests.get());
+
+            healthStatus.set(200);
+            waitFor(() -> getStatistics(connection, recoveringEndpoint).isHealthy());
+            Assert.assertEquals(1, getStatistics(connection, recoveringEndpoint).getEjections());
+        }
+    }
+
+    @Test
+    public void testUnreachableEndpointIsEjected() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        URI reachableEndpoint = startServer(requests, 0, new AtomicInteger(200), new AtomicInteger(200));
+        URI unreachableEndpoint = new URI("http", null, "localhost", getUnusedPort(), null, null, null);
+
+        EndpointRoutingPolicy policy = new EndpointRoutingPolicy()
+                .withHealthCheckInterval(50);
+        EndpointRoutingConnection connection = EndpointRoutingConnection.create(createConnection(),
+                Arrays.asList(unreachableEndpoint, reachableEndpoint), policy);
+        try (PurchaseLifecycleApi api = createApi(connection, reachableEndpoint)) {
+            waitFor(() -> !getStatistics(connection, unreachableEndpoint).isHealthy());
+            for (int i = 0; i < 10; i++) {
+                api.getPurchase("1", "aSecretKey");
+            }
+            Assert.assertEquals(10, requests.get());
+            Assert.assertTrue(getStatistics(connection, reachableEndpoint).isHealthy());
+        }
+    }
+
+    @Test
+    public void testToEndpointURI() throws Exception {
+        URI uri = new URI("https://eu.example.com/purchase/info/a%2Fb?x=1%202");
+        URI endpoint = new URI("http://localhost:8080");
+        Assert.assertEquals(new URI("http://localhost:8080/purchase/info/a%2Fb?x=1%202"), EndpointRoutingConnection.toEndpointURI(uri, endpoint));
+    }
+
+    /**
+     * Starts a stub server that responds to purchase requests after the given delay with the given status code,
+     * and to health checks with the given health status code.
+     */
+    private URI startServer(AtomicInteger requestCount, long delay, AtomicInteger statusCode, AtomicInteger healthStatus) throws Exception {
+        HttpServer server = ServerBootstrap.bootstrap()
+                .setSocketConfig(SocketConfig.custom().setSoTimeout(5000).build())
+                .registerHandler("/health", (request, response, context) -> {
+                    response.setStatusCode(healthStatus.get());
+                    response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+                })
+                .registerHandler("/purchase/*", (request, response, context) -> {
+                    requestCount.incrementAndGet();
+                    try {
+                        Thread.sleep(delay);
+                    } catch (@SuppressWarnings("unused") InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    response.setStatusCode(statusCode.get());
+                    if (statusCode.get() != 200) {
+                        response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+                        return;
+                    }
+                    response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+                    response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+                })
+                .create();
+        server.start();
+        servers.add(server);
+        return new URI("http", null, "localhost", server.getLocalPort(), null, null, null);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("condition not met in time", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static EndpointStatistics getStatistics(EndpointRoutingConnection connection, URI endpoint) {
+        for (EndpointStatistics statistics : connection.getEndpointStatistics()) {
+            if (statistics.getEndpoint().equals(endpoint)) {
+                return statistics;
+            }
+        }
+        throw new AssertionError("no statistics for " + endpoint);
+    }
+
+    private static PaysafeConnection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static PurchaseLifecycleApi createApi(Connection connection, List<URI> endpoints, EndpointRoutingPolicy policy) {
+        return createApi(EndpointRoutingConnection.create(connection, endpoints, policy), endpoints.get(0));
+    }
+
+    private static PurchaseLifecycleApi createApi(EndpointRoutingConnection connection, URI apiEndpoint) {
+        return new PurchaseLifecycleApi(new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE));
+    }
+
+    private static int getUnusedPort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+}
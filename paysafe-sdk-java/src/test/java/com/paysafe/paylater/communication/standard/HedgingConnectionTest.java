@@ -0,0 +1,193 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.AsyncConnection;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.HedgingPolicy;
+import com.paysafe.paylater.model.CapturePurchaseRequest;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * Tests for {@link HedgingConnection}.
+ */
+public class HedgingConnectionTest extends LocalServerTestBase {
+
+    @Test
+    public void testSlowGetIsHedged() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1, 2000);
+
+        HedgingConnection connection = HedgingConnection.create(createConnection(), new HedgingPolicy()
+                .withDelay(50)
+                .withDelayPercentile(0));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection)) {
+            long startTime = System.nanoTime();
+            PurchaseOperationResponse response = api.getPurchase("1", "aSecretKey");
+
+            Assert.assertNotNull(response.getResult());
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(2000));
+            Assert.assertEquals(2, requestCount.get());
+            Assert.assertEquals(1, connection.getHedgedRequestCount());
+            Assert.assertEquals(1, connection.getHedgeWinCount());
+        }
+    }
+
+    @Test
+    public void testFastGetIsNotHedged() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 0);
+
+        HedgingConnection connection = HedgingConnection.create(createConnection(), new HedgingPolicy()
+                .withDelay(1000)
+                .withDelayPercentile(0));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection)) {
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertEquals(1, requestCount.get());
+            Assert.assertEquals(0, connection.getHedgedRequestCount());
+        }
+    }
+
+    @Test
+    public void testPostIsNotHedged() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1, 200);
+
+        HedgingConnection connection = HedgingConnection.create(createConnection(), new HedgingPolicy()
+                .withDelay(10)
+                .withDelayPercentile(0));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection)) {
+            api.capturePurchase(new CapturePurchaseRequest(), "aSecretKey");
+
+            Assert.assertEquals(1, requestCount.get());
+            Assert.assertEquals(0, connection.getHedgedRequestCount());
+        }
+    }
+
+    @Test
+    public void testBudgetLimitsHedges() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, Integer.MAX_VALUE, 100);
+
+        HedgingConnection connection = HedgingConnection.create(createConnection(), new HedgingPolicy()
+                .withDelay(10)
+                .withDelayPercentile(0)
+                .withBudgetCapacity(1)
+                .withBudgetPercent(0));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection)) {
+            for (int i = 0; i < 3; i++) {
+                api.getPurchase("1", "aSecretKey");
+            }
+            Assert.assertEquals(1, connection.getHedgedRequestCount());
+            Assert.assertEquals(2, connection.getHedgesDeniedByBudgetCount());
+        }
+    }
+
+    @Test
+    public void testBusyThreadsSendRequestsWithoutHedging() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, Integer.MAX_VALUE, 300);
+
+        HedgingConnection connection = HedgingConnection.create(createConnection(), new HedgingPolicy()
+                .withDelay(10)
+                .withDelayPercentile(0), 1);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection)) {
+            // occupies the only thread, so its hedge cannot be sent
+            CompletableFuture<PurchaseOperationResponse> first = CompletableFuture.supplyAsync(() -> api.getPurchase("1", "aSecretKey"));
+            Thread.sleep(100);
+            // sent by the calling thread
+            PurchaseOperationResponse second = api.getPurchase("2", "aSecretKey");
+
+            Assert.assertNotNull(second.getResult());
+            Assert.assertNotNull(first.get(5, TimeUnit.SECONDS).getResult());
+            Assert.assertEquals(2, requestCount.get());
+            Assert.assertEquals(0, connection.getHedgedRequestCount());
+        }
+    }
+
+    @Test
+    public void testAsyncSlowGetIsHedged() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1, 2000);
+
+        PaysafeAsyncConnection asyncConnection = new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        HedgingConnection connection = HedgingConnection.create(asyncConnection, new HedgingPolicy()
+                .withDelay(50)
+                .withDelayPercentile(0));
+        Assert.assertTrue(connection instanceof AsyncConnection);
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection)) {
+            PurchaseOperationResponse response = api.getPurchaseAsync("1", "aSecretKey", Runnable::run).get(1, TimeUnit.SECONDS);
+
+            Assert.assertNotNull(response.getResult());
+            Assert.assertEquals(2, requestCount.get());
+            Assert.assertEquals(1, connection.getHedgeWinCount());
+        }
+    }
+
+    @Test
+    public void testDelayFollowsPercentile() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 0);
+
+        HedgingConnection connection = HedgingConnection.create(createConnection(), new HedgingPolicy()
+                .withDelay(5000)
+                .withMinDelay(0));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection)) {
+            Assert.assertEquals(5000, connection.getHedgingDelay("/purchase/info/1"));
+            for (int i = 0; i < 20; i++) {
+                api.getPurchase(String.valueOf(i), "aSecretKey");
+            }
+            Assert.assertTrue(connection.getHedgingDelay("/purchase/info/1") < 5000);
+            // other operations keep the fixed delay
+            Assert.assertEquals(5000, connection.getHedgingDelay("/purchase/legaldocuments/termsandconditions/1"));
+            Assert.assertEquals(0, connection.getHedgedRequestCount());
+        }
+    }
+
+    /**
+     * Sets up a server that delays the response to the given number of requests by the given number of milliseconds.
+     */
+    private HttpHost setup(AtomicInteger requestCount, int slowRequests, long delay) throws Exception {
+        serverBootstrap.registerHandler("/purchase/*", (request, response, context) -> {
+            if (requestCount.incrementAndGet() <= slowRequests) {
+                try {
+                    Thread.sleep(delay);
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        return start();
+    }
+
+    private static PaysafeConnection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static PurchaseLifecycleApi createApi(URI apiEndpoint, Connection connection) {
+        return new PurchaseLifecycleApi(new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE));
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+}
@@ -0,0 +1,146 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.NotFoundException;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+import com.paysafe.paylater.model.OperationStatus;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaysafeAsyncConnectionTest extends PaysafeBaseCommunicationTest {
+
+    @Test
+    public void testGetAsync() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("purchase.json"));
+
+        try (PaysafeAsyncConnection connection = createConnection()) {
+            URI uri = URI.create(host.toURI() + "/purchase/info/1");
+
+            CompletableFuture<PurchaseOperationResponse> future = connection.getAsync(uri, Collections.emptyList(),
+                    (statusCode, bodyStream, headers) -> JsonMarshaller.INSTANCE.unmarshal(bodyStream, PurchaseOperationResponse.class));
+
+            PurchaseOperationResponse purchase = future.get(5, TimeUnit.SECONDS);
+            Assert.assertNotNull(purchase.getResult());
+            Assert.assertEquals(OperationStatus.OK, purchase.getResult().getStatus());
+        }
+    }
+
+    @Test
+    public void testResponseIsNotHandledOnIoDispatchThread() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("purchase.json"));
+
+        try (PaysafeAsyncConnection connection = createConnection()) {
+            URI uri = URI.create(host.toURI() + "/purchase/info/1");
+
+            String threadName = connection.getAsync(uri, Collections.emptyList(),
+                    (statusCode, bodyStream, headers) -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+            Assert.assertTrue(threadName, threadName.startsWith("paysafe-paylater-async-response-"));
+        }
+    }
+
+    @Test
+    public void testResponseHandlerExceptionCompletesFuture() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("purchase.json"));
+
+        try (PaysafeAsyncConnection connection = createConnection()) {
+            URI uri = URI.create(host.toURI() + "/purchase/info/1");
+
+            CompletableFuture<Object> future = connection.getAsync(uri, Collections.emptyList(), (statusCode, bodyStream, headers) -> {
+                throw new IllegalStateException("handler failure");
+            });
+
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                Assert.fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(IllegalStateException.class, e.getCause().getClass());
+            }
+        }
+    }
+
+    @Test
+    public void testConnectionFailureCompletesFuture() throws Exception {
+        // nothing is listening on the discard port
+        URI uri = URI.create("http://localhost:9/purchase/info/1");
+
+        try (PaysafeAsyncConnection connection = createConnection()) {
+            CompletableFuture<Integer> future = connection.getAsync(uri, Collections.emptyList(), (statusCode, bodyStream, headers) -> statusCode);
+
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                Assert.fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(CommunicationException.class, e.getCause().getClass());
+            }
+        }
+    }
+
+    @Test
+    public void testBlockingApiCall() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("purchase.json"));
+        TestLogger logger = new TestLogger();
+
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(createCommunicator(host, createConnection()))) {
+            api.enableLogging(logger);
+            PurchaseOperationResponse purchase = api.getPurchase("1", "aSecretKey");
+
+            Assert.assertNotNull(purchase.getResult());
+            Assert.assertEquals(OperationStatus.OK, purchase.getResult().getStatus());
+        }
+
+        // one request and one response message
+        Assert.assertEquals(2, logger.messages.size());
+        Assert.assertTrue(logger.messages.get(0).startsWith("Sending request"));
+        Assert.assertTrue(logger.messages.get(1).startsWith("Received response"));
+    }
+
+    @Test
+    public void testBlockingApiCallWithErrorResponse() throws Exception {
+        HttpHost host = setup("/purchase/info/1", htmlResponse("notFound.html", 404));
+
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(createCommunicator(host, createConnection()))) {
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.fail("expected NotFoundException");
+
+        } catch (@SuppressWarnings("unused") NotFoundException e) {
+            // expected
+        }
+    }
+
+    private PaysafeAsyncConnection createConnection() {
+        return new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static final class TestLogger implements CommunicatorLogger {
+
+        private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void log(String message) {
+            messages.add(message);
+        }
+
+        @Override
+        public void log(String message, Throwable thrown) {
+            messages.add(message);
+        }
+    }
+}
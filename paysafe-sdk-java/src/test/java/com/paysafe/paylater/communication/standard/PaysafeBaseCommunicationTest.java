@@ -25,6 +25,7 @@ import com.paysafe.paylater.api.LegalDocumentsApi;
 import com.paysafe.paylater.api.PurchaseLifecycleApi;
 import com.paysafe.paylater.communication.Communicator;
 import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
 
 @RunWith(MockitoJUnitRunner.class)
 public abstract class PaysafeBaseCommunicationTest extends LocalServerTestBase {
@@ -55,8 +56,12 @@ public abstract class PaysafeBaseCommunicationTest extends LocalServerTestBase {
 
     @SuppressWarnings("resource")
     protected Communicator createCommunicator(HttpHost host, int connectionTimeout, int readTimeout) throws URISyntaxException {
-        URI apiEndpoint = toURI(host);
         PaysafeConnection connection = new PaysafeConnection(connectionTimeout, readTimeout);
+        return createCommunicator(host, connection);
+    }
+
+    protected Communicator createCommunicator(HttpHost host, Connection connection) throws URISyntaxException {
+        URI apiEndpoint = toURI(host);
         return Factory.createCommunicator(apiEndpoint, connection);
     }
 
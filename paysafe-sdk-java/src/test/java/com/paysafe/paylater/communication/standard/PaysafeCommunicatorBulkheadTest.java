@@ -0,0 +1,189 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.api.PurchaseAuthorizationApi;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.ApiFamily;
+import com.paysafe.paylater.communication.BulkheadPolicy;
+import com.paysafe.paylater.communication.BulkheadStatistics;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.ConcurrencyLimitPolicy;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.exception.BulkheadFullException;
+import com.paysafe.paylater.model.AuthorizePurchaseRequest;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * Tests for bulkheads in {@link PaysafeCommunicator}.
+ */
+public class PaysafeCommunicatorBulkheadTest extends LocalServerTestBase {
+
+    private static final String AUTHORIZE_PAY_LATER = "/purchase/authorize/paylater";
+
+    @Test
+    public void testFullBulkheadDoesNotAffectOtherApiFamilies() throws Exception {
+        CountDownLatch readReceived = new CountDownLatch(1);
+        HttpHost host = setup(1000, readReceived);
+
+        Map<ApiFamily, BulkheadPolicy> bulkheadPolicies = new EnumMap<>(ApiFamily.class);
+        bulkheadPolicies.put(ApiFamily.READS, new BulkheadPolicy().withMaxConcurrentCalls(1));
+        bulkheadPolicies.put(ApiFamily.AUTHORIZATION, new BulkheadPolicy().withMaxConcurrentCalls(1));
+        try (PaysafeCommunicator communicator = createCommunicator(toURI(host), createConnection(), bulkheadPolicies)) {
+            PurchaseLifecycleApi lifecycleApi = new PurchaseLifecycleApi(communicator);
+            CompletableFuture<PurchaseOperationResponse> read = CompletableFuture.supplyAsync(() -> lifecycleApi.getPurchase("1", "aSecretKey"));
+            Assert.assertTrue(readReceived.await(5, TimeUnit.SECONDS));
+
+            try {
+                lifecycleApi.getPurchase("2", "aSecretKey");
+                Assert.fail("expected BulkheadFullException");
+            } catch (@SuppressWarnings("unused") BulkheadFullException e) {
+                // expected
+            }
+
+            PurchaseOperationResponse response = new PurchaseAuthorizationApi(communicator).authorizePayLater(new AuthorizePurchaseRequest(), "aSecretKey");
+            Assert.assertNotNull(response.getResult());
+
+            BulkheadStatistics readStatistics = getStatistics(communicator, ApiFamily.READS);
+            Assert.assertEquals(1, readStatistics.getMaxConcurrentCalls());
+            Assert.assertEquals(1, readStatistics.getActiveCalls());
+            Assert.assertEquals(1, readStatistics.getRejectedCalls());
+
+            Assert.assertNotNull(read.get(5, TimeUnit.SECONDS).getResult());
+
+            readStatistics = getStatistics(communicator, ApiFamily.READS);
+            Assert.assertEquals(0, readStatistics.getActiveCalls());
+
+            BulkheadStatistics authorizationStatistics = getStatistics(communicator, ApiFamily.AUTHORIZATION);
+            Assert.assertEquals(0, authorizationStatistics.getActiveCalls());
+            Assert.assertEquals(0, authorizationStatistics.getRejectedCalls());
+        }
+    }
+
+    @Test
+    public void testQueuedCallWaitsForFreeSlot() throws Exception {
+        CountDownLatch readReceived = new CountDownLatch(1);
+        HttpHost host = setup(300, readReceived);
+
+        Map<ApiFamily, BulkheadPolicy> bulkheadPolicies = new EnumMap<>(ApiFamily.class);
+        bulkheadPolicies.put(ApiFamily.READS, new BulkheadPolicy()
+                .withMaxConcurrentCalls(1)
+                .withOverflowPolicy(ConcurrencyLimitPolicy.OverflowPolicy.QUEUE)
+                .withMaxQueueWait(5000));
+        try (PaysafeCommunicator communicator = createCommunicator(toURI(host), createConnection(), bulkheadPolicies)) {
+            PurchaseLifecycleApi lifecycleApi = new PurchaseLifecycleApi(communicator);
+            CompletableFuture<PurchaseOperationResponse> read = CompletableFuture.supplyAsync(() -> lifecycleApi.getPurchase("1", "aSecretKey"));
+            Assert.assertTrue(readReceived.await(5, TimeUnit.SECONDS));
+
+            PurchaseOperationResponse response = lifecycleApi.getPurchase("2", "aSecretKey");
+            Assert.assertNotNull(response.getResult());
+            Assert.assertTrue(read.isDone());
+
+            BulkheadStatistics readStatistics = getStatistics(communicator, ApiFamily.READS);
+            Assert.assertEquals(0, readStatistics.getActiveCalls());
+            Assert.assertEquals(0, readStatistics.getQueuedCalls());
+            Assert.assertEquals(0, readStatistics.getRejectedCalls());
+        }
+    }
+
+    @Test
+    public void testAsyncFullBulkhead() throws Exception {
+        CountDownLatch readReceived = new CountDownLatch(1);
+        HttpHost host = setup(1000, readReceived);
+
+        Map<ApiFamily, BulkheadPolicy> bulkheadPolicies = new EnumMap<>(ApiFamily.class);
+        bulkheadPolicies.put(ApiFamily.READS, new BulkheadPolicy().withMaxConcurrentCalls(1));
+        PaysafeAsyncConnection connection = new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        try (PaysafeCommunicator communicator = createCommunicator(toURI(host), connection, bulkheadPolicies)) {
+            PurchaseLifecycleApi lifecycleApi = new PurchaseLifecycleApi(communicator);
+            CompletableFuture<PurchaseOperationResponse> read = lifecycleApi.getPurchaseAsync("1", "aSecretKey", Runnable::run);
+            Assert.assertTrue(readReceived.await(5, TimeUnit.SECONDS));
+
+            try {
+                lifecycleApi.getPurchaseAsync("2", "aSecretKey", Runnable::run).get(5, TimeUnit.SECONDS);
+                Assert.fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof BulkheadFullException);
+            }
+
+            Assert.assertNotNull(read.get(5, TimeUnit.SECONDS).getResult());
+
+            BulkheadStatistics readStatistics = getStatistics(communicator, ApiFamily.READS);
+            Assert.assertEquals(0, readStatistics.getActiveCalls());
+            Assert.assertEquals(1, readStatistics.getRejectedCalls());
+        }
+    }
+
+    @Test
+    public void testNoBulkheads() throws Exception {
+        HttpHost host = setup(0, null);
+
+        try (PaysafeCommunicator communicator = createCommunicator(toURI(host), createConnection(), null)) {
+            new PurchaseLifecycleApi(communicator).getPurchase("1", "aSecretKey");
+
+            Assert.assertTrue(communicator.getBulkheadStatistics().isEmpty());
+        }
+    }
+
+    private static BulkheadStatistics getStatistics(PaysafeCommunicator communicator, ApiFamily apiFamily) {
+        List<BulkheadStatistics> statistics = communicator.getBulkheadStatistics();
+        for (BulkheadStatistics bulkheadStatistics : statistics) {
+            if (bulkheadStatistics.getApiFamily() == apiFamily) {
+                return bulkheadStatistics;
+            }
+        }
+        throw new AssertionError("no statistics for " + apiFamily + " in " + statistics);
+    }
+
+    /**
+     * Sets up a server that delays responses to reads by the given number of milliseconds. If a latch is given, it is counted down
+     * when a read is received.
+     */
+    private HttpHost setup(long delay, CountDownLatch readReceived) throws Exception {
+        serverBootstrap.registerHandler("/purchase/*", (request, response, context) -> {
+            boolean isAuthorization = request.getRequestLine().getUri().startsWith(AUTHORIZE_PAY_LATER);
+            if (!isAuthorization) {
+                if (readReceived != null) {
+                    readReceived.countDown();
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        return start();
+    }
+
+    private static PaysafeConnection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static PaysafeCommunicator createCommunicator(URI apiEndpoint, Connection connection, Map<ApiFamily, BulkheadPolicy> bulkheadPolicies) {
+        return new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE, null, 0, bulkheadPolicies);
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+}
@@ -0,0 +1,234 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CoalescingStatistics;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.exception.ReferenceException;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * Tests for request coalescing in {@link PaysafeCommunicator}.
+ */
+public class PaysafeCommunicatorCoalescingTest extends LocalServerTestBase {
+
+    private static final int THREADS = 5;
+
+    @Test
+    public void testConcurrentIdenticalRequestsShareCall() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 300, 200);
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection())) {
+            List<PurchaseOperationResponse> responses = getConcurrently(api, "aSecretKey", "aSecretKey", "aSecretKey", "aSecretKey", "aSecretKey");
+            Assert.assertEquals(1, requestCount.get());
+            for (PurchaseOperationResponse response : responses) {
+                Assert.assertNotNull(response.getResult());
+            }
+            // each caller gets its own copy of the response
+            Assert.assertNotSame(responses.get(0), responses.get(1));
+
+            CoalescingStatistics statistics = getStatistics(api);
+            Assert.assertEquals(THREADS, statistics.getRequests());
+            Assert.assertEquals(1, statistics.getCalls());
+            Assert.assertEquals(THREADS - 1, statistics.getCoalescedRequests());
+            Assert.assertEquals(0.8, statistics.getCoalescingRatio(), 0.0001);
+        }
+    }
+
+    @Test
+    public void testRequestsWithDifferentSecretKeysDoNotShareCall() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 300, 200);
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection())) {
+            getConcurrently(api, "aSecretKey", "anotherSecretKey", "aSecretKey", "anotherSecretKey", "aSecretKey");
+            Assert.assertEquals(2, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testSequentialRequestsDoNotShareCall() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 200);
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection())) {
+            api.getPurchase("1", "aSecretKey");
+            api.getPurchase("1", "aSecretKey");
+            Assert.assertEquals(2, requestCount.get());
+            Assert.assertEquals(0, getStatistics(api).getCoalescedRequests());
+        }
+    }
+
+    @Test
+    public void testErrorIsPassedToAllRequests() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 300, 404);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection())) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<PurchaseOperationResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return api.getPurchase("1", "aSecretKey");
+                }));
+            }
+            start.countDown();
+            Set<Throwable> responseExceptions = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<PurchaseOperationResponse> future : futures) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    Assert.fail("expected ReferenceException");
+                } catch (ExecutionException e) {
+                    Assert.assertTrue(e.getCause() instanceof ReferenceException);
+                    Assert.assertEquals(404, ((ReferenceException) e.getCause()).getResponseStatusCode());
+                    responseExceptions.add(e.getCause().getCause());
+                }
+            }
+            Assert.assertEquals(1, requestCount.get());
+            // the requests do not share an exception instance
+            Assert.assertEquals(THREADS, responseExceptions.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExpiredDeadlineOfCallDoesNotFailOtherRequests() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 300, 200);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection())) {
+            Future<PurchaseOperationResponse> first = executor.submit(
+                    () -> Deadline.after(100, TimeUnit.MILLISECONDS).call(() -> api.getPurchase("1", "aSecretKey")));
+            // wait until the first request has made the call
+            while (requestCount.get() == 0) {
+                Thread.sleep(10);
+            }
+            PurchaseOperationResponse second = api.getPurchase("1", "aSecretKey");
+
+            try {
+                first.get(5, TimeUnit.SECONDS);
+                Assert.fail("expected DeadlineExceededException");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof DeadlineExceededException);
+            }
+            Assert.assertNotNull(second.getResult());
+            // the second request made a call of its own once the first call failed
+            Assert.assertEquals(2, requestCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAsyncRequestsShareCall() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 300, 200);
+
+        PaysafeAsyncConnection connection = new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection)) {
+            CompletableFuture<PurchaseOperationResponse> first = api.getPurchaseAsync("1", "aSecretKey", Runnable::run);
+            CompletableFuture<PurchaseOperationResponse> second = api.getPurchaseAsync("1", "aSecretKey", Runnable::run);
+            CompletableFuture<PurchaseOperationResponse> third = api.getPurchaseAsync("1", "aSecretKey", Runnable::run);
+
+            // cancelling one request does not cancel the call that the others wait for
+            first.cancel(true);
+            Assert.assertNotNull(second.get(5, TimeUnit.SECONDS).getResult());
+            Assert.assertNotNull(third.get(5, TimeUnit.SECONDS).getResult());
+            Assert.assertEquals(1, requestCount.get());
+            Assert.assertEquals(2, getStatistics(api).getCoalescedRequests());
+        }
+    }
+
+    private List<PurchaseOperationResponse> getConcurrently(PurchaseLifecycleApi api, String... secretKeys) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(secretKeys.length);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<PurchaseOperationResponse>> futures = new ArrayList<>();
+            for (String secretKey : secretKeys) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return api.getPurchase("1", secretKey);
+                }));
+            }
+            start.countDown();
+            List<PurchaseOperationResponse> responses = new ArrayList<>();
+            for (Future<PurchaseOperationResponse> future : futures) {
+                responses.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sets up a server that responds to each request after the given delay with the given status code.
+     */
+    private HttpHost setup(AtomicInteger requestCount, long delay, int statusCode) throws Exception {
+        serverBootstrap.registerHandler("/purchase/*", (request, response, context) -> {
+            requestCount.incrementAndGet();
+            try {
+                Thread.sleep(delay);
+            } catch (@SuppressWarnings("unused") InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setStatusCode(statusCode);
+            if (statusCode != 200) {
+                response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+                return;
+            }
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        return start();
+    }
+
+    private static CoalescingStatistics getStatistics(PurchaseLifecycleApi api) {
+        return ((PaysafeCommunicator) api.getCommunicator()).getCoalescingStatistics();
+    }
+
+    private static PaysafeConnection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static PurchaseLifecycleApi createApi(URI apiEndpoint, Connection connection) {
+        return new PurchaseLifecycleApi(new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE, null, 0, null, null, null, true));
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+}
@@ -0,0 +1,224 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.RetryPolicy;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.exception.PaysafeException;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * Tests for deadlines and call timeouts in {@link PaysafeCommunicator}.
+ */
+public class PaysafeCommunicatorDeadlineTest extends LocalServerTestBase {
+
+    @Test
+    public void testSlowResponseIsAbortedAtDeadline() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 2000);
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), null, 0);
+                Deadline.Scope scope = Deadline.after(300, TimeUnit.MILLISECONDS).activate()) {
+
+            long startTime = System.nanoTime();
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected DeadlineExceededException");
+            } catch (@SuppressWarnings("unused") DeadlineExceededException e) {
+                // expected
+            }
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(1500));
+        }
+    }
+
+    @Test
+    public void testCallTimeout() throws Exception {
+        assertCallTimeout(createConnection());
+    }
+
+    @Test
+    public void testCallTimeoutAsyncConnection() throws Exception {
+        assertCallTimeout(new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT));
+    }
+
+    @Test
+    public void testCallTimeoutHttp2Connection() throws Exception {
+        assertCallTimeout(new PaysafeHttp2Connection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT));
+    }
+
+    @Test
+    public void testCallTimeoutNettyConnection() throws Exception {
+        assertCallTimeout(new PaysafeNettyConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT));
+    }
+
+    @Test
+    public void testCallTimeoutJdkConnection() throws Exception {
+        // the JDK HTTP client requires Java 11
+        Assume.assumeTrue(isJdkHttpClientAvailable());
+
+        assertCallTimeout(new PaysafeJdkConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT));
+    }
+
+    /**
+     * Asserts that a synchronous call using the given connection is abandoned when its call timeout expires, while the response is delayed.
+     */
+    private void assertCallTimeout(Connection connection) throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 2000);
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection, null, 300)) {
+            long startTime = System.nanoTime();
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected DeadlineExceededException");
+            } catch (@SuppressWarnings("unused") DeadlineExceededException e) {
+                // expected
+            }
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(1500));
+            Assert.assertNull(Deadline.current());
+        }
+    }
+
+    @Test
+    public void testExpiredDeadlineIsNotSent() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 0);
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), null, 0);
+                Deadline.Scope scope = Deadline.after(0, TimeUnit.MILLISECONDS).activate()) {
+
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected DeadlineExceededException");
+            } catch (@SuppressWarnings("unused") DeadlineExceededException e) {
+                // expected
+            }
+            Assert.assertEquals(0, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testEarliestDeadlineApplies() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 0);
+
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), null, 0)) {
+            Deadline outer = Deadline.after(0, TimeUnit.MILLISECONDS);
+            try (Deadline.Scope outerScope = outer.activate();
+                    Deadline.Scope innerScope = Deadline.after(10, TimeUnit.SECONDS).activate()) {
+
+                Assert.assertSame(outer, Deadline.current());
+            }
+            Assert.assertNull(Deadline.current());
+
+            PurchaseOperationResponse response = api.getPurchase("1", "aSecretKey");
+            Assert.assertNotNull(response.getResult());
+            Assert.assertEquals(1, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testRetriesStopAtDeadline() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, Integer.MAX_VALUE, 0);
+
+        RetryPolicy retryPolicy = new RetryPolicy()
+                .withMaxAttempts(10)
+                .withBaseDelay(200)
+                .withMaxDelay(200);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), retryPolicy, 500)) {
+            long startTime = System.nanoTime();
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected PaysafeException");
+            } catch (PaysafeException e) {
+                // the last response is reported, instead of waiting for a retry that cannot be sent in time
+                Assert.assertEquals(503, e.getResponseStatusCode());
+            }
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(500));
+            Assert.assertTrue(requestCount.get() >= 2);
+            Assert.assertTrue(requestCount.get() < 10);
+        }
+    }
+
+    @Test
+    public void testAsyncCallTimeout() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 2000);
+
+        PaysafeAsyncConnection connection = new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection, null, 300)) {
+            long startTime = System.nanoTime();
+            try {
+                api.getPurchaseAsync("1", "aSecretKey", Runnable::run).get(5, TimeUnit.SECONDS);
+                Assert.fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof DeadlineExceededException);
+            }
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(1500));
+        }
+    }
+
+    /**
+     * Sets up a server that responds to the given number of requests with a 503 status code, and to later requests with a purchase
+     * after the given delay in milliseconds.
+     */
+    private HttpHost setup(AtomicInteger requestCount, int failures, long delay) throws Exception {
+        serverBootstrap.registerHandler("/purchase/*", (request, response, context) -> {
+            if (requestCount.incrementAndGet() <= failures) {
+                response.setStatusCode(503);
+                response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+                return;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (@SuppressWarnings("unused") InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        return start();
+    }
+
+    private static boolean isJdkHttpClientAvailable() {
+        try {
+            Class.forName("java.net.http.HttpClient");
+            return true;
+        } catch (@SuppressWarnings("unused") ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static PaysafeConnection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static PurchaseLifecycleApi createApi(URI apiEndpoint, Connection connection, RetryPolicy retryPolicy, int callTimeout) {
+        return new PurchaseLifecycleApi(new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE, retryPolicy, callTimeout));
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+}
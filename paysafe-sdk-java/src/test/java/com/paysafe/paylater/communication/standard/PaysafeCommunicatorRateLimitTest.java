@@ -0,0 +1,263 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.api.PurchaseAuthorizationApi;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.Deadline;
+import com.paysafe.paylater.communication.RateLimitPolicy;
+import com.paysafe.paylater.communication.RetryPolicy;
+import com.paysafe.paylater.exception.DeadlineExceededException;
+import com.paysafe.paylater.exception.PaysafeException;
+import com.paysafe.paylater.exception.RateLimitExceededException;
+import com.paysafe.paylater.exception.TooManyRequestsException;
+import com.paysafe.paylater.model.AuthorizePurchaseRequest;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * Tests for rate limiting in {@link PaysafeCommunicator}.
+ */
+public class PaysafeCommunicatorRateLimitTest extends LocalServerTestBase {
+
+    private static final String GET_PURCHASE = "/purchase/info/{purchaseId}";
+
+    @Test
+    public void testBurstIsSpreadOut() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 0, null);
+
+        RateLimitPolicy rateLimitPolicy = new RateLimitPolicy()
+                .withRequestsPerSecond(10)
+                .withBurstSize(2)
+                .withMaxWait(2000);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), null, rateLimitPolicy, null)) {
+            long startTime = System.nanoTime();
+            for (int i = 0; i < 5; i++) {
+                Assert.assertNotNull(api.getPurchase("1", "aSecretKey").getResult());
+            }
+            // the first two requests are sent at once, the other three 100 milliseconds apart
+            Assert.assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(250));
+            Assert.assertEquals(5, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testRequestIsRejectedAfterMaxWait() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 0, null);
+
+        RateLimitPolicy rateLimitPolicy = new RateLimitPolicy()
+                .withRequestsPerSecond(1)
+                .withBurstSize(1)
+                .withMaxWait(100);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), null, rateLimitPolicy, null)) {
+            api.getPurchase("1", "aSecretKey");
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected RateLimitExceededException");
+            } catch (@SuppressWarnings("unused") RateLimitExceededException e) {
+                // expected
+            }
+            // secret keys do not share their buckets
+            api.getPurchase("1", "anotherSecretKey");
+            Assert.assertEquals(2, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testOperationWithOwnPolicy() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 0, null);
+
+        RateLimitPolicy rateLimitPolicy = new RateLimitPolicy()
+                .withRequestsPerSecond(1)
+                .withBurstSize(1)
+                .withMaxWait(0);
+        Map<String, RateLimitPolicy> operationRateLimitPolicies = Collections.singletonMap(GET_PURCHASE, new RateLimitPolicy()
+                .withRequestsPerSecond(100)
+                .withBurstSize(5));
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), null, rateLimitPolicy, operationRateLimitPolicies)) {
+            for (int i = 0; i < 3; i++) {
+                api.getPurchase("1", "aSecretKey");
+            }
+
+            PurchaseAuthorizationApi authorizationApi = new PurchaseAuthorizationApi(api.getCommunicator());
+            authorizationApi.authorizePayLater(new AuthorizePurchaseRequest(), "aSecretKey");
+            try {
+                authorizationApi.authorizePayLater(new AuthorizePurchaseRequest(), "aSecretKey");
+                Assert.fail("expected RateLimitExceededException");
+            } catch (@SuppressWarnings("unused") RateLimitExceededException e) {
+                // expected
+            }
+            Assert.assertEquals(4, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testRetryAfterPausesSecretKey() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1, 429, "1");
+
+        RateLimitPolicy rateLimitPolicy = new RateLimitPolicy()
+                .withRequestsPerSecond(100)
+                .withMaxWait(5000);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), null, rateLimitPolicy, null)) {
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected TooManyRequestsException");
+            } catch (TooManyRequestsException e) {
+                Assert.assertEquals(429, e.getResponseStatusCode());
+            }
+
+            long startTime = System.nanoTime();
+            api.getPurchase("1", "anotherSecretKey");
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(500));
+
+            api.getPurchase("1", "aSecretKey");
+            Assert.assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(800));
+            Assert.assertEquals(3, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testRetryWaitsForRetryAfter() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1, 503, "1");
+
+        RetryPolicy retryPolicy = new RetryPolicy()
+                .withBaseDelay(1)
+                .withMaxDelay(2000);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), retryPolicy, null, null)) {
+            long startTime = System.nanoTime();
+            Assert.assertNotNull(api.getPurchase("1", "aSecretKey").getResult());
+            Assert.assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(900));
+            Assert.assertEquals(2, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testRetryAfterBeyondMaxDelayIsNotRetried() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1, 503, "5");
+
+        RetryPolicy retryPolicy = new RetryPolicy()
+                .withBaseDelay(1)
+                .withMaxDelay(1000);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), retryPolicy, null, null)) {
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected PaysafeException");
+            } catch (PaysafeException e) {
+                Assert.assertEquals(503, e.getResponseStatusCode());
+            }
+            Assert.assertEquals(1, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testWaitIsLimitedByDeadline() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 0, null);
+
+        RateLimitPolicy rateLimitPolicy = new RateLimitPolicy()
+                .withRequestsPerSecond(1)
+                .withBurstSize(1)
+                .withMaxWait(5000);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), createConnection(), null, rateLimitPolicy, null)) {
+            api.getPurchase("1", "aSecretKey");
+
+            long startTime = System.nanoTime();
+            try (Deadline.Scope scope = Deadline.after(200, TimeUnit.MILLISECONDS).activate()) {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected DeadlineExceededException");
+            } catch (@SuppressWarnings("unused") DeadlineExceededException e) {
+                // expected
+            }
+            // the request fails at once, instead of waiting for a token it cannot use
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(150));
+            Assert.assertEquals(1, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testAsyncRequestsAreDelayed() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 0, 0, null);
+
+        RateLimitPolicy rateLimitPolicy = new RateLimitPolicy()
+                .withRequestsPerSecond(5)
+                .withBurstSize(1)
+                .withMaxWait(300);
+        PaysafeAsyncConnection connection = new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        try (PurchaseLifecycleApi api = createApi(toURI(host), connection, null, rateLimitPolicy, null)) {
+            long startTime = System.nanoTime();
+            PurchaseOperationResponse first = api.getPurchaseAsync("1", "aSecretKey", Runnable::run).get(5, TimeUnit.SECONDS);
+            PurchaseOperationResponse second = api.getPurchaseAsync("1", "aSecretKey", Runnable::run).get(5, TimeUnit.SECONDS);
+            Assert.assertNotNull(first.getResult());
+            Assert.assertNotNull(second.getResult());
+            Assert.assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(150));
+
+            // the next two tokens are 200 and 400 milliseconds away, which exceeds the maximum wait for the last one
+            api.getPurchaseAsync("1", "aSecretKey", Runnable::run);
+            try {
+                api.getPurchaseAsync("1", "aSecretKey", Runnable::run).get(5, TimeUnit.SECONDS);
+                Assert.fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof RateLimitExceededException);
+            }
+        }
+    }
+
+    /**
+     * Sets up a server that responds to the given number of requests with the given status code and {@code Retry-After} header,
+     * and to later requests with a purchase.
+     */
+    private HttpHost setup(AtomicInteger requestCount, int failures, int failureStatusCode, String retryAfter) throws Exception {
+        serverBootstrap.registerHandler("/purchase/*", (request, response, context) -> {
+            if (requestCount.incrementAndGet() <= failures) {
+                response.setStatusCode(failureStatusCode);
+                if (retryAfter != null) {
+                    response.setHeader("Retry-After", retryAfter);
+                }
+                response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+                return;
+            }
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        return start();
+    }
+
+    private static PaysafeConnection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static PurchaseLifecycleApi createApi(URI apiEndpoint, Connection connection, RetryPolicy retryPolicy, RateLimitPolicy rateLimitPolicy,
+            Map<String, RateLimitPolicy> operationRateLimitPolicies) {
+        return new PurchaseLifecycleApi(new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE, retryPolicy, 0, null,
+                rateLimitPolicy, operationRateLimitPolicies));
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+}
@@ -0,0 +1,264 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.RequestHeader;
+import com.paysafe.paylater.communication.RetryPolicy;
+import com.paysafe.paylater.communication.RetryStatistics;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.PaysafeException;
+import com.paysafe.paylater.model.CapturePurchaseRequest;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * Tests for retrying requests in {@link PaysafeCommunicator}.
+ */
+public class PaysafeCommunicatorRetryTest extends LocalServerTestBase {
+
+    private static final String GET_PURCHASE = "GET /purchase/info/{purchaseId}";
+    private static final String CAPTURE_PURCHASE = "POST /purchase/capture";
+
+    @Test
+    public void testGetIsRetriedOnServiceUnavailable() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 2);
+
+        PaysafeCommunicator communicator = createCommunicator(toURI(host), createConnection(), new RetryPolicy().withBaseDelay(1));
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator)) {
+            PurchaseOperationResponse response = api.getPurchase("1", "aSecretKey");
+
+            Assert.assertNotNull(response.getResult());
+            Assert.assertEquals(3, requestCount.get());
+            assertStatistics(communicator, GET_PURCHASE, 1, 2, 0, 0);
+        }
+    }
+
+    @Test
+    public void testGetFailsAfterMaxAttempts() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, Integer.MAX_VALUE);
+
+        PaysafeCommunicator communicator = createCommunicator(toURI(host), createConnection(), new RetryPolicy().withBaseDelay(1));
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator)) {
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected PaysafeException");
+            } catch (PaysafeException e) {
+                Assert.assertEquals(503, e.getResponseStatusCode());
+            }
+            Assert.assertEquals(RetryPolicy.DEFAULT_MAX_ATTEMPTS, requestCount.get());
+            assertStatistics(communicator, GET_PURCHASE, 1, 2, 0, 1);
+        }
+    }
+
+    @Test
+    public void testPostIsNotRetriedOnServiceUnavailable() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1);
+
+        PaysafeCommunicator communicator = createCommunicator(toURI(host), createConnection(), new RetryPolicy().withBaseDelay(1));
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator)) {
+            try {
+                api.capturePurchase(new CapturePurchaseRequest(), "aSecretKey");
+                Assert.fail("expected PaysafeException");
+            } catch (PaysafeException e) {
+                Assert.assertEquals(503, e.getResponseStatusCode());
+            }
+            Assert.assertEquals(1, requestCount.get());
+            assertStatistics(communicator, CAPTURE_PURCHASE, 1, 0, 0, 0);
+        }
+    }
+
+    @Test
+    public void testPostWithIdempotencyKeyIsRetried() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1);
+
+        PaysafeCommunicator communicator = createCommunicator(toURI(host), createConnection(), new RetryPolicy().withBaseDelay(1));
+        try {
+            List<RequestHeader> requestHeaders = new ArrayList<>();
+            requestHeaders.add(new RequestHeader(RetryPolicy.DEFAULT_IDEMPOTENCY_KEY_HEADER, "capture-1"));
+            PurchaseOperationResponse response = communicator.post("/purchase/capture", requestHeaders, new CapturePurchaseRequest(),
+                    PurchaseOperationResponse.class);
+
+            Assert.assertNotNull(response.getResult());
+            Assert.assertEquals(2, requestCount.get());
+            assertStatistics(communicator, CAPTURE_PURCHASE, 1, 1, 0, 0);
+        } finally {
+            communicator.close();
+        }
+    }
+
+    @Test
+    public void testPostIsRetriedOnConnectFailure() throws Exception {
+        URI apiEndpoint = new URI("http", null, "localhost", getUnusedPort(), null, null, null);
+
+        PaysafeCommunicator communicator = createCommunicator(apiEndpoint, createConnection(), new RetryPolicy().withBaseDelay(1));
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator)) {
+            try {
+                api.capturePurchase(new CapturePurchaseRequest(), "aSecretKey");
+                Assert.fail("expected CommunicationException");
+            } catch (CommunicationException e) {
+                Assert.assertTrue(RetryExecutor.isConnectFailure(e));
+            }
+            assertStatistics(communicator, CAPTURE_PURCHASE, 1, 2, 0, 1);
+        }
+    }
+
+    @Test
+    public void testRetryBudgetLimitsRetries() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, Integer.MAX_VALUE);
+
+        RetryPolicy retryPolicy = new RetryPolicy()
+                .withBaseDelay(1)
+                .withRetryBudgetCapacity(1)
+                .withRetryBudgetPercent(0);
+        PaysafeCommunicator communicator = createCommunicator(toURI(host), createConnection(), retryPolicy);
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator)) {
+            for (int i = 0; i < 3; i++) {
+                try {
+                    api.getPurchase("1", "aSecretKey");
+                    Assert.fail("expected PaysafeException");
+                } catch (@SuppressWarnings("unused") PaysafeException e) {
+                    // expected
+                }
+            }
+            // only the first retry fits in the budget
+            Assert.assertEquals(4, requestCount.get());
+            assertStatistics(communicator, GET_PURCHASE, 3, 1, 3, 0);
+        }
+    }
+
+    @Test
+    public void testAsyncGetIsRetried() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 2);
+
+        PaysafeAsyncConnection connection = new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        PaysafeCommunicator communicator = createCommunicator(toURI(host), connection, new RetryPolicy().withBaseDelay(1));
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator)) {
+            PurchaseOperationResponse response = api.getPurchaseAsync("1", "aSecretKey", Runnable::run).get(5, TimeUnit.SECONDS);
+
+            Assert.assertNotNull(response.getResult());
+            Assert.assertEquals(3, requestCount.get());
+            assertStatistics(communicator, GET_PURCHASE, 1, 2, 0, 0);
+        }
+    }
+
+    @Test
+    public void testAsyncPostIsNotRetried() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1);
+
+        PaysafeAsyncConnection connection = new PaysafeAsyncConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        PaysafeCommunicator communicator = createCommunicator(toURI(host), connection, new RetryPolicy().withBaseDelay(1));
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator)) {
+            try {
+                api.capturePurchaseAsync(new CapturePurchaseRequest(), "aSecretKey", Runnable::run).get(5, TimeUnit.SECONDS);
+                Assert.fail("expected PaysafeException");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof PaysafeException);
+            }
+            Assert.assertEquals(1, requestCount.get());
+            assertStatistics(communicator, CAPTURE_PURCHASE, 1, 0, 0, 0);
+        }
+    }
+
+    @Test
+    public void testNoRetryPolicy() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup(requestCount, 1);
+
+        PaysafeCommunicator communicator = createCommunicator(toURI(host), createConnection(), null);
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(communicator)) {
+            try {
+                api.getPurchase("1", "aSecretKey");
+                Assert.fail("expected PaysafeException");
+            } catch (@SuppressWarnings("unused") PaysafeException e) {
+                // expected
+            }
+            Assert.assertEquals(1, requestCount.get());
+            Assert.assertTrue(communicator.getRetryStatistics().isEmpty());
+        }
+    }
+
+    @Test
+    public void testPathTemplates() {
+        Assert.assertEquals("/purchase/info/{purchaseId}", PathTemplates.toTemplate("/purchase/info/123"));
+        Assert.assertEquals("/purchase/info/{purchaseId}", PathTemplates.toTemplate("purchase/info/123?x=y"));
+        Assert.assertEquals("/purchase/capture", PathTemplates.toTemplate("/purchase/capture"));
+        Assert.assertEquals("/purchase/info/", PathTemplates.toTemplate("/purchase/info/"));
+        Assert.assertEquals("/unknown/123", PathTemplates.toTemplate("/unknown/123"));
+    }
+
+    /**
+     * Sets up a server that responds to the given number of requests with a 503 status code, and to later requests with a purchase.
+     */
+    private HttpHost setup(AtomicInteger requestCount, int failures) throws Exception {
+        serverBootstrap.registerHandler("/purchase/*", (request, response, context) -> {
+            if (requestCount.incrementAndGet() <= failures) {
+                response.setStatusCode(503);
+                response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+            } else {
+                response.setStatusCode(200);
+                response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+                response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+            }
+        });
+        return start();
+    }
+
+    private static PaysafeConnection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+    }
+
+    private static PaysafeCommunicator createCommunicator(URI apiEndpoint, Connection connection, RetryPolicy retryPolicy) {
+        return new PaysafeCommunicator(apiEndpoint, connection, JsonMarshaller.INSTANCE, retryPolicy);
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+
+    private static int getUnusedPort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+
+    private static void assertStatistics(PaysafeCommunicator communicator, String operation,
+            long requests, long retries, long retriesDeniedByBudget, long retriesExhausted) {
+
+        List<RetryStatistics> statistics = communicator.getRetryStatistics();
+        Assert.assertEquals(1, statistics.size());
+        RetryStatistics operationStatistics = statistics.get(0);
+        Assert.assertEquals(operation, operationStatistics.getOperation());
+        Assert.assertEquals(requests, operationStatistics.getRequests());
+        Assert.assertEquals(retries, operationStatistics.getRetries());
+        Assert.assertEquals(retriesDeniedByBudget, operationStatistics.getRetriesDeniedByBudget());
+        Assert.assertEquals(retriesExhausted, operationStatistics.getRetriesExhausted());
+    }
+}
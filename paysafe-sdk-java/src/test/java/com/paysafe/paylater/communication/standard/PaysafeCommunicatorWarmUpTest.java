@@ -0,0 +1,164 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.apache.http.pool.PoolStats;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.communication.Communicator;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.HedgingPolicy;
+import com.paysafe.paylater.communication.WarmUpOptions;
+import com.paysafe.paylater.communication.WarmUpResult;
+import com.paysafe.paylater.model.Address;
+import com.paysafe.paylater.model.Currency;
+import com.paysafe.paylater.model.InitializePurchaseRequest;
+import com.paysafe.paylater.model.PurchaseInformation;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+import com.paysafe.paylater.model.ResponseWithAuthorization;
+
+/**
+ * Tests for {@link PaysafeCommunicator#warmUp(WarmUpOptions)}.
+ */
+public class PaysafeCommunicatorWarmUpTest extends LocalServerTestBase {
+
+    @Test
+    public void testWarmUpOpensConnections() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup("/", requestCount);
+
+        PaysafeConnection connection = new PaysafeConnection(createConfiguration(toURI(host)));
+        try (Communicator communicator = new PaysafeCommunicator(toURI(host), connection, JsonMarshaller.INSTANCE)) {
+            WarmUpResult result = communicator.warmUp(new WarmUpOptions().withConnections(3));
+
+            Assert.assertTrue(result.isSuccessful());
+            Assert.assertEquals(3, result.getConnectionsOpened());
+            Assert.assertEquals(0, result.getConnectionsFailed());
+            Assert.assertTrue(result.getModelTypes() > 0);
+            Assert.assertEquals(3, requestCount.get());
+
+            List<PoolStats> stats = connection.getConnectionPoolStats();
+            Assert.assertEquals(1, stats.size());
+            Assert.assertEquals(3, stats.get(0).getAvailable());
+            Assert.assertEquals(0, stats.get(0).getLeased());
+        }
+    }
+
+    @Test
+    public void testWarmUpUsesPath() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup("/health", requestCount);
+
+        try (Communicator communicator = new PaysafeCommunicator(toURI(host), new PaysafeConnection(createConfiguration(toURI(host))),
+                JsonMarshaller.INSTANCE)) {
+
+            WarmUpResult result = communicator.warmUp(new WarmUpOptions()
+                    .withPath("/health")
+                    .withConnections(2)
+                    .withWarmUpMarshaller(false));
+
+            Assert.assertEquals(2, result.getConnectionsOpened());
+            Assert.assertEquals(2, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testWarmUpIsNotHedged() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpHost host = setup("/", requestCount);
+
+        // without bypassing the hedging connection, each slow request would be sent twice
+        Connection connection = HedgingConnection.create(new PaysafeConnection(createConfiguration(toURI(host))), new HedgingPolicy()
+                .withDelay(10)
+                .withMinDelay(10)
+                .withBudgetCapacity(10));
+        try (Communicator communicator = new PaysafeCommunicator(toURI(host), connection, JsonMarshaller.INSTANCE)) {
+            WarmUpResult result = communicator.warmUp(new WarmUpOptions()
+                    .withConnections(3)
+                    .withWarmUpMarshaller(false));
+
+            Assert.assertEquals(3, result.getConnectionsOpened());
+            Assert.assertEquals(3, requestCount.get());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTimeoutIsRejected() {
+        new WarmUpOptions().setTimeout(-1);
+    }
+
+    @Test
+    public void testWarmUpReportsFailedConnections() throws Exception {
+        URI apiEndpoint = new URI("http", null, "localhost", getUnusedPort(), null, null, null);
+
+        try (Communicator communicator = new PaysafeCommunicator(apiEndpoint, new PaysafeConnection(createConfiguration(apiEndpoint)),
+                JsonMarshaller.INSTANCE)) {
+
+            WarmUpResult result = communicator.warmUp(new WarmUpOptions()
+                    .withConnections(2)
+                    .withWarmUpMarshaller(false));
+
+            Assert.assertFalse(result.isSuccessful());
+            Assert.assertEquals(0, result.getConnectionsOpened());
+            Assert.assertEquals(2, result.getConnectionsFailed());
+            Assert.assertEquals(0, result.getModelTypes());
+        }
+    }
+
+    @Test
+    public void testModelWarmUpCoversModelTypes() {
+        Set<Class<?>> modelTypes = ModelWarmUp.warmUp(JsonMarshaller.INSTANCE);
+
+        Assert.assertTrue(modelTypes.contains(InitializePurchaseRequest.class));
+        Assert.assertTrue(modelTypes.contains(PurchaseOperationResponse.class));
+        Assert.assertTrue(modelTypes.contains(PurchaseInformation.class));
+        Assert.assertTrue(modelTypes.contains(Address.class));
+        Assert.assertTrue(modelTypes.contains(Currency.class));
+        // not a model type that is marshalled, but a wrapper for responses
+        Assert.assertFalse(modelTypes.contains(ResponseWithAuthorization.class));
+    }
+
+    private HttpHost setup(String path, AtomicInteger requestCount) throws Exception {
+        serverBootstrap.registerHandler(path, (request, response, context) -> {
+            requestCount.incrementAndGet();
+            // a slow response, like that of a remote server, so concurrent requests are in flight together
+            try {
+                Thread.sleep(100);
+            } catch (@SuppressWarnings("unused") InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setStatusCode(404);
+            // a response with a known length, so the server keeps the connection alive
+            response.setEntity(new BufferedHttpEntity(new StringEntity("not found")));
+        });
+        return start();
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+
+    private static CommunicatorConfiguration createConfiguration(URI apiEndpoint) {
+        return new CommunicatorConfiguration()
+                .withApiEndpoint(apiEndpoint)
+                .withConnectTimeout(1000)
+                .withReadTimeout(1000);
+    }
+
+    private static int getUnusedPort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.apache.http.pool.PoolStats;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.Connection;
+import com.paysafe.paylater.communication.ConnectionType;
+
+/**
+ * Tests for the background connection evictor of {@link PaysafeConnection} and the other connection types.
+ */
+public class PaysafeConnectionEvictionTest extends LocalServerTestBase {
+
+    private static final String EVICTOR_THREAD_NAME = "paysafe-connection-evictor";
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        HttpHost host = setup();
+
+        PaysafeConnection connection = new PaysafeConnection(createConfiguration(host)
+                .withConnectionEvictionInterval(50)
+                .withMaxIdleTime(100));
+        try (PurchaseLifecycleApi api = createApi(host, connection)) {
+            api.getPurchase("1", "aSecretKey");
+            Assert.assertEquals(1, getAvailableConnections(connection));
+
+            awaitAvailableConnections(connection, 0);
+
+            Assert.assertEquals(1, connection.getClosedIdleConnectionCount());
+            Assert.assertEquals(0, connection.getClosedExpiredConnectionCount());
+        }
+    }
+
+    @Test
+    public void testExpiredConnectionsAreEvicted() throws Exception {
+        HttpHost host = setup();
+
+        PaysafeConnection connection = new PaysafeConnection(createConfiguration(host)
+                .withConnectionEvictionInterval(50)
+                .withConnectionTimeToLive(100));
+        try (PurchaseLifecycleApi api = createApi(host, connection)) {
+            api.getPurchase("1", "aSecretKey");
+            Assert.assertEquals(1, getAvailableConnections(connection));
+
+            awaitAvailableConnections(connection, 0);
+
+            Assert.assertEquals(0, connection.getClosedIdleConnectionCount());
+            Assert.assertEquals(1, connection.getClosedExpiredConnectionCount());
+        }
+    }
+
+    @Test
+    public void testConnectionsAreNotEvictedByDefault() throws Exception {
+        HttpHost host = setup();
+
+        PaysafeConnection connection = new PaysafeConnection(createConfiguration(host));
+        try (PurchaseLifecycleApi api = createApi(host, connection)) {
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertFalse(isEvictorRunning());
+            Thread.sleep(200);
+            Assert.assertEquals(1, getAvailableConnections(connection));
+
+            // closing idle connections manually is still possible, and counted
+            connection.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(0, getAvailableConnections(connection));
+            Assert.assertEquals(1, connection.getClosedIdleConnectionCount());
+        }
+    }
+
+    @Test
+    public void testCloseStopsEvictor() throws Exception {
+        HttpHost host = setup();
+
+        PaysafeConnection connection = new PaysafeConnection(createConfiguration(host)
+                .withConnectionEvictionInterval(50));
+        Assert.assertTrue(isEvictorRunning());
+
+        connection.close();
+        Assert.assertFalse(isEvictorRunning());
+    }
+
+    @Test
+    public void testVirtualThreadConnectionEvictsIdleConnections() throws Exception {
+        HttpHost host = setup();
+
+        PaysafeConnection connection = new PaysafeVirtualThreadConnection(createConfiguration(host)
+                .withConnectionEvictionInterval(50)
+                .withMaxIdleTime(100));
+        try (PurchaseLifecycleApi api = createApi(host, connection)) {
+            api.getPurchase("1", "aSecretKey");
+            Assert.assertEquals(1, getAvailableConnections(connection));
+
+            awaitAvailableConnections(connection, 0);
+        }
+    }
+
+    @Test
+    public void testCloseStopsEvictorOfOtherConnectionTypes() throws Exception {
+        HttpHost host = setup();
+
+        for (ConnectionType connectionType : new ConnectionType[] { ConnectionType.ASYNC, ConnectionType.HTTP2, ConnectionType.NETTY }) {
+            Connection connection = Factory.createConnection(createConfiguration(host)
+                    .withConnectionType(connectionType)
+                    .withConnectionEvictionInterval(50));
+            Assert.assertTrue(connectionType.name(), isEvictorRunning());
+
+            connection.close();
+            Assert.assertFalse(connectionType.name(), isEvictorRunning());
+        }
+    }
+
+    private HttpHost setup() throws Exception {
+        serverBootstrap.registerHandler("/purchase/info/*", (request, response, context) -> {
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            // a response with a known length, so the server keeps the connection alive
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        return start();
+    }
+
+    private static CommunicatorConfiguration createConfiguration(HttpHost host) throws Exception {
+        return new CommunicatorConfiguration()
+                .withApiEndpoint(new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null));
+    }
+
+    private static PurchaseLifecycleApi createApi(HttpHost host, PaysafeConnection connection) throws Exception {
+        URI apiEndpoint = new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+        return new PurchaseLifecycleApi(Factory.createCommunicator(apiEndpoint, connection));
+    }
+
+    private static int getAvailableConnections(PaysafeConnection connection) {
+        List<PoolStats> stats = connection.getConnectionPoolStats();
+        Assert.assertEquals(1, stats.size());
+        return stats.get(0).getAvailable();
+    }
+
+    private static void awaitAvailableConnections(PaysafeConnection connection, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (getAvailableConnections(connection) != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(expected, getAvailableConnections(connection));
+    }
+
+    private static boolean isEvictorRunning() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (EVICTOR_THREAD_NAME.equals(thread.getName()) && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
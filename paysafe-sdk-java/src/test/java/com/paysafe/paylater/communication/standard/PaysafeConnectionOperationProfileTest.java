@@ -0,0 +1,153 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.apache.http.pool.PoolStats;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseAuthorizationApi;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.Communicator;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.communication.OperationProfile;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.model.AuthorizePurchaseRequest;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+/**
+ * Tests for operation profiles of {@link PaysafeConnection}.
+ */
+public class PaysafeConnectionOperationProfileTest extends LocalServerTestBase {
+
+    private static final String AUTHORIZE_PAY_LATER = "/purchase/authorize/paylater";
+
+    @Test
+    public void testOperationReadTimeout() throws Exception {
+        HttpHost host = setup(300, null);
+
+        PaysafeConnection connection = new PaysafeConnection(createConfiguration(host)
+                .withOperationProfile("getPurchase", new OperationProfile().withReadTimeout(50)));
+        try (Communicator communicator = Factory.createCommunicator(toURI(host), connection)) {
+            try {
+                new PurchaseLifecycleApi(communicator).getPurchase("1", "aSecretKey");
+                Assert.fail("expected CommunicationException");
+            } catch (CommunicationException e) {
+                Assert.assertTrue(e.getCause() instanceof SocketTimeoutException);
+            }
+            // other operations keep the read timeout of the configuration
+            PurchaseOperationResponse response = new PurchaseAuthorizationApi(communicator).authorizePayLater(new AuthorizePurchaseRequest(), "aSecretKey");
+            Assert.assertNotNull(response.getResult());
+        }
+    }
+
+    @Test
+    public void testSlowOperationDoesNotStarveOtherOperations() throws Exception {
+        CountDownLatch authorizationReceived = new CountDownLatch(1);
+        HttpHost host = setup(1000, authorizationReceived);
+
+        PaysafeConnection connection = new PaysafeConnection(createConfiguration(host)
+                .withMaxConnections(1)
+                .withOperationProfile(AUTHORIZE_PAY_LATER, new OperationProfile().withMaxConnections(1)));
+        assertSlowOperationDoesNotStarveOtherOperations(host, connection, authorizationReceived);
+    }
+
+    @Test
+    public void testSlowOperationDoesNotStarveOtherOperationsVirtualThreadConnection() throws Exception {
+        CountDownLatch authorizationReceived = new CountDownLatch(1);
+        HttpHost host = setup(1000, authorizationReceived);
+
+        PaysafeConnection connection = new PaysafeVirtualThreadConnection(createConfiguration(host)
+                .withMaxConnections(1)
+                .withConnectionRequestTimeout(5000)
+                .withOperationProfile(AUTHORIZE_PAY_LATER, new OperationProfile().withMaxConnections(1)));
+        Assert.assertEquals(5000, connection.requestConfig.getConnectionRequestTimeout());
+        assertSlowOperationDoesNotStarveOtherOperations(host, connection, authorizationReceived);
+    }
+
+    private static void assertSlowOperationDoesNotStarveOtherOperations(HttpHost host, PaysafeConnection connection,
+            CountDownLatch authorizationReceived) throws Exception {
+
+        try (Communicator communicator = Factory.createCommunicator(toURI(host), connection)) {
+            CompletableFuture<PurchaseOperationResponse> authorization = CompletableFuture.supplyAsync(
+                    () -> new PurchaseAuthorizationApi(communicator).authorizePayLater(new AuthorizePurchaseRequest(), "aSecretKey"));
+            Assert.assertTrue(authorizationReceived.await(5, TimeUnit.SECONDS));
+
+            // the authorization holds the only connection of its own pool, not the one of the shared pool
+            long startTime = System.nanoTime();
+            new PurchaseLifecycleApi(communicator).getPurchase("1", "aSecretKey");
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(500));
+            Assert.assertFalse(authorization.isDone());
+
+            Assert.assertNotNull(authorization.get(5, TimeUnit.SECONDS).getResult());
+
+            Map<String, PoolStats> operationPoolStats = connection.getOperationPoolStats();
+            Assert.assertEquals(1, operationPoolStats.size());
+            Assert.assertEquals(1, operationPoolStats.get(AUTHORIZE_PAY_LATER).getAvailable());
+            Assert.assertEquals(1, connection.getConnectionPoolStats().get(0).getAvailable());
+        }
+    }
+
+    @Test
+    public void testNoOperationProfiles() throws Exception {
+        HttpHost host = setup(0, null);
+
+        PaysafeConnection connection = new PaysafeConnection(createConfiguration(host));
+        try (Communicator communicator = Factory.createCommunicator(toURI(host), connection)) {
+            new PurchaseAuthorizationApi(communicator).authorizePayLater(new AuthorizePurchaseRequest(), "aSecretKey");
+
+            Assert.assertTrue(connection.getOperationPoolStats().isEmpty());
+            Assert.assertEquals(1, connection.getConnectionPoolStats().get(0).getAvailable());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOperation() {
+        new CommunicatorConfiguration().withOperationProfile("unknownOperation", new OperationProfile());
+    }
+
+    /**
+     * Sets up a server that delays responses by the given number of milliseconds. Without a latch, all responses except those to
+     * authorizations are delayed. With a latch, only responses to authorizations are delayed, and the latch is counted down when
+     * an authorization is received.
+     */
+    private HttpHost setup(long delay, CountDownLatch authorizationReceived) throws Exception {
+        serverBootstrap.registerHandler("/purchase/*", (request, response, context) -> {
+            boolean isAuthorization = request.getRequestLine().getUri().startsWith(AUTHORIZE_PAY_LATER);
+            if (isAuthorization && authorizationReceived != null) {
+                authorizationReceived.countDown();
+            }
+            if (authorizationReceived == null ? !isAuthorization : isAuthorization) {
+                try {
+                    Thread.sleep(delay);
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        return start();
+    }
+
+    private static CommunicatorConfiguration createConfiguration(HttpHost host) throws Exception {
+        return new CommunicatorConfiguration()
+                .withApiEndpoint(toURI(host));
+    }
+
+    private static URI toURI(HttpHost host) throws Exception {
+        return new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+    }
+}
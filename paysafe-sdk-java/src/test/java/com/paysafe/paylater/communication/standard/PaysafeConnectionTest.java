@@ -3,6 +3,7 @@ package com.paysafe.paylater.communication.standard;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.http.HttpHost;
@@ -13,6 +14,7 @@ import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.conn.DefaultHttpClientConnectionOperator;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -113,4 +115,70 @@ public class PaysafeConnectionTest {
         assertMaxConnections(connection, MAX_CONNECTIONS);
         assertHttpsProtocols(connection, CommunicatorConfiguration.DEFAULT_HTTPS_PROTOCOLS);
     }
+
+    @Test
+    @SuppressWarnings("resource")
+    public void testConstructWithConnectionPoolStripes() {
+        // 100 connections do not divide evenly over 6 stripes
+        PaysafeConnection connection = new PaysafeConnection(CONNECT_TIMEOUT, READ_TIMEOUT, MAX_CONNECTIONS, 6, null);
+        assertRequestConfig(connection, CONNECT_TIMEOUT, READ_TIMEOUT);
+
+        List<PoolStats> stripeStats = connection.getConnectionPoolStats();
+        Assert.assertEquals(6, stripeStats.size());
+        for (PoolStats stats : stripeStats) {
+            Assert.assertEquals(0, stats.getLeased());
+        }
+
+        CloseableHttpClient httpClient = ReflectionUtil.getField(connection, "httpClient", CloseableHttpClient.class);
+        StripedHttpClientConnectionManager connectionManager = ReflectionUtil.getField(httpClient, "connManager",
+                StripedHttpClientConnectionManager.class);
+        HttpRoute route = new HttpRoute(new HttpHost("test.com", -1, "https"));
+        int totalMaxPerRoute = 0;
+        int minMaxPerRoute = Integer.MAX_VALUE;
+        int maxMaxPerRoute = 0;
+        for (PoolingHttpClientConnectionManager stripe : connectionManager.getStripes()) {
+            int maxPerRoute = stripe.getMaxPerRoute(route);
+            Assert.assertEquals(maxPerRoute, stripe.getDefaultMaxPerRoute());
+            totalMaxPerRoute += maxPerRoute;
+            minMaxPerRoute = Math.min(minMaxPerRoute, maxPerRoute);
+            maxMaxPerRoute = Math.max(maxMaxPerRoute, maxPerRoute);
+        }
+        Assert.assertEquals(MAX_CONNECTIONS, totalMaxPerRoute);
+        Assert.assertTrue("stripes differ by more than 1 connection: " + minMaxPerRoute + " - " + maxMaxPerRoute,
+                maxMaxPerRoute - minMaxPerRoute <= 1);
+    }
+
+    @Test
+    @SuppressWarnings("resource")
+    public void testConstructWithSingleConnectionPoolStripe() {
+        PaysafeConnection connection = new PaysafeConnection(CONNECT_TIMEOUT, READ_TIMEOUT, MAX_CONNECTIONS, 1, null);
+        assertConnection(connection, CONNECT_TIMEOUT, READ_TIMEOUT, MAX_CONNECTIONS);
+        Assert.assertEquals(1, connection.getConnectionPoolStats().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressWarnings({ "resource", "unused" })
+    public void testConstructWithZeroConnectionPoolStripes() {
+        new PaysafeConnection(CONNECT_TIMEOUT, READ_TIMEOUT, MAX_CONNECTIONS, 0, null);
+    }
+
+    @Test
+    @SuppressWarnings("resource")
+    public void testConstructWithConfiguration() {
+        CommunicatorConfiguration configuration = new CommunicatorConfiguration()
+                .withConnectTimeout(CONNECT_TIMEOUT)
+                .withReadTimeout(READ_TIMEOUT)
+                .withMaxConnections(MAX_CONNECTIONS)
+                .withHttpsProtocols("TLSv1.2", "TLSv1.3");
+
+        PaysafeConnection connection = new PaysafeConnection(configuration);
+        assertConnection(connection, CONNECT_TIMEOUT, READ_TIMEOUT, MAX_CONNECTIONS);
+        assertHttpsProtocols(connection, new HashSet<>(Arrays.asList("TLSv1.2", "TLSv1.3")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressWarnings({ "resource", "unused" })
+    public void testConstructWithNullConfiguration() {
+        new PaysafeConnection((CommunicatorConfiguration) null);
+    }
 }
@@ -0,0 +1,93 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.apache.http.localserver.SSLTestContexts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+
+/**
+ * Tests for the TLS session resumption and handshake metrics of {@link PaysafeConnection}.
+ */
+public class PaysafeConnectionTlsTest extends LocalServerTestBase {
+
+    public PaysafeConnectionTlsTest() {
+        super(ProtocolScheme.https);
+    }
+
+    @Test
+    public void testSessionIsResumedWithTls12() throws Exception {
+        assertSessionIsResumed("TLSv1.2");
+    }
+
+    @Test
+    public void testSessionIsResumedWithTls13() throws Exception {
+        assertSessionIsResumed("TLSv1.3");
+    }
+
+    @Test
+    public void testHandshakesAreCountedPerConnection() throws Exception {
+        HttpHost host = setup();
+
+        PaysafeConnection connection = createConnection("TLSv1.2");
+        try (PurchaseLifecycleApi api = createApi(host, connection)) {
+            api.getPurchase("1", "aSecretKey");
+            // the pooled connection is reused, so no new handshake is needed
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertEquals(1, connection.getFullHandshakeCount());
+            Assert.assertEquals(0, connection.getResumedHandshakeCount());
+            Assert.assertTrue(connection.getFullHandshakeDuration().toNanos() > 0);
+            Assert.assertTrue(connection.getResumedHandshakeDuration().isZero());
+        }
+    }
+
+    private void assertSessionIsResumed(String httpsProtocol) throws Exception {
+        HttpHost host = setup();
+
+        PaysafeConnection connection = createConnection(httpsProtocol);
+        try (PurchaseLifecycleApi api = createApi(host, connection)) {
+            api.getPurchase("1", "aSecretKey");
+            // force a new connection for the next request
+            connection.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertEquals(1, connection.getFullHandshakeCount());
+            Assert.assertEquals(1, connection.getResumedHandshakeCount());
+            Assert.assertTrue(connection.getResumedHandshakeDuration().toNanos() > 0);
+        }
+    }
+
+    private HttpHost setup() throws Exception {
+        serverBootstrap.registerHandler("/purchase/info/*", (request, response, context) -> {
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            // a response with a known length, so the server keeps the connection alive
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        return start();
+    }
+
+    private static PaysafeConnection createConnection(String httpsProtocol) throws Exception {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS,
+                PaysafeConnection.createSSLConnectionSocketFactory(SSLTestContexts.createClientSSLContext(), Collections.singleton(httpsProtocol),
+                        CommunicatorConfiguration.DEFAULT_HTTPS_SESSION_CACHE_SIZE, CommunicatorConfiguration.DEFAULT_HTTPS_SESSION_TIMEOUT));
+    }
+
+    private static PurchaseLifecycleApi createApi(HttpHost host, PaysafeConnection connection) throws Exception {
+        URI apiEndpoint = new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+        return new PurchaseLifecycleApi(Factory.createCommunicator(apiEndpoint, connection));
+    }
+}
@@ -0,0 +1,206 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.HostnameVerificationPolicy;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.ProtocolVersion;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.DiscardingEntityConsumer;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http.nio.support.AsyncResponseBuilder;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.http2.ssl.H2ServerTlsStrategy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.apache.http.HttpHost;
+import org.apache.http.localserver.SSLTestContexts;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.model.OperationStatus;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaysafeHttp2ConnectionTest extends PaysafeBaseCommunicationTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private HttpAsyncServer h2Server;
+
+    @After
+    public void shutdownH2Server() {
+        if (h2Server != null) {
+            h2Server.close(CloseMode.IMMEDIATE);
+        }
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentRequestsAreMultiplexed() throws Exception {
+        RecordingHandler handler = new RecordingHandler(100);
+        URI uri = startH2Server(handler).resolve("/purchase/info/1");
+
+        try (PaysafeHttp2Connection connection = createTlsConnection(100)) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(connection.getAsync(uri, Collections.emptyList(), (statusCode, bodyStream, headers) -> statusCode));
+            }
+            for (CompletableFuture<Integer> future : futures) {
+                Assert.assertEquals(Integer.valueOf(200), future.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        Assert.assertEquals(Collections.singleton("HTTP/2.0"), handler.protocolVersions);
+        // all requests share a single connection
+        Assert.assertEquals(1, handler.remoteAddresses.size());
+        Assert.assertTrue(handler.maxActive.get() > 1);
+    }
+
+    @Test
+    public void testMaxConcurrentStreams() throws Exception {
+        RecordingHandler handler = new RecordingHandler(50);
+        URI uri = startH2Server(handler).resolve("/purchase/info/1");
+
+        try (PaysafeHttp2Connection connection = createTlsConnection(2)) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(connection.getAsync(uri, Collections.emptyList(), (statusCode, bodyStream, headers) -> statusCode));
+            }
+            for (CompletableFuture<Integer> future : futures) {
+                Assert.assertEquals(Integer.valueOf(200), future.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        Assert.assertEquals(2, handler.maxActive.get());
+    }
+
+    @Test
+    public void testRoutesDoNotShareStreamLimit() throws Exception {
+        RecordingHandler handler = new RecordingHandler(500);
+        URI uri = startH2Server(handler).resolve("/purchase/info/1");
+        // another route to the same server
+        URI otherUri = URI.create("https://127.0.0.1:" + uri.getPort() + "/purchase/info/1");
+
+        try (PaysafeHttp2Connection connection = createTlsConnection(100)) {
+            CompletableFuture<Integer> future = connection.getAsync(uri, Collections.emptyList(), (statusCode, bodyStream, headers) -> statusCode);
+            CompletableFuture<Integer> otherFuture = connection.getAsync(otherUri, Collections.emptyList(),
+                    (statusCode, bodyStream, headers) -> statusCode);
+
+            Assert.assertEquals(Integer.valueOf(200), future.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(Integer.valueOf(200), otherFuture.get(10, TimeUnit.SECONDS));
+        }
+
+        // the request to the other route did not wait until the first connection was released
+        Assert.assertEquals(2, handler.maxActive.get());
+    }
+
+    @Test
+    public void testFallbackToHttp11() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("purchase.json"));
+
+        PaysafeHttp2Connection connection = new PaysafeHttp2Connection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(createCommunicator(host, connection))) {
+            PurchaseOperationResponse purchase = api.getPurchase("1", "aSecretKey");
+
+            Assert.assertNotNull(purchase.getResult());
+            Assert.assertEquals(OperationStatus.OK, purchase.getResult().getStatus());
+        }
+    }
+
+    private URI startH2Server(RecordingHandler handler) throws Exception {
+        h2Server = H2ServerBootstrap.bootstrap()
+                                    .setTlsStrategy(new H2ServerTlsStrategy(SSLTestContexts.createServerSSLContext()))
+                                    .setVersionPolicy(HttpVersionPolicy.NEGOTIATE)
+                                    .register("/purchase/info/1", handler)
+                                    .register("127.0.0.1", "/purchase/info/1", handler)
+                                    .create();
+        h2Server.start();
+        ListenerEndpoint endpoint = h2Server.listen(new InetSocketAddress("localhost", 0), URIScheme.HTTPS).get();
+        int port = ((InetSocketAddress) endpoint.getAddress()).getPort();
+        return URI.create("https://localhost:" + port);
+    }
+
+    private PaysafeHttp2Connection createTlsConnection(int maxConcurrentStreams) throws Exception {
+        TlsStrategy tlsStrategy = ClientTlsStrategyBuilder.create()
+                                                          .setSslContext(SSLTestContexts.createClientSSLContext())
+                                                          .setHostVerificationPolicy(HostnameVerificationPolicy.CLIENT)
+                                                          .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+                                                          .buildAsync();
+        return new PaysafeHttp2Connection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_MAX_CONNECTIONS, maxConcurrentStreams, tlsStrategy);
+    }
+
+    /**
+     * Responds after a delay, recording the protocol versions, client addresses and the maximum number of concurrent requests.
+     */
+    private final class RecordingHandler implements AsyncServerRequestHandler<Message<HttpRequest, Void>> {
+
+        private final long delay;
+        private final Set<String> protocolVersions = Collections.synchronizedSet(new HashSet<>());
+        private final Set<SocketAddress> remoteAddresses = Collections.synchronizedSet(new HashSet<>());
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        private RecordingHandler(long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public AsyncRequestConsumer<Message<HttpRequest, Void>> prepare(HttpRequest request, EntityDetails entityDetails, HttpContext context) {
+            return new BasicRequestConsumer<>(entityDetails != null ? new DiscardingEntityConsumer<>() : null);
+        }
+
+        @Override
+        public void handle(Message<HttpRequest, Void> requestObject, ResponseTrigger responseTrigger, HttpContext context) {
+            HttpCoreContext coreContext = HttpCoreContext.cast(context);
+            ProtocolVersion protocolVersion = coreContext.getProtocolVersion();
+            protocolVersions.add(protocolVersion.format());
+            remoteAddresses.add(coreContext.getEndpointDetails().getRemoteAddress());
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+
+            scheduler.schedule(() -> {
+                active.decrementAndGet();
+                try {
+                    responseTrigger.submitResponse(AsyncResponseBuilder.create(200)
+                                                                       .setEntity("{}", ContentType.APPLICATION_JSON)
+                                                                       .build(), context);
+                } catch (HttpException | IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+}
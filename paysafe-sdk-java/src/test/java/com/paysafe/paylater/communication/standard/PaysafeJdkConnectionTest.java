@@ -0,0 +1,258 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.apache.http.localserver.SSLTestContexts;
+import org.apache.http.protocol.HttpRequestHandler;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ValidationException;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+import com.paysafe.paylater.model.Amount;
+import com.paysafe.paylater.model.Currency;
+import com.paysafe.paylater.model.InitializePurchaseRequest;
+import com.paysafe.paylater.model.OperationStatus;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+import com.paysafe.paylater.model.ResponseWithAuthorization;
+
+/**
+ * Tests for {@link PaysafeJdkConnection}. The JDK HTTP client requires Java 11; on earlier Java versions these tests are skipped.
+ * These tests do not use Mockito, so they can be run on Java 11 and later using {@code mvn test -Dtest=PaysafeJdkConnectionTest}.
+ */
+public class PaysafeJdkConnectionTest extends LocalServerTestBase {
+
+    @Before
+    public void assumeJdkHttpClient() {
+        Class<?> httpClientClass;
+        try {
+            httpClientClass = Class.forName("java.net.http.HttpClient");
+        } catch (@SuppressWarnings("unused") ClassNotFoundException e) {
+            httpClientClass = null;
+        }
+        Assume.assumeNotNull(httpClientClass);
+    }
+
+    @Test
+    public void testGetPurchase() throws Exception {
+        HttpHost host = setup("/purchase/info/1", jsonResponse("purchase.json", 200));
+
+        try (PurchaseLifecycleApi api = createApi(host, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT)) {
+            PurchaseOperationResponse purchase = api.getPurchase("1", "aSecretKey");
+
+            Assert.assertNotNull(purchase.getResult());
+            Assert.assertEquals(OperationStatus.OK, purchase.getResult().getStatus());
+        }
+    }
+
+    @Test
+    public void testInitializePurchase() throws Exception {
+        AtomicReference<String> contentType = new AtomicReference<>();
+        AtomicReference<String> body = new AtomicReference<>();
+        HttpHost host = setup("/purchase/initialize", (request, response, context) -> {
+            contentType.set(request.getFirstHeader(HttpHeaders.CONTENT_TYPE).getValue());
+            body.set(EntityUtils.toString(((HttpEntityEnclosingRequest) request).getEntity(), StandardCharsets.UTF_8));
+            jsonResponse("purchase.json", 200).handle(request, response, context);
+            response.setHeader("access_token", "an_access_token");
+        });
+
+        InitializePurchaseRequest request = new InitializePurchaseRequest()
+                .withPurchaseAmount(new Amount()
+                        .withAmount(50000L)
+                        .withCurrency(Currency.EUR));
+
+        try (PurchaseLifecycleApi api = createApi(host, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT)) {
+            ResponseWithAuthorization<PurchaseOperationResponse> response = api.initializePurchase(request, "aSecretKey");
+
+            Assert.assertEquals("Bearer an_access_token", response.getAuthorization());
+            Assert.assertNotNull(response.getResponse().getPurchase());
+        }
+
+        Assert.assertEquals("application/json", contentType.get());
+        Assert.assertTrue(body.get(), body.get().contains("50000"));
+    }
+
+    @Test
+    public void testErrorResponseIsLogged() throws Exception {
+        HttpHost host = setup("/purchase/initialize", jsonResponse("initializePurchase.failure.json", 400));
+        List<String> messages = new ArrayList<>();
+
+        try (PurchaseLifecycleApi api = createApi(host, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT)) {
+            api.enableLogging(new CommunicatorLogger() {
+                @Override
+                public void log(String message) {
+                    messages.add(message);
+                }
+
+                @Override
+                public void log(String message, Throwable thrown) {
+                    messages.add(message);
+                }
+            });
+            api.initializePurchase(new InitializePurchaseRequest(), "aSecretKey");
+            Assert.fail("expected ValidationException");
+        } catch (ValidationException e) {
+            Assert.assertEquals(400, e.getResponseStatusCode());
+        }
+
+        Assert.assertEquals(2, messages.size());
+        Assert.assertTrue(messages.get(0), messages.get(0).contains("'/purchase/initialize'"));
+        Assert.assertTrue(messages.get(0), messages.get(0).contains("body:         '****'"));
+        Assert.assertTrue(messages.get(1), messages.get(1).contains("status-code:  '400'"));
+        Assert.assertFalse(messages.get(1), messages.get(1).contains("body:         '****'"));
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception {
+        HttpHost host = setup("/purchase/info/1", (request, response, context) -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            jsonResponse("purchase.json", 200).handle(request, response, context);
+        });
+
+        try (PurchaseLifecycleApi api = createApi(host, 100)) {
+            api.getPurchase("1", "aSecretKey");
+            Assert.fail("expected CommunicationException");
+        } catch (CommunicationException e) {
+            Assert.assertEquals("java.net.http.HttpTimeoutException", e.getCause().getClass().getName());
+        }
+    }
+
+    @Test
+    public void testMaxConnections() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        HttpHost host = setup("/purchase/info/1", (request, response, context) -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            jsonResponse("purchase.json", 200).handle(request, response, context);
+        });
+
+        URI uri = URI.create(host.toURI() + "/purchase/info/1");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (PaysafeJdkConnection connection = new PaysafeJdkConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT, 2, null)) {
+
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> connection.get(uri, null, (statusCode, bodyStream, headers) -> statusCode)));
+            }
+            for (Future<Integer> future : futures) {
+                Assert.assertEquals(Integer.valueOf(200), future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(2, maxActive.get());
+    }
+
+    @Test
+    public void testConnectionRequestTimeout() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        HttpHost host = setup("/purchase/info/1", (request, response, context) -> {
+            received.countDown();
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            jsonResponse("purchase.json", 200).handle(request, response, context);
+        });
+
+        URI uri = URI.create(host.toURI() + "/purchase/info/1");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (PaysafeJdkConnection connection = new PaysafeJdkConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT, 100, 1, SSLContext.getDefault(), null)) {
+
+            Future<Integer> future = executor.submit(() -> connection.get(uri, null, (statusCode, bodyStream, headers) -> statusCode));
+            Assert.assertTrue(received.await(5, TimeUnit.SECONDS));
+
+            long startTime = System.nanoTime();
+            try {
+                connection.get(uri, null, (statusCode, bodyStream, headers) -> statusCode);
+                Assert.fail("expected CommunicationException");
+            } catch (CommunicationException e) {
+                Assert.assertEquals("Timeout waiting for connection", e.getMessage());
+            }
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(900));
+            Assert.assertEquals(Integer.valueOf(200), future.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnsupportedHttpsProtocolsAreLeftOut() throws Exception {
+        HttpServer httpsServer = ServerBootstrap.bootstrap()
+                                                .setSslContext(SSLTestContexts.createServerSSLContext())
+                                                .registerHandler("/purchase/info/1", jsonResponse("purchase.json", 200))
+                                                .create();
+        httpsServer.start();
+        try (PaysafeJdkConnection connection = new PaysafeJdkConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT, SSLTestContexts.createClientSSLContext(),
+                new LinkedHashSet<>(Arrays.asList("TLSv1.2", "TLSv0.9")))) {
+
+            URI uri = URI.create("https://localhost:" + httpsServer.getLocalPort() + "/purchase/info/1");
+            Assert.assertEquals(Integer.valueOf(200), connection.get(uri, null, (statusCode, bodyStream, headers) -> statusCode));
+        } finally {
+            httpsServer.shutdown(0, TimeUnit.SECONDS);
+        }
+    }
+
+    private HttpHost setup(String path, HttpRequestHandler requestHandler) throws Exception {
+        serverBootstrap.registerHandler(path, requestHandler);
+        return start();
+    }
+
+    private HttpRequestHandler jsonResponse(String resource, int statusCode) {
+        return (request, response, context) -> {
+            response.setStatusCode(statusCode);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.setEntity(new InputStreamEntity(getClass().getResourceAsStream(resource)));
+        };
+    }
+
+    @SuppressWarnings("resource")
+    private PurchaseLifecycleApi createApi(HttpHost host, int readTimeout) throws Exception {
+        URI apiEndpoint = new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+        PaysafeJdkConnection connection = new PaysafeJdkConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, readTimeout);
+        return new PurchaseLifecycleApi(Factory.createCommunicator(apiEndpoint, connection));
+    }
+}
@@ -0,0 +1,244 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpInetConnection;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.exception.CommunicationException;
+import com.paysafe.paylater.exception.ValidationException;
+import com.paysafe.paylater.logging.CommunicatorLogger;
+import com.paysafe.paylater.model.InitializePurchaseRequest;
+import com.paysafe.paylater.model.OperationStatus;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+import io.netty.handler.ssl.SslContextBuilder;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaysafeNettyConnectionTest extends PaysafeBaseCommunicationTest {
+
+    @Test
+    public void testGetPurchase() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("purchase.json"));
+
+        try (PurchaseLifecycleApi api = createNettyApi(host, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT)) {
+            PurchaseOperationResponse purchase = api.getPurchase("1", "aSecretKey");
+
+            Assert.assertNotNull(purchase.getResult());
+            Assert.assertEquals(OperationStatus.OK, purchase.getResult().getStatus());
+        }
+    }
+
+    @Test
+    public void testGetPurchaseAsync() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("purchase.json"));
+
+        try (PaysafeNettyConnection connection = createConnection(CommunicatorConfiguration.DEFAULT_READ_TIMEOUT)) {
+            Integer statusCode = connection.getAsync(URI.create(host.toURI() + "/purchase/info/1"), Collections.emptyList(),
+                    (status, bodyStream, headers) -> status).get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(Integer.valueOf(200), statusCode);
+        }
+    }
+
+    @Test
+    public void testConnectionsAreReusedUntilIdleConnectionsAreClosed() throws Exception {
+        Set<Integer> remotePorts = Collections.synchronizedSet(new HashSet<>());
+        HttpHost host = setupKeepAlive(remotePorts);
+
+        PaysafeNettyConnection connection = createConnection(CommunicatorConfiguration.DEFAULT_READ_TIMEOUT);
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(createCommunicator(host, connection))) {
+            api.getPurchase("1", "aSecretKey");
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertEquals(1, remotePorts.size());
+
+            // idle connections are closed asynchronously
+            connection.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+            Thread.sleep(100);
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertEquals(2, remotePorts.size());
+        }
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        Set<Integer> remotePorts = Collections.synchronizedSet(new HashSet<>());
+        HttpHost host = setupKeepAlive(remotePorts);
+
+        PaysafeNettyConnection connection = new PaysafeNettyConnection(new CommunicatorConfiguration()
+                .withConnectionEvictionInterval(50)
+                .withMaxIdleTime(50));
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(createCommunicator(host, connection))) {
+            api.getPurchase("1", "aSecretKey");
+            Thread.sleep(300);
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertEquals(2, remotePorts.size());
+        }
+    }
+
+    @Test
+    public void testExpiredConnectionsAreNotReused() throws Exception {
+        Set<Integer> remotePorts = Collections.synchronizedSet(new HashSet<>());
+        HttpHost host = setupKeepAlive(remotePorts);
+
+        PaysafeNettyConnection connection = new PaysafeNettyConnection(new CommunicatorConfiguration()
+                .withConnectionTimeToLive(200));
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(createCommunicator(host, connection))) {
+            api.getPurchase("1", "aSecretKey");
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertEquals(1, remotePorts.size());
+
+            Thread.sleep(300);
+            api.getPurchase("1", "aSecretKey");
+
+            Assert.assertEquals(2, remotePorts.size());
+        }
+    }
+
+    @Test
+    public void testErrorResponseIsLogged() throws Exception {
+        HttpHost host = setup("/purchase/initialize", jsonResponse("initializePurchase.failure.json", 400));
+        List<String> messages = new ArrayList<>();
+
+        try (PurchaseLifecycleApi api = createNettyApi(host, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT)) {
+            api.enableLogging(new CommunicatorLogger() {
+                @Override
+                public void log(String message) {
+                    messages.add(message);
+                }
+
+                @Override
+                public void log(String message, Throwable thrown) {
+                    messages.add(message);
+                }
+            });
+            api.initializePurchase(new InitializePurchaseRequest(), "aSecretKey");
+            Assert.fail("expected ValidationException");
+        } catch (ValidationException e) {
+            Assert.assertEquals(400, e.getResponseStatusCode());
+        }
+
+        Assert.assertEquals(2, messages.size());
+        Assert.assertTrue(messages.get(0), messages.get(0).contains("'/purchase/initialize'"));
+        Assert.assertTrue(messages.get(0), messages.get(0).contains("body:         '****'"));
+        Assert.assertTrue(messages.get(1), messages.get(1).contains("status-code:  '400'"));
+        Assert.assertFalse(messages.get(1), messages.get(1).contains("body:         '****'"));
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception {
+        Answer<Void> response = okJsonResponse("purchase.json");
+        HttpHost host = setup("/purchase/info/1", invocation -> {
+            Thread.sleep(500);
+            return response.answer(invocation);
+        });
+
+        try (PurchaseLifecycleApi api = createNettyApi(host, 100)) {
+            api.getPurchase("1", "aSecretKey");
+            Assert.fail("expected CommunicationException");
+        } catch (CommunicationException e) {
+            Assert.assertEquals(SocketTimeoutException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testAsyncResponseIsNotHandledOnEventLoop() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("purchase.json"));
+
+        try (PaysafeNettyConnection connection = createConnection(CommunicatorConfiguration.DEFAULT_READ_TIMEOUT)) {
+            String threadName = connection.getAsync(URI.create(host.toURI() + "/purchase/info/1"), Collections.emptyList(),
+                    (status, bodyStream, headers) -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+            Assert.assertTrue(threadName, threadName.startsWith("paysafe-paylater-netty-response-"));
+        }
+    }
+
+    @Test
+    public void testResponseSizeIsLimited() throws Exception {
+        HttpHost host = setup("/purchase/info/1", okJsonResponse("purchase.json"));
+
+        try (PaysafeNettyConnection connection = new PaysafeNettyConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT, CommunicatorConfiguration.DEFAULT_CONNECTION_REQUEST_TIMEOUT, 1, 10,
+                SslContextBuilder.forClient().build())) {
+
+            connection.get(URI.create(host.toURI() + "/purchase/info/1"), Collections.emptyList(), (status, bodyStream, headers) -> status);
+            Assert.fail("expected CommunicationException");
+        } catch (@SuppressWarnings("unused") CommunicationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testConnectionRequestTimeout() throws Exception {
+        Answer<Void> response = okJsonResponse("purchase.json");
+        HttpHost host = setup("/purchase/info/1", invocation -> {
+            Thread.sleep(1000);
+            return response.answer(invocation);
+        });
+
+        try (PaysafeNettyConnection connection = new PaysafeNettyConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT, 100, 1, PaysafeNettyConnection.DEFAULT_MAX_RESPONSE_SIZE,
+                SslContextBuilder.forClient().build())) {
+
+            URI uri = URI.create(host.toURI() + "/purchase/info/1");
+            CompletableFuture<Integer> first = connection.getAsync(uri, Collections.emptyList(), (status, bodyStream, headers) -> status);
+            long start = System.nanoTime();
+            try {
+                connection.get(uri, Collections.emptyList(), (status, bodyStream, headers) -> status);
+                Assert.fail("expected CommunicationException");
+            } catch (CommunicationException e) {
+                Assert.assertTrue(e.getCause() instanceof TimeoutException);
+            }
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(900));
+            Assert.assertEquals(Integer.valueOf(200), first.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Sets up a server that keeps connections alive, and adds the remote port of each request to the given set.
+     */
+    private HttpHost setupKeepAlive(Set<Integer> remotePorts) throws Exception {
+        Answer<Void> response = okJsonResponse("purchase.json");
+        return setup("/purchase/info/1", invocation -> {
+            HttpCoreContext context = HttpCoreContext.adapt(invocation.getArgumentAt(2, HttpContext.class));
+            remotePorts.add(((HttpInetConnection) context.getConnection()).getRemotePort());
+            response.answer(invocation);
+            // the server only keeps the connection alive if the response has a known length
+            HttpResponse httpResponse = invocation.getArgumentAt(1, HttpResponse.class);
+            httpResponse.setEntity(new BufferedHttpEntity(httpResponse.getEntity()));
+            return null;
+        });
+    }
+
+    private PaysafeNettyConnection createConnection(int readTimeout) {
+        return new PaysafeNettyConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, readTimeout);
+    }
+
+    private PurchaseLifecycleApi createNettyApi(HttpHost host, int readTimeout) throws Exception {
+        return new PurchaseLifecycleApi(createCommunicator(host, createConnection(readTimeout)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.model.OperationStatus;
+import com.paysafe.paylater.model.PurchaseOperationResponse;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Stress test for {@link PaysafeVirtualThreadConnection}. Virtual threads require Java 21; on earlier Java versions this test is skipped.
+ * This test does not use Mockito, so it can be run on Java 21 using {@code mvn test -Dtest=PaysafeVirtualThreadConnectionTest}.
+ */
+public class PaysafeVirtualThreadConnectionTest extends LocalServerTestBase {
+
+    private static final int CALLS = 10_000;
+    private static final int MAX_CONNECTIONS = 50;
+
+    private ExecutorService virtualThreadExecutor;
+
+    @Before
+    public void createVirtualThreadExecutor() throws Exception {
+        Method method;
+        try {
+            method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (@SuppressWarnings("unused") NoSuchMethodException e) {
+            method = null;
+        }
+        Assume.assumeNotNull(method);
+        virtualThreadExecutor = (ExecutorService) method.invoke(null);
+    }
+
+    @Test
+    public void testConcurrentCallsDoNotPinCarrierThreads() throws Exception {
+        serverBootstrap.registerHandler("/purchase/info/*", (request, response, context) -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.setEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json")));
+        });
+        HttpHost host = start();
+        URI apiEndpoint = new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+
+        PaysafeVirtualThreadConnection connection = new PaysafeVirtualThreadConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT, MAX_CONNECTIONS);
+
+        File recordingFile = File.createTempFile("virtual-threads", ".jfr");
+        try (PurchaseLifecycleApi api = new PurchaseLifecycleApi(Factory.createCommunicator(apiEndpoint, connection));
+                Recording recording = new Recording()) {
+
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+            recording.start();
+
+            // while all calls are running, a separate virtual thread must still be scheduled regularly
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicInteger heartbeats = new AtomicInteger();
+            Future<?> heartbeat = virtualThreadExecutor.submit(() -> {
+                while (running.get()) {
+                    Thread.sleep(10);
+                    heartbeats.incrementAndGet();
+                }
+                return null;
+            });
+
+            List<Future<PurchaseOperationResponse>> futures = new ArrayList<>(CALLS);
+            for (int i = 0; i < CALLS; i++) {
+                String purchaseId = Integer.toString(i);
+                futures.add(virtualThreadExecutor.submit(() -> api.getPurchase(purchaseId, "aSecretKey")));
+            }
+            int heartbeatsDuringCalls = -1;
+            for (Future<PurchaseOperationResponse> future : futures) {
+                Assert.assertEquals(OperationStatus.OK, future.get(2, TimeUnit.MINUTES).getResult().getStatus());
+                if (heartbeatsDuringCalls < 0) {
+                    heartbeatsDuringCalls = heartbeats.get();
+                }
+            }
+            heartbeatsDuringCalls = heartbeats.get() - heartbeatsDuringCalls;
+
+            running.set(false);
+            heartbeat.get(5, TimeUnit.SECONDS);
+
+            recording.stop();
+            recording.dump(recordingFile.toPath());
+
+            Assert.assertTrue("heartbeat was not scheduled while calls were running", heartbeatsDuringCalls > 0);
+        }
+
+        try {
+            List<RecordedEvent> pinnedEvents = RecordingFile.readAllEvents(recordingFile.toPath());
+            Assert.assertEquals("virtual threads were pinned: " + pinnedEvents, 0, pinnedEvents.size());
+        } finally {
+            recordingFile.delete();
+        }
+    }
+}
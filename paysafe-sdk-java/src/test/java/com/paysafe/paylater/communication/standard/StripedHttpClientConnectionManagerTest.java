@@ -0,0 +1,135 @@
+package com.paysafe.paylater.communication.standard;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.localserver.LocalServerTestBase;
+import org.apache.http.pool.PoolStats;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.paysafe.paylater.Factory;
+import com.paysafe.paylater.api.PurchaseLifecycleApi;
+import com.paysafe.paylater.communication.CommunicatorConfiguration;
+import com.paysafe.paylater.model.OperationStatus;
+
+/**
+ * Tests for {@link StripedHttpClientConnectionManager}, using a {@link PaysafeConnection} with a striped connection pool.
+ */
+public class StripedHttpClientConnectionManagerTest extends LocalServerTestBase {
+
+    private static final int STRIPES = 4;
+    private static final int MAX_CONNECTIONS = 16;
+
+    @Test
+    public void testConnectionsAreReusedWithinStripe() throws Exception {
+        HttpHost host = setup();
+
+        PaysafeConnection connection = createConnection();
+        try (PurchaseLifecycleApi api = createApi(host, connection)) {
+            for (int i = 0; i < 3; i++) {
+                api.getPurchase("1", "aSecretKey");
+            }
+
+            // a single thread uses a single stripe, and reuses the connection it released last
+            int stripesWithConnections = 0;
+            for (PoolStats stats : connection.getConnectionPoolStats()) {
+                Assert.assertEquals(0, stats.getLeased());
+                if (stats.getAvailable() > 0) {
+                    Assert.assertEquals(1, stats.getAvailable());
+                    stripesWithConnections++;
+                }
+            }
+            Assert.assertEquals(1, stripesWithConnections);
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestsUseMultipleStripes() throws Exception {
+        HttpHost host = setup();
+
+        PaysafeConnection connection = createConnection();
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_CONNECTIONS);
+        try (PurchaseLifecycleApi api = createApi(host, connection)) {
+            List<Future<OperationStatus>> results = new ArrayList<>();
+            for (int i = 0; i < MAX_CONNECTIONS * 20; i++) {
+                results.add(executor.submit(() -> api.getPurchase("1", "aSecretKey").getResult().getStatus()));
+            }
+            for (Future<OperationStatus> result : results) {
+                Assert.assertEquals(OperationStatus.OK, result.get());
+            }
+
+            List<PoolStats> stripeStats = connection.getConnectionPoolStats();
+            Assert.assertEquals(STRIPES, stripeStats.size());
+
+            int stripesWithConnections = 0;
+            int connections = 0;
+            for (PoolStats stats : stripeStats) {
+                Assert.assertEquals(0, stats.getLeased());
+                Assert.assertEquals(0, stats.getPending());
+                if (stats.getAvailable() > 0) {
+                    stripesWithConnections++;
+                }
+                connections += stats.getAvailable();
+            }
+            Assert.assertTrue(stripeStats.toString(), stripesWithConnections > 1);
+            Assert.assertTrue(stripeStats.toString(), connections <= MAX_CONNECTIONS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStripesShareMaxConnectionsExactly() throws Exception {
+        // 10 connections and 20 extra connections for other routes over 4 stripes: 3 + 5, 3 + 5, 2 + 5 and 2 + 5
+        try (PaysafeConnection connection = new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT, 10, STRIPES, null)) {
+            List<PoolStats> stripeStats = connection.getConnectionPoolStats();
+            Assert.assertEquals(STRIPES, stripeStats.size());
+            int[] expectedMax = { 8, 8, 7, 7 };
+            for (int i = 0; i < STRIPES; i++) {
+                Assert.assertEquals(stripeStats.toString(), expectedMax[i], stripeStats.get(i).getMax());
+            }
+        }
+    }
+
+    @Test
+    public void testNoMoreStripesThanMaxConnections() throws Exception {
+        try (PaysafeConnection connection = new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT,
+                CommunicatorConfiguration.DEFAULT_READ_TIMEOUT, 2, STRIPES, null)) {
+            List<PoolStats> stripeStats = connection.getConnectionPoolStats();
+            Assert.assertEquals(2, stripeStats.size());
+            for (PoolStats stats : stripeStats) {
+                Assert.assertEquals(stripeStats.toString(), 1 + 10, stats.getMax());
+            }
+        }
+    }
+
+    private HttpHost setup() throws Exception {
+        serverBootstrap.registerHandler("/purchase/info/*", (request, response, context) -> {
+            response.setStatusCode(200);
+            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+            // a response with a known length, so the server keeps the connection alive
+            response.setEntity(new BufferedHttpEntity(new InputStreamEntity(getClass().getResourceAsStream("purchase.json"))));
+        });
+        return start();
+    }
+
+    private static PaysafeConnection createConnection() {
+        return new PaysafeConnection(CommunicatorConfiguration.DEFAULT_CONNECT_TIMEOUT, CommunicatorConfiguration.DEFAULT_READ_TIMEOUT,
+                MAX_CONNECTIONS, STRIPES, null);
+    }
+
+    private static PurchaseLifecycleApi createApi(HttpHost host, PaysafeConnection connection) throws Exception {
+        URI apiEndpoint = new URI(host.getSchemeName(), null, host.getHostName(), host.getPort(), null, null, null);
+        return new PurchaseLifecycleApi(Factory.createCommunicator(apiEndpoint, connection));
+    }
+}